@@ -31,6 +31,8 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
 import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.JobContext;
 import org.apache.hadoop.mapreduce.RecordReader;
@@ -48,8 +50,10 @@ import com.asakusafw.runtime.stage.temporary.TemporaryFileInput;
 
 /**
  * A temporary input format.
+ * The files which have a compression codec extension are decoded as a whole, without splitting.
  * @param <T> data type
  * @since 0.5.0
+ * @version 0.5.3
  */
 public final class TemporaryFileInputFormat<T> extends FileInputFormat<NullWritable, T> {
 
@@ -88,6 +92,7 @@ public final class TemporaryFileInputFormat<T> extends FileInputFormat<NullWrita
 
     private static List<InputSplit> getSplits(Configuration configuration, List<Path> paths) throws IOException {
         long splitSize = configuration.getLong(KEY_DEFAULT_SPLIT_SIZE, DEFAULT_SPLIT_SIZE);
+        CompressionCodecFactory codecs = new CompressionCodecFactory(configuration);
         List<InputSplit> results = new ArrayList<>();
         for (Path path : paths) {
             FileSystem fs = path.getFileSystem(configuration);
@@ -101,6 +106,13 @@ public final class TemporaryFileInputFormat<T> extends FileInputFormat<NullWrita
                         status.getLen(),
                         BlockMap.computeBlocks(fs, status),
                         false);
+                if (codecs.getCodec(status.getPath()) != null) {
+                    // compressed files are not splittable
+                    if (status.getLen() > 0) {
+                        results.add(getSplit(blockMap, status.getPath(), 0, status.getLen()));
+                    }
+                    continue;
+                }
                 results.addAll(computeSplits(status.getPath(), blockMap, splitSize));
             }
         }
@@ -215,15 +227,21 @@ public final class TemporaryFileInputFormat<T> extends FileInputFormat<NullWrita
             this.size = s.getLength();
             Path path = s.getPath();
             FileSystem fs = path.getFileSystem(context.getConfiguration());
+            CompressionCodec codec = new CompressionCodecFactory(context.getConfiguration()).getCodec(path);
             int blocks = computeBlocks(s);
             FSDataInputStream stream = fs.open(path);
             boolean succeed = false;
             try {
-                if (s.getStart() != 0) {
-                    assert s.getStart() % TemporaryFile.BLOCK_SIZE == 0;
-                    stream.seek(s.getStart());
+                if (codec != null) {
+                    assert s.getStart() == 0;
+                    this.input = (TemporaryFileInput<T>) new TemporaryFileInput<>(codec.createInputStream(stream), 0);
+                } else {
+                    if (s.getStart() != 0) {
+                        assert s.getStart() % TemporaryFile.BLOCK_SIZE == 0;
+                        stream.seek(s.getStart());
+                    }
+                    this.input = (TemporaryFileInput<T>) new TemporaryFileInput<>(stream, blocks);
                 }
-                this.input = (TemporaryFileInput<T>) new TemporaryFileInput<>(stream, blocks);
                 Class<?> aClass = context.getConfiguration().getClassByName(input.getDataTypeName());
                 this.value = (T) ReflectionUtils.newInstance(aClass, context.getConfiguration());
                 succeed = true;
@@ -260,7 +278,8 @@ public final class TemporaryFileInputFormat<T> extends FileInputFormat<NullWrita
         public float getProgress() throws IOException, InterruptedException {
             long current = input.getCurrentBlock() * (long) TemporaryFile.BLOCK_SIZE;
             current += input.getPositionInBlock();
-            return (float) current / size;
+            // the position may exceed the split size if the file is compressed
+            return Math.min(1.0f, (float) current / size);
         }
 
         @Override
@@ -19,12 +19,16 @@ import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.hadoop.util.ReflectionUtils;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -32,6 +36,7 @@ import org.junit.rules.TemporaryFolder;
 import com.asakusafw.lang.compiler.mapreduce.testing.InputFormatTester;
 import com.asakusafw.lang.compiler.mapreduce.testing.mock.MockData;
 import com.asakusafw.runtime.io.ModelOutput;
+import com.asakusafw.runtime.stage.temporary.TemporaryFileOutput;
 import com.asakusafw.runtime.stage.temporary.TemporaryStorage;
 import com.asakusafw.runtime.windows.WindowsConfigurator;
 
@@ -70,6 +75,27 @@ public class TemporaryFileInputFormatTest {
         assertThat(results, hasEntry(2, "Hello2"));
     }
 
+    /**
+     * compressed files.
+     * @throws Exception if failed
+     */
+    @Test
+    public void compressed() throws Exception {
+        CompressionCodec codec = ReflectionUtils.newInstance(DefaultCodec.class, conf);
+        File folder = temporary.newFolder();
+        File file = new File(folder, "part-testing" + codec.getDefaultExtension());
+        try (ModelOutput<MockData> out = new TemporaryFileOutput<>(
+                codec.createOutputStream(new FileOutputStream(file)),
+                MockData.class.getName(), 1024, 1024)) {
+            MockData.put(out, "Hello0", "Hello1", "Hello2");
+        }
+        Map<Integer, String> results = collect(new Path(file.toURI()));
+        assertThat(results.keySet(), hasSize(3));
+        assertThat(results, hasEntry(0, "Hello0"));
+        assertThat(results, hasEntry(1, "Hello1"));
+        assertThat(results, hasEntry(2, "Hello2"));
+    }
+
     private ModelOutput<MockData> open(Path path) throws IOException {
         return TemporaryStorage.openOutput(conf, MockData.class, path);
     }
@@ -17,6 +17,7 @@ package com.asakusafw.bridge.broker;
 
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 import java.util.concurrent.Callable;
 
@@ -26,7 +27,7 @@ import org.slf4j.LoggerFactory;
 /**
  * Brokers resources between the framework and user applications.
  * @since 0.1.0
- * @version 0.3.1
+ * @version 0.5.3
  */
 public final class ResourceBroker {
 
@@ -43,6 +44,8 @@ public final class ResourceBroker {
 
     private static final ResourceSessionContainer CONTAINER = new ResourceSessionContainer();
 
+    private static final SharedResourceCache<Object, Object> SHARED = new SharedResourceCache<>();
+
     private ResourceBroker() {
         return;
     }
@@ -163,6 +166,34 @@ public final class ResourceBroker {
         getCurrentSession().schedule(closer);
     }
 
+    /**
+     * Returns a shared resource, or builds a new resource.
+     * Unlike {@link #get(Class, Callable)}, the resource is built only once even if it is requested from many
+     * threads concurrently, and the least recently used resources may be evicted if the number of shared resources
+     * exceeds {@link SharedResourceCache#KEY_MAX_ENTRIES the limit}.
+     * Note that, the shared resources will not be closed automatically.
+     * @param <T> the resource type
+     * @param type the resource type
+     * @param key the resource key
+     * @param supplier the resource supplier, which will be called only if there is no such a resource
+     * @return the shared or created resource
+     * @throws IllegalStateException if failed to create a new resource via the {@code supplier}
+     * @see SharedResourceCache
+     * @since 0.5.3
+     */
+    public static <T> T share(Class<T> type, Object key, Callable<? extends T> supplier) {
+        return type.cast(SHARED.get(Arrays.asList(type, key), supplier));
+    }
+
+    /**
+     * Returns the shared resource cache for {@link #share(Class, Object, Callable)}.
+     * @return the shared resource cache
+     * @since 0.5.3
+     */
+    public static SharedResourceCache<?, ?> getSharedCache() {
+        return SHARED;
+    }
+
     private static ResourceSession start(Scope scope, Initializer initializer, boolean strict) throws IOException {
         LOG.debug("starting session: {} (strict={})", scope, strict);
         ResourceSession reference = CONTAINER.create(scope, initializer, strict == false);
@@ -174,7 +205,7 @@ public final class ResourceBroker {
         return reference;
     }
 
-    private static ResourceSessionEntity getCurrentSession() {
+    static ResourceSessionEntity getCurrentSession() {
         ResourceSessionEntity result = CONTAINER.find();
         if (result != null) {
             return result;
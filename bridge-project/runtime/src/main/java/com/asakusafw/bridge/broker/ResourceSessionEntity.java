@@ -28,6 +28,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +45,8 @@ final class ResourceSessionEntity implements ResourceSession {
 
     private final Map<Class<?>, ReadWriteLock> resourceLocks = new WeakHashMap<>();
 
+    private final Map<Object, AutoCloseable> sharedStorages = new HashMap<>();
+
     volatile boolean closed = false;
 
     ResourceSessionEntity() {
@@ -130,6 +133,30 @@ final class ResourceSessionEntity implements ResourceSession {
         }
     }
 
+    /**
+     * Returns a storage which is shared between all threads in this session.
+     * The created storage will be closed when this session was closed.
+     * @param <T> the storage type
+     * @param owner the storage owner
+     * @param supplier the storage supplier, which will be called only if there is no such a storage
+     * @return the registered or created storage
+     */
+    <T extends AutoCloseable> T getShared(Object owner, Supplier<? extends T> supplier) {
+        T created;
+        synchronized (sharedStorages) {
+            @SuppressWarnings("unchecked")
+            T found = (T) sharedStorages.get(owner);
+            if (found != null) {
+                return found;
+            }
+            created = supplier.get();
+            sharedStorages.put(owner, created);
+        }
+        // NOTE: don't schedule in the above lock, because it may be released while closing the session
+        schedule(created);
+        return created;
+    }
+
     private ReadWriteLock getResourceLock(Class<?> type) {
         synchronized (resourceLocks) {
             ReadWriteLock lock = resourceLocks.get(type);
@@ -168,6 +195,9 @@ final class ResourceSessionEntity implements ResourceSession {
         references.clear();
         resources.clear();
         resourceLocks.clear();
+        synchronized (sharedStorages) {
+            sharedStorages.clear();
+        }
         synchronized (closables) {
             while (closables.isEmpty() == false) {
                 @SuppressWarnings("resource")
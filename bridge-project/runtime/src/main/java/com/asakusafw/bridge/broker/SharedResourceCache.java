@@ -0,0 +1,283 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.bridge.broker;
+
+import java.text.MessageFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A resource cache storage for {@link ResourceBroker}, which is shared between all threads in the current session.
+ * Unlike {@link ResourceCacheStorage}, each value is built only once in the session even if it is requested
+ * from many threads concurrently, and the least recently used values are evicted if the number of cached values
+ * exceeds the limit.
+ * The cached values are stored into the current {@link ResourceSession}, and they are discarded when the session
+ * was closed. Values which are still being built are never evicted.
+ * Note that, this never closes the cached values: please use {@link ResourceBroker#schedule(AutoCloseable)} for
+ * such resources.
+ * @param <K> the key type
+ * @param <V> the value type
+ * @since 0.5.3
+ */
+public class SharedResourceCache<K, V> {
+
+    static final Logger LOG = LoggerFactory.getLogger(SharedResourceCache.class);
+
+    /**
+     * The system property key of the default max number of cached values in each session.
+     */
+    public static final String KEY_MAX_ENTRIES = "com.asakusafw.bridge.broker.shared.max"; //$NON-NLS-1$
+
+    /**
+     * The default value of {@link #KEY_MAX_ENTRIES}.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = Integer.MAX_VALUE;
+
+    private final int maxEntries;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder loadTime = new LongAdder();
+
+    /**
+     * Creates a new instance with the default max number of cached values.
+     * @see #KEY_MAX_ENTRIES
+     */
+    public SharedResourceCache() {
+        this(getDefaultMaxEntries());
+    }
+
+    /**
+     * Creates a new instance.
+     * @param maxEntries the max number of cached values in each session
+     */
+    public SharedResourceCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "max entries must be positive: {0}",
+                    maxEntries));
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    static int getDefaultMaxEntries() {
+        String value = System.getProperty(KEY_MAX_ENTRIES);
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_MAX_ENTRIES;
+        }
+        try {
+            int result = Integer.parseInt(value.trim());
+            if (result > 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            LOG.trace("invalid number", e); //$NON-NLS-1$
+        }
+        LOG.warn(MessageFormat.format(
+                "invalid shared resource cache size: {0}={1}",
+                KEY_MAX_ENTRIES,
+                value));
+        return DEFAULT_MAX_ENTRIES;
+    }
+
+    /**
+     * Returns the max number of cached values in each session.
+     * @return the max number of cached values
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Returns the cached value in this storage.
+     * @param key the value key
+     * @return the cached value, or {@code null} if there are no corresponded value in this storage for
+     * the current resource session
+     * @throws IllegalStateException if the current session has not been started
+     */
+    public V find(K key) {
+        Objects.requireNonNull(key);
+        Storage<K, V> storage = getStorage();
+        FutureTask<V> task;
+        synchronized (storage) {
+            task = storage.entries.get(key);
+        }
+        if (task == null || task.isDone() == false) {
+            return null;
+        }
+        return await(storage, key, task);
+    }
+
+    /**
+     * Returns the cached value in this storage, or builds a new value and then put it into this storage.
+     * If other threads are building the value for the same key, this operation waits for them instead of
+     * building the value again.
+     * @param key the value key
+     * @param loader the value loader, which will be called only if there is no such a value
+     * @return the cached or built value
+     * @throws IllegalStateException if the current session has not been started,
+     *     or if failed to build a new value via the {@code loader}
+     */
+    public V get(K key, Callable<? extends V> loader) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(loader);
+        Storage<K, V> storage = getStorage();
+        FutureTask<V> task;
+        boolean owner = false;
+        synchronized (storage) {
+            task = storage.entries.get(key);
+            if (task == null) {
+                task = new FutureTask<>(loader::call);
+                storage.entries.put(key, task);
+                owner = true;
+            }
+        }
+        if (owner) {
+            missCount.increment();
+            long start = System.nanoTime();
+            task.run();
+            loadTime.add(System.nanoTime() - start);
+            synchronized (storage) {
+                storage.trim();
+            }
+        } else {
+            hitCount.increment();
+        }
+        return await(storage, key, task);
+    }
+
+    private V await(Storage<K, V> storage, K key, FutureTask<V> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            // failures are not cached
+            synchronized (storage) {
+                storage.entries.remove(key, task);
+            }
+            throw new IllegalStateException(MessageFormat.format(
+                    "failed to supply a resource: {0}",
+                    key), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(MessageFormat.format(
+                    "interrupted while waiting for a resource: {0}",
+                    key), e);
+        }
+    }
+
+    private Storage<K, V> getStorage() {
+        ResourceSessionEntity session = ResourceBroker.getCurrentSession();
+        return session.getShared(this, () -> new Storage<>(this, maxEntries));
+    }
+
+    void release(Storage<K, V> storage) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("shared resource cache: {}", this); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Returns the number of requests which are satisfied with the cached values.
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of requests which have built new values.
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of evicted values.
+     * @return the number of evictions
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Returns the total elapsed time of building new values.
+     * @param unit the time unit
+     * @return the total elapsed time
+     */
+    public long getLoadTime(TimeUnit unit) {
+        return unit.convert(loadTime.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "SharedResourceCache(max-entries=%,d, hit=%,d, miss=%,d, eviction=%,d, load-time=%,dms)", //$NON-NLS-1$
+                maxEntries,
+                getHitCount(),
+                getMissCount(),
+                getEvictionCount(),
+                getLoadTime(TimeUnit.MILLISECONDS));
+    }
+
+    private static final class Storage<K, V> implements AutoCloseable {
+
+        final SharedResourceCache<K, V> owner;
+
+        final int maxEntries;
+
+        final Map<K, FutureTask<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        Storage(SharedResourceCache<K, V> owner, int maxEntries) {
+            this.owner = owner;
+            this.maxEntries = maxEntries;
+        }
+
+        void trim() {
+            // evicts the least recently used values, but never evicts values which are still being built
+            for (Iterator<FutureTask<V>> iter = entries.values().iterator();
+                    entries.size() > maxEntries && iter.hasNext();) {
+                FutureTask<V> task = iter.next();
+                if (task.isDone()) {
+                    iter.remove();
+                    owner.evictionCount.increment();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                entries.clear();
+            }
+            owner.release(this);
+        }
+    }
+}
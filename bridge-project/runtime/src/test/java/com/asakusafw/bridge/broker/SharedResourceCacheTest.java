@@ -0,0 +1,228 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.bridge.broker;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Test for {@link SharedResourceCache}.
+ */
+public class SharedResourceCacheTest {
+
+    /**
+     * setup/cleanup the test case.
+     */
+    @Rule
+    public final ResourceBrokerContext brokerContext = new ResourceBrokerContext();
+
+    /**
+     * simple case.
+     * @throws Exception if failed
+     */
+    @Test
+    public void simple() throws Exception {
+        SharedResourceCache<String, String> cache = new SharedResourceCache<>();
+        try (ResourceSession session = ResourceBroker.start()) {
+            assertThat(cache.find("a"), is(nullValue()));
+            assertThat(cache.get("a", () -> "A"), is("A"));
+            assertThat(cache.get("a", () -> "X"), is("A"));
+            assertThat(cache.find("a"), is("A"));
+        }
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(1L));
+        try (ResourceSession session = ResourceBroker.start()) {
+            assertThat(cache.find("a"), is(nullValue()));
+        }
+    }
+
+    /**
+     * each value is built only once even if it is requested concurrently.
+     * @throws Exception if failed
+     */
+    @Test
+    public void concurrent() throws Exception {
+        SharedResourceCache<String, String> cache = new SharedResourceCache<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (ResourceSession session = ResourceBroker.start()) {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    latch.await();
+                    return cache.get("a", () -> {
+                        loads.incrementAndGet();
+                        Thread.sleep(100);
+                        return "A";
+                    });
+                }));
+            }
+            latch.countDown();
+            for (Future<String> future : futures) {
+                assertThat(future.get(), is("A"));
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        assertThat(loads.get(), is(1));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(3L));
+    }
+
+    /**
+     * least recently used values are evicted.
+     * @throws Exception if failed
+     */
+    @Test
+    public void evict() throws Exception {
+        SharedResourceCache<String, String> cache = new SharedResourceCache<>(2);
+        try (ResourceSession session = ResourceBroker.start()) {
+            cache.get("a", () -> "A");
+            cache.get("b", () -> "B");
+            cache.get("a", () -> "X");
+            cache.get("c", () -> "C");
+            assertThat(cache.find("a"), is("A"));
+            assertThat(cache.find("b"), is(nullValue()));
+            assertThat(cache.find("c"), is("C"));
+        }
+        assertThat(cache.getEvictionCount(), is(1L));
+    }
+
+    /**
+     * values which are still being built are never evicted.
+     * @throws Exception if failed
+     */
+    @Test
+    public void evict_in_flight() throws Exception {
+        SharedResourceCache<String, String> cache = new SharedResourceCache<>(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (ResourceSession session = ResourceBroker.start()) {
+            Future<String> future = executor.submit(() -> cache.get("a", () -> {
+                started.countDown();
+                finish.await();
+                return "A";
+            }));
+            started.await();
+            assertThat(cache.get("b", () -> "B"), is("B"));
+            assertThat(cache.find("b"), is(nullValue()));
+
+            finish.countDown();
+            assertThat(future.get(), is("A"));
+            assertThat(cache.find("a"), is("A"));
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        assertThat(cache.getEvictionCount(), is(1L));
+    }
+
+    /**
+     * failures are not cached.
+     * @throws Exception if failed
+     */
+    @Test
+    public void failure() throws Exception {
+        SharedResourceCache<String, String> cache = new SharedResourceCache<>();
+        try (ResourceSession session = ResourceBroker.start()) {
+            try {
+                cache.get("a", () -> {
+                    throw new UnsupportedOperationException();
+                });
+                fail();
+            } catch (IllegalStateException e) {
+                assertThat(e.getCause(), is(instanceOf(UnsupportedOperationException.class)));
+            }
+            assertThat(cache.get("a", () -> "A"), is("A"));
+        }
+    }
+
+    /**
+     * values are isolated between thread scoped sessions.
+     * @throws Exception if failed
+     */
+    @Test
+    public void thread_scope() throws Exception {
+        SharedResourceCache<String, String> cache = new SharedResourceCache<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (ResourceSession session = ResourceBroker.start(ResourceBroker.Scope.THREAD)) {
+            cache.get("a", () -> "A");
+            Future<String> other = executor.submit(() -> {
+                try (ResourceSession s = ResourceBroker.start(ResourceBroker.Scope.THREAD)) {
+                    return cache.get("a", () -> "B");
+                }
+            });
+            assertThat(other.get(), is("B"));
+            assertThat(cache.find("a"), is("A"));
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        assertThat(cache.getMissCount(), is(2L));
+    }
+
+    /**
+     * the default limit can be configured via system properties.
+     */
+    @Test
+    public void max_entries_property() {
+        String saved = System.getProperty(SharedResourceCache.KEY_MAX_ENTRIES);
+        try {
+            System.setProperty(SharedResourceCache.KEY_MAX_ENTRIES, "3");
+            assertThat(new SharedResourceCache<>().getMaxEntries(), is(3));
+            System.setProperty(SharedResourceCache.KEY_MAX_ENTRIES, "invalid");
+            assertThat(new SharedResourceCache<>().getMaxEntries(), is(SharedResourceCache.DEFAULT_MAX_ENTRIES));
+        } finally {
+            if (saved == null) {
+                System.clearProperty(SharedResourceCache.KEY_MAX_ENTRIES);
+            } else {
+                System.setProperty(SharedResourceCache.KEY_MAX_ENTRIES, saved);
+            }
+        }
+    }
+
+    /**
+     * shares resources via {@link ResourceBroker}.
+     * @throws Exception if failed
+     */
+    @Test
+    public void broker() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        try (ResourceSession session = ResourceBroker.start()) {
+            assertThat(ResourceBroker.share(String.class, "a", () -> "A" + loads.incrementAndGet()), is("A1"));
+            assertThat(ResourceBroker.share(String.class, "a", () -> "A" + loads.incrementAndGet()), is("A1"));
+            assertThat(ResourceBroker.share(String.class, "b", () -> "B" + loads.incrementAndGet()), is("B2"));
+        }
+        try (ResourceSession session = ResourceBroker.start()) {
+            assertThat(ResourceBroker.share(String.class, "a", () -> "A" + loads.incrementAndGet()), is("A3"));
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package com.asakusafw.lang.compiler.extension.testdriver;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -24,8 +25,11 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
 
 import com.asakusafw.runtime.io.ModelInput;
+import com.asakusafw.runtime.stage.temporary.TemporaryFileInput;
 import com.asakusafw.runtime.stage.temporary.TemporaryStorage;
 import com.asakusafw.testdriver.core.DataModelDefinition;
 import com.asakusafw.testdriver.core.DataModelReflection;
@@ -33,6 +37,7 @@ import com.asakusafw.testdriver.core.DataModelSource;
 
 /**
  * {@link DataModelSource} using {@link TemporaryStorage}.
+ * The files which have a compression codec extension are decoded with the corresponding codec.
  */
 public class TemporaryDataModelSource implements DataModelSource {
 
@@ -44,6 +49,8 @@ public class TemporaryDataModelSource implements DataModelSource {
 
     private final FileSystem fs;
 
+    private final CompressionCodecFactory codecs;
+
     private final Iterator<Path> rest;
 
     private volatile ModelInput<Object> current;
@@ -66,6 +73,7 @@ public class TemporaryDataModelSource implements DataModelSource {
         this.object = definition.toObject(definition.newReflection().build());
         Path path = new Path(pathExpression);
         this.fs = path.getFileSystem(conf);
+        this.codecs = new CompressionCodecFactory(conf);
         FileStatus[] list = fs.globStatus(path);
         List<Path> paths = new ArrayList<>();
         for (int i = 0; i < list.length; i++) {
@@ -81,7 +89,7 @@ public class TemporaryDataModelSource implements DataModelSource {
                 if (rest.hasNext() == false) {
                     return null;
                 }
-                current = TemporaryStorage.openInput(conf, definition.getModelClass(), rest.next());
+                current = open(rest.next());
             }
             if (current.readTo(object)) {
                 break;
@@ -93,6 +101,25 @@ public class TemporaryDataModelSource implements DataModelSource {
         return definition.toReflection(object);
     }
 
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private ModelInput<Object> open(Path path) throws IOException {
+        CompressionCodec codec = codecs.getCodec(path);
+        if (codec == null) {
+            return TemporaryStorage.openInput(conf, definition.getModelClass(), path);
+        }
+        InputStream stream = fs.open(path);
+        boolean succeed = false;
+        try {
+            ModelInput<Object> result = new TemporaryFileInput(codec.createInputStream(stream), 0);
+            succeed = true;
+            return result;
+        } finally {
+            if (succeed == false) {
+                stream.close();
+            }
+        }
+    }
+
     @Override
     public void close() throws IOException {
         if (current != null) {
@@ -19,6 +19,7 @@ import static com.asakusafw.dag.compiler.codegen.AsmUtil.*;
 
 import java.io.DataInput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -41,6 +42,7 @@ import com.asakusafw.lang.compiler.model.description.ClassDescription;
 import com.asakusafw.lang.compiler.model.description.Descriptions;
 import com.asakusafw.lang.compiler.model.description.TypeDescription;
 import com.asakusafw.lang.compiler.model.graph.Group;
+import com.asakusafw.lang.utils.buffer.nio.NioDataBuffer;
 import com.asakusafw.lang.utils.common.Arguments;
 import com.asakusafw.lang.utils.common.Invariants;
 import com.asakusafw.runtime.value.BooleanOption;
@@ -57,7 +59,9 @@ import com.asakusafw.runtime.value.StringOption;
 
 /**
  * Generates {@link DataComparator}.
+ * If both inputs are {@link NioDataBuffer}, the generated comparator directly compares their contents.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public final class DataComparatorGenerator {
 
@@ -70,6 +74,13 @@ public final class DataComparatorGenerator {
     private static final String DESC_COMPARE = Type.getMethodDescriptor(
             typeOf(int.class), TYPE_DATA_INPUT, TYPE_DATA_INPUT);
 
+    private static final Type TYPE_NIO_BUFFER = typeOf(NioDataBuffer.class);
+
+    private static final Type TYPE_BYTE_BUFFER = typeOf(ByteBuffer.class);
+
+    private static final String DESC_COMPARE_BUFFER = Type.getMethodDescriptor(
+            typeOf(int.class), TYPE_BYTE_BUFFER, TYPE_BYTE_BUFFER);
+
     private static final Map<TypeDescription, String> METHOD_NAMES;
     static {
         Map<TypeDescription, String> map = new HashMap<>();
@@ -140,6 +151,44 @@ public final class DataComparatorGenerator {
                 });
         LocalVarRef a = new LocalVarRef(Opcodes.ALOAD, 1);
         LocalVarRef b = new LocalVarRef(Opcodes.ALOAD, 2);
+        if (orderings.isEmpty() == false) {
+            Label stream = new Label();
+
+            // if (a instanceof NioDataBuffer && b instanceof NioDataBuffer) {
+            a.load(v);
+            v.visitTypeInsn(Opcodes.INSTANCEOF, TYPE_NIO_BUFFER.getInternalName());
+            v.visitJumpInsn(Opcodes.IFEQ, stream);
+            b.load(v);
+            v.visitTypeInsn(Opcodes.INSTANCEOF, TYPE_NIO_BUFFER.getInternalName());
+            v.visitJumpInsn(Opcodes.IFEQ, stream);
+
+            // ByteBuffer aBuf = ((NioDataBuffer) a).contents;
+            LocalVarRef aBuf = getContents(v, a, 3);
+            // ByteBuffer bBuf = ((NioDataBuffer) b).contents;
+            LocalVarRef bBuf = getContents(v, b, 4);
+            defineOrderings(v, reference, orderings, aBuf, bBuf, DESC_COMPARE_BUFFER, 5);
+
+            // } @ stream
+            v.visitLabel(stream);
+        }
+        defineOrderings(v, reference, orderings, a, b, DESC_COMPARE, 3);
+        v.visitMaxs(0, 0);
+        v.visitEnd();
+    }
+
+    private static LocalVarRef getContents(MethodVisitor v, LocalVarRef input, int index) {
+        input.load(v);
+        v.visitTypeInsn(Opcodes.CHECKCAST, TYPE_NIO_BUFFER.getInternalName());
+        v.visitFieldInsn(Opcodes.GETFIELD,
+                TYPE_NIO_BUFFER.getInternalName(),
+                "contents",
+                TYPE_BYTE_BUFFER.getDescriptor());
+        return putLocalVar(v, Type.OBJECT, index);
+    }
+
+    private static void defineOrderings(
+            MethodVisitor v, DataModelReference reference, List<Group.Ordering> orderings,
+            LocalVarRef a, LocalVarRef b, String descriptor, int index) {
         for (Group.Ordering ordering : orderings) {
             PropertyReference property = Invariants.requireNonNull(reference.findProperty(ordering.getPropertyName()));
 
@@ -159,9 +208,9 @@ public final class DataComparatorGenerator {
             v.visitMethodInsn(Opcodes.INVOKESTATIC,
                     typeOf(ValueOptionSerDe.class).getInternalName(),
                     Invariants.requireNonNull(METHOD_NAMES.get(property.getType())),
-                    DESC_COMPARE,
+                    descriptor,
                     false);
-            LocalVarRef cmp = putLocalVar(v, Type.INT, 3);
+            LocalVarRef cmp = putLocalVar(v, Type.INT, index);
             Label eq = new Label();
 
             // if (diff != 0) {
@@ -177,8 +226,6 @@ public final class DataComparatorGenerator {
         }
         getConst(v, 0);
         v.visitInsn(Opcodes.IRETURN);
-        v.visitMaxs(0, 0);
-        v.visitEnd();
     }
 
     private static class Key {
@@ -18,6 +18,7 @@ package com.asakusafw.dag.compiler.codegen;
 import static com.asakusafw.dag.compiler.codegen.AsmUtil.*;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.objectweb.asm.ClassWriter;
@@ -33,6 +34,7 @@ import com.asakusafw.dag.runtime.skeleton.EdgeDataTableAdapter;
 import com.asakusafw.lang.compiler.api.reference.DataModelReference;
 import com.asakusafw.lang.compiler.api.reference.PropertyReference;
 import com.asakusafw.lang.compiler.model.description.ClassDescription;
+import com.asakusafw.lang.compiler.model.PropertyName;
 import com.asakusafw.lang.compiler.model.description.TypeDescription;
 import com.asakusafw.lang.compiler.model.graph.Group;
 import com.asakusafw.lang.utils.common.Arguments;
@@ -41,10 +43,14 @@ import com.asakusafw.lang.utils.common.Invariants;
 /**
  * Generates {@link EdgeDataTableAdapter}.
  * @since 0.4.0
- * @version 0.4.1
+ * @version 0.5.3
  */
 public class EdgeDataTableAdapterGenerator {
 
+    private static final String CATEGORY = "view"; //$NON-NLS-1$
+
+    private static final String SUFFIX = "KeyBuilder"; //$NON-NLS-1$
+
     /**
      * Generates {@link EdgeDataTableAdapter} class.
      * @param context the current context
@@ -56,13 +62,13 @@ public class EdgeDataTableAdapterGenerator {
         ClassWriter writer = AsmUtil.newWriter(target, EdgeDataTableAdapter.class);
         defineAdapterConstructor(writer, EdgeDataTableAdapter.class, v -> {
             LocalVarRef self = new LocalVarRef(Opcodes.ALOAD, 0);
-            int index = 0;
             for (Spec spec : specs) {
                 ClassDescription keyBuilder;
                 if (spec.group.getGrouping().isEmpty()) {
                     keyBuilder = null;
                 } else {
-                    keyBuilder = generateKeyBuilder(context, spec, qualify(target, "k", index));
+                    // reuses the same key builder class, so that consumers of the same broadcast input can share tables
+                    keyBuilder = getKeyBuilder(context, spec);
                 }
                 ClassDescription copier = ObjectCopierGenerator.get(context, spec.dataType);
                 ClassDescription comparator = toComparatorClass(context, spec);
@@ -84,7 +90,6 @@ public class EdgeDataTableAdapterGenerator {
                                 typeOf(Class[].class)),
                         false);
                 v.visitInsn(Opcodes.POP);
-                index++;
             }
         });
         return new ClassData(target, writer::toByteArray);
@@ -109,11 +114,18 @@ public class EdgeDataTableAdapterGenerator {
                 .toArray(TypeDescription[]::new);
     }
 
-    ClassDescription generateKeyBuilder(ClassGeneratorContext context, Spec spec, ClassDescription target) {
+    static ClassDescription getKeyBuilder(ClassGeneratorContext context, Spec spec) {
+        return context.addClassFile(context.cache(new KeyBuilderKey(spec.dataType, spec.group.getGrouping()), () -> {
+            ClassDescription target = context.getClassName(CATEGORY, NameUtil.getSimpleNameHint(spec.dataType, SUFFIX));
+            return generateKeyBuilder(context, spec, target);
+        }));
+    }
+
+    private static ClassData generateKeyBuilder(ClassGeneratorContext context, Spec spec, ClassDescription target) {
         ClassWriter writer = AsmUtil.newWriter(target, Object.class, KeyExtractor.class);
         defineEmptyConstructor(writer, Object.class);
         defineBuildKey(context, writer, spec.dataType, spec.group);
-        return context.addClassFile(new ClassData(target, writer::toByteArray));
+        return new ClassData(target, writer::toByteArray);
     }
 
     private static void defineBuildKey(
@@ -151,15 +163,6 @@ public class EdgeDataTableAdapterGenerator {
         v.visitEnd();
     }
 
-    private static ClassDescription qualify(ClassDescription base, String category, int index) {
-        return new ClassDescription(new StringBuilder()
-                .append(base.getBinaryName())
-                .append('_')
-                .append(category)
-                .append(index)
-                .toString());
-    }
-
     /**
      * Represents operation of {@link EdgeDataTableAdapterGenerator}.
      * @since 0.4.0
@@ -192,4 +195,46 @@ public class EdgeDataTableAdapterGenerator {
             this.group = group;
         }
     }
+
+    private static final class KeyBuilderKey {
+
+        private final TypeDescription type;
+
+        private final List<PropertyName> grouping;
+
+        KeyBuilderKey(TypeDescription type, List<PropertyName> grouping) {
+            this.type = type;
+            this.grouping = Arguments.freeze(grouping);
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = KeyBuilderKey.class.hashCode();
+            result = prime * result + Objects.hashCode(type);
+            result = prime * result + Objects.hashCode(grouping);
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            KeyBuilderKey other = (KeyBuilderKey) obj;
+            if (!Objects.equals(type, other.type)) {
+                return false;
+            }
+            if (!Objects.equals(grouping, other.grouping)) {
+                return false;
+            }
+            return true;
+        }
+    }
 }
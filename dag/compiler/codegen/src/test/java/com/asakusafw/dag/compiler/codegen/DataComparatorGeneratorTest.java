@@ -20,6 +20,7 @@ import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 import org.hamcrest.Matcher;
@@ -32,6 +33,7 @@ import com.asakusafw.dag.runtime.testing.MockDataModel;
 import com.asakusafw.dag.runtime.testing.MockKeyValueModel;
 import com.asakusafw.lang.compiler.model.description.ClassDescription;
 import com.asakusafw.lang.compiler.model.graph.Group;
+import com.asakusafw.lang.utils.buffer.nio.NioDataBuffer;
 import com.asakusafw.lang.utils.common.Lang;
 import com.asakusafw.runtime.io.util.DataBuffer;
 
@@ -61,6 +63,38 @@ public class DataComparatorGeneratorTest extends ClassGeneratorTestRoot {
         test(group("+key", "+sort", "-value"), model(0, "1.0", "A"), model(0, "1.0", "A"), equalTo(0));
     }
 
+    /**
+     * w/ {@link NioDataBuffer}.
+     */
+    @Test
+    public void nio() {
+        ClassDescription type = classOf(MockDataModel.class);
+        Group group = group("+key", "+sort", "-value");
+        ClassDescription serializer = KeyValueSerDeGenerator.get(context(), type, group);
+        ClassDescription comparator = DataComparatorGenerator.get(context(), type, group.getOrdering());
+        loading(cl -> {
+            KeyValueSerDe ser = (KeyValueSerDe) serializer.resolve(cl).newInstance();
+            DataComparator cmp = (DataComparator) comparator.resolve(cl).newInstance();
+            MockDataModel[] models = {
+                    model(0, "1.0", "A"),
+                    model(0, "1.0", "0123456789ABCDEF"),
+                    model(0, "1.0", "0123456789ABCDEG"),
+                    model(0, "1.0", null),
+                    model(0, "2.0", "A"),
+                    model(0, null, "A"),
+                    model(1, "1.0", "A"),
+            };
+            for (MockDataModel a : models) {
+                for (MockDataModel b : models) {
+                    int expected = Integer.signum(cmp.compare(serialize(ser, a), serialize(ser, b)));
+                    NioDataBuffer aBuf = wrap(serialize(ser, a));
+                    NioDataBuffer bBuf = wrap(serialize(ser, b));
+                    assertThat(Integer.signum(cmp.compare(aBuf, bBuf)), is(expected));
+                }
+            }
+        });
+    }
+
     /**
      * cache - equivalent.
      */
@@ -129,6 +163,12 @@ public class DataComparatorGeneratorTest extends ClassGeneratorTestRoot {
     }
 
 
+    private static NioDataBuffer wrap(DataBuffer buffer) {
+        NioDataBuffer result = new NioDataBuffer();
+        result.contents = ByteBuffer.wrap(buffer.getData(), buffer.getReadPosition(), buffer.getReadRemaining());
+        return result;
+    }
+
     private List<Group.Ordering> order(String... expressions) {
         Group group = group(expressions);
         assertThat(group.getGrouping(), hasSize(0));
@@ -27,6 +27,7 @@ import java.util.function.Function;
 
 import org.junit.Test;
 
+import com.asakusafw.dag.api.processor.extension.BroadcastInputCache;
 import com.asakusafw.dag.api.processor.testing.CollectionObjectReader;
 import com.asakusafw.dag.api.processor.testing.MockVertexProcessorContext;
 import com.asakusafw.dag.compiler.codegen.EdgeDataTableAdapterGenerator.Spec;
@@ -138,6 +139,49 @@ public class EdgeDataTableAdapterGeneratorTest extends ClassGeneratorTestRoot {
         });
     }
 
+    /**
+     * consumers of the same broadcast input share their tables.
+     */
+    @Test
+    public void shared() {
+        define("t", "i", MockDataModel.class, "key", "+value");
+        data("i", new Object[] {
+                new MockDataModel(0, "Hello0"),
+                new MockDataModel(1, "Hello1b"),
+                new MockDataModel(1, "Hello1a"),
+        });
+        ClassGeneratorContext gc = context();
+        ClassDescription gen0 = add(c -> new EdgeDataTableAdapterGenerator().generate(gc, specs, c));
+        ClassDescription gen1 = add(c -> new EdgeDataTableAdapterGenerator().generate(gc, specs, c));
+        BroadcastInputCache cache = new BroadcastInputCache();
+        cache.register("v0", "i", "upstream");
+        cache.register("v1", "i", "upstream");
+        List<DataTable<?>> tables = new ArrayList<>();
+        loading(cl -> {
+            for (ClassDescription gen : new ClassDescription[] { gen0, gen1 }) {
+                String id = gen == gen0 ? "v0" : "v1";
+                MockVertexProcessorContext context = new MockVertexProcessorContext()
+                        .with(cl)
+                        .withId(id)
+                        .withResource(BroadcastInputCache.class, cache);
+                inputs.forEach((k, v) -> {
+                    context.withInput(k, () -> new CollectionObjectReader(v));
+                });
+                try (DataTableAdapter adapter = adapter(gen.resolve(cl), context)) {
+                    adapter.initialize();
+                    DataTable<MockDataModel> t = adapter.getDataTable(MockDataModel.class, "t");
+                    assertThat(get(t, MockDataModel::getValue, 0), contains("Hello0"));
+                    assertThat(get(t, MockDataModel::getValue, 1), contains("Hello1a", "Hello1b"));
+                    tables.add(t);
+                }
+                cache.release(id, "i");
+            }
+        });
+        assertThat(tables.get(1), is(sameInstance(tables.get(0))));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
     private void define(String tId, String iId, Class<?> type, String... terms) {
         specs.add(new Spec(tId, iId, Descriptions.typeOf(type), Groups.parse(terms)));
     }
@@ -34,6 +34,7 @@ import com.asakusafw.lang.utils.common.Arguments;
 /**
  * Generates {@link DirectFileOutputPrepare}.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class DirectFileOutputPrepareGenerator {
 
@@ -52,14 +53,27 @@ public class DirectFileOutputPrepareGenerator {
                 self.load(v);
                 getConst(v, spec.id);
                 getConst(v, spec.basePath);
-                getConst(v, spec.outputPattern);
-                getConst(v, spec.formatType);
-                v.visitMethodInsn(
-                        Opcodes.INVOKEVIRTUAL,
-                        target.getInternalName(), "bind", //$NON-NLS-1$
-                        Type.getMethodDescriptor(typeOf(DirectFileOutputPrepare.class),
-                                typeOf(String.class), typeOf(String.class), typeOf(String.class), typeOf(Class.class)),
-                        false);
+                if (spec.patternType == null) {
+                    getConst(v, spec.outputPattern);
+                    getConst(v, spec.formatType);
+                    v.visitMethodInsn(
+                            Opcodes.INVOKEVIRTUAL,
+                            target.getInternalName(), "bind", //$NON-NLS-1$
+                            Type.getMethodDescriptor(typeOf(DirectFileOutputPrepare.class),
+                                    typeOf(String.class), typeOf(String.class), typeOf(String.class),
+                                    typeOf(Class.class)),
+                            false);
+                } else {
+                    getConst(v, spec.patternType);
+                    getConst(v, spec.formatType);
+                    v.visitMethodInsn(
+                            Opcodes.INVOKEVIRTUAL,
+                            target.getInternalName(), "bindUnordered", //$NON-NLS-1$
+                            Type.getMethodDescriptor(typeOf(DirectFileOutputPrepare.class),
+                                    typeOf(String.class), typeOf(String.class), typeOf(Class.class),
+                                    typeOf(Class.class)),
+                            false);
+                }
                 v.visitInsn(Opcodes.POP);
             }
         });
@@ -78,6 +92,8 @@ public class DirectFileOutputPrepareGenerator {
 
         final String outputPattern;
 
+        final TypeDescription patternType;
+
         final TypeDescription formatType;
 
         /**
@@ -91,12 +107,31 @@ public class DirectFileOutputPrepareGenerator {
                 String id,
                 String basePath, String outputPattern,
                 TypeDescription formatType) {
+            this(id, basePath, outputPattern, null, formatType);
+        }
+
+        /**
+         * Creates a new instance.
+         * @param id the output ID
+         * @param basePath the base path
+         * @param outputPattern the output pattern for flat outputs, or {@code null} for group outputs
+         * @param patternType the output pattern type for unordered group outputs (nullable)
+         * @param formatType the format type
+         * @see DirectFileOutputPrepare#bindUnordered(String, String, Class, Class)
+         * @since 0.5.3
+         */
+        public Spec(
+                String id,
+                String basePath, String outputPattern, TypeDescription patternType,
+                TypeDescription formatType) {
             Arguments.requireNonNull(id);
             Arguments.requireNonNull(basePath);
             Arguments.requireNonNull(formatType);
+            Arguments.require(outputPattern == null || patternType == null);
             this.id = id;
             this.basePath = basePath;
             this.outputPattern = outputPattern;
+            this.patternType = patternType;
             this.formatType = formatType;
         }
     }
@@ -18,7 +18,10 @@ package com.asakusafw.dag.compiler.directio;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -40,6 +43,7 @@ import com.asakusafw.dag.compiler.codegen.ClassGeneratorTestRoot;
 import com.asakusafw.dag.compiler.directio.DirectFileOutputPrepareGenerator.Spec;
 import com.asakusafw.dag.runtime.directio.DirectFileOutputCommit;
 import com.asakusafw.dag.runtime.directio.DirectFileOutputPrepare;
+import com.asakusafw.dag.runtime.directio.OutputPatternSerDe;
 import com.asakusafw.lang.compiler.mapreduce.testing.mock.DirectIoContext;
 import com.asakusafw.lang.compiler.mapreduce.testing.mock.MockData;
 import com.asakusafw.lang.compiler.mapreduce.testing.mock.MockDataFormat;
@@ -102,6 +106,18 @@ public class DirectFileOutputPrepareGeneratorTest extends ClassGeneratorTestRoot
         assertThat(results, hasEntry(100, "Hello, world!"));
     }
 
+    /**
+     * unordered group.
+     */
+    @Test
+    public void unordered() {
+        unordered("a", "out", KeyPattern.class, MockDataFormat.class,
+                new MockData().set(100, "Hello, world!"));
+        Map<Integer, String> results = collect("out", "100-", ".bin");
+        assertThat(results.keySet(), hasSize(1));
+        assertThat(results, hasEntry(100, "Hello, world!"));
+    }
+
     private Map<Integer, String> collect(String path) {
         try (ModelInput<MockData> in = WritableModelInput.open(directio.file(path))) {
             return MockData.collect(in);
@@ -156,6 +172,23 @@ public class DirectFileOutputPrepareGeneratorTest extends ClassGeneratorTestRoot
         commit();
     }
 
+    private void unordered(
+            String id, String basePath, Class<?> patternType, Class<?> formatType, MockData... values) {
+        List<Spec> specs = Arrays.asList(new Spec(
+                id, basePath, null, Descriptions.typeOf(patternType), Descriptions.typeOf(formatType)));
+        ClassGeneratorContext gc = context();
+        ClassDescription gen = add(c -> new DirectFileOutputPrepareGenerator().generate(gc, specs, c));
+        loading(gen, c -> {
+            VertexProcessorRunner runner = new VertexProcessorRunner(() -> (VertexProcessor) c.newInstance());
+            runner
+                .input(DirectFileOutputPrepare.INPUT_NAME, (Object[]) values)
+                .resource(Configuration.class, configuration)
+                .resource(StageInfo.class, STAGE)
+                .run();
+        });
+        commit();
+    }
+
     private void commit() {
         VertexProcessorRunner committer = new VertexProcessorRunner(() -> {
             DirectFileOutputCommit p = new DirectFileOutputCommit();
@@ -167,4 +200,35 @@ public class DirectFileOutputPrepareGeneratorTest extends ClassGeneratorTestRoot
             .resource(StageInfo.class, STAGE)
             .run();
     }
+
+    /**
+     * Output pattern by keys.
+     */
+    public static class KeyPattern extends OutputPatternSerDe {
+
+        /**
+         * Creates a new instance.
+         */
+        public KeyPattern() {
+            property(Format.NATURAL, null);
+            text(".bin");
+        }
+
+        @Override
+        protected Object getProperty(Object object, int index) {
+            return ((MockData) object).getKey();
+        }
+
+        @Override
+        public void serializeValue(Object object, DataOutput output) throws IOException {
+            ((MockData) object).write(output);
+        }
+
+        @Override
+        public Object deserializePair(DataInput keyInput, DataInput valueInput) throws IOException {
+            MockData d = new MockData();
+            d.readFields(valueInput);
+            return d;
+        }
+    }
 }
@@ -63,9 +63,24 @@ import com.asakusafw.lang.utils.common.Tuple;
 /**
  * An implementation of {@link ExternalPortDriver} for Direct file I/O ports.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class DirectFilePortDriver implements ExternalPortDriver {
 
+    /**
+     * The compiler property key of whether or not group outputs without any record orders are written directly,
+     * instead of shuffling records by their output paths.
+     * Note that, the resulting file names of such outputs have task specific suffixes.
+     * @since 0.5.3
+     */
+    public static final String KEY_OUTPUT_UNORDERED = "directio.output.unordered"; //$NON-NLS-1$
+
+    /**
+     * The default value of {@link #KEY_OUTPUT_UNORDERED}.
+     * @since 0.5.3
+     */
+    public static final boolean DEFAULT_OUTPUT_UNORDERED = false;
+
     private static final String ID_OUTPUT_SETUP = "_directio-setup";
 
     private static final String ID_OUTPUT_COMMIT = "_directio-commit";
@@ -192,17 +207,22 @@ public class DirectFilePortDriver implements ExternalPortDriver {
         DataModelReference ref = context.getDataModelLoader().load(output.getDataType());
         OutputPattern pattern = OutputPattern.compile(ref, model.getResourcePattern(), model.getOrder());
         boolean gather = pattern.isGatherRequired();
+        boolean unordered = gather && pattern.getOrders().isEmpty() && isOutputUnorderedEnabled();
+        ClassDescription serde = null;
+        if (gather) {
+            serde = generate(context, vertex, "serde.directio", c -> { //$NON-NLS-1$
+                return new OutputPatternSerDeGenerator().generate(ref, pattern, c);
+            });
+        }
         List<DirectFileOutputPrepareGenerator.Spec> specs = new ArrayList<>();
         specs.add(new DirectFileOutputPrepareGenerator.Spec(
                 output.getName(),
                 model.getBasePath(),
                 gather ? null : model.getResourcePattern(),
+                unordered ? serde : null,
                 model.getFormatClass()));
         ResolvedEdgeInfo edge;
-        if (gather) {
-            ClassDescription serde = generate(context, vertex, "serde.directio", c -> { //$NON-NLS-1$
-                return new OutputPatternSerDeGenerator().generate(ref, pattern, c);
-            });
+        if (gather && unordered == false) {
             Group group = new Group(Collections.emptyList(), pattern.getOrders().stream()
                     .map(o -> new Group.Ordering(
                             o.getTarget().getName(),
@@ -262,6 +282,10 @@ public class DirectFilePortDriver implements ExternalPortDriver {
         return register(builder, plan, info, proc);
     }
 
+    private boolean isOutputUnorderedEnabled() {
+        return options.get(KEY_OUTPUT_UNORDERED, DEFAULT_OUTPUT_UNORDERED);
+    }
+
     private boolean isInputFilterEnabled() {
         return options.get(
                 DirectFileIoPortProcessor.OPTION_FILTER_ENABLED,
@@ -25,6 +25,7 @@ import com.asakusafw.lang.compiler.model.graph.Group;
 /**
  * Provides descriptors of DAG API.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public interface DagDescriptorFactory {
 
@@ -88,4 +89,18 @@ public interface DagDescriptorFactory {
      */
     EdgeDescriptor newScatterGatherEdge(TypeDescription dataType, Group group);
 
+    /**
+     * Creates a new scatter-gather {@link EdgeDescriptor} with a combiner.
+     * The combiner may be applied to the records of the same group before they are gathered,
+     * but this can just ignore it.
+     * @param dataType the data type
+     * @param group the grouping information
+     * @param combiner the combiner class, which is a sub-type of {@code ObjectCombiner} (nullable)
+     * @return the created descriptor
+     * @since 0.5.3
+     */
+    default EdgeDescriptor newScatterGatherEdge(TypeDescription dataType, Group group, ClassDescription combiner) {
+        return newScatterGatherEdge(dataType, group);
+    }
+
 }
\ No newline at end of file
@@ -556,7 +556,8 @@ public final class DataFlowGenerator {
                 ResolvedInputInfo info = new ResolvedInputInfo(
                         spec.getId(),
                         new ResolvedEdgeInfo(
-                                descriptors.newScatterGatherEdge(spec.getDataType(), spec.getPartitionInfo()),
+                                descriptors.newScatterGatherEdge(
+                                        spec.getDataType(), spec.getPartitionInfo(), combinerType),
                                 combinerType == null
                                         ? ResolvedEdgeInfo.Movement.SCATTER_GATHER
                                         : ResolvedEdgeInfo.Movement.AGGREGATE,
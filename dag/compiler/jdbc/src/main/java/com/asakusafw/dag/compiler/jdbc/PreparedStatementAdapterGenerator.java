@@ -52,6 +52,7 @@ import com.asakusafw.runtime.value.ValueOption;
 /**
  * Generates {@link PreparedStatementAdapter}.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public final class PreparedStatementAdapterGenerator {
 
@@ -116,12 +117,38 @@ public final class PreparedStatementAdapterGenerator {
             });
         });
 
+        defineDelegate(writer, target);
         defineBody(writer, dataType, properties, calendarBuf);
 
         writer.visitEnd();
         return new ClassData(target, writer::toByteArray);
     }
 
+    private static void defineDelegate(ClassWriter writer, ClassDescription target) {
+        // drive(row, object) -> drive(row, object, 0)
+        MethodVisitor v = writer.visitMethod(
+                Opcodes.ACC_PUBLIC,
+                "drive", //$NON-NLS-1$
+                Type.getMethodDescriptor(typeOf(void.class), typeOf(PreparedStatement.class), typeOf(Object.class)),
+                null,
+                new String[] {
+                        typeOf(SQLException.class).getInternalName(),
+                });
+        v.visitVarInsn(Opcodes.ALOAD, 0);
+        v.visitVarInsn(Opcodes.ALOAD, 1);
+        v.visitVarInsn(Opcodes.ALOAD, 2);
+        getConst(v, 0);
+        v.visitMethodInsn(Opcodes.INVOKEVIRTUAL,
+                target.getInternalName(),
+                "drive", //$NON-NLS-1$
+                Type.getMethodDescriptor(typeOf(void.class),
+                        typeOf(PreparedStatement.class), typeOf(Object.class), typeOf(int.class)),
+                false);
+        v.visitInsn(Opcodes.RETURN);
+        v.visitMaxs(0, 0);
+        v.visitEnd();
+    }
+
     private static void defineBody(
             ClassWriter writer,
             DataModelReference dataType, List<PropertyReference> properties,
@@ -129,13 +156,15 @@ public final class PreparedStatementAdapterGenerator {
         MethodVisitor v = writer.visitMethod(
                 Opcodes.ACC_PUBLIC,
                 "drive", //$NON-NLS-1$
-                Type.getMethodDescriptor(typeOf(void.class), typeOf(PreparedStatement.class), typeOf(Object.class)),
+                Type.getMethodDescriptor(typeOf(void.class),
+                        typeOf(PreparedStatement.class), typeOf(Object.class), typeOf(int.class)),
                 null,
                 new String[] {
                         typeOf(SQLException.class).getInternalName(),
                 });
         LocalVarRef row = new LocalVarRef(Opcodes.ALOAD, 1);
         LocalVarRef object = cast(v, 2, dataType.getDeclaration());
+        LocalVarRef offset = new LocalVarRef(Opcodes.ILOAD, 3);
 
         int columnIndex = 0;
         for (PropertyReference property : properties) {
@@ -143,7 +172,7 @@ public final class PreparedStatementAdapterGenerator {
 
             object.load(v);
             getOption(v, property);
-            LocalVarRef option = putLocalVar(v, Type.OBJECT, 3);
+            LocalVarRef option = putLocalVar(v, Type.OBJECT, 4);
 
             Label elseIf = new Label();
             Label endIf = new Label();
@@ -158,7 +187,7 @@ public final class PreparedStatementAdapterGenerator {
             v.visitJumpInsn(Opcodes.IFEQ, elseIf);
 
             row.load(v);
-            getConst(v, columnIndex);
+            getIndex(v, offset, columnIndex);
             doSetNull(v, property);
 
             v.visitJumpInsn(Opcodes.GOTO, endIf);
@@ -167,7 +196,7 @@ public final class PreparedStatementAdapterGenerator {
             v.visitLabel(elseIf);
 
             row.load(v);
-            getConst(v, columnIndex);
+            getIndex(v, offset, columnIndex);
             option.load(v);
             doSetValue(v, property, dateBuf);
 
@@ -180,6 +209,12 @@ public final class PreparedStatementAdapterGenerator {
         v.visitEnd();
     }
 
+    private static void getIndex(MethodVisitor method, LocalVarRef offset, int columnIndex) {
+        offset.load(method);
+        getConst(method, columnIndex);
+        method.visitInsn(Opcodes.IADD);
+    }
+
     private static void doSetNull(MethodVisitor method, PropertyReference property) {
         // {PreparedStatement, index:int}
         getConst(method, getSqlType(property));
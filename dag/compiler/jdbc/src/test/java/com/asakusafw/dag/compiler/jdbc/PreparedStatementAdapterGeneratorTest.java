@@ -99,6 +99,36 @@ public class PreparedStatementAdapterGeneratorTest extends JdbcDagCompilerTestRo
         assertThat(collect(Integer.class), contains(100, 200, 300));
     }
 
+    /**
+     * multiple records in each statement.
+     */
+    @Test
+    public void offset() {
+        ClassData data = PreparedStatementAdapterGenerator.generate(
+                context(),
+                new Spec(typeOf(AllType.class), names("int")));
+
+        h2.execute("CREATE TABLE TESTING(K INT AUTO_INCREMENT, V INT);");
+        add(data, c -> {
+            @SuppressWarnings("unchecked")
+            PreparedStatementAdapter<AllType> adapter = (PreparedStatementAdapter<AllType>) c.newInstance();
+            run("INSERT INTO TESTING(V) VALUES(?), (?), (?)", ps -> {
+                AllType buf = new AllType();
+
+                buf.getIntOption().modify(100);
+                adapter.drive(ps, buf, 0);
+
+                buf.getIntOption().modify(200);
+                adapter.drive(ps, buf, 1);
+
+                buf.getIntOption().modify(300);
+                adapter.drive(ps, buf, 2);
+                ps.addBatch();
+            });
+        });
+        assertThat(collect(Integer.class), containsInAnyOrder(100, 200, 300));
+    }
+
     /**
      * multiple columns.
      */
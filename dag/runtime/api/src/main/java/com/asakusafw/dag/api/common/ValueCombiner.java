@@ -0,0 +1,32 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.api.common;
+
+/**
+ * Combines values which have the same key.
+ * @param <T> the value type
+ * @since 0.5.3
+ */
+@FunctionalInterface
+public interface ValueCombiner<T> {
+
+    /**
+     * Merges the right value into the left one.
+     * @param a the target value
+     * @param b the value to be merged
+     */
+    void combine(T a, T b);
+}
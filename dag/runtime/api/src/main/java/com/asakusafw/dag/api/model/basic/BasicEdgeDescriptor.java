@@ -21,6 +21,7 @@ import java.util.Objects;
 import com.asakusafw.dag.api.common.DataComparator;
 import com.asakusafw.dag.api.common.KeyValueSerDe;
 import com.asakusafw.dag.api.common.SupplierInfo;
+import com.asakusafw.dag.api.common.ValueCombiner;
 import com.asakusafw.dag.api.common.ValueSerDe;
 import com.asakusafw.dag.api.model.EdgeDescriptor;
 import com.asakusafw.lang.utils.common.Arguments;
@@ -28,6 +29,7 @@ import com.asakusafw.lang.utils.common.Arguments;
 /**
  * A basic implementation of {@link EdgeDescriptor}.
  * @since 0.4.2
+ * @version 0.5.3
  */
 public class BasicEdgeDescriptor implements EdgeDescriptor {
 
@@ -39,6 +41,8 @@ public class BasicEdgeDescriptor implements EdgeDescriptor {
 
     private final SupplierInfo comparator;
 
+    private final SupplierInfo combiner;
+
     /**
      * Creates a new instance.
      * @param movement the movement type
@@ -47,12 +51,27 @@ public class BasicEdgeDescriptor implements EdgeDescriptor {
      * @param comparator information of supplier which provides {@link DataComparator} (nullable)
      */
     public BasicEdgeDescriptor(Movement movement, SupplierInfo serde, SupplierInfo comparator) {
+        this(movement, serde, comparator, null);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param movement the movement type
+     * @param serde information of supplier which provides
+     *     either {@link ValueSerDe} or {@link KeyValueSerDe} (nullable)
+     * @param comparator information of supplier which provides {@link DataComparator} (nullable)
+     * @param combiner information of supplier which provides {@link ValueCombiner} (nullable)
+     * @since 0.5.3
+     */
+    public BasicEdgeDescriptor(
+            Movement movement, SupplierInfo serde, SupplierInfo comparator, SupplierInfo combiner) {
         Arguments.requireNonNull(movement);
         switch (movement) {
         case ONE_TO_ONE:
         case BROADCAST:
             Arguments.require(serde != null);
             Arguments.require(comparator == null);
+            Arguments.require(combiner == null);
             break;
         case SCATTER_GATHER:
             Arguments.require(serde != null);
@@ -60,6 +79,7 @@ public class BasicEdgeDescriptor implements EdgeDescriptor {
         case NOTHING:
             Arguments.require(serde == null);
             Arguments.require(comparator == null);
+            Arguments.require(combiner == null);
             break;
         default:
             throw new AssertionError();
@@ -67,6 +87,7 @@ public class BasicEdgeDescriptor implements EdgeDescriptor {
         this.movement = movement;
         this.serde = serde;
         this.comparator = comparator;
+        this.combiner = combiner;
     }
 
     /**
@@ -93,6 +114,15 @@ public class BasicEdgeDescriptor implements EdgeDescriptor {
         return comparator;
     }
 
+    /**
+     * Returns the information of supplier which provides {@link ValueCombiner}.
+     * @return the combiner supplier information, or {@code null} if it is not defined
+     * @since 0.5.3
+     */
+    public SupplierInfo getCombiner() {
+        return combiner;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -100,6 +130,7 @@ public class BasicEdgeDescriptor implements EdgeDescriptor {
         result = prime * result + Objects.hashCode(movement);
         result = prime * result + Objects.hashCode(serde);
         result = prime * result + Objects.hashCode(comparator);
+        result = prime * result + Objects.hashCode(combiner);
         return result;
     }
 
@@ -124,6 +155,9 @@ public class BasicEdgeDescriptor implements EdgeDescriptor {
         if (!Objects.equals(comparator, other.comparator)) {
             return false;
         }
+        if (!Objects.equals(combiner, other.combiner)) {
+            return false;
+        }
         return true;
     }
 
@@ -0,0 +1,36 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.api.processor;
+
+import java.io.IOException;
+
+/**
+ * An {@link ObjectReader} which consists of multiple fragments.
+ * Each fragment can be detached from this reader, and then the detached fragments can be read on different threads.
+ * @since 0.5.3
+ */
+public interface FragmentedObjectReader extends ObjectReader {
+
+    /**
+     * Detaches the next fragment from this reader.
+     * The detached fragment is never read from this reader and the other detached readers.
+     * This method is thread-safe.
+     * @return a reader of the detached fragment, or {@code null} if there are no more fragments
+     * @throws IOException if I/O error occurred while detaching the next fragment
+     * @throws InterruptedException if interrupted while detaching the next fragment
+     */
+    ObjectReader nextFragment() throws IOException, InterruptedException;
+}
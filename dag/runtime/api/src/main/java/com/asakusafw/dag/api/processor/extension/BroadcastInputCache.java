@@ -0,0 +1,236 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.api.processor.extension;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.asakusafw.lang.utils.common.Arguments;
+import com.asakusafw.lang.utils.common.InterruptibleIo.IoCallable;
+import com.asakusafw.lang.utils.common.Lang;
+
+/**
+ * Shares immutable objects built from broadcast inputs between vertices in the same graph.
+ * The execution engine {@link #register(String, String, Object) registers} each broadcast input with the identity
+ * of its upstream outputs, and then {@link #release(String, String) releases} it when the consumer vertex has
+ * completed the input.
+ * Cached objects are discarded after all consumers of the same upstream outputs have released their inputs.
+ * @since 0.5.3
+ */
+public class BroadcastInputCache {
+
+    private final Map<Port, Source> ports = new HashMap<>();
+
+    private final Map<Object, Source> sources = new HashMap<>();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Registers a broadcast input.
+     * @param vertexId the consumer vertex ID
+     * @param inputId the input ID in the consumer vertex
+     * @param source the identity of the upstream outputs of the input
+     */
+    public synchronized void register(String vertexId, String inputId, Object source) {
+        Arguments.requireNonNull(vertexId);
+        Arguments.requireNonNull(inputId);
+        Arguments.requireNonNull(source);
+        Port port = new Port(vertexId, inputId);
+        Arguments.require(ports.containsKey(port) == false, port::toString);
+        Source entry = sources.computeIfAbsent(source, Source::new);
+        entry.consumers++;
+        ports.put(port, entry);
+    }
+
+    /**
+     * Returns the cached object, or builds a new object and then put it into this cache.
+     * If the target input has not been registered, this just builds a new object and never caches it.
+     * @param <T> the object type
+     * @param vertexId the consumer vertex ID
+     * @param inputId the input ID in the consumer vertex
+     * @param key the object key, which must identify how to build the object from the input
+     * @param builder builds a new object from the input
+     * @return the cached or built object
+     * @throws IOException if I/O error was occurred while building the object
+     * @throws InterruptedException if interrupted while building the object
+     */
+    public <T> T get(
+            String vertexId, String inputId, Object key,
+            IoCallable<? extends T> builder) throws IOException, InterruptedException {
+        Arguments.requireNonNull(vertexId);
+        Arguments.requireNonNull(inputId);
+        Arguments.requireNonNull(key);
+        Arguments.requireNonNull(builder);
+        Source source;
+        FutureTask<?> task;
+        boolean owner = false;
+        synchronized (this) {
+            source = ports.get(new Port(vertexId, inputId));
+            if (source == null) {
+                task = null;
+            } else {
+                task = source.entries.get(key);
+                if (task == null) {
+                    task = new FutureTask<>(builder);
+                    source.entries.put(key, task);
+                    owner = true;
+                }
+            }
+        }
+        if (task == null) {
+            return builder.call();
+        }
+        if (owner) {
+            missCount.increment();
+            task.run();
+        } else {
+            hitCount.increment();
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            T result = (T) task.get();
+            return result;
+        } catch (ExecutionException e) {
+            // failures are not cached
+            synchronized (this) {
+                source.entries.remove(key, task);
+            }
+            Throwable t = e.getCause();
+            Lang.rethrow(t, Error.class);
+            Lang.rethrow(t, RuntimeException.class);
+            Lang.rethrow(t, IOException.class);
+            Lang.rethrow(t, InterruptedException.class);
+            throw new IOException(t);
+        }
+    }
+
+    /**
+     * Releases a broadcast input.
+     * This does nothing if the input has not been registered.
+     * @param vertexId the consumer vertex ID
+     * @param inputId the input ID in the consumer vertex
+     */
+    public synchronized void release(String vertexId, String inputId) {
+        Arguments.requireNonNull(vertexId);
+        Arguments.requireNonNull(inputId);
+        Source source = ports.remove(new Port(vertexId, inputId));
+        if (source == null) {
+            return;
+        }
+        source.consumers--;
+        if (source.consumers <= 0) {
+            sources.remove(source.identity);
+            source.entries.clear();
+        }
+    }
+
+    /**
+     * Returns the number of cached objects.
+     * @return the number of cached objects
+     */
+    public synchronized int size() {
+        return sources.values().stream()
+                .mapToInt(s -> s.entries.size())
+                .sum();
+    }
+
+    /**
+     * Returns the number of requests which are satisfied with the cached objects.
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of requests which have built new cached objects.
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "BroadcastInputCache(entries=%,d, hit=%,d, miss=%,d)", //$NON-NLS-1$
+                size(),
+                getHitCount(),
+                getMissCount());
+    }
+
+    private static final class Source {
+
+        final Object identity;
+
+        final Map<Object, FutureTask<?>> entries = new HashMap<>();
+
+        int consumers;
+
+        Source(Object identity) {
+            this.identity = identity;
+        }
+    }
+
+    private static final class Port {
+
+        private final String vertexId;
+
+        private final String inputId;
+
+        Port(String vertexId, String inputId) {
+            this.vertexId = vertexId;
+            this.inputId = inputId;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + Objects.hashCode(vertexId);
+            result = prime * result + Objects.hashCode(inputId);
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            Port other = (Port) obj;
+            return Objects.equals(vertexId, other.vertexId)
+                    && Objects.equals(inputId, other.inputId);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s.%s", vertexId, inputId); //$NON-NLS-1$
+        }
+    }
+}
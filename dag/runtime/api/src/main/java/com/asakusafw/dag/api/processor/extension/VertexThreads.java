@@ -0,0 +1,68 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.api.processor.extension;
+
+import java.util.concurrent.Executor;
+
+import com.asakusafw.lang.utils.common.Arguments;
+
+/**
+ * Provides the worker threads of the running vertex.
+ * {@link com.asakusafw.dag.api.processor.VertexProcessor VertexProcessor} can use them for initializing itself in
+ * parallel, within the same thread budget as the tasks of the vertex.
+ * The execution engine provides this via
+ * {@link com.asakusafw.dag.api.processor.VertexProcessorContext#getResource(Class) VertexProcessorContext}.
+ * @since 0.5.3
+ */
+public class VertexThreads {
+
+    private final Executor executor;
+
+    private final int parallelism;
+
+    /**
+     * Creates a new instance.
+     * @param executor the executor of the worker threads
+     * @param parallelism the max number of workers which can run concurrently
+     */
+    public VertexThreads(Executor executor, int parallelism) {
+        Arguments.requireNonNull(executor);
+        Arguments.require(parallelism >= 1);
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the executor of the worker threads.
+     * @return the executor
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Returns the max number of workers which can run concurrently.
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("VertexThreads(parallelism=%d)", parallelism); //$NON-NLS-1$
+    }
+}
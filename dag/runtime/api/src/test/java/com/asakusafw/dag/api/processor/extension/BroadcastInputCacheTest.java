@@ -0,0 +1,123 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.api.processor.extension;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link BroadcastInputCache}.
+ */
+public class BroadcastInputCacheTest {
+
+    /**
+     * simple case.
+     * @throws Exception if failed
+     */
+    @Test
+    public void simple() throws Exception {
+        BroadcastInputCache cache = new BroadcastInputCache();
+        cache.register("v0", "in", "up");
+        cache.register("v1", "in", "up");
+        assertThat(cache.get("v0", "in", "k", () -> "A"), is("A"));
+        assertThat(cache.get("v1", "in", "k", () -> "X"), is("A"));
+        assertThat(cache.size(), is(1));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    /**
+     * different keys.
+     * @throws Exception if failed
+     */
+    @Test
+    public void keys() throws Exception {
+        BroadcastInputCache cache = new BroadcastInputCache();
+        cache.register("v0", "in", "up");
+        cache.register("v1", "in", "up");
+        assertThat(cache.get("v0", "in", "a", () -> "A"), is("A"));
+        assertThat(cache.get("v1", "in", "b", () -> "B"), is("B"));
+        assertThat(cache.size(), is(2));
+    }
+
+    /**
+     * different sources.
+     * @throws Exception if failed
+     */
+    @Test
+    public void sources() throws Exception {
+        BroadcastInputCache cache = new BroadcastInputCache();
+        cache.register("v0", "in", "up0");
+        cache.register("v1", "in", "up1");
+        assertThat(cache.get("v0", "in", "k", () -> "A"), is("A"));
+        assertThat(cache.get("v1", "in", "k", () -> "B"), is("B"));
+        assertThat(cache.size(), is(2));
+    }
+
+    /**
+     * cached objects are discarded after all consumers are released.
+     * @throws Exception if failed
+     */
+    @Test
+    public void release() throws Exception {
+        BroadcastInputCache cache = new BroadcastInputCache();
+        cache.register("v0", "in", "up");
+        cache.register("v1", "in", "up");
+        cache.get("v0", "in", "k", () -> "A");
+        cache.release("v0", "in");
+        assertThat(cache.size(), is(1));
+        assertThat(cache.get("v1", "in", "k", () -> "X"), is("A"));
+        cache.release("v1", "in");
+        assertThat(cache.size(), is(0));
+    }
+
+    /**
+     * unregistered inputs are never cached.
+     * @throws Exception if failed
+     */
+    @Test
+    public void unregistered() throws Exception {
+        BroadcastInputCache cache = new BroadcastInputCache();
+        assertThat(cache.get("v0", "in", "k", () -> "A"), is("A"));
+        assertThat(cache.get("v0", "in", "k", () -> "B"), is("B"));
+        assertThat(cache.size(), is(0));
+        cache.release("v0", "in");
+    }
+
+    /**
+     * failures are not cached.
+     * @throws Exception if failed
+     */
+    @Test
+    public void failure() throws Exception {
+        BroadcastInputCache cache = new BroadcastInputCache();
+        cache.register("v0", "in", "up");
+        try {
+            cache.get("v0", "in", "k", () -> {
+                throw new IOException();
+            });
+            fail();
+        } catch (IOException e) {
+            // ok.
+        }
+        assertThat(cache.size(), is(0));
+        assertThat(cache.get("v0", "in", "k", () -> "A"), is("A"));
+    }
+}
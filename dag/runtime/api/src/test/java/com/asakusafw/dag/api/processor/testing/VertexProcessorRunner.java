@@ -45,6 +45,8 @@ public class VertexProcessorRunner implements Runnable {
 
     private final Callable<? extends VertexProcessor> processorFactory;
 
+    private final Map<String, String> properties = new LinkedHashMap<>();
+
     private final Map<Class<?>, Supplier<?>> resources = new LinkedHashMap<>();
 
     private final Map<String, List<Object>> mainInputs = new LinkedHashMap<>();
@@ -152,6 +154,7 @@ public class VertexProcessorRunner implements Runnable {
     }
 
     private void putResources(AbstractProcessorContext<?> context) {
+        properties.forEach(context::withProperty);
         resources.forEach((c, s) -> context.withResource(c, c.cast(s.get())));
     }
 
@@ -159,6 +162,17 @@ public class VertexProcessorRunner implements Runnable {
         outputs.forEach((n, w) -> context.withOutput(n, () -> w));
     }
 
+    /**
+     * Adds a property to contexts.
+     * @param key the property key
+     * @param value the property value
+     * @return this
+     */
+    public VertexProcessorRunner property(String key, String value) {
+        properties.put(key, value);
+        return this;
+    }
+
     /**
      * Adds a resource to contexts.
      * @param <T> the resource type
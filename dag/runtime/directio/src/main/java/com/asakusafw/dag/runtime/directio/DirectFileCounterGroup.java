@@ -29,6 +29,7 @@ import com.asakusafw.runtime.directio.Counter;
 /**
  * An implementation of {@link CounterGroup} for Direct I/O.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class DirectFileCounterGroup implements CounterGroup {
 
@@ -38,9 +39,13 @@ public class DirectFileCounterGroup implements CounterGroup {
     public static final Category<DirectFileCounterGroup> CATEGORY_INPUT = new BasicCounterGroupCategory<>(
             "Direct I/O file input",
             Scope.GRAPH,
-            Arrays.asList(StandardColumn.INPUT_FILE_SIZE, StandardColumn.INPUT_RECORD),
+            Arrays.asList(
+                    StandardColumn.INPUT_FILE_SIZE, StandardColumn.INPUT_RECORD,
+                    DiscoveryColumn.INPUT_FILE_COUNT, DiscoveryColumn.INPUT_LISTING_TIME),
             "directio-0-input", //$NON-NLS-1$
-            () -> new DirectFileCounterGroup(StandardColumn.INPUT_FILE_SIZE, StandardColumn.INPUT_RECORD));
+            () -> new DirectFileCounterGroup(
+                    StandardColumn.INPUT_FILE_SIZE, StandardColumn.INPUT_RECORD,
+                    DiscoveryColumn.INPUT_FILE_COUNT, DiscoveryColumn.INPUT_LISTING_TIME));
 
     /**
      * The {@link CounterGroup} category for Direct I/O file outputs.
@@ -58,6 +63,10 @@ public class DirectFileCounterGroup implements CounterGroup {
 
     private final Counter recordCount = new Counter();
 
+    private final Counter fileCount = new Counter();
+
+    private final Counter listingTime = new Counter();
+
     /**
      * Creates a new instance.
      * @param fileSize the file size in bytes
@@ -70,6 +79,22 @@ public class DirectFileCounterGroup implements CounterGroup {
         counters.put(recordCount, this.recordCount);
     }
 
+    /**
+     * Creates a new instance.
+     * @param fileSize the file size in bytes
+     * @param recordCount the record count
+     * @param fileCount the number of discovered input fragments
+     * @param listingTime the elapsed time of discovering input fragments in milliseconds
+     * @since 0.5.3
+     */
+    public DirectFileCounterGroup(Column fileSize, Column recordCount, Column fileCount, Column listingTime) {
+        this(fileSize, recordCount);
+        Arguments.requireNonNull(fileCount);
+        Arguments.requireNonNull(listingTime);
+        counters.put(fileCount, this.fileCount);
+        counters.put(listingTime, this.listingTime);
+    }
+
     @Override
     public long getCount(Column column) {
         Counter counter = counters.get(column);
@@ -92,4 +117,57 @@ public class DirectFileCounterGroup implements CounterGroup {
     public Counter getRecordCount() {
         return recordCount;
     }
+
+    /**
+     * Returns the number of discovered input fragments.
+     * @return the number of input fragments
+     * @since 0.5.3
+     */
+    public Counter getFileCount() {
+        return fileCount;
+    }
+
+    /**
+     * Returns the elapsed time of discovering input fragments.
+     * This does not include the input fragments which were reused from the {@link DirectFileInputCache}.
+     * @return the elapsed time in milliseconds
+     * @since 0.5.3
+     */
+    public Counter getListingTime() {
+        return listingTime;
+    }
+
+    /**
+     * Represents columns about discovering Direct I/O input fragments.
+     * @since 0.5.3
+     */
+    public enum DiscoveryColumn implements Column {
+
+        /**
+         * The number of input fragments.
+         */
+        INPUT_FILE_COUNT("number of input files"),
+
+        /**
+         * The elapsed time of listing input files.
+         */
+        INPUT_LISTING_TIME("input listing time in milliseconds"),
+        ;
+
+        private final String description;
+
+        DiscoveryColumn(String description) {
+            this.description = description;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public String getIndexText() {
+            return String.format("DIRECTIO.%04d", ordinal()); //$NON-NLS-1$
+        }
+    }
 }
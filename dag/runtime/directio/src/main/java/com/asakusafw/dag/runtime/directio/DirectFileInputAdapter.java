@@ -17,8 +17,14 @@ package com.asakusafw.dag.runtime.directio;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hadoop.conf.Configuration;
 import org.slf4j.Logger;
@@ -45,9 +51,35 @@ import com.asakusafw.runtime.directio.hadoop.HadoopDataSourceUtil;
 /**
  * {@link InputAdapter} for Direct I/O.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class DirectFileInputAdapter implements InputAdapter<ExtractOperation.Input> {
 
+    /**
+     * The configuration key of the target size of each composite input task in bytes, which consists of
+     * small input fragments, or {@code 0} to disable combining fragments.
+     * @since 0.5.3
+     */
+    public static final String KEY_COMBINE_SIZE = "com.asakusafw.dag.input.directio.combine.size"; //$NON-NLS-1$
+
+    /**
+     * The default value of {@link #KEY_COMBINE_SIZE} (disabled).
+     * @since 0.5.3
+     */
+    public static final long DEFAULT_COMBINE_SIZE = 0L;
+
+    /**
+     * The configuration key of the max number of threads for discovering input fragments of the individual inputs.
+     * @since 0.5.3
+     */
+    public static final String KEY_DISCOVERY_THREADS = "com.asakusafw.dag.input.directio.discovery.threads"; //$NON-NLS-1$
+
+    /**
+     * The default value of {@link #KEY_DISCOVERY_THREADS}.
+     * @since 0.5.3
+     */
+    public static final int DEFAULT_DISCOVERY_THREADS = 4;
+
     static final Logger LOG = LoggerFactory.getLogger(DirectFileInputAdapter.class);
 
     private final StageInfo stage;
@@ -58,6 +90,12 @@ public class DirectFileInputAdapter implements InputAdapter<ExtractOperation.Inp
 
     private final DataFilter.Context filterContext;
 
+    private final long combineSize;
+
+    private final int discoveryThreads;
+
+    private final DirectFileInputCache cache;
+
     private final List<Action<DirectFileInputTaskSchedule, Exception>> actions = new ArrayList<>();
 
     /**
@@ -73,6 +111,26 @@ public class DirectFileInputAdapter implements InputAdapter<ExtractOperation.Inp
         this.counterRoot = context.getResource(CounterRepository.class)
                 .orElse(CounterRepository.DETACHED);
         this.filterContext = new DataFilter.Context(stage.getBatchArguments());
+        this.combineSize = extract(context, KEY_COMBINE_SIZE, DEFAULT_COMBINE_SIZE);
+        this.discoveryThreads = (int) Math.min(
+                extract(context, KEY_DISCOVERY_THREADS, DEFAULT_DISCOVERY_THREADS),
+                Integer.MAX_VALUE);
+        this.cache = context.getResource(DirectFileInputCache.class).orElse(null);
+    }
+
+    private static long extract(VertexProcessorContext context, String key, long defaultValue) {
+        return context.getProperty(key)
+                .map(String::trim)
+                .map(value -> {
+                    try {
+                        return Long.parseLong(value);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException(MessageFormat.format(
+                                "{0} must be a valid integer: {1}",
+                                key, value), e);
+                    }
+                })
+                .orElse(defaultValue);
     }
 
     /**
@@ -110,17 +168,57 @@ public class DirectFileInputAdapter implements InputAdapter<ExtractOperation.Inp
                 HadoopDataSourceUtil.loadRepository(configuration),
                 filterContext,
                 new HadoopObjectFactory(configuration),
-                stage::resolveUserVariables);
-        try {
-            Lang.forEach(actions, a -> a.perform(schedule));
-        } catch (IOException | InterruptedException | RuntimeException | Error e) {
-            throw e;
-        } catch (Exception e) {
-            throw new IllegalStateException(e);
+                stage::resolveUserVariables,
+                Math.max(combineSize, 0L),
+                cache);
+        int threads = Math.min(discoveryThreads, actions.size());
+        if (threads <= 1) {
+            try {
+                Lang.forEach(actions, a -> a.perform(schedule));
+            } catch (IOException | InterruptedException | RuntimeException | Error e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        } else {
+            perform(schedule, threads);
         }
         return schedule;
     }
 
+    private void perform(
+            DirectFileInputTaskSchedule schedule, int threads) throws IOException, InterruptedException {
+        LOG.debug("discovering Direct I/O inputs: inputs={}, threads={}", actions.size(), threads); //$NON-NLS-1$
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> Lang.let(new Thread(r), t -> {
+            t.setName(String.format("directio-discovery-%d", counter.incrementAndGet())); //$NON-NLS-1$
+            t.setDaemon(true);
+        }));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Action<DirectFileInputTaskSchedule, Exception> action : actions) {
+                futures.add(executor.submit(() -> {
+                    action.perform(schedule);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    Throwable t = e.getCause();
+                    Lang.rethrow(t, Error.class);
+                    Lang.rethrow(t, RuntimeException.class);
+                    Lang.rethrow(t, IOException.class);
+                    Lang.rethrow(t, InterruptedException.class);
+                    throw new IllegalStateException(t);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Override
     public InputHandler<Input, TaskProcessorContext> newHandler() throws IOException, InterruptedException {
         return new ModelInputHandler();
@@ -0,0 +1,170 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.directio;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.asakusafw.lang.utils.common.Arguments;
+import com.asakusafw.lang.utils.common.InterruptibleIo.IoCallable;
+import com.asakusafw.lang.utils.common.Lang;
+import com.asakusafw.runtime.directio.DirectInputFragment;
+
+/**
+ * Caches the discovered Direct I/O input fragments during a stage.
+ * Each entry is computed only once even if the same input is requested concurrently.
+ * @since 0.5.3
+ */
+public class DirectFileInputCache {
+
+    static final Logger LOG = LoggerFactory.getLogger(DirectFileInputCache.class);
+
+    private final ConcurrentMap<Key, FutureTask<List<DirectInputFragment>>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cached input fragments, or computes them if they are not cached.
+     * @param containerPath the container path of the target data source
+     * @param componentPath the component path in the data source
+     * @param resourcePattern the resolved resource pattern string
+     * @param dataFormat the data format class
+     * @param dataFilter the data filter class (nullable)
+     * @param finder computes the input fragments
+     * @return the input fragments
+     * @throws IOException if I/O error was occurred while computing the input fragments
+     * @throws InterruptedException if interrupted while computing the input fragments
+     */
+    public List<DirectInputFragment> find(
+            String containerPath, String componentPath, String resourcePattern,
+            Class<?> dataFormat, Class<?> dataFilter,
+            IoCallable<? extends List<DirectInputFragment>> finder) throws IOException, InterruptedException {
+        Arguments.requireNonNull(containerPath);
+        Arguments.requireNonNull(componentPath);
+        Arguments.requireNonNull(resourcePattern);
+        Arguments.requireNonNull(dataFormat);
+        Arguments.requireNonNull(finder);
+        Key key = new Key(containerPath, componentPath, resourcePattern, dataFormat, dataFilter);
+        FutureTask<List<DirectInputFragment>> task = new FutureTask<>(
+                () -> Collections.unmodifiableList(new ArrayList<>(finder.call())));
+        FutureTask<List<DirectInputFragment>> cached = entries.putIfAbsent(key, task);
+        if (cached == null) {
+            task.run();
+            cached = task;
+        } else {
+            LOG.debug("reuse input fragments: {}", key); //$NON-NLS-1$
+        }
+        try {
+            return cached.get();
+        } catch (ExecutionException e) {
+            // failures are not cached
+            entries.remove(key, cached);
+            Throwable t = e.getCause();
+            Lang.rethrow(t, Error.class);
+            Lang.rethrow(t, RuntimeException.class);
+            Lang.rethrow(t, IOException.class);
+            Lang.rethrow(t, InterruptedException.class);
+            throw new IOException(t);
+        }
+    }
+
+    /**
+     * Returns the number of cached entries.
+     * @return the number of cached entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Invalidates all cached entries.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DirectFileInputCache(entries=%,d)", entries.size()); //$NON-NLS-1$
+    }
+
+    private static final class Key {
+
+        private final String containerPath;
+
+        private final String componentPath;
+
+        private final String resourcePattern;
+
+        private final Class<?> dataFormat;
+
+        private final Class<?> dataFilter;
+
+        Key(String containerPath, String componentPath, String resourcePattern,
+                Class<?> dataFormat, Class<?> dataFilter) {
+            this.containerPath = containerPath;
+            this.componentPath = componentPath;
+            this.resourcePattern = resourcePattern;
+            this.dataFormat = dataFormat;
+            this.dataFilter = dataFilter;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + Objects.hashCode(containerPath);
+            result = prime * result + Objects.hashCode(componentPath);
+            result = prime * result + Objects.hashCode(resourcePattern);
+            result = prime * result + Objects.hashCode(dataFormat);
+            result = prime * result + Objects.hashCode(dataFilter);
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return Objects.equals(containerPath, other.containerPath)
+                    && Objects.equals(componentPath, other.componentPath)
+                    && Objects.equals(resourcePattern, other.resourcePattern)
+                    && Objects.equals(dataFormat, other.dataFormat)
+                    && Objects.equals(dataFilter, other.dataFilter);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s/%s/%s (%s)", //$NON-NLS-1$
+                    containerPath, componentPath, resourcePattern, dataFormat.getName());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.directio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.asakusafw.dag.api.processor.ProcessorContext;
+import com.asakusafw.dag.api.processor.extension.ProcessorContextExtension;
+import com.asakusafw.lang.utils.common.InterruptibleIo;
+
+/**
+ * Installs {@link DirectFileInputCache} into the core processor environment.
+ * The installed cache is invalidated when the current stage was finished.
+ * @since 0.5.3
+ */
+public class DirectFileInputCacheInstaller implements ProcessorContextExtension {
+
+    /**
+     * The property key whether this feature is enabled or not.
+     */
+    public static final String KEY_ENABLED = "com.asakusafw.dag.input.directio.cache"; //$NON-NLS-1$
+
+    /**
+     * The default value of {@link #KEY_ENABLED}.
+     */
+    public static final boolean DEFAULT_ENABLED = true;
+
+    static final Logger LOG = LoggerFactory.getLogger(DirectFileInputCacheInstaller.class);
+
+    @Override
+    public InterruptibleIo install(ProcessorContext context, ProcessorContext.Editor editor) {
+        boolean enabled = context.getProperty(KEY_ENABLED)
+            .map(Boolean::parseBoolean)
+            .orElse(DEFAULT_ENABLED);
+        if (enabled == false) {
+            LOG.debug("Direct I/O input cache is disabled");
+            return null;
+        }
+        LOG.debug("enabling Direct I/O input cache");
+        DirectFileInputCache cache = new DirectFileInputCache();
+        editor.addResource(DirectFileInputCache.class, cache);
+        return () -> {
+            LOG.debug("invalidating Direct I/O input cache: {}", cache);
+            cache.clear();
+        };
+    }
+}
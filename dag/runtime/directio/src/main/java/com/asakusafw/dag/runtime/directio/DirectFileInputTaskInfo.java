@@ -16,6 +16,11 @@
 package com.asakusafw.dag.runtime.directio;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.function.Supplier;
 
 import com.asakusafw.dag.api.processor.TaskInfo;
@@ -31,6 +36,7 @@ import com.asakusafw.runtime.io.ModelInput;
  * A {@link TaskInfo} for Direct I/O file input.
  * @param <T> the input data type
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class DirectFileInputTaskInfo<T> implements ModelInputTaskInfo<T> {
 
@@ -38,7 +44,7 @@ public class DirectFileInputTaskInfo<T> implements ModelInputTaskInfo<T> {
 
     private final DataDefinition<T> dataDefinition;
 
-    private final DirectInputFragment fragment;
+    private final List<DirectInputFragment> fragments;
 
     private final Supplier<? extends T> objectFactory;
 
@@ -58,27 +64,109 @@ public class DirectFileInputTaskInfo<T> implements ModelInputTaskInfo<T> {
             DirectInputFragment fragment,
             Supplier<? extends T> objectFactory,
             DirectFileCounterGroup counters) {
+        this(dataSource, dataDefinition,
+                Collections.singletonList(Arguments.requireNonNull(fragment)),
+                objectFactory, counters);
+    }
+
+    /**
+     * Creates a new instance, which reads the given fragments sequentially.
+     * @param dataSource input data source
+     * @param dataDefinition input data definition
+     * @param fragments input fragments
+     * @param objectFactory object factory for creating buffer objects
+     * @param counters the counter group
+     * @since 0.5.3
+     */
+    public DirectFileInputTaskInfo(
+            DirectDataSource dataSource,
+            DataDefinition<T> dataDefinition,
+            List<? extends DirectInputFragment> fragments,
+            Supplier<? extends T> objectFactory,
+            DirectFileCounterGroup counters) {
         Arguments.requireNonNull(dataSource);
         Arguments.requireNonNull(dataDefinition);
-        Arguments.requireNonNull(fragment);
+        Arguments.requireNonNull(fragments);
+        Arguments.require(fragments.isEmpty() == false);
         Arguments.requireNonNull(objectFactory);
         Arguments.requireNonNull(counters);
         this.dataSource = dataSource;
         this.dataDefinition = dataDefinition;
-        this.fragment = fragment;
+        this.fragments = new ArrayList<>(fragments);
         this.objectFactory = objectFactory;
         this.counters = counters;
     }
 
+    /**
+     * Returns the input fragments.
+     * @return the input fragments
+     * @since 0.5.3
+     */
+    public List<DirectInputFragment> getFragments() {
+        return Collections.unmodifiableList(fragments);
+    }
+
     @Override
     public ModelInput<T> open() throws IOException, InterruptedException {
-        return new CountingModelInput<>(
-                dataSource.openInput(dataDefinition, fragment, counters.getFileSize()),
-                counters.getRecordCount()::add);
+        ModelInput<T> input;
+        if (fragments.size() == 1) {
+            input = open(fragments.get(0));
+        } else {
+            input = new CompositeInput(fragments.iterator());
+        }
+        return new CountingModelInput<>(input, counters.getRecordCount()::add);
+    }
+
+    private ModelInput<T> open(DirectInputFragment fragment) throws IOException, InterruptedException {
+        return dataSource.openInput(dataDefinition, fragment, counters.getFileSize());
     }
 
     @Override
     public T newDataObject() {
         return objectFactory.get();
     }
+
+    private final class CompositeInput implements ModelInput<T> {
+
+        private final Iterator<DirectInputFragment> rest;
+
+        private ModelInput<T> current;
+
+        CompositeInput(Iterator<DirectInputFragment> fragments) {
+            this.rest = fragments;
+        }
+
+        @Override
+        public boolean readTo(T model) throws IOException {
+            while (true) {
+                if (current == null) {
+                    if (rest.hasNext() == false) {
+                        return false;
+                    }
+                    // opens each fragment only when the previous one was exhausted
+                    try {
+                        current = open(rest.next());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw (IOException) new InterruptedIOException().initCause(e);
+                    }
+                }
+                if (current.readTo(model)) {
+                    return true;
+                }
+                ModelInput<T> finished = current;
+                current = null;
+                finished.close();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            ModelInput<T> finished = current;
+            current = null;
+            if (finished != null) {
+                finished.close();
+            }
+        }
+    }
 }
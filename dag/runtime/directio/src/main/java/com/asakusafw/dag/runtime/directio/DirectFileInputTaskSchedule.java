@@ -17,12 +17,20 @@ package com.asakusafw.dag.runtime.directio;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.asakusafw.dag.api.common.ObjectFactory;
 import com.asakusafw.dag.api.processor.TaskSchedule;
 import com.asakusafw.lang.utils.common.Arguments;
+import com.asakusafw.lang.utils.common.InterruptibleIo.IoCallable;
 import com.asakusafw.runtime.directio.DataDefinition;
 import com.asakusafw.runtime.directio.DataFilter;
 import com.asakusafw.runtime.directio.DataFormat;
@@ -35,9 +43,12 @@ import com.asakusafw.runtime.directio.ResourcePattern;
 /**
  * A {@link TaskSchedule} for Direct I/O file input.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class DirectFileInputTaskSchedule implements TaskSchedule {
 
+    static final Logger LOG = LoggerFactory.getLogger(DirectFileInputTaskSchedule.class);
+
     private final DirectDataSourceRepository repository;
 
     private final ObjectFactory factory;
@@ -46,6 +57,10 @@ public class DirectFileInputTaskSchedule implements TaskSchedule {
 
     private final Function<String, String> variables;
 
+    private final long combineSize;
+
+    private final DirectFileInputCache cache;
+
     private final List<DirectFileInputTaskInfo<?>> tasks = new ArrayList<>();
 
     /**
@@ -60,14 +75,40 @@ public class DirectFileInputTaskSchedule implements TaskSchedule {
             DataFilter.Context filterContext,
             ObjectFactory factory,
             Function<String, String> variableResolver) {
+        this(repository, filterContext, factory, variableResolver, 0L, null);
+    }
+
+    /**
+     * Creates a new instance.
+     * If {@code combineSize} is greater than {@code 0}, this packs the small input fragments into composite tasks,
+     * which read the individual fragments sequentially, so that each task has about {@code combineSize} bytes.
+     * Inputs can be added from multiple threads.
+     * @param repository the Direct I/O data source repository
+     * @param filterContext the data filter context
+     * @param factory an object factory
+     * @param variableResolver the user variable resolver
+     * @param combineSize the target size of each composite task in bytes, or {@code 0} to disable combining
+     * @param cache the input fragment cache (nullable)
+     * @since 0.5.3
+     */
+    public DirectFileInputTaskSchedule(
+            DirectDataSourceRepository repository,
+            DataFilter.Context filterContext,
+            ObjectFactory factory,
+            Function<String, String> variableResolver,
+            long combineSize,
+            DirectFileInputCache cache) {
         Arguments.requireNonNull(repository);
         Arguments.requireNonNull(filterContext);
         Arguments.requireNonNull(factory);
         Arguments.requireNonNull(variableResolver);
+        Arguments.require(combineSize >= 0);
         this.repository = repository;
         this.filterContext = filterContext;
         this.factory = factory;
         this.variables = variableResolver;
+        this.combineSize = combineSize;
+        this.cache = cache;
     }
 
     /**
@@ -111,34 +152,99 @@ public class DirectFileInputTaskSchedule implements TaskSchedule {
         Arguments.requireNonNull(dataFormat);
         Arguments.requireNonNull(counters);
         String resolvedBasePath = variables.apply(basePath);
-        ResourcePattern resolvedResourcePattern = FilePattern.compile(variables.apply(resourcePattern));
+        String resolvedResourcePattern = variables.apply(resourcePattern);
         DataDefinition<?> definition = BasicDataDefinition.newInstance(factory, dataFormat, dataFilter);
         if (definition.getDataFilter() != null) {
             definition.getDataFilter().initialize(filterContext);
         }
-        return addInput0(resolvedBasePath, resolvedResourcePattern, definition, counters);
+        return addInput0(resolvedBasePath, resolvedResourcePattern, definition, dataFormat, dataFilter, counters);
     }
 
     private <T> int addInput0(
             String basePath,
-            ResourcePattern resourcePattern,
+            String resourcePattern,
             DataDefinition<T> definition,
+            Class<?> dataFormat, Class<?> dataFilter,
             DirectFileCounterGroup counters) throws IOException, InterruptedException {
         String containerPath = repository.getContainerPath(basePath);
         String componentPath = repository.getComponentPath(basePath);
         DirectDataSource source = repository.getRelatedDataSource(containerPath);
-        List<DirectInputFragment> fragments = source.findInputFragments(definition, componentPath, resourcePattern);
-        fragments.stream()
-                .map(fragment -> new DirectFileInputTaskInfo<>(
-                        source, definition, fragment,
+        long[] elapsed = new long[1];
+        IoCallable<List<DirectInputFragment>> finder = () -> {
+            long start = System.currentTimeMillis();
+            List<DirectInputFragment> results = source.findInputFragments(
+                    definition, componentPath, FilePattern.compile(resourcePattern));
+            elapsed[0] = System.currentTimeMillis() - start;
+            return results;
+        };
+        List<DirectInputFragment> fragments;
+        if (cache == null) {
+            fragments = finder.call();
+        } else {
+            fragments = cache.find(containerPath, componentPath, resourcePattern, dataFormat, dataFilter, finder);
+        }
+        // the reused fragments are not counted in the listing time
+        counters.getListingTime().add(elapsed[0]);
+        counters.getFileCount().add(fragments.size());
+        List<List<DirectInputFragment>> groups = combine(fragments, combineSize);
+        if (LOG.isDebugEnabled() && groups.size() != fragments.size()) {
+            LOG.debug("combined input fragments: {}{} ({}->{})",
+                    basePath, resourcePattern, fragments.size(), groups.size());
+        }
+        groups.stream()
+                .map(group -> new DirectFileInputTaskInfo<>(
+                        source, definition, group,
                         () -> factory.newInstance(definition.getDataClass()),
                         counters))
-                .forEach(tasks::add);
+                .forEach(task -> {
+                    synchronized (tasks) {
+                        tasks.add(task);
+                    }
+                });
         return fragments.size();
     }
 
+    static List<List<DirectInputFragment>> combine(List<DirectInputFragment> fragments, long combineSize) {
+        List<List<DirectInputFragment>> results = new ArrayList<>();
+        Map<String, List<DirectInputFragment>> locations = new LinkedHashMap<>();
+        for (DirectInputFragment fragment : fragments) {
+            long size = fragment.getSize();
+            if (combineSize <= 0 || size < 0 || size >= combineSize) {
+                results.add(Collections.singletonList(fragment));
+            } else {
+                // only combines fragments which are on the same primary node
+                List<String> owners = fragment.getOwnerNodeNames();
+                String location = owners.isEmpty() ? "" : owners.get(0); //$NON-NLS-1$
+                locations.computeIfAbsent(location, k -> new ArrayList<>()).add(fragment);
+            }
+        }
+        for (List<DirectInputFragment> group : locations.values()) {
+            // packs fragments in the path order, so that each task reads neighboring files
+            group.sort(Comparator
+                    .comparing(DirectInputFragment::getPath)
+                    .thenComparingLong(DirectInputFragment::getOffset));
+            List<DirectInputFragment> current = new ArrayList<>();
+            long currentSize = 0;
+            for (DirectInputFragment fragment : group) {
+                if (current.isEmpty() == false && currentSize + fragment.getSize() > combineSize) {
+                    results.add(current);
+                    current = new ArrayList<>();
+                    currentSize = 0;
+                }
+                current.add(fragment);
+                currentSize += fragment.getSize();
+            }
+            if (current.isEmpty() == false) {
+                results.add(current);
+            }
+        }
+        return results;
+    }
+
     @Override
     public List<DirectFileInputTaskInfo<?>> getTasks() {
-        return new ArrayList<>(tasks);
+        synchronized (tasks) {
+            return new ArrayList<>(tasks);
+        }
     }
 }
@@ -17,10 +17,16 @@ package com.asakusafw.dag.runtime.directio;
 
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,6 +41,7 @@ import com.asakusafw.dag.api.processor.VertexProcessor;
 import com.asakusafw.dag.api.processor.VertexProcessorContext;
 import com.asakusafw.dag.runtime.io.HadoopObjectFactory;
 import com.asakusafw.lang.utils.common.Arguments;
+import com.asakusafw.lang.utils.common.InterruptibleIo.Closer;
 import com.asakusafw.lang.utils.common.Invariants;
 import com.asakusafw.lang.utils.common.Optionals;
 import com.asakusafw.runtime.directio.Counter;
@@ -49,6 +56,7 @@ import com.asakusafw.runtime.io.ModelOutput;
 /**
  * Prepares Direct I/O file output.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class DirectFileOutputPrepare implements VertexProcessor {
 
@@ -64,6 +72,18 @@ public class DirectFileOutputPrepare implements VertexProcessor {
      */
     public static final String INPUT_NAME = "input";
 
+    /**
+     * The configuration key of the max number of opened files in each task, only for unordered group outputs.
+     * @since 0.5.3
+     */
+    public static final String KEY_MAX_OPEN_FILES = "com.asakusafw.dag.output.directio.files.open.max"; //$NON-NLS-1$
+
+    /**
+     * The default value of {@link #KEY_MAX_OPEN_FILES}.
+     * @since 0.5.3
+     */
+    public static final int DEFAULT_MAX_OPEN_FILES = 16;
+
     private final AtomicInteger taskCounter = new AtomicInteger();
 
     private Spec spec;
@@ -85,7 +105,32 @@ public class DirectFileOutputPrepare implements VertexProcessor {
         Arguments.requireNonNull(basePath);
         Arguments.requireNonNull(formatType);
         Invariants.require(spec == null);
-        this.spec = new Spec(id, basePath, outputPattern, formatType);
+        this.spec = new Spec(id, basePath, outputPattern, null, formatType);
+        return this;
+    }
+
+    /**
+     * Binds a group output which does not require any record orders.
+     * Unlike {@link #bind(String, String, String, Class) group outputs}, this accepts un-grouped records and
+     * writes them into the individual files by using the output pattern.
+     * Each task keeps a limited number of opened files, and the resulting file names have task specific suffixes.
+     * @param id the output ID
+     * @param basePath the base path
+     * @param patternType the output pattern type, which must have a public default constructor
+     * @param formatType the data format type
+     * @return this
+     * @since 0.5.3
+     */
+    public DirectFileOutputPrepare bindUnordered(
+            String id, String basePath,
+            Class<? extends OutputPatternSerDe> patternType,
+            Class<? extends DataFormat<?>> formatType) {
+        Arguments.requireNonNull(id);
+        Arguments.requireNonNull(basePath);
+        Arguments.requireNonNull(patternType);
+        Arguments.requireNonNull(formatType);
+        Invariants.require(spec == null);
+        this.spec = new Spec(id, basePath, null, patternType, formatType);
         return this;
     }
 
@@ -115,6 +160,20 @@ public class DirectFileOutputPrepare implements VertexProcessor {
                         .toString();
                 return new FlatTask(d, resolvedPath);
             };
+        } else if (spec.patternType != null) {
+            int maxOpenFiles = context.getProperty(KEY_MAX_OPEN_FILES)
+                    .map(String::trim)
+                    .map(Integer::parseInt)
+                    .orElse(DEFAULT_MAX_OPEN_FILES);
+            Arguments.require(maxOpenFiles >= 1, () -> MessageFormat.format(
+                    "{0} must be a positive integer: {1}",
+                    KEY_MAX_OPEN_FILES,
+                    maxOpenFiles));
+            Class<? extends OutputPatternSerDe> patternType = spec.patternType;
+            lazy = () -> new UnorderedTask(
+                    resolve(conf, stage, vertexId, counters),
+                    Invariants.safe(patternType::newInstance),
+                    maxOpenFiles);
         } else {
             lazy = () -> new GroupTask(resolve(conf, stage, vertexId, counters));
         }
@@ -162,14 +221,18 @@ public class DirectFileOutputPrepare implements VertexProcessor {
 
         final String outputPattern;
 
+        final Class<? extends OutputPatternSerDe> patternType;
+
         final Class<? extends DataFormat<?>> formatType;
 
         Spec(String outputId,
                 String basePath, String outputPattern,
+                Class<? extends OutputPatternSerDe> patternType,
                 Class<? extends DataFormat<?>> formatType) {
             this.id = outputId;
             this.basePath = basePath;
             this.outputPattern = outputPattern;
+            this.patternType = patternType;
             this.formatType = formatType;
         }
 
@@ -282,4 +345,101 @@ public class DirectFileOutputPrepare implements VertexProcessor {
                     driver);
         }
     }
+
+    private static final class UnorderedTask implements TaskProcessor {
+
+        private final DirectFileOutputDriver driver;
+
+        private final OutputPatternSerDe pattern;
+
+        private final int maxOpenFiles;
+
+        private final DataOutputBuffer keyOutput = new DataOutputBuffer();
+
+        private final DataInputBuffer keyInput = new DataInputBuffer();
+
+        // LRU order
+        private final Map<String, ModelOutput<Object>> outputs = new LinkedHashMap<>(16, 0.75f, true);
+
+        private final Map<String, Integer> generations = new HashMap<>();
+
+        UnorderedTask(DirectFileOutputDriver driver, OutputPatternSerDe pattern, int maxOpenFiles) {
+            assert driver != null;
+            assert pattern != null;
+            assert maxOpenFiles >= 1;
+            this.driver = driver;
+            this.pattern = pattern;
+            this.maxOpenFiles = maxOpenFiles;
+        }
+
+        @Override
+        public void run(TaskProcessorContext context) throws IOException, InterruptedException {
+            try (ObjectReader reader = (ObjectReader) context.getInput(INPUT_NAME)) {
+                long count = 0;
+                while (reader.nextObject()) {
+                    Object object = reader.getObject();
+                    getOutput(object).write(object);
+                    count++;
+                }
+                driver.getRecordCounter().add(count);
+            } catch (Throwable t) {
+                driver.error(t);
+                throw t;
+            }
+        }
+
+        private ModelOutput<Object> getOutput(Object object) throws IOException, InterruptedException {
+            keyOutput.reset();
+            pattern.serializeKey(object, keyOutput);
+            keyInput.reset(keyOutput.getData(), keyOutput.getLength());
+            String resource = (String) pattern.deserializeKey(keyInput);
+            ModelOutput<Object> output = outputs.get(resource);
+            if (output == null) {
+                if (outputs.size() >= maxOpenFiles) {
+                    Iterator<ModelOutput<Object>> iter = outputs.values().iterator();
+                    ModelOutput<Object> eldest = iter.next();
+                    iter.remove();
+                    eldest.close();
+                }
+                // the evicted resources are continued in another file
+                int generation = generations.merge(resource, 1, Integer::sum) - 1;
+                output = driver.newInstance(getPath(resource, generation));
+                outputs.put(resource, output);
+            }
+            return output;
+        }
+
+        private String getPath(String resource, int generation) {
+            String suffix = String.format("-%s-%d", driver.getContext().getAttemptId(), generation); //$NON-NLS-1$
+            int nameAt = resource.lastIndexOf('/') + 1;
+            int extensionAt = resource.indexOf('.', nameAt + 1);
+            if (extensionAt < 0) {
+                return resource + suffix;
+            }
+            return new StringBuilder()
+                    .append(resource, 0, extensionAt)
+                    .append(suffix)
+                    .append(resource, extensionAt, resource.length())
+                    .toString();
+        }
+
+        @Override
+        public void close() throws IOException, InterruptedException {
+            try (Closer closer = new Closer()) {
+                outputs.values().forEach(o -> closer.add(o::close));
+                outputs.clear();
+            } catch (Throwable t) {
+                driver.error(t);
+            } finally {
+                driver.close();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return MessageFormat.format(
+                    "Unordered({0})", //$NON-NLS-1$
+                    driver);
+        }
+    }
 }
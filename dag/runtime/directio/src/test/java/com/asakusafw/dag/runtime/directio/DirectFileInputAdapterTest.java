@@ -82,6 +82,50 @@ public class DirectFileInputAdapterTest {
         }
     }
 
+    /**
+     * combine small files.
+     * @throws Exception if failed
+     */
+    @Test
+    public void combine() throws Exception {
+        put("in/a.bin", "A");
+        put("in/b.bin", "B");
+        put("in/c.bin", "C");
+        MockVertexProcessorContext vc = new MockVertexProcessorContext()
+                .withResource(StageInfo.class, STAGE)
+                .withResource(Configuration.class, directio.newConfiguration())
+                .withProperty(DirectFileInputAdapter.KEY_COMBINE_SIZE, "1000000");
+        try (DirectFileInputAdapter adapter = new DirectFileInputAdapter(vc)) {
+            adapter.bind("testing", "in", "*.bin", MockDataFormat.class, null, false);
+            adapter.initialize();
+            assertThat(adapter.getSchedule().getTasks(), hasSize(1));
+            assertThat(collect(adapter), containsInAnyOrder("A", "B", "C"));
+        }
+    }
+
+    /**
+     * discover multiple inputs with cache.
+     * @throws Exception if failed
+     */
+    @Test
+    public void cache() throws Exception {
+        put("in/a.bin", "A");
+        put("other/b.bin", "B");
+        DirectFileInputCache cache = new DirectFileInputCache();
+        MockVertexProcessorContext vc = new MockVertexProcessorContext()
+                .withResource(StageInfo.class, STAGE)
+                .withResource(Configuration.class, directio.newConfiguration())
+                .withResource(DirectFileInputCache.class, cache);
+        try (DirectFileInputAdapter adapter = new DirectFileInputAdapter(vc)) {
+            adapter.bind("a0", "in", "*.bin", MockDataFormat.class, null, false);
+            adapter.bind("a1", "in", "*.bin", MockDataFormat.class, null, false);
+            adapter.bind("b", "other", "*.bin", MockDataFormat.class, null, false);
+            adapter.initialize();
+            assertThat(collect(adapter), containsInAnyOrder("A", "A", "B"));
+        }
+        assertThat(cache.size(), is(2));
+    }
+
     /**
      * missing mandatory input.
      * @throws Exception if failed
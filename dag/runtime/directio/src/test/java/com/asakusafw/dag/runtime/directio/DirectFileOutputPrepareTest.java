@@ -18,7 +18,10 @@ package com.asakusafw.dag.runtime.directio;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -93,6 +96,34 @@ public class DirectFileOutputPrepareTest {
         assertThat(results, hasEntry(100, "Hello, world!"));
     }
 
+    /**
+     * unordered group.
+     */
+    @Test
+    public void unordered() {
+        unordered(p -> p.bindUnordered("a", "out", ParityPattern.class, MockDataFormat.class), 16,
+                new MockData().set(1, "A"),
+                new MockData().set(2, "B"),
+                new MockData().set(3, "C"));
+        assertThat(WritableModelInput.collect(directio.file("out"), "1-", ".bin"), hasSize(1));
+        assertThat(collect("out", "1-", ".bin"), is(map(1, "A", 3, "C")));
+        assertThat(collect("out", "0-", ".bin"), is(map(2, "B")));
+    }
+
+    /**
+     * unordered group - evict opened files.
+     */
+    @Test
+    public void unordered_evict() {
+        unordered(p -> p.bindUnordered("a", "out", ParityPattern.class, MockDataFormat.class), 1,
+                new MockData().set(1, "A"),
+                new MockData().set(2, "B"),
+                new MockData().set(3, "C"));
+        assertThat(WritableModelInput.collect(directio.file("out"), "1-", ".bin"), hasSize(2));
+        assertThat(collect("out", "1-", ".bin"), is(map(1, "A", 3, "C")));
+        assertThat(collect("out", "0-", ".bin"), is(map(2, "B")));
+    }
+
     /**
      * flat - no sources.
      */
@@ -158,6 +189,30 @@ public class DirectFileOutputPrepareTest {
         commit();
     }
 
+    private void unordered(Action<DirectFileOutputPrepare, Exception> config, int maxOpenFiles, MockData... values) {
+        VertexProcessorRunner runner = new VertexProcessorRunner(() -> {
+            DirectFileOutputPrepare p = new DirectFileOutputPrepare();
+            config.perform(p);
+            return p;
+        });
+        runner
+            .input(DirectFileOutputPrepare.INPUT_NAME, (Object[]) values)
+            .property(DirectFileOutputPrepare.KEY_MAX_OPEN_FILES, String.valueOf(maxOpenFiles))
+            .resource(Configuration.class, configuration)
+            .resource(StageInfo.class, STAGE)
+            .run();
+
+        commit();
+    }
+
+    private static Map<Integer, String> map(Object... keyValues) {
+        Map<Integer, String> results = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            results.put((Integer) keyValues[i], (String) keyValues[i + 1]);
+        }
+        return results;
+    }
+
     private void commit() {
         VertexProcessorRunner committer = new VertexProcessorRunner(() -> {
             DirectFileOutputCommit p = new DirectFileOutputCommit();
@@ -169,4 +224,35 @@ public class DirectFileOutputPrepareTest {
             .resource(StageInfo.class, STAGE)
             .run();
     }
+
+    /**
+     * Output pattern by parity of keys.
+     */
+    public static class ParityPattern extends OutputPatternSerDe {
+
+        /**
+         * Creates a new instance.
+         */
+        public ParityPattern() {
+            property(Format.NATURAL, null);
+            text(".bin");
+        }
+
+        @Override
+        protected Object getProperty(Object object, int index) {
+            return ((MockData) object).getKey() % 2;
+        }
+
+        @Override
+        public void serializeValue(Object object, DataOutput output) throws IOException {
+            ((MockData) object).write(output);
+        }
+
+        @Override
+        public Object deserializePair(DataInput keyInput, DataInput valueInput) throws IOException {
+            MockData d = new MockData();
+            d.readFields(valueInput);
+            return d;
+        }
+    }
 }
@@ -16,12 +16,14 @@
 package com.asakusafw.dag.runtime.internalio;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.function.Supplier;
 
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.compress.CompressionCodec;
 
 import com.asakusafw.dag.api.processor.TaskInfo;
 import com.asakusafw.dag.runtime.adapter.ModelInputTaskInfo;
@@ -35,6 +37,7 @@ import com.asakusafw.runtime.stage.temporary.TemporaryFileInput;
  * A {@link TaskInfo} for internal input.
  * @param <T> the input data type
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class HadoopInternalInputTaskInfo<T extends Writable> implements ModelInputTaskInfo<T> {
 
@@ -46,6 +49,8 @@ public class HadoopInternalInputTaskInfo<T extends Writable> implements ModelInp
 
     private final int blockLength;
 
+    private final CompressionCodec codec;
+
     private final Supplier<? extends T> objectFactory;
 
     /**
@@ -67,11 +72,38 @@ public class HadoopInternalInputTaskInfo<T extends Writable> implements ModelInp
         this.file = file;
         this.blockOffset = blockOffset;
         this.blockLength = blockLength;
+        this.codec = null;
+        this.objectFactory = objectFactory;
+    }
+
+    /**
+     * Creates a new instance for the whole of the compressed file.
+     * @param fileSystem the Hadoop file system
+     * @param file the target file
+     * @param codec the compression codec of the target file
+     * @param objectFactory the data model object supplier
+     * @since 0.5.3
+     */
+    public HadoopInternalInputTaskInfo(
+            FileSystem fileSystem, Path file, CompressionCodec codec,
+            Supplier<? extends T> objectFactory) {
+        Arguments.requireNonNull(fileSystem);
+        Arguments.requireNonNull(file);
+        Arguments.requireNonNull(codec);
+        Arguments.requireNonNull(objectFactory);
+        this.fileSystem = fileSystem;
+        this.file = file;
+        this.blockOffset = 0;
+        this.blockLength = 0;
+        this.codec = codec;
         this.objectFactory = objectFactory;
     }
 
     @Override
     public ModelInput<T> open() throws IOException, InterruptedException {
+        if (codec != null) {
+            return open(fileSystem, file, codec);
+        }
         return open(fileSystem, file, blockOffset, blockLength);
     }
 
@@ -108,6 +140,26 @@ public class HadoopInternalInputTaskInfo<T extends Writable> implements ModelInp
         }
     }
 
+    /**
+     * Opens a model input from the whole of the compressed file.
+     * @param <T> the input data type
+     * @param fileSystem the Hadoop file system
+     * @param file the target file
+     * @param codec the compression codec of the target file
+     * @return the opened file
+     * @throws IOException if I/O error was occurred while opening the file
+     * @since 0.5.3
+     */
+    public static <T extends Writable> ModelInput<T> open(
+            FileSystem fileSystem, Path file, CompressionCodec codec) throws IOException {
+        Arguments.requireNonNull(codec);
+        try (Initializer<InputStream> init = new Initializer<>(fileSystem.open(file))) {
+            InputStream decoded = codec.createInputStream(init.get());
+            init.done();
+            return new TemporaryFileInput<>(decoded, 0);
+        }
+    }
+
     @Override
     public T newDataObject() {
         return objectFactory.get();
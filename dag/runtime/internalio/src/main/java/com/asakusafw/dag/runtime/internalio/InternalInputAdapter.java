@@ -31,6 +31,8 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
 
 import com.asakusafw.bridge.stage.StageInfo;
 import com.asakusafw.dag.api.common.ObjectFactory;
@@ -52,10 +54,23 @@ import com.asakusafw.runtime.stage.temporary.TemporaryStorage;
 /**
  * {@link InputAdapter} for internal inputs.
  * @since 0.4.0
+ * @version 0.5.3
  * @see TemporaryFile
  */
 public class InternalInputAdapter implements InputAdapter<ExtractOperation.Input> {
 
+    /**
+     * The configuration key of whether or not local internal inputs are read via memory mapped buffers.
+     * @since 0.5.3
+     */
+    public static final String KEY_FILE_MAPPED = "com.asakusafw.dag.input.internal.mapped"; //$NON-NLS-1$
+
+    /**
+     * The default value of {@link #KEY_FILE_MAPPED}.
+     * @since 0.5.3
+     */
+    public static final boolean DEFAULT_FILE_MAPPED = false;
+
     private final List<Callable<List<TaskInfo>>> tasks = new ArrayList<>();
 
     private final StageInfo stage;
@@ -64,6 +79,8 @@ public class InternalInputAdapter implements InputAdapter<ExtractOperation.Input
 
     private final ObjectFactory objectFactory;
 
+    private final boolean mapped;
+
     /**
      * Creates a new instance.
      * @param context the current context
@@ -75,6 +92,10 @@ public class InternalInputAdapter implements InputAdapter<ExtractOperation.Input
         this.configuration = context.getResource(Configuration.class)
                 .orElseThrow(IllegalStateException::new);
         this.objectFactory = new HadoopObjectFactory(configuration);
+        this.mapped = context.getProperty(KEY_FILE_MAPPED)
+                .map(String::trim)
+                .map(Boolean::parseBoolean)
+                .orElse(DEFAULT_FILE_MAPPED);
     }
 
     /**
@@ -88,6 +109,7 @@ public class InternalInputAdapter implements InputAdapter<ExtractOperation.Input
         this.stage = stage;
         this.configuration = configuration;
         this.objectFactory = new HadoopObjectFactory(configuration);
+        this.mapped = DEFAULT_FILE_MAPPED;
     }
 
     /**
@@ -127,6 +149,7 @@ public class InternalInputAdapter implements InputAdapter<ExtractOperation.Input
     private <T extends Writable> void resolve(
             List<Path> paths, Class<T> type, Consumer<TaskInfo> sink) throws IOException {
         FileSystem fs = FileSystem.get(configuration);
+        CompressionCodecFactory codecs = new CompressionCodecFactory(configuration);
         Supplier<? extends T> supplier = () -> objectFactory.newInstance(type);
         List<FileStatus> stats = new ArrayList<>();
         for (Path path : paths) {
@@ -145,12 +168,22 @@ public class InternalInputAdapter implements InputAdapter<ExtractOperation.Input
             if (length == 0) {
                 continue;
             }
+            CompressionCodec codec = codecs.getCodec(p);
+            if (codec != null) {
+                // compressed files are not splittable
+                if (local == null) {
+                    sink.accept(new HadoopInternalInputTaskInfo<>(fs, p, codec, supplier));
+                } else {
+                    sink.accept(new LocalInternalInputTaskInfo<>(local, codec, mapped, supplier));
+                }
+                continue;
+            }
             int blocks = (int) ((length + TemporaryFile.BLOCK_SIZE - 1) / TemporaryFile.BLOCK_SIZE);
             for (int i = 0; i < blocks; i++) {
                 if (local == null) {
                     sink.accept(new HadoopInternalInputTaskInfo<>(fs, p, i, 1, supplier));
                 } else {
-                    sink.accept(new LocalInternalInputTaskInfo<>(local, i, 1, supplier));
+                    sink.accept(new LocalInternalInputTaskInfo<>(local, i, 1, mapped, supplier));
                 }
             }
         }
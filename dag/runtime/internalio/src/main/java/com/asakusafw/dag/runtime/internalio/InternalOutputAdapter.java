@@ -22,6 +22,8 @@ import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
 
 import com.asakusafw.bridge.stage.StageInfo;
 import com.asakusafw.dag.api.processor.TaskProcessorContext;
@@ -34,6 +36,7 @@ import com.asakusafw.lang.utils.common.Invariants;
 /**
  * {@link OutputAdapter} for internal outputs.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class InternalOutputAdapter implements OutputAdapter {
 
@@ -42,10 +45,21 @@ public class InternalOutputAdapter implements OutputAdapter {
      */
     public static final char PLACEHOLDER = '*';
 
+    /**
+     * The configuration key of the compression codec name of internal outputs.
+     * This accepts either the codec alias (e.g. {@code "snappy"}, {@code "lz4"}, or {@code "deflate"}) or
+     * its fully qualified class name, which is available in the current Hadoop configuration.
+     * The compressed files have the codec extension, and they are always read without splitting.
+     * @since 0.5.3
+     */
+    public static final String KEY_CODEC = "com.asakusafw.dag.output.internal.codec"; //$NON-NLS-1$
+
     private final StageInfo stage;
 
     private final Configuration configuration;
 
+    private final CompressionCodec codec;
+
     private final List<OutputSpec> specs = new ArrayList<>();
 
     /**
@@ -56,6 +70,22 @@ public class InternalOutputAdapter implements OutputAdapter {
         Arguments.requireNonNull(context);
         this.stage = context.getResource(StageInfo.class).orElseThrow(AssertionError::new);
         this.configuration = context.getResource(Configuration.class).orElseThrow(AssertionError::new);
+        this.codec = context.getProperty(KEY_CODEC)
+                .map(String::trim)
+                .filter(s -> s.isEmpty() == false)
+                .map(s -> findCodec(configuration, s))
+                .orElse(null);
+    }
+
+    private static CompressionCodec findCodec(Configuration configuration, String name) {
+        CompressionCodec result = new CompressionCodecFactory(configuration).getCodecByName(name);
+        if (result == null) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "unknown compression codec: {0}={1}",
+                    KEY_CODEC,
+                    name));
+        }
+        return result;
     }
 
     /**
@@ -83,6 +113,6 @@ public class InternalOutputAdapter implements OutputAdapter {
 
     @Override
     public OutputHandler<? super TaskProcessorContext> newHandler() throws IOException, InterruptedException {
-        return new InternalOutputHandler(configuration, specs);
+        return new InternalOutputHandler(configuration, codec, specs);
     }
 }
@@ -15,6 +15,7 @@
  */
 package com.asakusafw.dag.runtime.internalio;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Collection;
@@ -25,6 +26,9 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.asakusafw.dag.api.processor.TaskProcessorContext;
 import com.asakusafw.dag.runtime.adapter.OutputHandler;
@@ -40,9 +44,12 @@ import com.asakusafw.runtime.stage.temporary.TemporaryFileOutput;
 /**
  * {@link OutputHandler} for internal outputs.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class InternalOutputHandler implements OutputHandler<TaskProcessorContext> {
 
+    static final Logger LOG = LoggerFactory.getLogger(InternalOutputHandler.class);
+
     private static final int OUTPUT_INIT_BUFFER_SIZE = 300 * 1024;
 
     private static final int OUTPUT_PAGE_SIZE = 256 * 1024;
@@ -50,11 +57,15 @@ public class InternalOutputHandler implements OutputHandler<TaskProcessorContext
     private final Map<String, Sink<?>> sinks;
 
     InternalOutputHandler(Configuration configuration, Collection<OutputSpec> specs) {
+        this(configuration, null, specs);
+    }
+
+    InternalOutputHandler(Configuration configuration, CompressionCodec codec, Collection<OutputSpec> specs) {
         Arguments.requireNonNull(configuration);
         Arguments.requireNonNull(specs);
         this.sinks = specs.stream().collect(Collectors.toMap(
                 s -> s.id,
-                s -> new Sink<>(configuration, s.pathPrefix, s.dataClass)));
+                s -> new Sink<>(configuration, codec, s.pathPrefix, s.dataClass)));
     }
 
     @Override
@@ -99,6 +110,8 @@ public class InternalOutputHandler implements OutputHandler<TaskProcessorContext
 
         private final Configuration conf;
 
+        private final CompressionCodec codec;
+
         private final String pathPrefix;
 
         private final Class<T> dataClass;
@@ -107,19 +120,43 @@ public class InternalOutputHandler implements OutputHandler<TaskProcessorContext
 
         private ModelOutput<T> output;
 
-        Sink(Configuration conf, String pathPrefix, Class<T> dataClass) {
+        private Path path;
+
+        // only available if debug logging is enabled
+        private CountingOutputStream contents;
+
+        private CountingOutputStream storage;
+
+        Sink(Configuration conf, CompressionCodec codec, String pathPrefix, Class<T> dataClass) {
             this.conf = conf;
+            this.codec = codec;
             this.pathPrefix = pathPrefix;
             this.dataClass = dataClass;
         }
 
         void open(String id) throws IOException {
             Invariants.require(output == null);
-            Path path = new Path(pathPrefix + id);
+            path = new Path(codec == null ? pathPrefix + id : pathPrefix + id + codec.getDefaultExtension());
             if (fs == null) {
                 fs = path.getFileSystem(conf);
             }
-            output = create(fs.create(path), dataClass);
+            OutputStream stream;
+            try (Initializer<OutputStream> init = new Initializer<>(fs.create(path))) {
+                stream = init.get();
+                if (LOG.isDebugEnabled()) {
+                    storage = new CountingOutputStream(stream);
+                    stream = storage;
+                }
+                if (codec != null) {
+                    stream = codec.createOutputStream(stream);
+                }
+                if (storage != null) {
+                    contents = stream == storage ? storage : new CountingOutputStream(stream);
+                    stream = contents;
+                }
+                init.done();
+            }
+            output = create(stream, dataClass);
         }
 
         @Override
@@ -136,7 +173,53 @@ public class InternalOutputHandler implements OutputHandler<TaskProcessorContext
             if (output != null) {
                 output.close();
                 output = null;
+                if (contents != null) {
+                    LOG.debug(String.format(
+                            "internal output: path=%s, codec=%s, contents=%,d, stored=%,d, ratio=%.3f, elapsed=%,dms", //$NON-NLS-1$
+                            path,
+                            codec == null ? "N/A" : codec.getClass().getSimpleName(), //$NON-NLS-1$
+                            contents.count,
+                            storage.count,
+                            contents.count == 0 ? 1.0 : (double) storage.count / contents.count,
+                            contents.elapsed / 1_000_000L));
+                    contents = null;
+                    storage = null;
+                }
             }
         }
     }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        long count;
+
+        long elapsed;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            long start = System.nanoTime();
+            out.write(b);
+            count++;
+            elapsed += System.nanoTime() - start;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            out.write(b, off, len);
+            count += len;
+            elapsed += System.nanoTime() - start;
+        }
+
+        @Override
+        public void close() throws IOException {
+            long start = System.nanoTime();
+            super.close();
+            elapsed += System.nanoTime() - start;
+        }
+    }
 }
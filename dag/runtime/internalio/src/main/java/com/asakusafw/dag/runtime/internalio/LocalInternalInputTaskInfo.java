@@ -19,9 +19,12 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.function.Supplier;
 
 import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.compress.CompressionCodec;
 
 import com.asakusafw.dag.api.processor.TaskInfo;
 import com.asakusafw.dag.runtime.adapter.ModelInputTaskInfo;
@@ -35,6 +38,7 @@ import com.asakusafw.runtime.stage.temporary.TemporaryFileInput;
  * A {@link TaskInfo} for internal input.
  * @param <T> the input data type
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class LocalInternalInputTaskInfo<T extends Writable> implements ModelInputTaskInfo<T> {
 
@@ -44,6 +48,10 @@ public class LocalInternalInputTaskInfo<T extends Writable> implements ModelInpu
 
     private final int blockLength;
 
+    private final boolean mapped;
+
+    private final CompressionCodec codec;
+
     private final Supplier<? extends T> objectFactory;
 
     /**
@@ -56,17 +64,59 @@ public class LocalInternalInputTaskInfo<T extends Writable> implements ModelInpu
     public LocalInternalInputTaskInfo(
             File file, int blockOffset, int blockLength,
             Supplier<? extends T> objectFactory) {
+        this(file, blockOffset, blockLength, false, objectFactory);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param file the target file
+     * @param blockOffset the block offset
+     * @param blockLength the block length
+     * @param mapped {@code true} to read the file via memory mapped buffers, otherwise {@code false}
+     * @param objectFactory the data model object supplier
+     * @since 0.5.3
+     */
+    public LocalInternalInputTaskInfo(
+            File file, int blockOffset, int blockLength, boolean mapped,
+            Supplier<? extends T> objectFactory) {
         Arguments.requireNonNull(file);
         Arguments.requireNonNull(objectFactory);
         this.file = file;
         this.blockOffset = blockOffset;
         this.blockLength = blockLength;
+        this.mapped = mapped;
+        this.codec = null;
+        this.objectFactory = objectFactory;
+    }
+
+    /**
+     * Creates a new instance for the whole of the compressed file.
+     * @param file the target file
+     * @param codec the compression codec of the target file
+     * @param mapped {@code true} to read the file via memory mapped buffers, otherwise {@code false}
+     * @param objectFactory the data model object supplier
+     * @since 0.5.3
+     */
+    public LocalInternalInputTaskInfo(
+            File file, CompressionCodec codec, boolean mapped,
+            Supplier<? extends T> objectFactory) {
+        Arguments.requireNonNull(file);
+        Arguments.requireNonNull(codec);
+        Arguments.requireNonNull(objectFactory);
+        this.file = file;
+        this.blockOffset = 0;
+        this.blockLength = 0;
+        this.mapped = mapped;
+        this.codec = codec;
         this.objectFactory = objectFactory;
     }
 
     @Override
     public ModelInput<T> open() throws IOException, InterruptedException {
-        return open(file, blockOffset, blockLength);
+        if (codec != null) {
+            return open(file, codec, mapped);
+        }
+        return open(file, blockOffset, blockLength, mapped);
     }
 
     /**
@@ -92,21 +142,78 @@ public class LocalInternalInputTaskInfo<T extends Writable> implements ModelInpu
     public static <T extends Writable> ModelInput<T> open(
             File file,
             int blockOffset, int blockLength) throws IOException {
-        try (Initializer<InputStream> init = new Initializer<>(new FileInputStream(file))) {
-            if (blockOffset > 0) {
-                long rest = (long) blockOffset * TemporaryFile.BLOCK_SIZE;
-                while (rest > 0) {
-                    long skipped = init.get().skip(rest);
-                    if (skipped < 0) {
-                        throw new IOException();
-                    }
-                    rest -= skipped;
-                }
+        return open(file, blockOffset, blockLength, false);
+    }
+
+    /**
+     * Opens a model input.
+     * @param <T> the input data type
+     * @param file the target file
+     * @param blockOffset the block offset
+     * @param blockLength the block length, or {@code 0} to read until the end of file
+     * @param mapped {@code true} to read the file via memory mapped buffers, otherwise {@code false}
+     * @return the opened file
+     * @throws IOException if I/O error was occurred while opening the file
+     * @since 0.5.3
+     */
+    public static <T extends Writable> ModelInput<T> open(
+            File file,
+            int blockOffset, int blockLength,
+            boolean mapped) throws IOException {
+        long offset = (long) blockOffset * TemporaryFile.BLOCK_SIZE;
+        if (mapped) {
+            try (Initializer<FileChannel> init = new Initializer<>(
+                    FileChannel.open(file.toPath(), StandardOpenOption.READ))) {
+                long size = init.get().size();
+                long start = Math.min(offset, size);
+                long end = blockLength <= 0
+                        ? size
+                        : Math.min(size, start + (long) blockLength * TemporaryFile.BLOCK_SIZE);
+                return new TemporaryFileInput<>(
+                        new MappedFileInputStream(init.done(), start, end - start, TemporaryFile.BLOCK_SIZE),
+                        blockLength);
+            }
+        }
+        try (Initializer<FileInputStream> init = new Initializer<>(new FileInputStream(file))) {
+            if (offset > 0) {
+                // seeks directly instead of skipping
+                init.get().getChannel().position(offset);
             }
             return new TemporaryFileInput<>(init.done(), blockLength);
         }
     }
 
+    /**
+     * Opens a model input from the whole of the compressed file.
+     * @param <T> the input data type
+     * @param file the target file
+     * @param codec the compression codec of the target file
+     * @param mapped {@code true} to read the file via memory mapped buffers, otherwise {@code false}
+     * @return the opened file
+     * @throws IOException if I/O error was occurred while opening the file
+     * @since 0.5.3
+     */
+    public static <T extends Writable> ModelInput<T> open(
+            File file, CompressionCodec codec, boolean mapped) throws IOException {
+        Arguments.requireNonNull(file);
+        Arguments.requireNonNull(codec);
+        InputStream raw;
+        if (mapped) {
+            try (Initializer<FileChannel> init = new Initializer<>(
+                    FileChannel.open(file.toPath(), StandardOpenOption.READ))) {
+                long size = init.get().size();
+                raw = new MappedFileInputStream(init.done(), 0L, size, TemporaryFile.BLOCK_SIZE);
+            }
+        } else {
+            raw = new FileInputStream(file);
+        }
+        try (Initializer<InputStream> init = new Initializer<>(raw)) {
+            InputStream decoded = codec.createInputStream(init.get());
+            init.done();
+            return new TemporaryFileInput<>(decoded, 0);
+        }
+    }
+
     @Override
     public T newDataObject() {
         return objectFactory.get();
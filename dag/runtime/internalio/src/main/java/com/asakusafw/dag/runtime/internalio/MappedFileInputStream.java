@@ -0,0 +1,133 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.internalio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import com.asakusafw.lang.utils.common.Arguments;
+
+/**
+ * An {@link InputStream} which reads a region of file via memory mapped buffers.
+ * The region is mapped chunk by chunk, and this only drops the reference to each chunk after it was read.
+ * Note that the mapped chunks are not unmapped explicitly, and they are unmapped when they are garbage collected:
+ * the chunk size bounds the mapped region referenced from this stream, but not the total mapped size in the process.
+ * @since 0.5.3
+ */
+final class MappedFileInputStream extends InputStream {
+
+    private final FileChannel channel;
+
+    private final long end;
+
+    private final int chunkSize;
+
+    private long nextChunk;
+
+    private MappedByteBuffer current;
+
+    /**
+     * Creates a new instance.
+     * @param channel the source channel, which will be closed with this stream
+     * @param offset the region offset in bytes
+     * @param length the region length in bytes
+     * @param chunkSize the max number of bytes in each mapped buffer
+     */
+    MappedFileInputStream(FileChannel channel, long offset, long length, int chunkSize) {
+        Arguments.requireNonNull(channel);
+        Arguments.require(offset >= 0);
+        Arguments.require(length >= 0);
+        Arguments.require(chunkSize >= 1);
+        this.channel = channel;
+        this.nextChunk = offset;
+        this.end = offset + length;
+        this.chunkSize = chunkSize;
+    }
+
+    private boolean prepare() throws IOException {
+        MappedByteBuffer buf = current;
+        if (buf != null && buf.hasRemaining()) {
+            return true;
+        }
+        current = null;
+        if (nextChunk >= end) {
+            return false;
+        }
+        long size = Math.min(chunkSize, end - nextChunk);
+        current = channel.map(FileChannel.MapMode.READ_ONLY, nextChunk, size);
+        nextChunk += size;
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (prepare() == false) {
+            return -1;
+        }
+        return current.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (prepare() == false) {
+            return -1;
+        }
+        MappedByteBuffer buf = current;
+        int count = Math.min(len, buf.remaining());
+        buf.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        long rest = n;
+        MappedByteBuffer buf = current;
+        if (buf != null) {
+            int count = (int) Math.min(rest, buf.remaining());
+            buf.position(buf.position() + count);
+            rest -= count;
+        }
+        if (rest > 0) {
+            // skips without mapping the chunks
+            long count = Math.min(rest, end - nextChunk);
+            nextChunk += count;
+            rest -= count;
+            current = null;
+        }
+        return n - rest;
+    }
+
+    @Override
+    public int available() throws IOException {
+        MappedByteBuffer buf = current;
+        long rest = (end - nextChunk) + (buf == null ? 0 : buf.remaining());
+        return (int) Math.min(rest, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        current = null;
+        channel.close();
+    }
+}
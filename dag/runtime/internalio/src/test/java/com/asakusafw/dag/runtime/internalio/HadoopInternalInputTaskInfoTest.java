@@ -26,6 +26,7 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.compress.DefaultCodec;
 import org.junit.ClassRule;
 import org.junit.Rule;
 import org.junit.Test;
@@ -74,6 +75,33 @@ public class HadoopInternalInputTaskInfoTest {
         assertThat(results, containsInAnyOrder("Hello, world!"));
     }
 
+    /**
+     * compressed file.
+     * @throws Exception if failed
+     */
+    @Test
+    public void compressed() throws Exception {
+        Configuration conf = new Configuration();
+        DefaultCodec codec = new DefaultCodec();
+        codec.setConf(conf);
+        Path file = new Path(temporary.newFile().toURI());
+        FileSystem fileSystem = file.getFileSystem(conf);
+        try (ModelOutput<Text> out = InternalOutputHandler.create(
+                codec.createOutputStream(fileSystem.create(file)), Text.class)) {
+            out.write(new Text("Hello, world!"));
+        }
+
+        List<String> results = new ArrayList<>();
+        HadoopInternalInputTaskInfo<Text> info = new HadoopInternalInputTaskInfo<>(fileSystem, file, codec, Text::new);
+        try (ModelInput<Text> in = info.open()) {
+            Text buf = info.newDataObject();
+            while (in.readTo(buf)) {
+                results.add(buf.toString());
+            }
+        }
+        assertThat(results, containsInAnyOrder("Hello, world!"));
+    }
+
     private static void put(FileSystem fs, Path path, String... values) throws IOException {
         try (ModelOutput<Text> out = InternalOutputHandler.create(fs.create(path), Text.class)) {
             Text buf = new Text();
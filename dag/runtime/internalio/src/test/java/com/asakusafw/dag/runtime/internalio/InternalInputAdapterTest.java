@@ -21,12 +21,15 @@ import static org.hamcrest.Matchers.*;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.DefaultCodec;
 import org.junit.Assume;
 import org.junit.ClassRule;
 import org.junit.Rule;
@@ -85,9 +88,40 @@ public class InternalInputAdapterTest {
         assertThat(results, containsInAnyOrder("Hello, world!"));
     }
 
+    /**
+     * compressed inputs.
+     * @throws Exception if failed
+     */
+    @Test
+    public void compressed() throws Exception {
+        DefaultCodec codec = new DefaultCodec();
+        codec.setConf(new Configuration());
+        File folder = temporary.newFolder();
+        File f = put(new File(folder, "a.bin" + codec.getDefaultExtension()), codec, "Hello, world!");
+        MockVertexProcessorContext vc = new MockVertexProcessorContext()
+                .withResource(StageInfo.class, STAGE)
+                .withResource(Configuration.class, new Configuration());
+        List<String> results;
+        try (InternalInputAdapter adapter = new InternalInputAdapter(vc)) {
+            adapter.bind("testing", f.toURI().toString(), Text.class);
+            adapter.initialize();
+            assertThat(adapter.getSchedule().getTasks(), hasSize(1));
+            results = collect(adapter);
+        }
+        assertThat(results, containsInAnyOrder("Hello, world!"));
+    }
+
     private static File put(File file, String... lines) throws IOException {
+        return put(file, null, lines);
+    }
+
+    private static File put(File file, CompressionCodec codec, String... lines) throws IOException {
         Lang.let(file.getParentFile(), f -> Assume.assumeTrue(f.mkdirs() || f.isDirectory()));
-        try (ModelOutput<Text> out = InternalOutputHandler.create(new FileOutputStream(file), Text.class)) {
+        OutputStream stream = new FileOutputStream(file);
+        if (codec != null) {
+            stream = codec.createOutputStream(stream);
+        }
+        try (ModelOutput<Text> out = InternalOutputHandler.create(stream, Text.class)) {
             Text buf = new Text();
             for (String line : lines) {
                 buf.set(line);
@@ -26,6 +26,7 @@ import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.compress.DefaultCodec;
 import org.junit.ClassRule;
 import org.junit.Rule;
 import org.junit.Test;
@@ -87,6 +88,46 @@ public class InternalOutputAdapterTest {
         assertThat(results, containsInAnyOrder("Hello, world!"));
     }
 
+    /**
+     * compressed outputs.
+     * @throws Exception if failed
+     */
+    @Test
+    public void compressed() throws Exception {
+        File folder = temporary.newFolder();
+        String pattern = folder.toURI().toString() + "/part-*";
+        MockVertexProcessorContext vc = new MockVertexProcessorContext()
+                .withResource(StageInfo.class, STAGE)
+                .withResource(Configuration.class, new Configuration())
+                .withProperty(InternalOutputAdapter.KEY_CODEC, "deflate");
+        try (InternalOutputAdapter adapter = new InternalOutputAdapter(vc)) {
+            adapter.bind("testing", pattern, Text.class);
+            adapter.initialize();
+
+            OutputHandler<? super TaskProcessorContext> handler = adapter.newHandler();
+            Result<Text> sink = handler.getSink(Text.class, "testing");
+
+            MockTaskProcessorContext tc = new MockTaskProcessorContext();
+            try (Session session = handler.start(tc)) {
+                sink.add(new Text("Hello, world!"));
+            }
+        }
+        DefaultCodec codec = new DefaultCodec();
+        codec.setConf(new Configuration());
+        File[] files = folder.listFiles(f -> f.getName().startsWith("part-"));
+        assertThat(files, arrayWithSize(1));
+        assertThat(files[0].getName(), endsWith(codec.getDefaultExtension()));
+
+        List<String> results = new ArrayList<>();
+        try (ModelInput<Text> in = LocalInternalInputTaskInfo.open(files[0], codec, false)) {
+            Text buf = new Text();
+            while (in.readTo(buf)) {
+                results.add(buf.toString());
+            }
+        }
+        assertThat(results, containsInAnyOrder("Hello, world!"));
+    }
+
     private static List<String> collect(File folder) throws IOException {
         List<String> results = new ArrayList<>();
         for (File file : folder.listFiles(f -> f.getName().startsWith("part-"))) {
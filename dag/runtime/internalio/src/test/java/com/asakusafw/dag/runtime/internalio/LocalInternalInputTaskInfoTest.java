@@ -70,6 +70,25 @@ public class LocalInternalInputTaskInfoTest {
         assertThat(results, containsInAnyOrder("Hello, world!"));
     }
 
+    /**
+     * read via memory mapped buffers.
+     * @throws Exception if failed
+     */
+    @Test
+    public void mapped() throws Exception {
+        File file = temporary.newFile();
+        put(file, "Hello1", "Hello2", "Hello3");
+        List<String> results = new ArrayList<>();
+        LocalInternalInputTaskInfo<Text> info = new LocalInternalInputTaskInfo<>(file, 0, 0, true, Text::new);
+        try (ModelInput<Text> in = info.open()) {
+            Text buf = info.newDataObject();
+            while (in.readTo(buf)) {
+                results.add(buf.toString());
+            }
+        }
+        assertThat(results, contains("Hello1", "Hello2", "Hello3"));
+    }
+
     private static void put(File file, String... values) throws IOException {
         try (ModelOutput<Text> out = InternalOutputHandler.create(new FileOutputStream(file), Text.class)) {
             Text buf = new Text();
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.internalio;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test for {@link MappedFileInputStream}.
+ */
+public class MappedFileInputStreamTest {
+
+    /**
+     * temporary folder.
+     */
+    @Rule
+    public final TemporaryFolder temporary = new TemporaryFolder();
+
+    /**
+     * simple case.
+     * @throws Exception if failed
+     */
+    @Test
+    public void simple() throws Exception {
+        byte[] data = data(100);
+        File file = put(data);
+        try (InputStream in = open(file, 0, data.length, 1024)) {
+            assertThat(read(in), is(data));
+        }
+    }
+
+    /**
+     * read over multiple chunks.
+     * @throws Exception if failed
+     */
+    @Test
+    public void chunks() throws Exception {
+        byte[] data = data(1000);
+        File file = put(data);
+        try (InputStream in = open(file, 0, data.length, 7)) {
+            assertThat(in.available(), is(data.length));
+            assertThat(read(in), is(data));
+            assertThat(in.read(), is(-1));
+        }
+    }
+
+    /**
+     * read a region.
+     * @throws Exception if failed
+     */
+    @Test
+    public void region() throws Exception {
+        byte[] data = data(1000);
+        File file = put(data);
+        try (InputStream in = open(file, 100, 200, 64)) {
+            assertThat(read(in), is(Arrays.copyOfRange(data, 100, 300)));
+        }
+    }
+
+    /**
+     * skip bytes.
+     * @throws Exception if failed
+     */
+    @Test
+    public void skip() throws Exception {
+        byte[] data = data(1000);
+        File file = put(data);
+        try (InputStream in = open(file, 0, data.length, 64)) {
+            assertThat(in.read(), is(data[0] & 0xff));
+            assertThat(in.skip(10), is(10L));
+            assertThat(in.read(), is(data[11] & 0xff));
+            assertThat(in.skip(500), is(500L));
+            assertThat(in.read(), is(data[512] & 0xff));
+            assertThat(in.skip(1000), is((long) data.length - 513));
+            assertThat(in.read(), is(-1));
+        }
+    }
+
+    private File put(byte[] data) throws IOException {
+        File file = temporary.newFile();
+        Files.write(file.toPath(), data);
+        return file;
+    }
+
+    private static InputStream open(File file, long offset, long length, int chunkSize) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        return new MappedFileInputStream(channel, offset, length, chunkSize);
+    }
+
+    private static byte[] data(int size) {
+        byte[] results = new byte[size];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = (byte) (i * 31);
+        }
+        return results;
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+        byte[] buf = new byte[13];
+        while (true) {
+            int read = in.read(buf);
+            if (read < 0) {
+                break;
+            }
+            results.write(buf, 0, read);
+        }
+        return results.toByteArray();
+    }
+}
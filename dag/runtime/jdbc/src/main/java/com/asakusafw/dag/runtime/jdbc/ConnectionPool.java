@@ -17,6 +17,8 @@ package com.asakusafw.dag.runtime.jdbc;
 
 import java.io.IOException;
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.OptionalInt;
 
@@ -25,6 +27,7 @@ import com.asakusafw.lang.utils.common.InterruptibleIo;
 /**
  * An abstract super interface of JDBC connection pools.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public interface ConnectionPool extends InterruptibleIo {
 
@@ -52,6 +55,30 @@ public interface ConnectionPool extends InterruptibleIo {
      */
     Handle acquire() throws IOException, InterruptedException;
 
+    /**
+     * Returns handles of the connection pool entries at once.
+     * This may block until all handles are available, but never holds a part of them while blocking,
+     * so that clients which require multiple connections do not wait for each other.
+     * The default implementation serializes the callers of this method.
+     * @param count the number of handles
+     * @return the acquired handles
+     * @throws IOException if I/O error was occurred while acquiring handles
+     * @throws InterruptedException if interrupted while acquiring handles
+     * @since 0.5.3
+     */
+    default List<Handle> acquire(int count) throws IOException, InterruptedException {
+        synchronized (this) {
+            try (Closer closer = new Closer()) {
+                List<Handle> results = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    results.add(closer.add(acquire()));
+                }
+                closer.keep();
+                return results;
+            }
+        }
+    }
+
     /**
      * Provides {@link ConnectionPool} instance.
      * Each {@link ConnectionPool} should have a nested {@code Provider} class which implements this interface.
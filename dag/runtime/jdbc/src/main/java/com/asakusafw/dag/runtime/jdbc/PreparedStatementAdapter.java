@@ -18,10 +18,13 @@ package com.asakusafw.dag.runtime.jdbc;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
+import com.asakusafw.dag.runtime.jdbc.util.JdbcUtil;
+
 /**
  * Drives data into {@link PreparedStatement} as its parameters.
  * @param <T> the data model type
  * @since 0.4.0
+ * @version 0.5.3
  */
 @FunctionalInterface
 public interface PreparedStatementAdapter<T> {
@@ -33,4 +36,18 @@ public interface PreparedStatementAdapter<T> {
      * @throws SQLException if error occurred while driving the object
      */
     void drive(PreparedStatement row, T object) throws SQLException;
+
+    /**
+     * Drives the object into the prepared statement as its parameters, after the given number of parameters.
+     * The default implementation shifts the parameter indices via a reflective proxy,
+     * so that clients should override this for performance.
+     * @param row the target statement
+     * @param object the object to drive
+     * @param offset the number of parameters before the first parameter of the object
+     * @throws SQLException if error occurred while driving the object
+     * @since 0.5.3
+     */
+    default void drive(PreparedStatement row, T object, int offset) throws SQLException {
+        drive(offset == 0 ? row : JdbcUtil.shift(row, offset), object);
+    }
 }
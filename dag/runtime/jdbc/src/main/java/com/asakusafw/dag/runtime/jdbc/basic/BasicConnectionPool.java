@@ -20,6 +20,8 @@ import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.OptionalInt;
 import java.util.Properties;
@@ -40,6 +42,7 @@ import com.asakusafw.lang.utils.common.Optionals;
 /**
  * A basic implementation of {@link ConnectionPool}.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class BasicConnectionPool implements ConnectionPool {
 
@@ -108,25 +111,43 @@ public class BasicConnectionPool implements ConnectionPool {
 
     @Override
     public ConnectionPool.Handle acquire() throws IOException, InterruptedException {
+        return acquire(1).get(0);
+    }
+
+    @Override
+    public List<ConnectionPool.Handle> acquire(int count) throws IOException, InterruptedException {
+        Arguments.require(count >= 1);
+        Arguments.require(count <= size);
         if (LOG.isDebugEnabled()) {
             LOG.debug("acquiring connection from pool: {}/{} ({})", rest(), size, cached.size()); //$NON-NLS-1$
         }
-        semaphore.acquire();
-        boolean success = false;
+        // acquires all permits at once to avoid deadlocks between clients which require multiple connections
+        semaphore.acquire(count);
+        int rest = count;
+        try (Closer closer = new Closer()) {
+            List<ConnectionPool.Handle> results = new ArrayList<>(count);
+            while (rest > 0) {
+                // each handle releases its own permit
+                results.add(closer.add(newHandle()));
+                rest--;
+            }
+            closer.keep();
+            return results;
+        } finally {
+            semaphore.release(rest);
+        }
+    }
+
+    private ConnectionPool.Handle newHandle() throws IOException, InterruptedException {
         try (Closer closer = new Closer()) {
             Connection connection = acquire0();
             closer.add(JdbcUtil.wrap(connection::close));
             connection.clearWarnings();
             connection.setAutoCommit(false);
-            success = true;
             closer.keep();
             return new Handle(connection);
         } catch (SQLException e) {
             throw JdbcUtil.wrap(e);
-        } finally {
-            if (success == false) {
-                semaphore.release();
-            }
         }
     }
 
@@ -0,0 +1,226 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.jdbc.basic;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.asakusafw.dag.runtime.jdbc.JdbcOutputDriver;
+import com.asakusafw.dag.runtime.jdbc.PreparedStatementAdapter;
+import com.asakusafw.dag.runtime.jdbc.util.JdbcUtil;
+import com.asakusafw.lang.utils.common.Arguments;
+import com.asakusafw.lang.utils.common.InterruptibleIo.Closer;
+import com.asakusafw.runtime.model.DataModel;
+
+/**
+ * An implementation of {@link JdbcOutputDriver} which inserts multiple rows by each statement,
+ * like {@code INSERT INTO ... VALUES (...), (...), ...}.
+ * This requires that the target database supports multi-row {@code VALUES} clause.
+ * The rows are copied into a buffer until it is filled, and then they are bound into the multi-row statement.
+ * The rest rows on each flush are inserted by using a batch of single-row statements.
+ * Note that, each object must be a {@link DataModel}.
+ * For better performance, the {@link PreparedStatementAdapter} should override
+ * {@link PreparedStatementAdapter#drive(PreparedStatement, Object, int)}.
+ * @since 0.5.3
+ */
+public class MultiRowJdbcOutputDriver implements JdbcOutputDriver {
+
+    static final Logger LOG = LoggerFactory.getLogger(MultiRowJdbcOutputDriver.class);
+
+    /**
+     * The default max number of rows in each statement.
+     */
+    public static final int DEFAULT_MAX_ROWS = 100;
+
+    /**
+     * The default max number of place-holders in each statement.
+     */
+    public static final int DEFAULT_MAX_PARAMETERS = 2000;
+
+    private final String tableName;
+
+    private final List<String> columnNames;
+
+    private final int rows;
+
+    private final Supplier<? extends PreparedStatementAdapter<?>> adapters;
+
+    /**
+     * Creates a new instance.
+     * @param tableName the target table name
+     * @param columnNames the target column names
+     * @param adapters the prepared statement adapter provider
+     */
+    public MultiRowJdbcOutputDriver(
+            String tableName, List<String> columnNames,
+            Supplier<? extends PreparedStatementAdapter<?>> adapters) {
+        this(tableName, columnNames,
+                Math.max(1, Math.min(DEFAULT_MAX_ROWS, DEFAULT_MAX_PARAMETERS / Math.max(1, columnNames.size()))),
+                adapters);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param tableName the target table name
+     * @param columnNames the target column names
+     * @param rows the number of rows in each statement
+     * @param adapters the prepared statement adapter provider
+     */
+    public MultiRowJdbcOutputDriver(
+            String tableName, List<String> columnNames, int rows,
+            Supplier<? extends PreparedStatementAdapter<?>> adapters) {
+        Arguments.requireNonNull(tableName);
+        Arguments.requireNonNull(columnNames);
+        Arguments.require(columnNames.isEmpty() == false);
+        Arguments.require(rows >= 1);
+        Arguments.requireNonNull(adapters);
+        this.tableName = tableName;
+        this.columnNames = Arguments.freeze(columnNames);
+        this.rows = rows;
+        this.adapters = adapters;
+    }
+
+    @Override
+    public JdbcOutputDriver.Sink open(Connection connection) throws IOException, InterruptedException {
+        String sql = JdbcUtil.getInsertStatement(tableName, columnNames, rows);
+        LOG.debug("JDBC output ({} rows): {}", rows, sql); //$NON-NLS-1$
+        try (Closer closer = new Closer()) {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            closer.add(JdbcUtil.wrap(statement::close));
+            PreparedStatement single = connection.prepareStatement(
+                    JdbcUtil.getInsertStatement(tableName, columnNames));
+            closer.add(JdbcUtil.wrap(single::close));
+            return new Sink(statement, single, adapters.get(), closer.move());
+        } catch (SQLException e) {
+            throw JdbcUtil.wrap(e);
+        }
+    }
+
+    private static Object newSlot(Object object) {
+        if ((object instanceof DataModel<?>) == false) {
+            throw new IllegalStateException(String.format(
+                    "multi-row output requires data model objects: %s", //$NON-NLS-1$
+                    object == null ? null : object.getClass().getName()));
+        }
+        try {
+            return object.getClass().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static void copy(Object source, Object destination) {
+        ((DataModel) destination).copyFrom((DataModel) source);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MultiRowJdbcOutput(table=%s, rows=%,d)", tableName, rows); //$NON-NLS-1$
+    }
+
+    private final class Sink implements JdbcOutputDriver.Sink {
+
+        private final PreparedStatement statement;
+
+        // for the rest rows on flush
+        private final PreparedStatement single;
+
+        private final PreparedStatementAdapter<Object> adapter;
+
+        private final Closer resource;
+
+        private final int columns;
+
+        private final Object[] buffer;
+
+        private int bufferedRows;
+
+        private boolean batched;
+
+        @SuppressWarnings("unchecked")
+        Sink(PreparedStatement statement, PreparedStatement single,
+                PreparedStatementAdapter<?> adapter, Closer resource) {
+            this.statement = statement;
+            this.single = single;
+            this.adapter = (PreparedStatementAdapter<Object>) adapter;
+            this.resource = resource;
+            this.columns = columnNames.size();
+            this.buffer = new Object[rows];
+        }
+
+        @Override
+        public void putObject(Object object) throws IOException, InterruptedException {
+            // the object may be reused by the caller, so that we keep its copy until it is bound
+            Object slot = buffer[bufferedRows];
+            if (slot == null) {
+                slot = newSlot(object);
+                buffer[bufferedRows] = slot;
+            }
+            copy(object, slot);
+            bufferedRows++;
+            if (bufferedRows >= rows) {
+                try {
+                    for (int i = 0; i < bufferedRows; i++) {
+                        adapter.drive(statement, buffer[i], i * columns);
+                    }
+                    statement.addBatch();
+                } catch (SQLException e) {
+                    throw JdbcUtil.wrap(e);
+                }
+                bufferedRows = 0;
+                batched = true;
+            }
+        }
+
+        @Override
+        public boolean flush() throws IOException, InterruptedException {
+            boolean flushed = false;
+            try {
+                if (batched) {
+                    batched = false;
+                    statement.executeBatch();
+                    flushed = true;
+                }
+                if (bufferedRows > 0) {
+                    // rest rows
+                    for (int i = 0; i < bufferedRows; i++) {
+                        adapter.drive(single, buffer[i]);
+                        single.addBatch();
+                    }
+                    bufferedRows = 0;
+                    single.executeBatch();
+                    flushed = true;
+                }
+            } catch (SQLException e) {
+                throw JdbcUtil.wrap(e);
+            }
+            return flushed;
+        }
+
+        @Override
+        public void close() throws IOException, InterruptedException {
+            resource.close();
+        }
+    }
+}
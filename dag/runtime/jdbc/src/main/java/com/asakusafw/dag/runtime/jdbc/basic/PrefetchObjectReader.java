@@ -0,0 +1,180 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.jdbc.basic;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.asakusafw.dag.api.processor.ObjectReader;
+import com.asakusafw.lang.utils.common.Arguments;
+import com.asakusafw.lang.utils.common.Lang;
+import com.asakusafw.runtime.model.DataModel;
+
+/**
+ * An {@link ObjectReader} which reads objects from another reader on a dedicated thread.
+ * The objects are copied into a bounded ring of data model objects, which are recycled after the consumer
+ * goes to the next object. Note that, each object must be a {@link DataModel}.
+ * The source reader is only touched by the prefetch thread until this reader is closed.
+ * @since 0.5.3
+ */
+public class PrefetchObjectReader implements ObjectReader {
+
+    static final Logger LOG = LoggerFactory.getLogger(PrefetchObjectReader.class);
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private static final Object END = new Object();
+
+    private final ObjectReader source;
+
+    private final int capacity;
+
+    private final BlockingQueue<Object> filled;
+
+    private final BlockingQueue<Object> free;
+
+    private final Thread producer;
+
+    private volatile boolean closed;
+
+    private volatile Throwable failure;
+
+    private Object current;
+
+    private boolean sawEnd;
+
+    /**
+     * Creates a new instance and starts reading the source reader.
+     * @param source the source reader
+     * @param capacity the max number of prefetched objects
+     */
+    public PrefetchObjectReader(ObjectReader source, int capacity) {
+        Arguments.requireNonNull(source);
+        Arguments.require(capacity >= 1);
+        this.source = source;
+        this.capacity = capacity;
+        // + END
+        this.filled = new ArrayBlockingQueue<>(capacity + 1);
+        // + current
+        this.free = new ArrayBlockingQueue<>(capacity + 1);
+        this.producer = new Thread(this::produce,
+                String.format("jdbc-input-prefetch-%d", THREAD_COUNTER.incrementAndGet())); //$NON-NLS-1$
+        this.producer.setDaemon(true);
+        this.producer.start();
+    }
+
+    private void produce() {
+        try {
+            int allocated = 0;
+            while (closed == false && source.nextObject()) {
+                Object object = source.getObject();
+                Object slot = free.poll();
+                if (slot == null && allocated < capacity) {
+                    slot = newSlot(object);
+                    allocated++;
+                }
+                while (slot == null) {
+                    if (closed) {
+                        return;
+                    }
+                    slot = free.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                copy(object, slot);
+                filled.put(slot);
+            }
+        } catch (Throwable t) {
+            failure = t;
+        } finally {
+            // never blocks: filled has at most (capacity) slots here
+            filled.offer(END);
+        }
+    }
+
+    private static Object newSlot(Object object) throws ReflectiveOperationException {
+        if ((object instanceof DataModel<?>) == false) {
+            throw new IllegalStateException(String.format(
+                    "prefetch requires data model objects: %s", //$NON-NLS-1$
+                    object == null ? null : object.getClass().getName()));
+        }
+        return object.getClass().newInstance();
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static void copy(Object source, Object destination) {
+        ((DataModel) destination).copyFrom((DataModel) source);
+    }
+
+    @Override
+    public boolean nextObject() throws IOException, InterruptedException {
+        if (current != null) {
+            free.put(current);
+            current = null;
+        }
+        if (sawEnd) {
+            return false;
+        }
+        Object next = filled.take();
+        if (next == END) {
+            sawEnd = true;
+            Throwable t = failure;
+            if (t != null) {
+                Lang.rethrow(t, Error.class);
+                Lang.rethrow(t, RuntimeException.class);
+                Lang.rethrow(t, IOException.class);
+                Lang.rethrow(t, InterruptedException.class);
+                throw new IOException(t);
+            }
+            return false;
+        }
+        current = next;
+        return true;
+    }
+
+    @Override
+    public Object getObject() throws IOException, InterruptedException {
+        return current;
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException {
+        closed = true;
+        try {
+            // releases the producer which may wait for free slots
+            while (producer.isAlive()) {
+                Object next = filled.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (next != null && next != END) {
+                    free.offer(next);
+                }
+            }
+            producer.join();
+        } finally {
+            source.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PrefetchObjectReader(capacity=%,d, source=%s)", capacity, source); //$NON-NLS-1$
+    }
+}
@@ -20,6 +20,8 @@ import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.OptionalInt;
 import java.util.Properties;
@@ -34,6 +36,7 @@ import com.asakusafw.lang.utils.common.Arguments;
  * A simple implementation of {@link ConnectionPool}.
  * This implementation always closes connections in released connection handles.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class SimpleConnectionPool implements ConnectionPool {
 
@@ -87,20 +90,46 @@ public class SimpleConnectionPool implements ConnectionPool {
     }
 
     @Override
-    public Handle acquire() throws IOException, InterruptedException {
-        semaphore.acquire();
-        boolean success = false;
+    public ConnectionPool.Handle acquire() throws IOException, InterruptedException {
+        return acquire(1).get(0);
+    }
+
+    @Override
+    public List<ConnectionPool.Handle> acquire(int count) throws IOException, InterruptedException {
+        Arguments.require(count >= 1);
+        Arguments.require(count <= size);
+        // acquires all permits at once to avoid deadlocks between clients which require multiple connections
+        semaphore.acquire(count);
+        int rest = count;
+        try (Closer closer = new Closer()) {
+            List<ConnectionPool.Handle> results = new ArrayList<>(count);
+            while (rest > 0) {
+                // each handle releases its own permit
+                results.add(closer.add(newHandle()));
+                rest--;
+            }
+            closer.keep();
+            return results;
+        } finally {
+            semaphore.release(rest);
+        }
+    }
+
+    private Handle newHandle() throws IOException {
         try {
             Connection connection = acquire0();
-            connection.setAutoCommit(false);
-            success = true;
-            return new Handle(connection);
+            boolean success = false;
+            try {
+                connection.setAutoCommit(false);
+                success = true;
+                return new Handle(connection);
+            } finally {
+                if (success == false) {
+                    connection.close();
+                }
+            }
         } catch (SQLException e) {
             throw JdbcUtil.wrap(e);
-        } finally {
-            if (success == false) {
-                semaphore.release();
-            }
         }
     }
 
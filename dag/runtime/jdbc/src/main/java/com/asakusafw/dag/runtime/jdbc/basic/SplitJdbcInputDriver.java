@@ -30,6 +30,7 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -50,7 +51,13 @@ import com.asakusafw.lang.utils.common.Optionals;
 
 /**
  * Splittable {@link JdbcInputDriver}.
+ * This splits the input into equal-width ranges of the split column, or into the ranges with roughly equal rows
+ * by using quantiles estimated from sampled values if the sample size is positive.
+ * The number of rows fetched for sampling is always bounded:
+ * for large inputs, this samples only integral split columns by their modulo in the database,
+ * and otherwise splits them into equal-width ranges.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class SplitJdbcInputDriver implements JdbcInputDriver {
 
@@ -71,8 +78,22 @@ public class SplitJdbcInputDriver implements JdbcInputDriver {
             .mapToObj(i -> i)
             .collect(Collectors.collectingAndThen(Collectors.toSet(), Collections::unmodifiableSet));
 
+    private static final Set<Integer> INTEGRAL_TYPES = IntStream.builder()
+            .add(java.sql.Types.TINYINT)
+            .add(java.sql.Types.SMALLINT)
+            .add(java.sql.Types.INTEGER)
+            .add(java.sql.Types.BIGINT)
+            .build()
+            .mapToObj(i -> i)
+            .collect(Collectors.collectingAndThen(Collectors.toSet(), Collections::unmodifiableSet));
+
     private static final BigDecimal TWO = BigDecimal.valueOf(2L);
 
+    /**
+     * The max number of rows fetched for sampling, relative to the sample size.
+     */
+    private static final int SCAN_FACTOR = 4;
+
     private final JdbcProfile profile;
 
     private final String tableName;
@@ -83,6 +104,8 @@ public class SplitJdbcInputDriver implements JdbcInputDriver {
 
     private final int splitCount;
 
+    private final int sampleSize;
+
     private final String condition;
 
     private final Supplier<? extends ResultSetAdapter<?>> adapters;
@@ -105,17 +128,44 @@ public class SplitJdbcInputDriver implements JdbcInputDriver {
             int splitCount,
             String condition,
             Supplier<? extends ResultSetAdapter<?>> adapters) {
+        this(profile, tableName, columnNames, splitColumnName, splitCount, 0, condition, adapters);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param profile the current profile
+     * @param tableName the target table name
+     * @param columnNames the target column names
+     * @param condition the input condition (optional)
+     * @param splitColumnName the split column name
+     * @param splitCount the max split count ({@code must be >= 2})
+     * @param sampleSize the max number of sampled values for estimating quantiles of the split column,
+     *     or {@code 0} to split into equal-width ranges
+     * @param adapters the result set adapter provider
+     * @since 0.5.3
+     */
+    public SplitJdbcInputDriver(
+            JdbcProfile profile,
+            String tableName,
+            List<String> columnNames,
+            String splitColumnName,
+            int splitCount,
+            int sampleSize,
+            String condition,
+            Supplier<? extends ResultSetAdapter<?>> adapters) {
         Arguments.requireNonNull(profile);
         Arguments.requireNonNull(tableName);
         Arguments.requireNonNull(columnNames);
         Arguments.requireNonNull(splitColumnName);
         Arguments.require(splitCount >= 2);
+        Arguments.require(sampleSize >= 0);
         Arguments.requireNonNull(adapters);
         this.profile = profile;
         this.tableName = tableName;
         this.columnNames = Arguments.freeze(columnNames);
         this.splitColumnName = splitColumnName;
         this.splitCount = splitCount;
+        this.sampleSize = sampleSize;
         this.condition = condition;
         this.adapters = adapters;
     }
@@ -132,9 +182,157 @@ public class SplitJdbcInputDriver implements JdbcInputDriver {
             String sql = JdbcUtil.getSelectStatement(tableName, columnNames, condition);
             return Collections.singletonList(conn -> BasicJdbcInputDriver.open(conn, sql, adapters.get(), fetchSize));
         }
+        if (sampleSize > 0) {
+            List<?> samples = getSamples(connection, stats.get());
+            List<?> quantiles = computeQuantileValues(samples);
+            if (quantiles.isEmpty() == false) {
+                if (LOG.isInfoEnabled()) {
+                    LOG.info(MessageFormat.format(
+                            "split {0} by quantiles of {1}: partitions={2}, samples={3}, "
+                            + "estimated max share={4,number,0.00} (equal-width: {5,number,0.00})",
+                            tableName,
+                            splitColumnName,
+                            quantiles.size() + 1,
+                            samples.size(),
+                            estimateMaxShare(samples, quantiles),
+                            estimateMaxShare(samples, boundValues)));
+                }
+                boundValues = quantiles;
+            }
+        }
         return buildPartitions(stats.get(), boundValues);
     }
 
+    private List<?> getSamples(Connection connection, Stats stats) throws InterruptedException {
+        int maxRows = (int) Math.min((long) sampleSize * SCAN_FACTOR, Integer.MAX_VALUE);
+        long modulus = 1L;
+        if (stats.count > maxRows) {
+            if (INTEGRAL_TYPES.contains(stats.typeId) == false) {
+                LOG.info(MessageFormat.format(
+                        "split column is too large to sample, split into equal-width ranges instead: "
+                        + "{0}.{1} (rows={2})",
+                        tableName,
+                        splitColumnName,
+                        stats.count));
+                return Collections.emptyList();
+            }
+            // only fetches the values whose modulo is zero
+            modulus = stats.count / sampleSize;
+        }
+        String sql = getSampleSql(modulus);
+        LOG.debug("split samples: {}", sql); //$NON-NLS-1$
+        // reservoir sampling, with the fixed seed for stable splits
+        Random random = new Random(0L);
+        List<Object> results = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            statement.setMaxRows(maxRows);
+            profile.getFetchSize().ifPresent(size -> {
+                try {
+                    statement.setFetchSize(size);
+                } catch (SQLException e) {
+                    LOG.debug("failed to set fetch size", e); //$NON-NLS-1$
+                }
+            });
+            try (ResultSet rs = statement.executeQuery(sql)) {
+                long count = 0;
+                while (rs.next()) {
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                    Object value = getValue(rs, stats.typeId, 1);
+                    if (value == null) {
+                        continue;
+                    }
+                    count++;
+                    if (results.size() < sampleSize) {
+                        results.add(value);
+                    } else {
+                        long index = (long) (random.nextDouble() * count);
+                        if (index < sampleSize) {
+                            results.set((int) index, value);
+                        }
+                    }
+                }
+                if (count >= maxRows && modulus > 1L) {
+                    // the sampled values may be biased to the beginning of the table
+                    LOG.info(MessageFormat.format(
+                            "too many values were sampled, split into equal-width ranges instead: "
+                            + "{0}.{1} (rows={2}, modulus={3})",
+                            tableName,
+                            splitColumnName,
+                            stats.count,
+                            modulus));
+                    return Collections.emptyList();
+                }
+            }
+        } catch (SQLException e) {
+            LOG.warn(MessageFormat.format(
+                    "failed to sample split column, split into equal-width ranges instead: {0}.{1}",
+                    tableName,
+                    splitColumnName), e);
+            return Collections.emptyList();
+        }
+        results.sort(SplitJdbcInputDriver::compare);
+        return results;
+    }
+
+    private String getSampleSql(long modulus) {
+        StringBuilder buf = new StringBuilder();
+        buf.append(JdbcUtil.getSelectStatement(tableName, Collections.singletonList(splitColumnName)));
+        buf.append(" WHERE "); //$NON-NLS-1$
+        if (condition != null) {
+            buf.append("(").append(condition).append(") AND "); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        buf.append(splitColumnName);
+        buf.append(" IS NOT NULL"); //$NON-NLS-1$
+        if (modulus > 1L) {
+            buf.append(String.format(" AND MOD(%s, %d) = 0", splitColumnName, modulus)); //$NON-NLS-1$
+        }
+        return buf.toString();
+    }
+
+    private List<?> computeQuantileValues(List<?> samples) {
+        if (samples.isEmpty()) {
+            return Collections.emptyList();
+        }
+        /*
+         * BOUND(i) = SAMPLE[i * N / COUNT], i = 1..COUNT-1
+         * the bounds must be distinct, and we drop the bound equal to the minimum (it makes an empty partition)
+         */
+        Object min = samples.get(0);
+        List<Object> results = new ArrayList<>();
+        for (int i = 1; i < splitCount; i++) {
+            Object value = samples.get((int) ((long) i * samples.size() / splitCount));
+            if (compare(value, min) > 0
+                    && (results.isEmpty() || compare(value, results.get(results.size() - 1)) > 0)) {
+                results.add(value);
+            }
+        }
+        Invariants.require(results.size() <= splitCount - 1);
+        return results;
+    }
+
+    private static double estimateMaxShare(List<?> samples, List<?> boundValues) {
+        int[] counts = new int[boundValues.size() + 1];
+        int partition = 0;
+        for (Object value : samples) {
+            while (partition < boundValues.size() && compare(boundValues.get(partition), value) <= 0) {
+                partition++;
+            }
+            counts[partition]++;
+        }
+        return (double) Arrays.stream(counts).max().getAsInt() / samples.size();
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compare(Object a, Object b) {
+        if (a instanceof Number && b instanceof Number
+                && (a.getClass() != b.getClass())) {
+            return new BigDecimal(a.toString()).compareTo(new BigDecimal(b.toString()));
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+
     private Optional<Stats> getStats(Connection connection) throws IOException, InterruptedException {
         String sql = getStatsSql();
         LOG.debug("split stats: {}", sql); //$NON-NLS-1$
@@ -158,18 +356,20 @@ public class SplitJdbcInputDriver implements JdbcInputDriver {
             }
             Object min = null;
             Object max = null;
+            long count = 0L;
             if (rs.next()) {
                 min = getValue(rs, type, 1);
                 max = getValue(rs, type, 2);
+                count = rs.getLong(3);
             }
             if (LOG.isDebugEnabled()) {
-                LOG.debug("split stats: table={}, column={}:{}, range=[{}, {}]", new Object[] { //$NON-NLS-1$
+                LOG.debug("split stats: table={}, column={}:{}, range=[{}, {}], count={}", new Object[] { //$NON-NLS-1$
                         tableName,
                         splitColumnName, meta.getColumnTypeName(1),
-                        min, max,
+                        min, max, count,
                 });
             }
-            return Optionals.of(new Stats(type, nullable, scale, min, max));
+            return Optionals.of(new Stats(type, nullable, scale, min, max, count));
         } catch (SQLException e) {
             throw JdbcUtil.wrap(e);
         }
@@ -188,7 +388,7 @@ public class SplitJdbcInputDriver implements JdbcInputDriver {
     private String getStatsSql() {
         StringBuilder buf = new StringBuilder();
         buf.append("SELECT "); //$NON-NLS-1$
-        buf.append(String.format("MIN(%1$s), MAX(%1$s)", splitColumnName)); //$NON-NLS-1$
+        buf.append(String.format("MIN(%1$s), MAX(%1$s), COUNT(%1$s)", splitColumnName)); //$NON-NLS-1$
         buf.append(" FROM "); //$NON-NLS-1$
         buf.append(tableName);
         if (condition != null) {
@@ -387,12 +587,15 @@ public class SplitJdbcInputDriver implements JdbcInputDriver {
 
         final Object max;
 
-        Stats(int typeId, boolean nullable, int scale, Object min, Object max) {
+        final long count;
+
+        Stats(int typeId, boolean nullable, int scale, Object min, Object max, long count) {
             this.typeId = typeId;
             this.nullable = nullable;
             this.scale = scale;
             this.min = min;
             this.max = max;
+            this.count = count;
         }
     }
 
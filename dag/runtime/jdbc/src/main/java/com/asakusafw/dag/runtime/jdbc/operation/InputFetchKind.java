@@ -0,0 +1,34 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.jdbc.operation;
+
+/**
+ * Represents an operation kind of fetching input rows.
+ * @since 0.5.3
+ */
+public enum InputFetchKind {
+
+    /**
+     * Fetch and extract each row on the task thread.
+     */
+    SYNC,
+
+    /**
+     * Fetch and extract rows on a dedicated prefetch thread, while the task thread processes the preceding rows.
+     * The prefetched rows are held in a ring of data model objects, whose size is the input fetch size.
+     */
+    ASYNC,
+}
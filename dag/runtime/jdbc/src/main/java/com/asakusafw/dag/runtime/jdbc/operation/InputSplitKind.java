@@ -0,0 +1,33 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.jdbc.operation;
+
+/**
+ * Represents a strategy of splitting inputs by the split column.
+ * @since 0.5.3
+ */
+public enum InputSplitKind {
+
+    /**
+     * Split inputs into equal-width ranges between the minimum and maximum values.
+     */
+    RANGE,
+
+    /**
+     * Split inputs by the quantiles estimated from sampled values, so that each split has roughly equal rows.
+     */
+    QUANTILE,
+}
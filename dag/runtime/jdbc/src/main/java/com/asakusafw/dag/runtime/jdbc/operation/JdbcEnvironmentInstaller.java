@@ -51,6 +51,7 @@ import com.asakusafw.lang.utils.common.Tuple;
 /**
  * Installs {@link JdbcEnvironment} into the core processor environment.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class JdbcEnvironmentInstaller implements ProcessorContextExtension {
 
@@ -95,6 +96,20 @@ public class JdbcEnvironmentInstaller implements ProcessorContextExtension {
      */
     public static final String KEY_INPUT_THREADS = "input.threads"; //$NON-NLS-1$
 
+    /**
+     * The property sub-key of the strategy of splitting inputs.
+     * @see InputSplitKind
+     * @since 0.5.3
+     */
+    public static final String KEY_INPUT_SPLIT = "input.split"; //$NON-NLS-1$
+
+    /**
+     * The property sub-key of the operation kind of fetching input rows.
+     * @see InputFetchKind
+     * @since 0.5.3
+     */
+    public static final String KEY_INPUT_FETCH = "input.fetch"; //$NON-NLS-1$
+
     /**
      * The property sub-key of {@link PreparedStatement#executeBatch() the number of batch insert records} per commit.
      */
@@ -110,6 +125,13 @@ public class JdbcEnvironmentInstaller implements ProcessorContextExtension {
      */
     public static final String KEY_OUTPUT_CLEAR = "output.clear"; //$NON-NLS-1$
 
+    /**
+     * The property sub-key of the operation kind of flushing batched outputs.
+     * @see OutputFlushKind
+     * @since 0.5.3
+     */
+    public static final String KEY_OUTPUT_FLUSH = "output.flush"; //$NON-NLS-1$
+
     /**
      * The property sub-key of comma separated available optimization symbols.
      */
@@ -192,6 +214,12 @@ public class JdbcEnvironmentInstaller implements ProcessorContextExtension {
                 .withOptions(extractSet(profileName, properties, KEY_OPTIMIZATIONS));
         extract(OutputClearKind.class, profileName, properties, KEY_OUTPUT_CLEAR)
             .ifPresent(builder::withOption);
+        extract(InputSplitKind.class, profileName, properties, KEY_INPUT_SPLIT)
+            .ifPresent(builder::withOption);
+        extract(InputFetchKind.class, profileName, properties, KEY_INPUT_FETCH)
+            .ifPresent(builder::withOption);
+        extract(OutputFlushKind.class, profileName, properties, KEY_OUTPUT_FLUSH)
+            .ifPresent(builder::withOption);
         if (properties.isEmpty() == false) {
             throw new IllegalArgumentException(MessageFormat.format(
                     "unrecognized JDBC profile properties: {0}",
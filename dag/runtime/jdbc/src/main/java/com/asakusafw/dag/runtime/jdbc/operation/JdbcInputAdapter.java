@@ -49,13 +49,14 @@ import com.asakusafw.dag.runtime.jdbc.ConnectionPool;
 import com.asakusafw.dag.runtime.jdbc.JdbcInputDriver;
 import com.asakusafw.dag.runtime.jdbc.JdbcInputDriver.Partition;
 import com.asakusafw.dag.runtime.jdbc.JdbcProfile;
+import com.asakusafw.dag.runtime.jdbc.basic.PrefetchObjectReader;
 import com.asakusafw.lang.utils.common.Arguments;
 import com.asakusafw.lang.utils.common.Invariants;
 
 /**
  * {@link InputAdapter} for JDBC inputs.
  * @since 0.4.0
- * @version 0.4.2
+ * @version 0.5.3
  */
 public class JdbcInputAdapter implements InputAdapter<ExtractOperation.Input> {
 
@@ -227,7 +228,11 @@ public class JdbcInputAdapter implements InputAdapter<ExtractOperation.Input> {
         }
 
         Driver newDriver() throws IOException, InterruptedException {
-            return new Driver(profile.acquire(), tasks);
+            int prefetch = 0;
+            if (profile.getOption(InputFetchKind.class).orElse(InputFetchKind.SYNC) == InputFetchKind.ASYNC) {
+                prefetch = profile.getFetchSize().orElse(JdbcEnvironmentInstaller.DEFAULT_FETCH_SIZE);
+            }
+            return new Driver(profile.acquire(), tasks, prefetch);
         }
     }
 
@@ -258,15 +263,18 @@ public class JdbcInputAdapter implements InputAdapter<ExtractOperation.Input> {
 
         private final Queue<SubTask> rest;
 
+        private final int prefetch;
+
         private ObjectReader reader;
 
         private JdbcCounterGroup counter;
 
         private long count;
 
-        Driver(ConnectionPool.Handle handle, Queue<SubTask> tasks) {
+        Driver(ConnectionPool.Handle handle, Queue<SubTask> tasks, int prefetch) {
             this.handle = handle;
             this.rest = tasks;
+            this.prefetch = prefetch;
         }
 
         @Override
@@ -283,6 +291,9 @@ public class JdbcInputAdapter implements InputAdapter<ExtractOperation.Input> {
                     } else {
                         SubTask task = rest.poll();
                         reader = task.partition.open(handle.getConnection());
+                        if (prefetch > 0) {
+                            reader = new PrefetchObjectReader(reader, prefetch);
+                        }
                         counter = task.counter;
                     }
                 }
@@ -23,6 +23,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
@@ -48,11 +54,13 @@ import com.asakusafw.dag.runtime.skeleton.VoidTaskProcessor;
 import com.asakusafw.lang.utils.common.Arguments;
 import com.asakusafw.lang.utils.common.InterruptibleIo;
 import com.asakusafw.lang.utils.common.Invariants;
+import com.asakusafw.lang.utils.common.Lang;
 import com.asakusafw.lang.utils.common.Tuple;
 
 /**
  * Processes set of JDBC outputs.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class JdbcOutputProcessor implements VertexProcessor {
 
@@ -62,6 +70,8 @@ public class JdbcOutputProcessor implements VertexProcessor {
 
     static final int DEFAULT_MAX_CONCURRENCY = -1;
 
+    static final AtomicInteger WRITER_COUNTER = new AtomicInteger();
+
     /**
      * The input edge name.
      */
@@ -204,7 +214,14 @@ public class JdbcOutputProcessor implements VertexProcessor {
         if (limit.isPresent() == false && concurrency.isPresent() == false) {
             return DEFAULT_MAX_CONCURRENCY;
         }
-        return Math.max(1, Math.min(limit.orElse(Integer.MAX_VALUE), concurrency.orElse(1)));
+        // each asynchronous task occupies two connections
+        int connections = isAsync(profile) ? 2 : 1;
+        return Math.max(1, Math.min(limit.orElse(Integer.MAX_VALUE) / connections, concurrency.orElse(1)));
+    }
+
+    static boolean isAsync(JdbcProfile profile) {
+        return profile.getOption(OutputFlushKind.class).orElse(OutputFlushKind.SYNC) == OutputFlushKind.ASYNC
+                && profile.getConnectionPool().size().orElse(Integer.MAX_VALUE) >= 2;
     }
 
     private void runInitializers(JdbcContext context, JdbcProfile profile) throws IOException, InterruptedException {
@@ -297,7 +314,8 @@ public class JdbcOutputProcessor implements VertexProcessor {
 
         private final Closer closer;
 
-        private Connection connection;
+        // individual connections for double buffering, only the first one is used in synchronous mode
+        private final Connection[] connections = new Connection[2];
 
         private final int windowSize;
 
@@ -305,6 +323,15 @@ public class JdbcOutputProcessor implements VertexProcessor {
 
         private boolean sawError;
 
+        private final boolean async;
+
+        // the buffer index (0 or 1) which accepts the current records
+        private int generation;
+
+        private ExecutorService writer;
+
+        private Future<?> pending;
+
         CoarseTask(
                 JdbcProfile profile,
                 CoarseTaskUnit[] units,
@@ -313,25 +340,23 @@ public class JdbcOutputProcessor implements VertexProcessor {
                 this.profile = profile;
                 this.units = units;
                 this.windowSize = profile.getBatchInsertSize().orElse(DEFAULT_BATCH_INSERT_SIZE);
+                this.async = isAsync(profile);
                 this.closer = c.move();
             }
         }
 
         @Override
         public void run(TaskProcessorContext context) throws IOException, InterruptedException {
-            if (connection == null) {
-                connection = closer.add(profile.acquire()).getConnection();
-                windowOffset = 0;
-            }
-            Connection conn = connection;
+            Connection conn = getConnection(generation);
             int rest = windowSize - windowOffset;
             CoarseTaskUnit[] us = units;
             try (ObjectReader reader = (ObjectReader) context.getInput(INPUT_NAME)) {
                 while (reader.nextObject()) {
                     for (UnionRecord union = (UnionRecord) reader.getObject(); union != null; union = union.next) {
-                        us[union.tag].write(conn, union.entity);
+                        us[union.tag].write(conn, generation, union.entity);
                         if (--rest <= 0) {
                             flush();
+                            conn = getConnection(generation);
                             rest = windowSize;
                         }
                     }
@@ -346,9 +371,12 @@ public class JdbcOutputProcessor implements VertexProcessor {
         @Override
         public void close() throws IOException, InterruptedException {
             try {
-                if (connection != null && sawError == false && windowOffset > 0) {
-                    flush();
-                    windowOffset = 0;
+                if (connections[0] != null && sawError == false) {
+                    await();
+                    if (windowOffset > 0) {
+                        commit(generation);
+                        windowOffset = 0;
+                    }
                 }
             } finally {
                 closer.close();
@@ -356,18 +384,92 @@ public class JdbcOutputProcessor implements VertexProcessor {
         }
 
         private void flush() throws IOException, InterruptedException {
+            if (async == false) {
+                commit(generation);
+                return;
+            }
+            // double buffering: the writer commits the filled buffer while we fill the other one,
+            // and each buffer has its own connection because JDBC connections are not thread-safe
+            int target = generation;
+            getConnection(target ^ 1);
+            await();
+            pending = getWriter().submit(() -> {
+                commit(target);
+                return null;
+            });
+            generation = target ^ 1;
+        }
+
+        private void await() throws IOException, InterruptedException {
+            Future<?> f = pending;
+            if (f == null) {
+                return;
+            }
+            pending = null;
             try {
-                if (LOG.isTraceEnabled()) {
-                    LOG.trace("committing {} records", windowOffset);
+                f.get();
+            } catch (ExecutionException e) {
+                sawError = true;
+                Throwable t = e.getCause();
+                Lang.rethrow(t, Error.class);
+                Lang.rethrow(t, RuntimeException.class);
+                Lang.rethrow(t, IOException.class);
+                Lang.rethrow(t, InterruptedException.class);
+                throw new IOException(t);
+            }
+        }
+
+        private Connection getConnection(int target) throws IOException, InterruptedException {
+            Connection conn = connections[target];
+            if (conn == null) {
+                if (async) {
+                    // acquires both connections at once, or tasks may wait for each other's second connection
+                    List<ConnectionPool.Handle> handles = profile.getConnectionPool().acquire(connections.length);
+                    handles.forEach(closer::add);
+                    for (int i = 0; i < connections.length; i++) {
+                        connections[i] = handles.get(i).getConnection();
+                    }
+                } else {
+                    connections[target] = closer.add(profile.acquire()).getConnection();
                 }
+                conn = connections[target];
+            }
+            return conn;
+        }
+
+        private ExecutorService getWriter() {
+            ExecutorService w = writer;
+            if (w == null) {
+                ExecutorService created = Executors.newSingleThreadExecutor(r -> Lang.let(new Thread(r), t -> {
+                    t.setName(String.format("jdbc-output-writer-%d", WRITER_COUNTER.incrementAndGet())); //$NON-NLS-1$
+                    t.setDaemon(true);
+                }));
+                // the writer must be stopped before the connections are released
+                closer.add(() -> {
+                    created.shutdown();
+                    while (created.awaitTermination(1, TimeUnit.SECONDS) == false) {
+                        LOG.debug("waiting for JDBC output writer: {}", this); //$NON-NLS-1$
+                    }
+                });
+                writer = created;
+                w = created;
+            }
+            return w;
+        }
+
+        private void commit(int target) throws IOException, InterruptedException {
+            try {
                 boolean flushed = false;
                 CoarseTaskUnit[] us = units;
                 for (CoarseTaskUnit u : us) {
-                    flushed |= u.flush();
+                    flushed |= u.flush(target);
                 }
                 if (flushed) {
-                    assert connection != null;
-                    connection.commit();
+                    if (LOG.isTraceEnabled()) {
+                        LOG.trace("committing JDBC outputs: {}", this); //$NON-NLS-1$
+                    }
+                    assert connections[target] != null;
+                    connections[target].commit();
                 }
             } catch (SQLException e) {
                 throw JdbcUtil.wrap(e);
@@ -390,10 +492,11 @@ public class JdbcOutputProcessor implements VertexProcessor {
 
         private final JdbcCounterGroup counter;
 
-        private JdbcOutputDriver.Sink sink;
+        // individual buffers for double buffering, only the first one is used in synchronous mode
+        private final JdbcOutputDriver.Sink[] sinks = new JdbcOutputDriver.Sink[2];
 
         // NOTE: count <= CoarseTask.windowSize (int)
-        private int count;
+        private final int[] counts = new int[2];
 
         CoarseTaskUnit(String id, JdbcOutputDriver driver, JdbcCounterGroup counter) {
             Arguments.requireNonNull(id);
@@ -404,22 +507,23 @@ public class JdbcOutputProcessor implements VertexProcessor {
             this.counter = counter;
         }
 
-        void write(Connection connection, Object object) throws IOException, InterruptedException {
-            JdbcOutputDriver.Sink s = sink;
+        void write(Connection connection, int generation, Object object) throws IOException, InterruptedException {
+            JdbcOutputDriver.Sink s = sinks[generation];
             if (s == null) {
                 LOG.debug("starting JDBC output: {} ({})", id, driver); //$NON-NLS-1$
-                sink = driver.open(connection);
-                s = sink;
+                sinks[generation] = driver.open(connection);
+                s = sinks[generation];
             }
             s.putObject(object);
-            count++;
+            counts[generation]++;
         }
 
-        boolean flush() throws IOException, InterruptedException {
-            if (sink != null) {
-                boolean flushed = sink.flush();
-                counter.add(count);
-                count = 0;
+        boolean flush(int generation) throws IOException, InterruptedException {
+            JdbcOutputDriver.Sink s = sinks[generation];
+            if (s != null) {
+                boolean flushed = s.flush();
+                counter.add(counts[generation]);
+                counts[generation] = 0;
                 return flushed;
             }
             return false;
@@ -427,9 +531,13 @@ public class JdbcOutputProcessor implements VertexProcessor {
 
         @Override
         public void close() throws IOException, InterruptedException {
-            if (sink != null) {
-                sink.close();
-                sink = null;
+            try (Closer c = new Closer()) {
+                for (int i = 0; i < sinks.length; i++) {
+                    if (sinks[i] != null) {
+                        c.add(sinks[i]);
+                        sinks[i] = null;
+                    }
+                }
             }
         }
     }
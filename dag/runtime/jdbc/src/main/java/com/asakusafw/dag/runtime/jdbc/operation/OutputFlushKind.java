@@ -0,0 +1,35 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.jdbc.operation;
+
+/**
+ * Represents an operation kind of flushing batched outputs.
+ * @since 0.5.3
+ */
+public enum OutputFlushKind {
+
+    /**
+     * Flush and commit each batch on the task thread.
+     */
+    SYNC,
+
+    /**
+     * Flush and commit each batch on a dedicated writer thread, while the task thread fills the next batch.
+     * Each batch has its own JDBC connection, so that each task occupies two connections.
+     * If the connection pool has less than two connections, this works as same as {@link #SYNC}.
+     */
+    ASYNC,
+}
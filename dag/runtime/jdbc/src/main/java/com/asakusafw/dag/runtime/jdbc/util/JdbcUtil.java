@@ -16,6 +16,8 @@
 package com.asakusafw.dag.runtime.jdbc.util;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Collections;
@@ -24,6 +26,7 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.asakusafw.lang.utils.common.Arguments;
 import com.asakusafw.lang.utils.common.InterruptibleIo;
 import com.asakusafw.lang.utils.common.RunnableWithException;
 import com.asakusafw.runtime.value.Date;
@@ -33,6 +36,7 @@ import com.asakusafw.runtime.value.DateUtil;
 /**
  * Utilities about JDBC.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public final class JdbcUtil {
 
@@ -122,6 +126,36 @@ public final class JdbcUtil {
         return buf.toString();
     }
 
+    /**
+     * Returns an insert statement which inserts multiple rows at once.
+     * @param tableName the target table name
+     * @param columnNames the column names
+     * @param rows the number of rows ({@code >= 1})
+     * @return the built statement
+     * @since 0.5.3
+     */
+    public static String getInsertStatement(String tableName, List<String> columnNames, int rows) {
+        Arguments.require(rows >= 1);
+        String row = String.join(",", placeholders(columnNames.size())); //$NON-NLS-1$
+        StringBuilder buf = new StringBuilder();
+        buf.append("INSERT "); //$NON-NLS-1$
+        buf.append("INTO "); //$NON-NLS-1$
+        buf.append(tableName);
+        buf.append(" ("); //$NON-NLS-1$
+        buf.append(String.join(",", columnNames)); //$NON-NLS-1$
+        buf.append(") "); //$NON-NLS-1$
+        buf.append("VALUES "); //$NON-NLS-1$
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                buf.append(","); //$NON-NLS-1$
+            }
+            buf.append("("); //$NON-NLS-1$
+            buf.append(row);
+            buf.append(")"); //$NON-NLS-1$
+        }
+        return buf.toString();
+    }
+
     /**
      * Returns a basic delete statement.
      * @param tableName the target table name
@@ -156,6 +190,34 @@ public final class JdbcUtil {
         return Collections.nCopies(count, "?"); //$NON-NLS-1$
     }
 
+    /**
+     * Returns a view of the prepared statement, which shifts the indices of its parameters.
+     * @param statement the target statement
+     * @param offset the number of parameters to be skipped
+     * @return the shifted view
+     * @since 0.5.3
+     */
+    public static PreparedStatement shift(PreparedStatement statement, int offset) {
+        Arguments.requireNonNull(statement);
+        Arguments.require(offset >= 0);
+        return (PreparedStatement) Proxy.newProxyInstance(
+                JdbcUtil.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                (proxy, method, args) -> {
+                    Class<?>[] types = method.getParameterTypes();
+                    if (method.getName().startsWith("set") //$NON-NLS-1$
+                            && types.length >= 2
+                            && types[0] == int.class) {
+                        args[0] = (Integer) args[0] + offset;
+                    }
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
     /**
      * Returns SQL Date object from the Asakusa Date representation (elapsed days from epoch).
      * @param value the Asakusa representation
@@ -37,7 +37,9 @@ import com.asakusafw.dag.runtime.jdbc.ResultSetAdapter;
 import com.asakusafw.dag.runtime.jdbc.basic.BasicJdbcInputDriver;
 import com.asakusafw.dag.runtime.jdbc.basic.BasicJdbcOperationDriver;
 import com.asakusafw.dag.runtime.jdbc.basic.BasicJdbcOutputDriver;
+import com.asakusafw.dag.runtime.jdbc.basic.MultiRowJdbcOutputDriver;
 import com.asakusafw.dag.runtime.jdbc.basic.SplitJdbcInputDriver;
+import com.asakusafw.dag.runtime.jdbc.operation.InputSplitKind;
 import com.asakusafw.dag.runtime.jdbc.operation.JdbcContext;
 import com.asakusafw.dag.runtime.jdbc.operation.OutputClearKind;
 import com.asakusafw.dag.runtime.jdbc.oracle.PartitionedJdbcInputDriver;
@@ -48,7 +50,7 @@ import com.asakusafw.lang.utils.common.Optionals;
 /**
  * WindGate adapter for JDBC operations.
  * @since 0.4.0
- * @version 0.4.2
+ * @version 0.5.3
  */
 public final class WindGateJdbcDirect {
 
@@ -68,6 +70,18 @@ public final class WindGateJdbcDirect {
      */
     static final String OPTIMIAZATION_ORACLE_DIRPATH = "ORACLE_DIRPATH"; //$NON-NLS-1$
 
+    /**
+     * The profile optimization symbol of inserting multiple rows by each statement.
+     * @see MultiRowJdbcOutputDriver
+     * @since 0.5.3
+     */
+    static final String OPTIMIAZATION_MULTI_ROW_INSERT = "MULTI_ROW_INSERT"; //$NON-NLS-1$
+
+    /**
+     * The number of sampled values per split for {@link InputSplitKind#QUANTILE}.
+     */
+    static final int SAMPLES_PER_SPLIT = 1000;
+
     private WindGateJdbcDirect() {
         return;
     }
@@ -158,9 +172,11 @@ public final class WindGateJdbcDirect {
             Set<String> options) {
         int count = profile.getMaxInputConcurrency().orElse(1);
         String condition = cond.orElse(null);
+        InputSplitKind kind = profile.getOption(InputSplitKind.class).orElse(InputSplitKind.RANGE);
+        int sampleSize = kind == InputSplitKind.QUANTILE ? count * SAMPLES_PER_SPLIT : 0;
         return new SplitJdbcInputDriver(
                 profile, tableName, columnNames,
-                splitColumn, count,
+                splitColumn, count, sampleSize,
                 condition, adapters);
     }
 
@@ -206,6 +222,9 @@ public final class WindGateJdbcDirect {
         Supplier<? extends PreparedStatementAdapter<?>> adapters = builder.adapters;
         return context -> {
             JdbcProfile profile = context.getEnvironment().getProfile(profileName);
+            if (isMultiRowInsert(profile, options)) {
+                return new MultiRowJdbcOutputDriver(tableName, columnNames, adapters);
+            }
             String insert = buildInsertStatement(profile, tableName, columnNames, options);
             return new BasicJdbcOutputDriver(insert, adapters);
         };
@@ -255,6 +274,12 @@ public final class WindGateJdbcDirect {
         return profile.getOptimizations().contains(key) && options.contains(key);
     }
 
+    private static boolean isMultiRowInsert(JdbcProfile profile, Set<String> options) {
+        // multi-row insert is available only from profiles, and Oracle direct path insert takes precedence
+        return profile.getOptimizations().contains(OPTIMIAZATION_MULTI_ROW_INSERT)
+                && isActive(profile, options, OPTIMIAZATION_ORACLE_DIRPATH) == false;
+    }
+
     private static String buildSelectStatement(
             JdbcProfile profile,
             String tableName,
@@ -186,7 +186,17 @@ public abstract class JdbcDagTestRoot {
      * @param action the action
      */
     public void profile(String profileName, Action<? super JdbcProfile, ?> action) {
-        try (ConnectionPool pool = new BasicConnectionPool(h2.getJdbcUrl(), Collections.emptyMap(), 1)) {
+        profile(profileName, 1, action);
+    }
+
+    /**
+     * Runs an action with profile.
+     * @param profileName the profile name
+     * @param connections the max number of connections
+     * @param action the action
+     */
+    public void profile(String profileName, int connections, Action<? super JdbcProfile, ?> action) {
+        try (ConnectionPool pool = new BasicConnectionPool(h2.getJdbcUrl(), Collections.emptyMap(), connections)) {
             action.perform(profile0(profileName, pool));
         } catch (Exception e) {
             throw new AssertionError(e);
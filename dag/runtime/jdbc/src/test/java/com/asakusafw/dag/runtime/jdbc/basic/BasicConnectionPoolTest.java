@@ -18,6 +18,7 @@ package com.asakusafw.dag.runtime.jdbc.basic;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Rule;
@@ -110,4 +111,24 @@ public class BasicConnectionPoolTest extends JdbcDagTestRoot {
         }
         assertThat(h2.count(TABLE), is(3));
     }
+
+    /**
+     * acquire multiple connections at once.
+     * @throws Exception if failed
+     */
+    @Test
+    public void acquire_multiple() throws Exception {
+        try (BasicConnectionPool pool = pool(3)) {
+            List<ConnectionPool.Handle> handles = pool.acquire(2);
+            assertThat(handles, hasSize(2));
+            assertThat(pool.rest(), is(1));
+            try (ConnectionPool.Handle h0 = handles.get(0);
+                    ConnectionPool.Handle h1 = handles.get(1)) {
+                insert(h0.getConnection(), 1, "1.0", "Hello1");
+                insert(h1.getConnection(), 2, "2.0", "Hello2");
+            }
+            assertThat(pool.rest(), is(3));
+        }
+        assertThat(h2.count(TABLE), is(2));
+    }
 }
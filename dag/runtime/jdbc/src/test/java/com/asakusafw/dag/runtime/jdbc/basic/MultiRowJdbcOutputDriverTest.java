@@ -0,0 +1,159 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.jdbc.basic;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.asakusafw.dag.runtime.jdbc.JdbcDagTestRoot;
+import com.asakusafw.dag.runtime.jdbc.JdbcOutputDriver;
+import com.asakusafw.dag.runtime.jdbc.testing.KsvJdbcAdapter;
+import com.asakusafw.dag.runtime.jdbc.testing.KsvModel;
+import com.asakusafw.dag.runtime.jdbc.testing.TimeJdbcAdapter;
+import com.asakusafw.dag.runtime.jdbc.testing.TimeModel;
+import com.asakusafw.dag.runtime.jdbc.util.JdbcUtil;
+import com.asakusafw.runtime.value.Date;
+import com.asakusafw.runtime.value.DateTime;
+
+/**
+ * Test for {@link MultiRowJdbcOutputDriver}.
+ */
+public class MultiRowJdbcOutputDriverTest extends JdbcDagTestRoot {
+
+    /**
+     * simple case.
+     * @throws Exception if failed
+     */
+    @Test
+    public void simple() throws Exception {
+        profile("testing", p -> {
+            put(driver(10), new KsvModel(0, null, "Hello, world!"));
+        });
+        assertThat(select(), contains(new KsvModel(0, null, "Hello, world!")));
+    }
+
+    /**
+     * multiple records.
+     * @throws Exception if failed
+     */
+    @Test
+    public void multiple() throws Exception {
+        profile("testing", p -> {
+            put(driver(2),
+                    new KsvModel(1, null, "Hello1"),
+                    new KsvModel(2, null, "Hello2"),
+                    new KsvModel(3, null, "Hello3"),
+                    new KsvModel(4, null, "Hello4"),
+                    new KsvModel(5, null, "Hello5"));
+        });
+        assertThat(select(), contains(
+                new KsvModel(1, null, "Hello1"),
+                new KsvModel(2, null, "Hello2"),
+                new KsvModel(3, null, "Hello3"),
+                new KsvModel(4, null, "Hello4"),
+                new KsvModel(5, null, "Hello5")));
+    }
+
+    /**
+     * the object is reused by the caller.
+     * @throws Exception if failed
+     */
+    @Test
+    public void reuse() throws Exception {
+        profile("testing", p -> {
+            KsvModel object = new KsvModel();
+            object.setSort(null);
+            try (Connection conn = h2.open();
+                    JdbcOutputDriver.Sink sink = driver(2).open(conn)) {
+                for (int i = 1; i <= 5; i++) {
+                    object.setKey(i);
+                    object.setValue("Hello" + i);
+                    sink.putObject(object);
+                }
+                sink.flush();
+                conn.commit();
+            }
+        });
+        assertThat(select(), contains(
+                new KsvModel(1, null, "Hello1"),
+                new KsvModel(2, null, "Hello2"),
+                new KsvModel(3, null, "Hello3"),
+                new KsvModel(4, null, "Hello4"),
+                new KsvModel(5, null, "Hello5")));
+    }
+
+    /**
+     * many records with the default number of rows.
+     * @throws Exception if failed
+     */
+    @Test
+    public void many() throws Exception {
+        List<KsvModel> records = new ArrayList<>();
+        for (int i = 0; i < 1234; i++) {
+            records.add(new KsvModel(i, null, "Hello" + i));
+        }
+        profile("testing", p -> {
+            put(new MultiRowJdbcOutputDriver(TABLE, COLUMNS, KsvJdbcAdapter::new), records.toArray());
+        });
+        assertThat(select(), is(records));
+    }
+
+    /**
+     * w/ date and time values, which are bound with shared calendar.
+     * @throws Exception if failed
+     */
+    @Test
+    public void temporal() throws Exception {
+        h2.execute("CREATE TABLE TEMPORAL(M_KEY INTEGER NOT NULL, M_DATE DATE, M_TIMESTAMP TIMESTAMP)");
+        int base = new Date(2016, 9, 1).getElapsedDays();
+        long baseSeconds = new DateTime(2016, 9, 1, 12, 34, 56).getElapsedSeconds();
+        List<TimeModel> in = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            in.add(new TimeModel(i, new Date(base + i), new DateTime(baseSeconds + i * 60)));
+        }
+        profile("testing", p -> {
+            put(new MultiRowJdbcOutputDriver(
+                    "TEMPORAL", Arrays.asList("M_KEY", "M_DATE", "M_TIMESTAMP"), 3,
+                    TimeJdbcAdapter::new), in.toArray());
+        });
+        List<TimeModel> results = new ArrayList<>();
+        try (Connection conn = h2.open();
+                Statement statement = conn.createStatement();
+                ResultSet rs = statement.executeQuery(
+                        "SELECT M_KEY, M_DATE, M_TIMESTAMP FROM TEMPORAL ORDER BY M_KEY")) {
+            while (rs.next()) {
+                results.add(new TimeModel(
+                        rs.getInt(1),
+                        new Date(JdbcUtil.fromDate(rs.getDate(2))),
+                        new DateTime(JdbcUtil.fromTimestamp(rs.getTimestamp(3)))));
+            }
+        }
+        assertThat(results, is(in));
+    }
+
+    private JdbcOutputDriver driver(int rows) {
+        return new MultiRowJdbcOutputDriver(TABLE, COLUMNS, rows, KsvJdbcAdapter::new);
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.jdbc.basic;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import com.asakusafw.dag.api.processor.ObjectReader;
+import com.asakusafw.dag.runtime.jdbc.testing.KsvModel;
+
+/**
+ * Test for {@link PrefetchObjectReader}.
+ */
+public class PrefetchObjectReaderTest {
+
+    /**
+     * simple case.
+     * @throws Exception if failed
+     */
+    @Test
+    public void simple() throws Exception {
+        List<KsvModel> in = records(1);
+        try (ObjectReader reader = new PrefetchObjectReader(new Source(in), 1)) {
+            assertThat(collect(reader), is(in));
+        }
+    }
+
+    /**
+     * empty source.
+     * @throws Exception if failed
+     */
+    @Test
+    public void empty() throws Exception {
+        try (ObjectReader reader = new PrefetchObjectReader(new Source(records(0)), 4)) {
+            assertThat(collect(reader), hasSize(0));
+            assertThat(reader.nextObject(), is(false));
+        }
+    }
+
+    /**
+     * many records with a small ring.
+     * @throws Exception if failed
+     */
+    @Test
+    public void many() throws Exception {
+        List<KsvModel> in = records(10_000);
+        try (ObjectReader reader = new PrefetchObjectReader(new Source(in), 3)) {
+            assertThat(collect(reader), is(in));
+        }
+    }
+
+    /**
+     * close before reading all records.
+     * @throws Exception if failed
+     */
+    @Test(timeout = 10_000)
+    public void close_early() throws Exception {
+        Source source = new Source(records(10_000));
+        try (ObjectReader reader = new PrefetchObjectReader(source, 2)) {
+            assertThat(reader.nextObject(), is(true));
+        }
+        assertThat(source.closed.get(), is(true));
+    }
+
+    /**
+     * source raises an error.
+     * @throws Exception if failed
+     */
+    @Test(expected = IOException.class)
+    public void failure() throws Exception {
+        Source source = new Source(records(10)) {
+            @Override
+            public boolean nextObject() throws IOException, InterruptedException {
+                boolean result = super.nextObject();
+                if (result == false) {
+                    throw new IOException("testing");
+                }
+                return result;
+            }
+        };
+        try (ObjectReader reader = new PrefetchObjectReader(source, 2)) {
+            collect(reader);
+        }
+    }
+
+    private static List<KsvModel> records(int count) {
+        List<KsvModel> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(new KsvModel(i, null, "Hello" + i));
+        }
+        return results;
+    }
+
+    private static List<KsvModel> collect(ObjectReader reader) throws IOException, InterruptedException {
+        List<KsvModel> results = new ArrayList<>();
+        while (reader.nextObject()) {
+            results.add(new KsvModel((KsvModel) reader.getObject()));
+        }
+        return results;
+    }
+
+    private static class Source implements ObjectReader {
+
+        private final Iterator<KsvModel> iterator;
+
+        private final KsvModel buffer = new KsvModel();
+
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Source(List<KsvModel> values) {
+            this.iterator = values.iterator();
+        }
+
+        @Override
+        public boolean nextObject() throws IOException, InterruptedException {
+            if (iterator.hasNext()) {
+                buffer.copyFrom(iterator.next());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Object getObject() throws IOException, InterruptedException {
+            return buffer;
+        }
+
+        @Override
+        public void close() throws IOException, InterruptedException {
+            closed.set(true);
+        }
+    }
+}
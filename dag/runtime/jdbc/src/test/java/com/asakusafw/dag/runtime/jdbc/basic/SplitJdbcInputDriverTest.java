@@ -88,6 +88,91 @@ public class SplitJdbcInputDriverTest extends JdbcDagTestRoot {
         });
     }
 
+    /**
+     * split skewed keys by quantiles.
+     * @throws Exception if failed
+     */
+    @Test
+    public void split_quantile() throws Exception {
+        List<KsvModel> in = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            in.add(insert(i * 1000, null, null));
+        }
+        for (int i = 0; i < 90; i++) {
+            in.add(insert(100_000 + i, null, null));
+        }
+        profile("testing", p -> {
+            List<List<KsvModel>> ranges = sort(get(p, "M_KEY", 10, null));
+            assertThat(ranges.stream().mapToInt(List::size).max().getAsInt(), is(greaterThanOrEqualTo(90)));
+
+            List<List<KsvModel>> parts = sort(get(p, "M_KEY", 10, 1000, null));
+            assertThat(parts, hasSize(10));
+            parts.forEach(e -> assertThat(e, hasSize(lessThan(20))));
+            assertThat(merge(parts), is(in));
+        });
+    }
+
+    /**
+     * split by quantiles with condition.
+     * @throws Exception if failed
+     */
+    @Test
+    public void split_quantile_condition() throws Exception {
+        List<KsvModel> in = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            KsvModel model = insert(i * i, null, null);
+            if (i % 2 == 0) {
+                in.add(model);
+            }
+        }
+        profile("testing", p -> {
+            List<List<KsvModel>> parts = sort(get(p, "M_KEY", 5, 1000, "MOD(M_KEY, 2) = 0"));
+            assertThat(parts, hasSize(5));
+            parts.forEach(e -> assertThat(e, hasSize(lessThan(20))));
+            assertThat(merge(parts), is(in));
+        });
+    }
+
+    /**
+     * split large inputs by quantiles of sampled values in the database.
+     * @throws Exception if failed
+     */
+    @Test
+    public void split_quantile_modulo() throws Exception {
+        List<KsvModel> in = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            in.add(insert(i * 1000, null, null));
+        }
+        for (int i = 0; i < 990; i++) {
+            in.add(insert(100_000 + i, null, null));
+        }
+        profile("testing", p -> {
+            List<List<KsvModel>> parts = sort(get(p, "M_KEY", 10, 100, null));
+            assertThat(parts, hasSize(10));
+            parts.forEach(e -> assertThat(e, hasSize(lessThan(150))));
+            assertThat(merge(parts), is(in));
+        });
+    }
+
+    /**
+     * split large inputs into equal-width ranges if they are not sampled in the database.
+     * @throws Exception if failed
+     */
+    @Test
+    public void split_quantile_fallback() throws Exception {
+        List<KsvModel> in = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            long sort = i < 10 ? i * 1000 : 100_000 + i;
+            in.add(insert(new KsvModel(i, new BigDecimal(BigInteger.valueOf(sort), 2), null)));
+        }
+        profile("testing", p -> {
+            List<List<KsvModel>> ranges = sort(get(p, "M_SORT", 10, null));
+            List<List<KsvModel>> parts = sort(get(p, "M_SORT", 10, 100, null));
+            assertThat(parts, is(ranges));
+            assertThat(merge(parts), is(in));
+        });
+    }
+
     /**
      * split by decimal.
      * @throws Exception if failed
@@ -243,6 +328,15 @@ public class SplitJdbcInputDriverTest extends JdbcDagTestRoot {
                 KsvJdbcAdapter::new)::getPartitions);
     }
 
+    private List<? extends Partition> get(
+            JdbcProfile profile, String split, int count, int samples, String condition) {
+        return connect(new SplitJdbcInputDriver(
+                profile,
+                TABLE, COLUMNS,
+                split, count, samples, condition,
+                KsvJdbcAdapter::new)::getPartitions);
+    }
+
     private List<List<KsvModel>> sort(List<? extends Partition> parts) throws IOException, InterruptedException {
         return sort(parts, KsvModel::new, (a, b) -> a.getKeyOption().compareTo(b.getKeyOption()));
     }
@@ -71,6 +71,9 @@ public class JdbcEnvironmentInstallerTest extends JdbcDagTestRoot {
         assertThat(profile.getMaxOutputConcurrency().getAsInt(), is(DEFAULT_OUTPUT_THREADS));
         assertThat(profile.getOptimizations(), hasSize(0));
         assertThat(profile.getOption(OutputClearKind.class), is(Optional.empty()));
+        assertThat(profile.getOption(InputSplitKind.class), is(Optional.empty()));
+        assertThat(profile.getOption(InputFetchKind.class), is(Optional.empty()));
+        assertThat(profile.getOption(OutputFlushKind.class), is(Optional.empty()));
     }
 
     /**
@@ -105,6 +108,9 @@ public class JdbcEnvironmentInstallerTest extends JdbcDagTestRoot {
                 q("a", KEY_PROPERTIES + ".testing"), "OK",
                 q("a", KEY_POOL_CLASS), BasicConnectionPool.class.getName(),
                 q("a", KEY_OUTPUT_CLEAR), "keep",
+                q("a", KEY_INPUT_SPLIT), "quantile",
+                q("a", KEY_INPUT_FETCH), "async",
+                q("a", KEY_OUTPUT_FLUSH), "async",
         });
         JdbcProfile profile = environment.getProfile("a");
         try (ConnectionPool.Handle ha = profile.acquire();
@@ -117,6 +123,9 @@ public class JdbcEnvironmentInstallerTest extends JdbcDagTestRoot {
         assertThat(profile.getMaxInputConcurrency().getAsInt(), is(3));
         assertThat(profile.getMaxOutputConcurrency(), is(OptionalInt.empty()));
         assertThat(profile.getOption(OutputClearKind.class), is(Optional.of(OutputClearKind.KEEP)));
+        assertThat(profile.getOption(InputSplitKind.class), is(Optional.of(InputSplitKind.QUANTILE)));
+        assertThat(profile.getOption(InputFetchKind.class), is(Optional.of(InputFetchKind.ASYNC)));
+        assertThat(profile.getOption(OutputFlushKind.class), is(Optional.of(OutputFlushKind.ASYNC)));
     }
 
     /**
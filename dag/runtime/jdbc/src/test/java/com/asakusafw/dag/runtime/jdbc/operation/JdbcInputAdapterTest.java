@@ -152,6 +152,28 @@ public class JdbcInputAdapterTest extends JdbcDagTestRoot {
         }
     }
 
+    /**
+     * w/ prefetch.
+     * @throws Exception if failed
+     */
+    @Test
+    public void prefetch() throws Exception {
+        edit(it -> it.withFetchSize(2).withOption(InputFetchKind.ASYNC));
+        List<KsvModel> records = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            records.add(insert(i, null, "Hello" + i));
+        }
+        JdbcEnvironment environment = environment(PROFILE);
+        MockVertexProcessorContext vc = new MockVertexProcessorContext()
+                .withResource(StageInfo.class, STAGE)
+                .withResource(JdbcEnvironment.class, environment);
+        try (JdbcInputAdapter adapter = new JdbcInputAdapter(vc)) {
+            adapter.input("t", PROFILE, driver());
+            adapter.initialize();
+            assertThat(collect(adapter), is(records));
+        }
+    }
+
     private static BasicJdbcInputDriver driver() {
         return new BasicJdbcInputDriver(SELECT, KsvJdbcAdapter::new);
     }
@@ -125,6 +125,74 @@ public class JdbcOutputProcessorTest extends JdbcDagTestRoot {
         assertThat(select(), is(records));
     }
 
+    /**
+     * flush on the writer thread.
+     * @throws Exception if failed
+     */
+    @Test
+    public void flush_async() throws Exception {
+        edit(b -> b.withInsertSize(10).withOption(OutputFlushKind.ASYNC));
+        List<KsvModel> records = new ArrayList<>();
+        for (int i = 0; i < 1230; i++) {
+            records.add(new KsvModel(i, null, "Hello" + i));
+        }
+        profile(PROFILE, 2, profile -> {
+            run(c -> c.output("t", profile.getName(), output(TABLE)), new Object[][] {
+                records.toArray()
+            });
+        });
+        assertThat(select(), is(records));
+    }
+
+    /**
+     * flush on the task thread if the writer thread cannot have its own connection.
+     * @throws Exception if failed
+     */
+    @Test
+    public void flush_async_single_connection() throws Exception {
+        edit(b -> b.withInsertSize(10).withOption(OutputFlushKind.ASYNC));
+        List<KsvModel> records = new ArrayList<>();
+        for (int i = 0; i < 123; i++) {
+            records.add(new KsvModel(i, null, "Hello" + i));
+        }
+        profile(PROFILE, 1, profile -> {
+            assertThat(JdbcOutputProcessor.isAsync(profile), is(false));
+            run(c -> c.output("t", profile.getName(), output(TABLE)), new Object[][] {
+                records.toArray()
+            });
+        });
+        assertThat(select(), is(records));
+    }
+
+    /**
+     * multiple destinations with flushing on the writer thread.
+     * @throws Exception if failed
+     */
+    @Test
+    public void multiple_destination_async() throws Exception {
+        edit(b -> b.withInsertSize(3).withOption(OutputFlushKind.ASYNC));
+        h2.execute(String.format(DDL_FORMAT, "T0"));
+        h2.execute(String.format(DDL_FORMAT, "T1"));
+        List<KsvModel> r0 = new ArrayList<>();
+        List<KsvModel> r1 = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            r0.add(new KsvModel(i, null, "T0-" + i));
+            r1.add(new KsvModel(i, null, "T1-" + i));
+        }
+        profile(PROFILE, 2, profile -> {
+            run(c -> c
+                    .output("t0", profile.getName(), output("T0"))
+                    .output("t1", profile.getName(), output("T1")), new Object[][] {
+                r0.toArray(),
+                r1.toArray(),
+            });
+        });
+        try (Connection conn = h2.open()) {
+            assertThat(select(conn, "T0"), is(r0));
+            assertThat(select(conn, "T1"), is(r1));
+        }
+    }
+
     /**
      * multiple destinations.
      * @throws Exception if failed
@@ -31,6 +31,7 @@ import com.asakusafw.dag.runtime.jdbc.JdbcInputDriver;
 import com.asakusafw.dag.runtime.jdbc.JdbcOperationDriver;
 import com.asakusafw.dag.runtime.jdbc.JdbcOutputDriver;
 import com.asakusafw.dag.runtime.jdbc.basic.BasicJdbcInputDriver;
+import com.asakusafw.dag.runtime.jdbc.basic.MultiRowJdbcOutputDriver;
 import com.asakusafw.dag.runtime.jdbc.operation.OutputClearKind;
 import com.asakusafw.dag.runtime.jdbc.testing.KsvJdbcAdapter;
 import com.asakusafw.dag.runtime.jdbc.testing.KsvModel;
@@ -247,6 +248,28 @@ public class WindGateJdbcDirectTest extends JdbcDagTestRoot {
         assertThat(select(), contains(new KsvModel(0, null, "Hello, world!")));
     }
 
+    /**
+     * output - w/ multi-row insert.
+     * @throws Exception if failed
+     */
+    @Test
+    public void output_multi_row() throws Exception {
+        edit(b -> b.withOption(WindGateJdbcDirect.OPTIMIAZATION_MULTI_ROW_INSERT));
+        context("testing", c -> {
+            JdbcOutputDriver driver = WindGateJdbcDirect.output("testing", TABLE, COLUMNS, KsvJdbcAdapter::new)
+                    .build(c);
+            assertThat(driver, is(instanceOf(MultiRowJdbcOutputDriver.class)));
+            put(driver,
+                    new KsvModel(1, null, "Hello1"),
+                    new KsvModel(2, null, "Hello2"),
+                    new KsvModel(3, null, "Hello3"));
+        });
+        assertThat(select(), contains(
+                new KsvModel(1, null, "Hello1"),
+                new KsvModel(2, null, "Hello2"),
+                new KsvModel(3, null, "Hello3")));
+    }
+
     /**
      * truncate - simple.
      * @throws Exception if failed
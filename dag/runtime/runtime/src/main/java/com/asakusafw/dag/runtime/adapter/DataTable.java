@@ -17,6 +17,8 @@ package com.asakusafw.dag.runtime.adapter;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 import com.asakusafw.runtime.core.GroupView;
 
@@ -24,7 +26,7 @@ import com.asakusafw.runtime.core.GroupView;
  * A data table.
  * @param <T> the data type
  * @since 0.4.0
- * @version 0.4.1
+ * @version 0.5.3
  */
 public interface DataTable<T> extends GroupView<T> {
 
@@ -63,6 +65,19 @@ public interface DataTable<T> extends GroupView<T> {
          */
         Builder<T> add(KeyBuffer key, T value);
 
+        /**
+         * Moves all elements in the given builder into this builder.
+         * The given builder must be created in the same way as this one, and it must not be used after this operation.
+         * The order of elements in each entry is not guaranteed.
+         * @param other the source builder
+         * @return this
+         * @throws UnsupportedOperationException if this builder does not support merging
+         * @since 0.5.3
+         */
+        default Builder<T> merge(Builder<T> other) {
+            throw new UnsupportedOperationException();
+        }
+
         /**
          * Builds a {@link DataTable} from the {@link #add(KeyBuffer, Object) added} elements.
          * Each entry may not be sorted.
@@ -80,5 +95,23 @@ public interface DataTable<T> extends GroupView<T> {
          * @since 0.4.1
          */
         DataTable<T> build(Comparator<? super T> comparator);
+
+        /**
+         * Builds a {@link DataTable} from the {@link #add(KeyBuffer, Object) added} elements.
+         * Each entry will be sorted by comparators from the given supplier if it is specified.
+         * Implementations may sort the individual entries in parallel by using the given executor,
+         * and then the supplier is called once for each worker.
+         * @param comparators the comparator supplier, or {@code null} if sort is not required
+         * @param executor the executor for sorting entries
+         * @param parallelism the max number of concurrent workers
+         * @return the build table
+         * @throws InterruptedException if interrupted while sorting entries
+         * @since 0.5.3
+         */
+        default DataTable<T> build(
+                Supplier<? extends Comparator<? super T>> comparators,
+                Executor executor, int parallelism) throws InterruptedException {
+            return build(comparators == null ? null : comparators.get());
+        }
     }
 }
@@ -15,17 +15,21 @@
  */
 package com.asakusafw.dag.runtime.adapter;
 
+import com.asakusafw.dag.api.common.ValueCombiner;
+
 /**
  * An abstract super interface of combining operations.
  * @param <T> the combining type
  * @since 0.4.0
+ * @version 0.5.3
  */
-public interface ObjectCombiner<T> extends KeyExtractor<T> {
+public interface ObjectCombiner<T> extends KeyExtractor<T>, ValueCombiner<T> {
 
     /**
      * Merges the right object into the left one.
      * @param a the target object
      * @param b the object to be merged
      */
+    @Override
     void combine(T a, T b);
 }
@@ -0,0 +1,381 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.data;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.asakusafw.dag.api.common.ObjectCursor;
+import com.asakusafw.lang.utils.common.Arguments;
+
+/**
+ * A {@link ListBuilder} which keeps each list on Java heap, and switches to temporary file backed lists only if
+ * the list is too large.
+ * The heap usage is estimated from the serialized size of sampled elements, and is limited by both of
+ * the per-list threshold and the {@link Budget} shared between builders.
+ * The element objects on Java heap are reused in the later lists, and their reservation of the budget is kept while
+ * they are retained. They are dropped after the list is spilled out, because their estimated size has exceeded
+ * either the per-list threshold or the shared budget.
+ * @param <T> the element type
+ * @since 0.5.3
+ */
+public class AdaptiveListBuilder<T> implements ListBuilder<T> {
+
+    static final Logger LOG = LoggerFactory.getLogger(AdaptiveListBuilder.class);
+
+    private static final int MIN_ARRAY_SIZE = 256;
+
+    private static final int SAMPLE_INTERVAL = 64;
+
+    private static final long RESERVATION_UNIT = 1024L * 1024L;
+
+    private static final int DEFAULT_RECORD_LIMIT = 1_000_000;
+
+    private static final long DEFAULT_BYTE_LIMIT = 64L * 1024L * 1024L;
+
+    private final HeapListBuilder.Entity<T> entity = new HeapListBuilder.Entity<>();
+
+    private final DataAdapter<T> adapter;
+
+    private final Options options;
+
+    private final CountingOutputStream counter = new CountingOutputStream();
+
+    private final DataOutputStream sampler = new DataOutputStream(counter);
+
+    private SpillListBuilder<T> spill;
+
+    private long reserved;
+
+    /**
+     * Creates a new instance.
+     * @param adapter the data adapter
+     * @param options the list options
+     */
+    public AdaptiveListBuilder(DataAdapter<T> adapter, Options options) {
+        Arguments.requireNonNull(adapter);
+        Arguments.requireNonNull(options);
+        this.adapter = adapter;
+        this.options = options;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<T> build(ObjectCursor cursor) throws IOException, InterruptedException {
+        // keeps the current reservation for the retained elements
+        Budget budget = options.budget;
+        budget.groupCount.increment();
+        DataAdapter<T> da = adapter;
+        T[] elements = entity.elements;
+        int recordLimit = options.recordLimit;
+        long sampledBytes = 0;
+        int sampledCount = 0;
+        int index = 0;
+        while (cursor.nextObject()) {
+            if (index >= recordLimit) {
+                return spill(elements, index, cursor, true);
+            }
+            if (index >= elements.length) {
+                elements = Arrays.copyOf(elements, Math.min(
+                        Math.max(elements.length * 2, MIN_ARRAY_SIZE),
+                        recordLimit));
+                entity.elements = elements;
+            }
+            T object = (T) cursor.getObject();
+            T destination = elements[index];
+            if (destination == null) {
+                destination = da.create();
+                elements[index] = destination;
+            }
+            da.copy(object, destination);
+            index++;
+            if (index % SAMPLE_INTERVAL == 1) {
+                sampledBytes += measure(destination);
+                sampledCount++;
+                long estimated = sampledBytes * index / sampledCount;
+                if (reserve(estimated) == false) {
+                    return spill(elements, index, cursor, false);
+                }
+            }
+        }
+        entity.size = index;
+        return entity;
+    }
+
+    private long measure(T object) throws IOException {
+        long before = counter.count;
+        adapter.write(object, sampler);
+        sampler.flush();
+        return counter.count - before;
+    }
+
+    private boolean reserve(long estimated) {
+        if (estimated > options.byteLimit) {
+            return false;
+        }
+        if (estimated <= reserved) {
+            return true;
+        }
+        long required = Math.max(estimated - reserved, RESERVATION_UNIT);
+        if (options.budget.reserve(required) == false) {
+            return false;
+        }
+        reserved += required;
+        return true;
+    }
+
+    private void release() {
+        if (reserved > 0) {
+            options.budget.release(reserved);
+            reserved = 0;
+        }
+    }
+
+    private List<T> spill(
+            T[] elements, int count,
+            ObjectCursor rest, boolean pending) throws IOException, InterruptedException {
+        release();
+        options.budget.spillCount.increment();
+        if (spill == null) {
+            spill = new SpillListBuilder<>(adapter, options.spill);
+        }
+        entity.size = 0;
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("spilling list: records>={}, {}", count, options.budget); //$NON-NLS-1$
+        }
+        // replays the buffered elements, and then continues the rest cursor
+        List<T> results = spill.build(new ObjectCursor() {
+            private int index = -1;
+            private boolean restPending = pending;
+            @Override
+            public boolean nextObject() throws IOException, InterruptedException {
+                if (index + 1 < count) {
+                    index++;
+                    return true;
+                }
+                index = count;
+                if (restPending) {
+                    // the current object of the rest cursor has not been buffered yet
+                    restPending = false;
+                    return true;
+                }
+                return rest.nextObject();
+            }
+            @Override
+            public Object getObject() throws IOException, InterruptedException {
+                if (index < count) {
+                    return elements[index];
+                }
+                return rest.getObject();
+            }
+        });
+        trim();
+        return results;
+    }
+
+    private void trim() {
+        // drops the retained elements, because their reservation has been released
+        T[] elements = entity.elements;
+        if (elements.length > MIN_ARRAY_SIZE) {
+            entity.elements = Arrays.copyOf(elements, MIN_ARRAY_SIZE);
+        }
+    }
+
+    int getCapacity() {
+        return entity.elements.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void close() throws IOException, InterruptedException {
+        release();
+        entity.elements = (T[]) HeapListBuilder.EMPTY;
+        entity.size = 0;
+        if (spill != null) {
+            spill.close();
+            spill = null;
+        }
+    }
+
+    /**
+     * Options of {@link AdaptiveListBuilder}.
+     * @since 0.5.3
+     */
+    public static class Options {
+
+        int recordLimit = DEFAULT_RECORD_LIMIT;
+
+        long byteLimit = DEFAULT_BYTE_LIMIT;
+
+        Budget budget = new Budget(Long.MAX_VALUE);
+
+        SpillListBuilder.Options spill = new SpillListBuilder.Options();
+
+        /**
+         * Sets the max number of records in each list on Java heap.
+         * @param newValue the new value
+         * @return this
+         */
+        public Options withRecordLimit(int newValue) {
+            Arguments.require(newValue >= 0);
+            this.recordLimit = newValue;
+            return this;
+        }
+
+        /**
+         * Sets the max estimated size in bytes of each list on Java heap.
+         * @param newValue the new value
+         * @return this
+         */
+        public Options withByteLimit(long newValue) {
+            Arguments.require(newValue >= 0);
+            this.byteLimit = newValue;
+            return this;
+        }
+
+        /**
+         * Sets the heap budget, which is shared between builders.
+         * @param newValue the new value
+         * @return this
+         */
+        public Options withBudget(Budget newValue) {
+            Arguments.requireNonNull(newValue);
+            this.budget = newValue;
+            return this;
+        }
+
+        /**
+         * Sets the options for temporary file backed lists.
+         * @param newValue the new value
+         * @return this
+         */
+        public Options withSpill(SpillListBuilder.Options newValue) {
+            Arguments.requireNonNull(newValue);
+            this.spill = newValue;
+            return this;
+        }
+    }
+
+    /**
+     * A heap budget of {@link AdaptiveListBuilder}, which is shared between builders.
+     * @since 0.5.3
+     */
+    public static class Budget {
+
+        private final long capacity;
+
+        private final AtomicLong used = new AtomicLong();
+
+        final LongAdder groupCount = new LongAdder();
+
+        final LongAdder spillCount = new LongAdder();
+
+        /**
+         * Creates a new instance.
+         * @param capacity the total estimated size in bytes of lists on Java heap
+         */
+        public Budget(long capacity) {
+            Arguments.require(capacity >= 0);
+            this.capacity = capacity;
+        }
+
+        boolean reserve(long size) {
+            while (true) {
+                long current = used.get();
+                long next = current + size;
+                if (next > capacity || next < 0) {
+                    return false;
+                }
+                if (used.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        void release(long size) {
+            used.addAndGet(-size);
+        }
+
+        /**
+         * Returns the total estimated size in bytes of lists on Java heap.
+         * @return the capacity
+         */
+        public long getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * Returns the current reserved size in bytes.
+         * @return the reserved size
+         */
+        public long getUsed() {
+            return used.get();
+        }
+
+        /**
+         * Returns the number of built lists.
+         * @return the number of built lists
+         */
+        public long getGroupCount() {
+            return groupCount.sum();
+        }
+
+        /**
+         * Returns the number of lists which have been spilled out into temporary files.
+         * @return the number of spilled lists
+         */
+        public long getSpillCount() {
+            return spillCount.sum();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "AdaptiveListBuilder.Budget(capacity=%,d, used=%,d, groups=%,d, spilled=%,d)", //$NON-NLS-1$
+                    getCapacity(),
+                    getUsed(),
+                    getGroupCount(),
+                    getSpillCount());
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        long count;
+
+        CountingOutputStream() {
+            return;
+        }
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
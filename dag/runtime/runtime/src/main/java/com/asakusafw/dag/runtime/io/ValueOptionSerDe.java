@@ -20,6 +20,8 @@ import java.io.DataOutput;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -43,6 +45,7 @@ import com.asakusafw.runtime.value.ValueOption;
 /**
  * Serializes/deserializes {@link ValueOption} objects.
  * @since 0.4.0
+ * @version 0.5.3
  */
 @SuppressWarnings("deprecation")
 public final class ValueOptionSerDe {
@@ -155,6 +158,20 @@ public final class ValueOptionSerDe {
         return Byte.compare(aValue, bValue);
     }
 
+    /**
+     * Compares two serialized {@link BooleanOption}s in each given {@link ByteBuffer}.
+     * Each buffer is read from its current position, and its position will be advanced to the end of the value.
+     * @param a the first {@link ByteBuffer}
+     * @param b the second {@link ByteBuffer}
+     * @return {@code 0} - the two values are both equivalent,
+     *   {@code < 0} - the first value is less than the second one, or
+     *   {@code > 0} - the second value is less than the second one
+     * @since 0.5.3
+     */
+    public static int compareBoolean(ByteBuffer a, ByteBuffer b) {
+        return Byte.compare(a.get(), b.get());
+    }
+
     /**
      * Serializes {@link ByteOption} object.
      * @param option the target object
@@ -213,6 +230,33 @@ public final class ValueOptionSerDe {
         return Byte.compare(aValue, bValue);
     }
 
+    /**
+     * Compares two serialized {@link ByteOption}s in each given {@link ByteBuffer}.
+     * Each buffer is read from its current position, and its position will be advanced to the end of the value.
+     * @param a the first {@link ByteBuffer}
+     * @param b the second {@link ByteBuffer}
+     * @return {@code 0} - the two values are both equivalent,
+     *   {@code < 0} - the first value is less than the second one, or
+     *   {@code > 0} - the second value is less than the second one
+     * @since 0.5.3
+     */
+    public static int compareByte(ByteBuffer a, ByteBuffer b) {
+        byte aHeader = a.get();
+        byte bHeader = b.get();
+        if (aHeader == NULL_HEADER) {
+            if (bHeader == NULL_HEADER) {
+                return 0;
+            } else {
+                skip(b, Byte.BYTES);
+                return -1;
+            }
+        } else if (bHeader == NULL_HEADER) {
+            skip(a, Byte.BYTES);
+            return +1;
+        }
+        return Byte.compare(a.get(), b.get());
+    }
+
     /**
      * Serializes {@link ShortOption} object.
      * @param option the target object
@@ -271,6 +315,33 @@ public final class ValueOptionSerDe {
         return Short.compare(aValue, bValue);
     }
 
+    /**
+     * Compares two serialized {@link ShortOption}s in each given {@link ByteBuffer}.
+     * Each buffer is read from its current position, and its position will be advanced to the end of the value.
+     * @param a the first {@link ByteBuffer}
+     * @param b the second {@link ByteBuffer}
+     * @return {@code 0} - the two values are both equivalent,
+     *   {@code < 0} - the first value is less than the second one, or
+     *   {@code > 0} - the second value is less than the second one
+     * @since 0.5.3
+     */
+    public static int compareShort(ByteBuffer a, ByteBuffer b) {
+        byte aHeader = a.get();
+        byte bHeader = b.get();
+        if (aHeader == NULL_HEADER) {
+            if (bHeader == NULL_HEADER) {
+                return 0;
+            } else {
+                skip(b, Short.BYTES);
+                return -1;
+            }
+        } else if (bHeader == NULL_HEADER) {
+            skip(a, Short.BYTES);
+            return +1;
+        }
+        return Short.compare(a.getShort(), b.getShort());
+    }
+
     /**
      * Serializes {@link IntOption} object.
      * @param option the target object
@@ -329,6 +400,33 @@ public final class ValueOptionSerDe {
         return Integer.compare(aValue, bValue);
     }
 
+    /**
+     * Compares two serialized {@link IntOption}s in each given {@link ByteBuffer}.
+     * Each buffer is read from its current position, and its position will be advanced to the end of the value.
+     * @param a the first {@link ByteBuffer}
+     * @param b the second {@link ByteBuffer}
+     * @return {@code 0} - the two values are both equivalent,
+     *   {@code < 0} - the first value is less than the second one, or
+     *   {@code > 0} - the second value is less than the second one
+     * @since 0.5.3
+     */
+    public static int compareInt(ByteBuffer a, ByteBuffer b) {
+        byte aHeader = a.get();
+        byte bHeader = b.get();
+        if (aHeader == NULL_HEADER) {
+            if (bHeader == NULL_HEADER) {
+                return 0;
+            } else {
+                skip(b, Integer.BYTES);
+                return -1;
+            }
+        } else if (bHeader == NULL_HEADER) {
+            skip(a, Integer.BYTES);
+            return +1;
+        }
+        return Integer.compare(a.getInt(), b.getInt());
+    }
+
     /**
      * Serializes {@link LongOption} object.
      * @param option the target object
@@ -387,6 +485,33 @@ public final class ValueOptionSerDe {
         return Long.compare(aValue, bValue);
     }
 
+    /**
+     * Compares two serialized {@link LongOption}s in each given {@link ByteBuffer}.
+     * Each buffer is read from its current position, and its position will be advanced to the end of the value.
+     * @param a the first {@link ByteBuffer}
+     * @param b the second {@link ByteBuffer}
+     * @return {@code 0} - the two values are both equivalent,
+     *   {@code < 0} - the first value is less than the second one, or
+     *   {@code > 0} - the second value is less than the second one
+     * @since 0.5.3
+     */
+    public static int compareLong(ByteBuffer a, ByteBuffer b) {
+        byte aHeader = a.get();
+        byte bHeader = b.get();
+        if (aHeader == NULL_HEADER) {
+            if (bHeader == NULL_HEADER) {
+                return 0;
+            } else {
+                skip(b, Long.BYTES);
+                return -1;
+            }
+        } else if (bHeader == NULL_HEADER) {
+            skip(a, Long.BYTES);
+            return +1;
+        }
+        return Long.compare(a.getLong(), b.getLong());
+    }
+
     /**
      * Serializes {@link FloatOption} object.
      * @param option the target object
@@ -445,6 +570,33 @@ public final class ValueOptionSerDe {
         return Float.compare(aValue, bValue);
     }
 
+    /**
+     * Compares two serialized {@link FloatOption}s in each given {@link ByteBuffer}.
+     * Each buffer is read from its current position, and its position will be advanced to the end of the value.
+     * @param a the first {@link ByteBuffer}
+     * @param b the second {@link ByteBuffer}
+     * @return {@code 0} - the two values are both equivalent,
+     *   {@code < 0} - the first value is less than the second one, or
+     *   {@code > 0} - the second value is less than the second one
+     * @since 0.5.3
+     */
+    public static int compareFloat(ByteBuffer a, ByteBuffer b) {
+        byte aHeader = a.get();
+        byte bHeader = b.get();
+        if (aHeader == NULL_HEADER) {
+            if (bHeader == NULL_HEADER) {
+                return 0;
+            } else {
+                skip(b, Float.BYTES);
+                return -1;
+            }
+        } else if (bHeader == NULL_HEADER) {
+            skip(a, Float.BYTES);
+            return +1;
+        }
+        return Float.compare(a.getFloat(), b.getFloat());
+    }
+
     /**
      * Serializes {@link DoubleOption} object.
      * @param option the target object
@@ -503,6 +655,33 @@ public final class ValueOptionSerDe {
         return Double.compare(aValue, bValue);
     }
 
+    /**
+     * Compares two serialized {@link DoubleOption}s in each given {@link ByteBuffer}.
+     * Each buffer is read from its current position, and its position will be advanced to the end of the value.
+     * @param a the first {@link ByteBuffer}
+     * @param b the second {@link ByteBuffer}
+     * @return {@code 0} - the two values are both equivalent,
+     *   {@code < 0} - the first value is less than the second one, or
+     *   {@code > 0} - the second value is less than the second one
+     * @since 0.5.3
+     */
+    public static int compareDouble(ByteBuffer a, ByteBuffer b) {
+        byte aHeader = a.get();
+        byte bHeader = b.get();
+        if (aHeader == NULL_HEADER) {
+            if (bHeader == NULL_HEADER) {
+                return 0;
+            } else {
+                skip(b, Double.BYTES);
+                return -1;
+            }
+        } else if (bHeader == NULL_HEADER) {
+            skip(a, Double.BYTES);
+            return +1;
+        }
+        return Double.compare(a.getDouble(), b.getDouble());
+    }
+
     /**
      * Serializes {@link DateOption} object.
      * @param option the target object
@@ -548,6 +727,20 @@ public final class ValueOptionSerDe {
         return Integer.compare(aValue, bValue);
     }
 
+    /**
+     * Compares two serialized {@link DateOption}s in each given {@link ByteBuffer}.
+     * Each buffer is read from its current position, and its position will be advanced to the end of the value.
+     * @param a the first {@link ByteBuffer}
+     * @param b the second {@link ByteBuffer}
+     * @return {@code 0} - the two values are both equivalent,
+     *   {@code < 0} - the first value is less than the second one, or
+     *   {@code > 0} - the second value is less than the second one
+     * @since 0.5.3
+     */
+    public static int compareDate(ByteBuffer a, ByteBuffer b) {
+        return Integer.compare(a.getInt(), b.getInt());
+    }
+
     /**
      * Serializes {@link DateTimeOption} object.
      * @param option the target object
@@ -593,6 +786,20 @@ public final class ValueOptionSerDe {
         return Long.compare(aValue, bValue);
     }
 
+    /**
+     * Compares two serialized {@link DateTimeOption}s in each given {@link ByteBuffer}.
+     * Each buffer is read from its current position, and its position will be advanced to the end of the value.
+     * @param a the first {@link ByteBuffer}
+     * @param b the second {@link ByteBuffer}
+     * @return {@code 0} - the two values are both equivalent,
+     *   {@code < 0} - the first value is less than the second one, or
+     *   {@code > 0} - the second value is less than the second one
+     * @since 0.5.3
+     */
+    public static int compareDateTime(ByteBuffer a, ByteBuffer b) {
+        return Long.compare(a.getLong(), b.getLong());
+    }
+
     /**
      * Serializes {@link StringOption} object.
      * @param option the target object
@@ -685,6 +892,73 @@ public final class ValueOptionSerDe {
         }
     }
 
+    /**
+     * Compares two serialized {@link StringOption}s in each given {@link ByteBuffer}.
+     * Each buffer is read from its current position, and its position will be advanced to the end of the value.
+     * @param a the first {@link ByteBuffer}
+     * @param b the second {@link ByteBuffer}
+     * @return {@code 0} - the two values are both equivalent,
+     *   {@code < 0} - the first value is less than the second one, or
+     *   {@code > 0} - the second value is less than the second one
+     * @since 0.5.3
+     */
+    public static int compareString(ByteBuffer a, ByteBuffer b) {
+        int aLength = readCompactInt(a);
+        int bLength = readCompactInt(b);
+        if (aLength == UNSIGNED_NULL) {
+            if (bLength == UNSIGNED_NULL) {
+                return 0;
+            } else {
+                skip(b, bLength);
+                return -1;
+            }
+        } else if (bLength == UNSIGNED_NULL) {
+            skip(a, aLength);
+            return +1;
+        }
+        int aOffset = a.position();
+        int bOffset = b.position();
+        a.position(aOffset + aLength);
+        b.position(bOffset + bLength);
+        int diff = compareBytes(a, aOffset, b, bOffset, Math.min(aLength, bLength));
+        if (diff != 0) {
+            return diff;
+        }
+        return Integer.compare(aLength, bLength);
+    }
+
+    private static int compareBytes(ByteBuffer a, int aOffset, ByteBuffer b, int bOffset, int length) {
+        // compares 8 bytes at a time as unsigned big-endian words
+        boolean aSwap = a.order() != ByteOrder.BIG_ENDIAN;
+        boolean bSwap = b.order() != ByteOrder.BIG_ENDIAN;
+        int index = 0;
+        for (int n = length - Long.BYTES; index <= n; index += Long.BYTES) {
+            long aWord = a.getLong(aOffset + index);
+            long bWord = b.getLong(bOffset + index);
+            if (aSwap) {
+                aWord = Long.reverseBytes(aWord);
+            }
+            if (bSwap) {
+                bWord = Long.reverseBytes(bWord);
+            }
+            if (aWord != bWord) {
+                return Long.compareUnsigned(aWord, bWord) < 0 ? -1 : +1;
+            }
+        }
+        for (; index < length; index++) {
+            int aChar = Byte.toUnsignedInt(a.get(aOffset + index));
+            int bChar = Byte.toUnsignedInt(b.get(bOffset + index));
+            if (aChar != bChar) {
+                return aChar < bChar ? -1 : +1;
+            }
+        }
+        return 0;
+    }
+
+    private static void skip(ByteBuffer buffer, int length) {
+        buffer.position(buffer.position() + length);
+    }
+
     private static void skip(DataInput input, int length) throws IOException {
         if (length == 0) {
             return;
@@ -775,6 +1049,81 @@ public final class ValueOptionSerDe {
         }
     }
 
+    /**
+     * Compares two serialized {@link DecimalOption}s in each given {@link ByteBuffer}.
+     * Each buffer is read from its current position, and its position will be advanced to the end of the value.
+     * @param a the first {@link ByteBuffer}
+     * @param b the second {@link ByteBuffer}
+     * @return {@code 0} - the two values are both equivalent,
+     *   {@code < 0} - the first value is less than the second one, or
+     *   {@code > 0} - the second value is less than the second one
+     * @since 0.5.3
+     */
+    public static int compareDecimal(ByteBuffer a, ByteBuffer b) {
+        byte aHead = a.get();
+        byte bHead = b.get();
+        if (aHead == DECIMAL_NULL) {
+            if (bHead == DECIMAL_NULL) {
+                return 0;
+            } else {
+                skipDecimal(b, bHead);
+                return -1;
+            }
+        } else if (bHead == DECIMAL_NULL) {
+            skipDecimal(a, aHead);
+            return +1;
+        }
+        if ((aHead & DECIMAL_COMPACT_MASK) != 0 && (bHead & DECIMAL_COMPACT_MASK) != 0) {
+            int aScale = readCompactInt(a);
+            int bScale = readCompactInt(b);
+            long aUnscaled = readCompactLong(a);
+            long bUnscaled = readCompactLong(b);
+            boolean aPlus = (aHead & DECIMAL_PLUS_MASK) != 0;
+            boolean bPlus = (bHead & DECIMAL_PLUS_MASK) != 0;
+            if (aScale == bScale) {
+                // compares the unscaled values directly
+                return Long.compare(aPlus ? aUnscaled : -aUnscaled, bPlus ? bUnscaled : -bUnscaled);
+            }
+            BigDecimal aValue = BigDecimal.valueOf(aPlus ? aUnscaled : -aUnscaled, aScale);
+            BigDecimal bValue = BigDecimal.valueOf(bPlus ? bUnscaled : -bUnscaled, bScale);
+            return aValue.compareTo(bValue);
+        }
+        BigDecimal aValue = deserializeDecimal(a, aHead);
+        BigDecimal bValue = deserializeDecimal(b, bHead);
+        return aValue.compareTo(bValue);
+    }
+
+    private static void skipDecimal(ByteBuffer buffer, byte head) {
+        readCompactInt(buffer);
+        if ((head & DECIMAL_COMPACT_MASK) != 0) {
+            readCompactLong(buffer);
+        } else {
+            skip(buffer, readCompactInt(buffer));
+        }
+    }
+
+    private static BigDecimal deserializeDecimal(ByteBuffer buffer, byte head) {
+        assert head != DECIMAL_NULL;
+        boolean compact = (head & DECIMAL_COMPACT_MASK) != 0;
+        boolean plus = (head & DECIMAL_PLUS_MASK) != 0;
+        int scale = readCompactInt(buffer);
+        if (compact) {
+            long unscaled = readCompactLong(buffer);
+            assert unscaled >= 0;
+            return BigDecimal.valueOf(plus ? unscaled : -unscaled, scale);
+        } else {
+            int length = readCompactInt(buffer);
+            assert length != 0; // '0' must be compact form
+            byte[] bytes = getLocalBuffer(length, length * 4);
+            int offset = bytes.length - length;
+            buffer.get(bytes, offset, length);
+            if (offset > 0) {
+                Arrays.fill(bytes, 0, offset, (byte) 0);
+            }
+            return new BigDecimal(new BigInteger(plus ? +1 : -1, bytes), scale);
+        }
+    }
+
     private static BigDecimal deserializeDecimal(DataInput input) throws IOException {
         byte head = input.readByte();
         if (head == DECIMAL_NULL) {
@@ -823,6 +1172,27 @@ public final class ValueOptionSerDe {
         }
     }
 
+    static int readCompactInt(ByteBuffer buffer) {
+        byte b0 = buffer.get();
+        if (b0 >= COMPACT_INT_HEAD_MIN) {
+            return b0;
+        }
+        int scale = COMPACT_INT_HEAD_MIN - b0;
+        assert 1 <= scale && scale <= 4;
+        switch (scale) {
+        case 1:
+            return buffer.get();
+        case 2:
+            return buffer.getShort();
+        case 3:
+            return buffer.getInt();
+        case 4:
+            throw new NumberFormatException();
+        default:
+            throw new AssertionError();
+        }
+    }
+
     static void writeCompactInt(int value, DataOutput output) throws IOException {
         if (Byte.MIN_VALUE <= value && value <= Byte.MAX_VALUE) {
             if (value >= COMPACT_INT_HEAD_MIN) {
@@ -861,6 +1231,27 @@ public final class ValueOptionSerDe {
         }
     }
 
+    static long readCompactLong(ByteBuffer buffer) {
+        byte b0 = buffer.get();
+        if (b0 >= COMPACT_INT_HEAD_MIN) {
+            return b0;
+        }
+        int scale = COMPACT_INT_HEAD_MIN - b0;
+        assert 1 <= scale && scale <= 4;
+        switch (scale) {
+        case 1:
+            return buffer.get();
+        case 2:
+            return buffer.getShort();
+        case 3:
+            return buffer.getInt();
+        case 4:
+            return buffer.getLong();
+        default:
+            throw new AssertionError();
+        }
+    }
+
     static void writeCompactLong(long value, DataOutput output) throws IOException {
         if (Byte.MIN_VALUE <= value && value <= Byte.MAX_VALUE) {
             if (value >= COMPACT_INT_HEAD_MIN) {
@@ -18,18 +18,22 @@ package com.asakusafw.dag.runtime.skeleton;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.apache.hadoop.io.Writable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.asakusafw.dag.api.processor.EdgeIoProcessorContext;
 import com.asakusafw.dag.api.processor.VertexProcessorContext;
 import com.asakusafw.dag.runtime.adapter.CoGroupOperation;
 import com.asakusafw.dag.runtime.adapter.InputAdapter;
 import com.asakusafw.dag.runtime.adapter.InputHandler;
+import com.asakusafw.dag.runtime.data.AdaptiveListBuilder;
 import com.asakusafw.dag.runtime.data.DataAdapter;
 import com.asakusafw.dag.runtime.data.HeapListBuilder;
 import com.asakusafw.dag.runtime.data.ListBuilder;
@@ -42,7 +46,7 @@ import com.asakusafw.runtime.model.DataModel;
 /**
  * {@link InputAdapter} for co-group edge inputs.
  * @since 0.4.0
- * @version 0.4.2
+ * @version 0.5.3
  */
 public class CoGroupInputAdapter implements InputAdapter<CoGroupOperation.Input> {
 
@@ -62,11 +66,57 @@ public class CoGroupInputAdapter implements InputAdapter<CoGroupOperation.Input>
     public static final String KEY_FILE_DIRECTORY =
             "com.asakusafw.dag.input.file.directory"; //$NON-NLS-1$
 
+    /**
+     * The configuration key of the total heap budget in bytes for the buffered groups in each vertex.
+     * If this is positive, all inputs keep their groups on Java heap while they are within the budget,
+     * and switch to file mapped buffers only if the individual groups are too large.
+     * @see AdaptiveListBuilder
+     * @since 0.5.3
+     */
+    public static final String KEY_ADAPTIVE_BUDGET =
+            "com.asakusafw.dag.input.adaptive.budget"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of the max number of records in each group on Java heap.
+     * @see #KEY_ADAPTIVE_BUDGET
+     * @since 0.5.3
+     */
+    public static final String KEY_ADAPTIVE_RECORDS =
+            "com.asakusafw.dag.input.adaptive.records"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of the max estimated size in bytes of each group on Java heap.
+     * @see #KEY_ADAPTIVE_BUDGET
+     * @since 0.5.3
+     */
+    public static final String KEY_ADAPTIVE_BYTES =
+            "com.asakusafw.dag.input.adaptive.bytes"; //$NON-NLS-1$
+
     /**
      * The default value of {@link #KEY_FILE_WINDOW_SIZE}.
      */
     public static final int DEFAULT_FILE_WINDOW_SIZE = 256;
 
+    /**
+     * The default value of {@link #KEY_ADAPTIVE_BUDGET} (disabled).
+     * @since 0.5.3
+     */
+    public static final long DEFAULT_ADAPTIVE_BUDGET = 0L;
+
+    /**
+     * The default value of {@link #KEY_ADAPTIVE_RECORDS}.
+     * @since 0.5.3
+     */
+    public static final int DEFAULT_ADAPTIVE_RECORDS = 1_000_000;
+
+    /**
+     * The default value of {@link #KEY_ADAPTIVE_BYTES}.
+     * @since 0.5.3
+     */
+    public static final long DEFAULT_ADAPTIVE_BYTES = 64L * 1024L * 1024L;
+
+    static final Logger LOG = LoggerFactory.getLogger(CoGroupInputAdapter.class);
+
     private final List<Consumer<CoGroupInputHandler.Builder>> actions = new ArrayList<>();
 
     private final Closer closer = new Closer();
@@ -75,6 +125,10 @@ public class CoGroupInputAdapter implements InputAdapter<CoGroupOperation.Input>
 
     private final Path temporaryDirectory;
 
+    private final AdaptiveListBuilder.Options adaptiveOptions;
+
+    private final AdaptiveListBuilder.Budget adaptiveBudget;
+
     /**
      * Creates a new instance.
      * @param context the context
@@ -88,6 +142,23 @@ public class CoGroupInputAdapter implements InputAdapter<CoGroupOperation.Input>
         this.temporaryDirectory = context.getProperty(KEY_FILE_DIRECTORY)
                 .map(Paths::get)
                 .orElse(null);
+        long budget = Util.getProperty(context, "heap budget", //$NON-NLS-1$
+                KEY_ADAPTIVE_BUDGET, DEFAULT_ADAPTIVE_BUDGET);
+        if (budget > 0) {
+            this.adaptiveBudget = new AdaptiveListBuilder.Budget(budget);
+            this.adaptiveOptions = new AdaptiveListBuilder.Options()
+                    .withRecordLimit(Util.getProperty(context, "max records in heap", //$NON-NLS-1$
+                            KEY_ADAPTIVE_RECORDS, DEFAULT_ADAPTIVE_RECORDS))
+                    .withByteLimit(Util.getProperty(context, "max bytes in heap", //$NON-NLS-1$
+                            KEY_ADAPTIVE_BYTES, DEFAULT_ADAPTIVE_BYTES))
+                    .withBudget(adaptiveBudget)
+                    .withSpill(new SpillListBuilder.Options()
+                            .withWindowSize(fileWindowSize > 0 ? fileWindowSize : DEFAULT_FILE_WINDOW_SIZE)
+                            .withDirectory(temporaryDirectory));
+        } else {
+            this.adaptiveBudget = null;
+            this.adaptiveOptions = null;
+        }
     }
 
     /**
@@ -132,6 +203,9 @@ public class CoGroupInputAdapter implements InputAdapter<CoGroupOperation.Input>
     }
 
     private <T> ListBuilder<T> newListBuilder(BufferType bufferType, DataAdapter<T> adapter) {
+        if (adaptiveOptions != null) {
+            return new AdaptiveListBuilder<>(adapter, adaptiveOptions);
+        }
         switch (bufferType) {
         case HEAP:
             return new HeapListBuilder<>(adapter);
@@ -161,6 +235,14 @@ public class CoGroupInputAdapter implements InputAdapter<CoGroupOperation.Input>
         synchronized (closer) {
             closer.close();
         }
+        if (adaptiveBudget != null && adaptiveBudget.getSpillCount() > 0) {
+            LOG.info(MessageFormat.format(
+                    "some co-group inputs were spilled out: spilled={0}, groups={1}",
+                    adaptiveBudget.getSpillCount(),
+                    adaptiveBudget.getGroupCount()));
+        } else if (adaptiveBudget != null) {
+            LOG.debug("co-group inputs: {}", adaptiveBudget); //$NON-NLS-1$
+        }
     }
 
     /**
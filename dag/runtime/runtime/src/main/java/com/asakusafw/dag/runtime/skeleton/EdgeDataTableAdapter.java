@@ -17,16 +17,26 @@ package com.asakusafw.dag.runtime.skeleton;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.function.Supplier;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.asakusafw.dag.api.processor.FragmentedObjectReader;
 import com.asakusafw.dag.api.processor.ObjectReader;
 import com.asakusafw.dag.api.processor.VertexProcessorContext;
+import com.asakusafw.dag.api.processor.extension.BroadcastInputCache;
+import com.asakusafw.dag.api.processor.extension.VertexThreads;
 import com.asakusafw.dag.runtime.adapter.DataTable;
 import com.asakusafw.dag.runtime.adapter.DataTable.Builder;
 import com.asakusafw.dag.runtime.adapter.DataTableAdapter;
@@ -35,14 +45,17 @@ import com.asakusafw.dag.runtime.adapter.KeyExtractor;
 import com.asakusafw.dag.runtime.adapter.ObjectCopier;
 import com.asakusafw.dag.runtime.table.BasicDataTable;
 import com.asakusafw.dag.runtime.table.BasicDataTable.KeyValidator;
+import com.asakusafw.dag.runtime.table.CompactDataTable;
 import com.asakusafw.lang.utils.common.Arguments;
+import com.asakusafw.lang.utils.common.InterruptibleIo.IoCallable;
 import com.asakusafw.lang.utils.common.Invariants;
+import com.asakusafw.lang.utils.common.Lang;
 import com.asakusafw.runtime.core.GroupView;
 
 /**
  * {@link DataTableAdapter} for edge output.
  * @since 0.4.0
- * @version 0.4.1
+ * @version 0.5.3
  */
 public class EdgeDataTableAdapter implements DataTableAdapter {
 
@@ -55,6 +68,17 @@ public class EdgeDataTableAdapter implements DataTableAdapter {
 
     static final BasicDataTable.ValidationLevel DEFAULT_VIEW_VALIDATE = BasicDataTable.ValidationLevel.COUNT;
 
+    /**
+     * The configuration key of whether or not the data tables hold their elements as serialized form.
+     * @see CompactDataTable
+     * @since 0.5.3
+     */
+    public static final String KEY_VIEW_COMPACT = "com.asakusafw.dag.view.compact"; //$NON-NLS-1$
+
+    static final boolean DEFAULT_VIEW_COMPACT = false;
+
+    static final Logger LOG = LoggerFactory.getLogger(EdgeDataTableAdapter.class);
+
     private final VertexProcessorContext context;
 
     private final Supplier<? extends KeyBuffer> keyBufferFactory;
@@ -65,6 +89,10 @@ public class EdgeDataTableAdapter implements DataTableAdapter {
 
     private final BasicDataTable.ValidationLevel validationLevel;
 
+    private final boolean compact;
+
+    private final BroadcastInputCache cache;
+
     /**
      * Creates a new instance.
      * @param context the current context
@@ -75,6 +103,11 @@ public class EdgeDataTableAdapter implements DataTableAdapter {
         this.keyBufferFactory = Util.getKeyBufferSupplier(context);
         this.validationLevel = Util.getProperty(context, "valiation level", //$NON-NLS-1$
                 KEY_VIEW_VALIDATE, DEFAULT_VIEW_VALIDATE);
+        this.compact = context.getProperty(KEY_VIEW_COMPACT)
+                .map(String::trim)
+                .map(Boolean::parseBoolean)
+                .orElse(DEFAULT_VIEW_COMPACT);
+        this.cache = context.getResource(BroadcastInputCache.class).orElse(null);
     }
 
     /**
@@ -109,13 +142,29 @@ public class EdgeDataTableAdapter implements DataTableAdapter {
             Supplier<? extends ObjectCopier<?>> copier,
             Supplier<? extends Comparator<?>> comparator,
             Class<?>... keyElementTypes) {
+        return bind(tableId, inputId, keyExtractor, copier, comparator, keyElementTypes, null);
+    }
+
+    private EdgeDataTableAdapter bind(
+            String tableId, String inputId,
+            Supplier<? extends KeyExtractor<?>> keyExtractor,
+            Supplier<? extends ObjectCopier<?>> copier,
+            Supplier<? extends Comparator<?>> comparator,
+            Class<?>[] keyElementTypes,
+            Object cacheKey) {
         Arguments.requireNonNull(tableId);
         Arguments.requireNonNull(inputId);
         Arguments.requireNonNull(copier);
         KeyValidator keyValidator = toValidator(keyElementTypes);
-        Supplier<? extends DataTable.Builder<Object>> tableBuilders = () -> new BasicDataTable.Builder<>(
-                new HashMap<>(), keyBufferFactory, keyValidator);
-        specs.add(new Spec(tableId, inputId, tableBuilders, keyExtractor, copier, comparator));
+        Supplier<? extends DataTable.Builder<Object>> tableBuilders;
+        if (compact) {
+            @SuppressWarnings("unchecked")
+            Supplier<? extends ObjectCopier<Object>> copiers = (Supplier<? extends ObjectCopier<Object>>) copier;
+            tableBuilders = () -> new CompactDataTable.Builder<>(copiers.get(), keyValidator);
+        } else {
+            tableBuilders = () -> new BasicDataTable.Builder<>(new HashMap<>(), keyBufferFactory, keyValidator);
+        }
+        specs.add(new Spec(tableId, inputId, tableBuilders, keyExtractor, copier, comparator, cacheKey));
         return this;
     }
 
@@ -142,7 +191,7 @@ public class EdgeDataTableAdapter implements DataTableAdapter {
         Arguments.requireNonNull(tableId);
         Arguments.requireNonNull(inputId);
         Arguments.requireNonNull(tableId);
-        return bind(tableId, inputId, Util.toSupplier(keyExtractor), Util.toSupplier(copier));
+        return bind(tableId, inputId, keyExtractor, copier, null, (Class<?>[]) null);
     }
 
     /**
@@ -165,31 +214,116 @@ public class EdgeDataTableAdapter implements DataTableAdapter {
         Arguments.requireNonNull(tableId);
         Arguments.requireNonNull(inputId);
         Arguments.requireNonNull(tableId);
+        // the generated classes identify how to build the table, so that we can share it with other vertices
+        Object cacheKey = Arrays.asList(
+                compact, validationLevel,
+                keyExtractor, copier, comparator,
+                keyElementTypes == null ? null : Arrays.asList(keyElementTypes));
         return bind(tableId, inputId,
                 Util.toSupplier(keyExtractor), Util.toSupplier(copier), Util.toSupplier(comparator),
-                keyElementTypes);
+                keyElementTypes, cacheKey);
     }
 
     @Override
     public void initialize() throws IOException, InterruptedException {
+        VertexThreads threads = context.getResource(VertexThreads.class).orElse(null);
         for (Spec spec : specs) {
-            ObjectCopier<Object> copier = spec.copier.get();
-            KeyExtractor<Object> extractor = spec.keyBuilder == null ? null : spec.keyBuilder.get();
-            DataTable.Builder<Object> table = spec.tableBuilder.get();
-            KeyBuffer key = table.newKeyBuffer();
-            key.clear();
-            try (ObjectReader reader = (ObjectReader) context.getInput(spec.inputId)) {
-                while (reader.nextObject()) {
-                    Object object = copier.newCopy(reader.getObject());
-                    if (extractor != null) {
-                        key.clear();
-                        extractor.buildKey(key, object);
+            resolved.put(spec.tableId, share(spec, () -> build(spec, threads)));
+        }
+    }
+
+    private boolean isShared(Spec spec) {
+        return cache != null && spec.cacheKey != null;
+    }
+
+    private DataTable<Object> share(
+            Spec spec, IoCallable<DataTable<Object>> builder) throws IOException, InterruptedException {
+        if (isShared(spec) == false) {
+            return builder.call();
+        }
+        // data tables are immutable after they are built, so that we can share them between vertices
+        return cache.get(context.getVertexId(), spec.inputId, spec.cacheKey, builder);
+    }
+
+    private DataTable<Object> build(Spec spec, VertexThreads threads) throws IOException, InterruptedException {
+        try (ObjectReader reader = (ObjectReader) context.getInput(spec.inputId)) {
+            if (threads == null || threads.getParallelism() <= 1
+                    || reader instanceof FragmentedObjectReader == false) {
+                DataTable.Builder<Object> table = spec.tableBuilder.get();
+                load(spec, reader, table);
+                Comparator<Object> comparator = spec.comparator == null ? null : spec.comparator.get();
+                return table.build(comparator);
+            }
+            DataTable.Builder<Object> table = load(spec, (FragmentedObjectReader) reader, threads);
+            return table.build(spec.comparator, threads.getExecutor(), threads.getParallelism());
+        }
+    }
+
+    private DataTable.Builder<Object> load(
+            Spec spec,
+            FragmentedObjectReader reader, VertexThreads threads) throws IOException, InterruptedException {
+        int parallelism = threads.getParallelism();
+        LOG.debug("building data table: table={}, threads={}", spec.tableId, parallelism); //$NON-NLS-1$
+        // each worker reads individual fragments into its own builder, and then we merge them
+        List<FutureTask<DataTable.Builder<Object>>> tasks = new ArrayList<>();
+        try {
+            for (int i = 0; i < parallelism; i++) {
+                FutureTask<DataTable.Builder<Object>> task = new FutureTask<>(() -> {
+                    DataTable.Builder<Object> table = spec.tableBuilder.get();
+                    while (true) {
+                        try (ObjectReader fragment = reader.nextFragment()) {
+                            if (fragment == null) {
+                                return table;
+                            }
+                            load(spec, fragment, table);
+                        }
                     }
-                    table.add(key, object);
-                }
+                });
+                threads.getExecutor().execute(task);
+                tasks.add(task);
+            }
+            DataTable.Builder<Object> result = null;
+            for (FutureTask<DataTable.Builder<Object>> task : tasks) {
+                DataTable.Builder<Object> table = await(task);
+                result = result == null ? table : result.merge(table);
+            }
+            return Invariants.requireNonNull(result);
+        } finally {
+            // stops the rest workers if failed
+            for (FutureTask<?> task : tasks) {
+                task.cancel(true);
             }
-            Comparator<Object> comparator = spec.comparator == null ? null : spec.comparator.get();
-            resolved.put(spec.tableId, table.build(comparator));
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable t = e.getCause();
+            Lang.rethrow(t, Error.class);
+            Lang.rethrow(t, RuntimeException.class);
+            Lang.rethrow(t, IOException.class);
+            Lang.rethrow(t, InterruptedException.class);
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private void load(
+            Spec spec,
+            ObjectReader reader, DataTable.Builder<Object> table) throws IOException, InterruptedException {
+        ObjectCopier<Object> copier = spec.copier.get();
+        KeyExtractor<Object> extractor = spec.keyBuilder == null ? null : spec.keyBuilder.get();
+        KeyBuffer key = table.newKeyBuffer();
+        key.clear();
+        while (reader.nextObject()) {
+            // compact tables serialize the given object, so that we need not copy it
+            Object object = compact ? reader.getObject() : copier.newCopy(reader.getObject());
+            if (extractor != null) {
+                key.clear();
+                extractor.buildKey(key, object);
+            }
+            table.add(key, object);
         }
     }
 
@@ -219,18 +353,22 @@ public class EdgeDataTableAdapter implements DataTableAdapter {
 
         final Supplier<? extends Comparator<Object>> comparator;
 
+        final Object cacheKey;
+
         @SuppressWarnings("unchecked")
         Spec(String tableId, String inputId,
                 Supplier<? extends DataTable.Builder<?>> tableBuilder,
                 Supplier<? extends KeyExtractor<?>> keyBuilder,
                 Supplier<? extends ObjectCopier<?>> copier,
-                Supplier<? extends Comparator<?>> comparator) {
+                Supplier<? extends Comparator<?>> comparator,
+                Object cacheKey) {
             this.tableId = tableId;
             this.inputId = inputId;
             this.tableBuilder = (Supplier<? extends Builder<Object>>) tableBuilder;
             this.keyBuilder = (Supplier<? extends KeyExtractor<Object>>) keyBuilder;
             this.copier = (Supplier<? extends ObjectCopier<Object>>) copier;
             this.comparator = (Supplier<? extends Comparator<Object>>) comparator;
+            this.cacheKey = cacheKey;
         }
     }
 }
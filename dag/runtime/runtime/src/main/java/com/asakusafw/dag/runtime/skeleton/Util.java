@@ -71,6 +71,22 @@ final class Util {
                 .orElse(defaultValue);
     }
 
+    static long getProperty(
+            ProcessorContext context,
+            String title, String key, long defaultValue) {
+        return context.getProperty(key)
+                .map(value -> {
+                    try {
+                        return Long.parseLong(value);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException(MessageFormat.format(
+                                "{0} must be a valid integer: {1}={2}",
+                                title, key, value), e);
+                    }
+                })
+                .orElse(defaultValue);
+    }
+
     static <T extends Enum<T>> T getProperty(
             ProcessorContext context,
             String title, String key, T defaultValue) {
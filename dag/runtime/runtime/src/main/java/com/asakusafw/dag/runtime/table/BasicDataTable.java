@@ -25,17 +25,19 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.asakusafw.dag.runtime.adapter.DataTable;
 import com.asakusafw.dag.runtime.adapter.KeyBuffer;
+import com.asakusafw.lang.utils.common.Arguments;
 
 /**
  * Basic implementation of {@link DataTable}.
  * @param <T> the data type
  * @since 0.4.0
- * @version 0.4.1
+ * @version 0.5.3
  */
 public class BasicDataTable<T> implements DataTable<T> {
 
@@ -259,7 +261,7 @@ public class BasicDataTable<T> implements DataTable<T> {
      * A builder for {@link BasicDataTable}.
      * @param <T> the element type
      * @since 0.4.0
-     * @version 0.4.1
+     * @version 0.5.3
      */
     public static class Builder<T> implements DataTable.Builder<T> {
 
@@ -318,6 +320,21 @@ public class BasicDataTable<T> implements DataTable<T> {
             return this;
         }
 
+        @Override
+        public DataTable.Builder<T> merge(DataTable.Builder<T> other) {
+            Arguments.require(other instanceof Builder<?>);
+            Map<KeyBuffer.View, List<T>> map = entity;
+            for (Map.Entry<KeyBuffer.View, List<T>> entry : ((Builder<T>) other).entity.entrySet()) {
+                List<T> list = map.get(entry.getKey());
+                if (list == null) {
+                    map.put(entry.getKey(), entry.getValue());
+                } else {
+                    list.addAll(entry.getValue());
+                }
+            }
+            return this;
+        }
+
         @Override
         public DataTable<T> build(Comparator<? super T> comparator) {
             if (comparator != null) {
@@ -327,6 +344,22 @@ public class BasicDataTable<T> implements DataTable<T> {
             }
             return new BasicDataTable<>(entity, buffers, validator);
         }
+
+        @Override
+        public DataTable<T> build(
+                Supplier<? extends Comparator<? super T>> comparators,
+                Executor executor, int parallelism) throws InterruptedException {
+            if (comparators != null) {
+                List<List<T>> entries = entity.values().stream()
+                        .filter(e -> e.size() >= 2)
+                        .collect(Collectors.toList());
+                TableUtil.forEach(executor, parallelism, entries.size(), () -> {
+                    Comparator<? super T> comparator = comparators.get();
+                    return i -> entries.get(i).sort(comparator);
+                });
+            }
+            return new BasicDataTable<>(entity, buffers, validator);
+        }
     }
 
     /**
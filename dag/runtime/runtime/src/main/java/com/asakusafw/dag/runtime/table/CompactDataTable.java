@@ -0,0 +1,508 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.table;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.text.MessageFormat;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.apache.hadoop.io.Writable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.asakusafw.dag.runtime.adapter.DataTable;
+import com.asakusafw.dag.runtime.adapter.KeyBuffer;
+import com.asakusafw.dag.runtime.adapter.ObjectCopier;
+import com.asakusafw.lang.utils.common.Arguments;
+import com.asakusafw.runtime.io.util.DataBuffer;
+
+/**
+ * A compact implementation of {@link DataTable}.
+ * This stores both keys and serialized elements into large byte arrays, and looks up them via an open addressing
+ * hash index, instead of holding individual Java objects.
+ * Each element is deserialized only when it is accessed first time in the individual lists.
+ * Note that, the element type must be {@link Writable}, and this only accepts {@link HeapKeyBuffer}.
+ * @param <T> the data type
+ * @since 0.5.3
+ */
+public class CompactDataTable<T> extends BasicDataTable<T> {
+
+    static final Logger LOG = LoggerFactory.getLogger(CompactDataTable.class);
+
+    static final int SLAB_SIZE = 4 * 1024 * 1024;
+
+    private final Slabs slabs;
+
+    private final int[] index;
+
+    private final int[] groupHashes;
+
+    private final long[] groupKeys;
+
+    private final int[] groupOffsets;
+
+    private final long[] rows;
+
+    private final Supplier<? extends T> factory;
+
+    private final ThreadLocal<DataBuffer> readers = ThreadLocal.withInitial(DataBuffer::new);
+
+    CompactDataTable(Builder<T> builder, int[] groupOffsets, long[] rows) {
+        super(Collections.emptyMap(), HeapKeyBuffer::new, builder.validator);
+        this.slabs = builder.slabs;
+        this.index = builder.index;
+        this.groupHashes = builder.groupHashes;
+        this.groupKeys = builder.groupKeys;
+        this.groupOffsets = groupOffsets;
+        this.rows = rows;
+        this.factory = builder.factory;
+    }
+
+    @Override
+    public List<T> getList(KeyBuffer key) {
+        if (key instanceof HeapKeyBuffer == false) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    "unsupported key buffer: {0}",
+                    key));
+        }
+        DataBuffer buffer = ((HeapKeyBuffer) key).buffer;
+        int group = find(index, slabs, groupHashes, groupKeys,
+                buffer.getData(), buffer.getReadPosition(), buffer.getReadLimit());
+        if (group < 0) {
+            return Collections.emptyList();
+        }
+        return new Group(groupOffsets[group], groupOffsets[group + 1]);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int next = 0;
+            @Override
+            public boolean hasNext() {
+                return next < rows.length;
+            }
+            @Override
+            public T next() {
+                if (next >= rows.length) {
+                    throw new NoSuchElementException();
+                }
+                return decode(rows[next++]);
+            }
+        };
+    }
+
+    T decode(long address) {
+        return decode(slabs, readers.get(), factory, address);
+    }
+
+    static <T> T decode(Slabs slabs, DataBuffer reader, Supplier<? extends T> factory, long address) {
+        T object = factory.get();
+        byte[] slab = slabs.getSlab(address);
+        int offset = Slabs.getOffset(address);
+        reader.reset(slab, offset + Integer.BYTES, offset + Integer.BYTES + Slabs.getLength(slab, offset));
+        try {
+            ((Writable) object).readFields(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return object;
+    }
+
+    static int hash(byte[] bytes, int from, int to) {
+        int h = HeapKeyBuffer.hashCodeInBytes(bytes, from, to) * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    static int find(int[] index, Slabs slabs, int[] groupHashes, long[] groupKeys, byte[] bytes, int from, int to) {
+        int hash = hash(bytes, from, to);
+        int mask = index.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = index[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int group = entry - 1;
+            if (groupHashes[group] == hash) {
+                long address = groupKeys[group];
+                byte[] slab = slabs.getSlab(address);
+                int offset = Slabs.getOffset(address);
+                int length = Slabs.getLength(slab, offset);
+                if (HeapKeyBuffer.equalsInBytes(
+                        bytes, from, to,
+                        slab, offset + Integer.BYTES, offset + Integer.BYTES + length)) {
+                    return group;
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CompactDataTable(groups=%,d, rows=%,d, bytes=%,d)", //$NON-NLS-1$
+                groupOffsets.length - 1, rows.length, slabs.getSize());
+    }
+
+    private final class Group extends AbstractList<T> implements RandomAccess {
+
+        private final int start;
+
+        private final Object[] elements;
+
+        Group(int start, int end) {
+            this.start = start;
+            this.elements = new Object[end - start];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T get(int i) {
+            Object element = elements[i];
+            if (element == null) {
+                element = decode(rows[start + i]);
+                elements[i] = element;
+            }
+            return (T) element;
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+    }
+
+    /**
+     * A builder for {@link CompactDataTable}.
+     * @param <T> the element type
+     * @since 0.5.3
+     */
+    public static class Builder<T> implements DataTable.Builder<T> {
+
+        private final ObjectCopier<T> copier;
+
+        final KeyValidator validator;
+
+        final Slabs slabs = new Slabs(SLAB_SIZE);
+
+        int[] index = new int[16];
+
+        int[] groupHashes = new int[8];
+
+        long[] groupKeys = new long[8];
+
+        Supplier<? extends T> factory;
+
+        private final DataBuffer buffer = new DataBuffer();
+
+        private int groupCount;
+
+        private int rowCount;
+
+        private long[] rows = new long[16];
+
+        private int[] rowGroups = new int[16];
+
+        /**
+         * Creates a new instance.
+         * @param copier the object copier, which is used only if the element type has no public default constructor
+         */
+        public Builder(ObjectCopier<T> copier) {
+            this(copier, KeyValidator.NULL);
+        }
+
+        /**
+         * Creates a new instance.
+         * @param copier the object copier, which is used only if the element type has no public default constructor
+         * @param validator the key validator
+         */
+        public Builder(ObjectCopier<T> copier, KeyValidator validator) {
+            Arguments.requireNonNull(copier);
+            Arguments.requireNonNull(validator);
+            this.copier = copier;
+            this.validator = validator;
+        }
+
+        @Override
+        public KeyBuffer newKeyBuffer() {
+            return new HeapKeyBuffer();
+        }
+
+        /**
+         * Adds an element.
+         * Unlike {@link BasicDataTable.Builder}, this does not keep the given element object,
+         * and then clients can reuse it after this operation.
+         * @param key the target key
+         * @param value the target element
+         * @return this
+         */
+        @Override
+        public DataTable.Builder<T> add(KeyBuffer key, T value) {
+            Arguments.require(key instanceof HeapKeyBuffer);
+            if (factory == null) {
+                factory = newFactory(copier, value);
+            }
+            DataBuffer k = ((HeapKeyBuffer) key).buffer;
+            int group = find(index, slabs, groupHashes, groupKeys,
+                    k.getData(), k.getReadPosition(), k.getReadLimit());
+            if (group < 0) {
+                group = addGroup(k.getData(), k.getReadPosition(), k.getReadLimit());
+            }
+            DataBuffer b = buffer;
+            b.reset(0, 0);
+            try {
+                ((Writable) value).write(b);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            if (rowCount == rows.length) {
+                rows = Arrays.copyOf(rows, rowCount * 2);
+                rowGroups = Arrays.copyOf(rowGroups, rowCount * 2);
+            }
+            rows[rowCount] = slabs.put(b.getData(), b.getReadPosition(), b.getReadLimit());
+            rowGroups[rowCount] = group;
+            rowCount++;
+            return this;
+        }
+
+        @Override
+        public DataTable.Builder<T> merge(DataTable.Builder<T> other) {
+            Arguments.require(other instanceof Builder<?>);
+            Builder<T> source = (Builder<T>) other;
+            if (factory == null) {
+                factory = source.factory;
+            }
+            // copies the serialized keys and elements, instead of rebuilding them from the element objects
+            int[] groups = new int[source.groupCount];
+            for (int i = 0; i < source.groupCount; i++) {
+                long address = source.groupKeys[i];
+                byte[] slab = source.slabs.getSlab(address);
+                int from = Slabs.getOffset(address) + Integer.BYTES;
+                int to = from + Slabs.getLength(slab, Slabs.getOffset(address));
+                int group = find(index, slabs, groupHashes, groupKeys, slab, from, to);
+                if (group < 0) {
+                    group = addGroup(slab, from, to);
+                }
+                groups[i] = group;
+            }
+            for (int i = 0; i < source.rowCount; i++) {
+                long address = source.rows[i];
+                byte[] slab = source.slabs.getSlab(address);
+                int from = Slabs.getOffset(address) + Integer.BYTES;
+                int to = from + Slabs.getLength(slab, Slabs.getOffset(address));
+                if (rowCount == rows.length) {
+                    rows = Arrays.copyOf(rows, rowCount * 2);
+                    rowGroups = Arrays.copyOf(rowGroups, rowCount * 2);
+                }
+                rows[rowCount] = slabs.put(slab, from, to);
+                rowGroups[rowCount] = groups[source.rowGroups[i]];
+                rowCount++;
+            }
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Supplier<T> newFactory(ObjectCopier<T> copier, T value) {
+            // elements are just overwritten by readFields(), so that we create them without copying
+            Constructor<?> constructor;
+            try {
+                constructor = value.getClass().getConstructor();
+            } catch (NoSuchMethodException e) {
+                LOG.debug("element type has no public default constructor: {}", value.getClass(), e); //$NON-NLS-1$
+                T prototype = copier.newCopy(value);
+                return () -> copier.newCopy(prototype);
+            }
+            return () -> {
+                try {
+                    return (T) constructor.newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+        }
+
+        private int addGroup(byte[] bytes, int from, int to) {
+            int group = groupCount++;
+            if (group == groupKeys.length) {
+                groupHashes = Arrays.copyOf(groupHashes, group * 2);
+                groupKeys = Arrays.copyOf(groupKeys, group * 2);
+            }
+            int hash = hash(bytes, from, to);
+            groupHashes[group] = hash;
+            groupKeys[group] = slabs.put(bytes, from, to);
+            if ((long) groupCount * 2 > index.length) {
+                index = new int[index.length * 2];
+                for (int i = 0; i < groupCount; i++) {
+                    insert(index, groupHashes[i], i);
+                }
+            } else {
+                insert(index, hash, group);
+            }
+            return group;
+        }
+
+        private static void insert(int[] index, int hash, int group) {
+            int mask = index.length - 1;
+            int slot = hash & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = group + 1;
+        }
+
+        @Override
+        public DataTable<T> build(Comparator<? super T> comparator) {
+            try {
+                return build(comparator == null ? null : () -> comparator, null, 1);
+            } catch (InterruptedException e) {
+                // may not occur
+                throw new AssertionError(e);
+            }
+        }
+
+        @Override
+        public DataTable<T> build(
+                Supplier<? extends Comparator<? super T>> comparators,
+                Executor executor, int parallelism) throws InterruptedException {
+            // arranges rows in each group contiguously
+            int[] offsets = new int[groupCount + 1];
+            for (int i = 0; i < rowCount; i++) {
+                offsets[rowGroups[i] + 1]++;
+            }
+            for (int i = 0; i < groupCount; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            int[] cursors = Arrays.copyOf(offsets, groupCount);
+            long[] arranged = new long[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                arranged[cursors[rowGroups[i]]++] = rows[i];
+            }
+            rows = null;
+            rowGroups = null;
+            if (comparators != null) {
+                TableUtil.forEach(executor, parallelism, groupCount, () -> {
+                    Comparator<? super T> comparator = comparators.get();
+                    DataBuffer reader = new DataBuffer();
+                    List<Entry<T>> entries = new ArrayList<>();
+                    return group -> sort(offsets[group], offsets[group + 1], arranged, comparator, reader, entries);
+                });
+            }
+            CompactDataTable<T> result = new CompactDataTable<>(this, offsets, arranged);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("built data table: {}", result); //$NON-NLS-1$
+            }
+            return result;
+        }
+
+        private void sort(
+                int start, int end, long[] arranged,
+                Comparator<? super T> comparator, DataBuffer reader, List<Entry<T>> entries) {
+            if (end - start <= 1) {
+                return;
+            }
+            entries.clear();
+            for (int i = start; i < end; i++) {
+                entries.add(new Entry<>(arranged[i], decode(slabs, reader, factory, arranged[i])));
+            }
+            entries.sort((a, b) -> comparator.compare(a.value, b.value));
+            for (int i = start; i < end; i++) {
+                arranged[i] = entries.get(i - start).address;
+            }
+        }
+    }
+
+    private static final class Entry<T> {
+
+        final long address;
+
+        final T value;
+
+        Entry(long address, T value) {
+            this.address = address;
+            this.value = value;
+        }
+    }
+
+    static final class Slabs {
+
+        private static final int MIN_SLAB_SIZE = 64 * 1024;
+
+        private final int slabSize;
+
+        private final List<byte[]> slabs = new ArrayList<>();
+
+        private byte[] current;
+
+        private int position;
+
+        private long size;
+
+        Slabs(int slabSize) {
+            this.slabSize = slabSize;
+        }
+
+        long put(byte[] bytes, int from, int to) {
+            int length = to - from;
+            int required = Integer.BYTES + length;
+            if (current == null || current.length - position < required) {
+                // grows slabs gradually for small tables
+                int next = current == null ? MIN_SLAB_SIZE : Math.min(current.length * 2, slabSize);
+                current = new byte[Math.max(next, required)];
+                slabs.add(current);
+                position = 0;
+            }
+            byte[] slab = current;
+            int offset = position;
+            slab[offset + 0] = (byte) (length >>> 24);
+            slab[offset + 1] = (byte) (length >>> 16);
+            slab[offset + 2] = (byte) (length >>> 8);
+            slab[offset + 3] = (byte) length;
+            System.arraycopy(bytes, from, slab, offset + Integer.BYTES, length);
+            position += required;
+            size += required;
+            return ((long) (slabs.size() - 1) << 32) | offset;
+        }
+
+        byte[] getSlab(long address) {
+            return slabs.get((int) (address >>> 32));
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        static int getOffset(long address) {
+            return (int) address;
+        }
+
+        static int getLength(byte[] slab, int offset) {
+            return ((slab[offset + 0] & 0xff) << 24)
+                    | ((slab[offset + 1] & 0xff) << 16)
+                    | ((slab[offset + 2] & 0xff) << 8)
+                    | (slab[offset + 3] & 0xff);
+        }
+    }
+}
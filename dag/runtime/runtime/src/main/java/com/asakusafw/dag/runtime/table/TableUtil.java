@@ -0,0 +1,88 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.table;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+import com.asakusafw.lang.utils.common.Lang;
+
+/**
+ * Utilities about data tables.
+ * @since 0.5.3
+ */
+final class TableUtil {
+
+    private TableUtil() {
+        return;
+    }
+
+    /**
+     * Processes each index in {@code [0, count)} by using the given executor.
+     * Each worker takes the next index one by one, and processes it with its own consumer.
+     * @param executor the executor, or {@code null} to process indices on the current thread
+     * @param parallelism the max number of workers
+     * @param count the number of indices
+     * @param workers the worker supplier, which is called once for each worker
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    static void forEach(
+            Executor executor, int parallelism,
+            int count, Supplier<? extends IntConsumer> workers) throws InterruptedException {
+        int n = Math.min(parallelism, count);
+        if (executor == null || n <= 1) {
+            IntConsumer worker = workers.get();
+            for (int i = 0; i < count; i++) {
+                worker.accept(i);
+            }
+            return;
+        }
+        AtomicInteger cursor = new AtomicInteger();
+        List<FutureTask<?>> tasks = new ArrayList<>();
+        for (int w = 0; w < n; w++) {
+            FutureTask<?> task = new FutureTask<>(() -> {
+                IntConsumer worker = workers.get();
+                for (int i = cursor.getAndIncrement(); i < count; i = cursor.getAndIncrement()) {
+                    worker.accept(i);
+                }
+                return null;
+            });
+            executor.execute(task);
+            tasks.add(task);
+        }
+        try {
+            for (FutureTask<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    Throwable t = e.getCause();
+                    Lang.rethrow(t, Error.class);
+                    Lang.rethrow(t, RuntimeException.class);
+                    throw new IllegalStateException(t);
+                }
+            }
+        } finally {
+            // stops the rest workers
+            cursor.set(count);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.data;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.asakusafw.dag.runtime.data.AdaptiveListBuilder.Budget;
+import com.asakusafw.dag.runtime.data.AdaptiveListBuilder.Options;
+import com.asakusafw.runtime.value.IntOption;
+
+/**
+ * Test for {@link AdaptiveListBuilder}.
+ */
+public class AdaptiveListBuilderTest {
+
+    /**
+     * temporary folder.
+     */
+    @Rule
+    public final TemporaryFolder temporary = new TemporaryFolder();
+
+    /**
+     * simple case.
+     * @throws Exception if failed
+     */
+    @Test
+    public void simple() throws Exception {
+        Budget budget = new Budget(Long.MAX_VALUE);
+        try (AdaptiveListBuilder<IntOption> builder = new AdaptiveListBuilder<>(new IntOptionAdapter(), options()
+                .withBudget(budget))) {
+            check(builder.build(IntOptionAdapter.range(0, 1000)), 0, 1000);
+        }
+        assertThat(budget.getGroupCount(), is(1L));
+        assertThat(budget.getSpillCount(), is(0L));
+        assertThat(budget.getUsed(), is(0L));
+    }
+
+    /**
+     * w/ record limit.
+     * @throws Exception if failed
+     */
+    @Test
+    public void record_limit() throws Exception {
+        Budget budget = new Budget(Long.MAX_VALUE);
+        try (AdaptiveListBuilder<IntOption> builder = new AdaptiveListBuilder<>(new IntOptionAdapter(), options()
+                .withRecordLimit(100)
+                .withBudget(budget))) {
+            check(builder.build(IntOptionAdapter.range(0, 100)), 0, 100);
+            assertThat(budget.getSpillCount(), is(0L));
+            check(builder.build(IntOptionAdapter.range(0, 101)), 0, 101);
+            assertThat(budget.getSpillCount(), is(1L));
+            check(builder.build(IntOptionAdapter.range(0, 10)), 0, 10);
+            assertThat(budget.getSpillCount(), is(1L));
+        }
+        assertThat(budget.getGroupCount(), is(3L));
+    }
+
+    /**
+     * w/ byte limit.
+     * @throws Exception if failed
+     */
+    @Test
+    public void byte_limit() throws Exception {
+        Budget budget = new Budget(Long.MAX_VALUE);
+        try (AdaptiveListBuilder<IntOption> builder = new AdaptiveListBuilder<>(new IntOptionAdapter(), options()
+                .withByteLimit(1000)
+                .withBudget(budget))) {
+            check(builder.build(IntOptionAdapter.range(0, 10)), 0, 10);
+            assertThat(budget.getSpillCount(), is(0L));
+            check(builder.build(IntOptionAdapter.range(0, 100_000)), 0, 100_000);
+            assertThat(budget.getSpillCount(), is(1L));
+        }
+    }
+
+    /**
+     * w/ shared budget.
+     * @throws Exception if failed
+     */
+    @Test
+    public void budget() throws Exception {
+        Budget budget = new Budget(1024 * 1024);
+        Options options = options().withBudget(budget);
+        try (AdaptiveListBuilder<IntOption> a = new AdaptiveListBuilder<>(new IntOptionAdapter(), options);
+                AdaptiveListBuilder<IntOption> b = new AdaptiveListBuilder<>(new IntOptionAdapter(), options)) {
+            List<IntOption> list = a.build(IntOptionAdapter.range(0, 1000));
+            assertThat(budget.getUsed(), is(greaterThan(0L)));
+            check(b.build(IntOptionAdapter.range(0, 1000)), 0, 1000);
+            assertThat(budget.getSpillCount(), is(1L));
+            check(list, 0, 1000);
+
+            check(a.build(IntOptionAdapter.range(0, 10)), 0, 10);
+            check(a.build(IntOptionAdapter.range(0, 1000)), 0, 1000);
+            assertThat(budget.getSpillCount(), is(1L));
+        }
+        assertThat(budget.getUsed(), is(0L));
+    }
+
+    /**
+     * keeps the reservation for the retained elements.
+     * @throws Exception if failed
+     */
+    @Test
+    public void retain() throws Exception {
+        Budget budget = new Budget(Long.MAX_VALUE);
+        try (AdaptiveListBuilder<IntOption> builder = new AdaptiveListBuilder<>(new IntOptionAdapter(), options()
+                .withBudget(budget))) {
+            check(builder.build(IntOptionAdapter.range(0, 1000)), 0, 1000);
+            long used = budget.getUsed();
+            assertThat(used, is(greaterThan(0L)));
+            int capacity = builder.getCapacity();
+            assertThat(capacity, is(greaterThanOrEqualTo(1000)));
+
+            check(builder.build(IntOptionAdapter.range(0, 10)), 0, 10);
+            assertThat(budget.getUsed(), is(used));
+            assertThat(builder.getCapacity(), is(capacity));
+        }
+        assertThat(budget.getUsed(), is(0L));
+    }
+
+    /**
+     * drops the retained elements after spilled out.
+     * @throws Exception if failed
+     */
+    @Test
+    public void trim() throws Exception {
+        Budget budget = new Budget(Long.MAX_VALUE);
+        try (AdaptiveListBuilder<IntOption> builder = new AdaptiveListBuilder<>(new IntOptionAdapter(), options()
+                .withRecordLimit(10_000)
+                .withBudget(budget))) {
+            check(builder.build(IntOptionAdapter.range(0, 10_001)), 0, 10_001);
+            assertThat(budget.getSpillCount(), is(1L));
+            assertThat(budget.getUsed(), is(0L));
+            assertThat(builder.getCapacity(), is(lessThanOrEqualTo(256)));
+
+            check(builder.build(IntOptionAdapter.range(0, 1000)), 0, 1000);
+            assertThat(budget.getSpillCount(), is(1L));
+        }
+    }
+
+    /**
+     * w/ empty lists.
+     * @throws Exception if failed
+     */
+    @Test
+    public void empty() throws Exception {
+        try (AdaptiveListBuilder<IntOption> builder = new AdaptiveListBuilder<>(new IntOptionAdapter(), options()
+                .withRecordLimit(0))) {
+            check(builder.build(IntOptionAdapter.range(0, 0)), 0, 0);
+            check(builder.build(IntOptionAdapter.range(0, 1)), 0, 1);
+        }
+    }
+
+    private Options options() throws Exception {
+        return new Options()
+                .withSpill(new SpillListBuilder.Options()
+                        .withWindowSize(16)
+                        .withDirectory(temporary.newFolder().toPath()));
+    }
+
+    private static void check(List<IntOption> list, int begin, int end) {
+        assertThat(list.size(), is(end - begin));
+        for (int i = 0, n = end - begin; i < n; i++) {
+            assertEquals(i + begin, list.get(i).get());
+        }
+    }
+}
@@ -18,8 +18,12 @@ package com.asakusafw.dag.runtime.io;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 
 import org.junit.Test;
 
@@ -412,6 +416,82 @@ public class ValueOptionSerDeTest {
         compare(cmp, new DecimalOption(), newDecimal("1.1"));
     }
 
+    /**
+     * Test for {@link ValueOptionSerDe#compareBoolean(ByteBuffer, ByteBuffer)} and other fixed width values.
+     * @throws Exception if failed
+     */
+    @Test
+    public void compare_buffer_fixed() throws Exception {
+        compareBuffer(ValueOptionSerDe::compareBoolean, new BooleanOption(true), new BooleanOption(false));
+        compareBuffer(ValueOptionSerDe::compareBoolean, new BooleanOption(), new BooleanOption(false));
+        compareBuffer(ValueOptionSerDe::compareByte, new ByteOption((byte) 1), new ByteOption((byte) -1));
+        compareBuffer(ValueOptionSerDe::compareByte, new ByteOption(), new ByteOption((byte) 0));
+        compareBuffer(ValueOptionSerDe::compareShort, new ShortOption((short) 1), new ShortOption((short) -1));
+        compareBuffer(ValueOptionSerDe::compareShort, new ShortOption(), new ShortOption((short) 0));
+        compareBuffer(ValueOptionSerDe::compareInt, new IntOption(1), new IntOption(-1));
+        compareBuffer(ValueOptionSerDe::compareInt, new IntOption(), new IntOption(0));
+        compareBuffer(ValueOptionSerDe::compareLong, new LongOption(1), new LongOption(-1));
+        compareBuffer(ValueOptionSerDe::compareLong, new LongOption(), new LongOption(0));
+        compareBuffer(ValueOptionSerDe::compareFloat, new FloatOption(1), new FloatOption(-1));
+        compareBuffer(ValueOptionSerDe::compareFloat, new FloatOption(), new FloatOption(0));
+        compareBuffer(ValueOptionSerDe::compareDouble, new DoubleOption(1), new DoubleOption(-1));
+        compareBuffer(ValueOptionSerDe::compareDouble, new DoubleOption(), new DoubleOption(0));
+        compareBuffer(ValueOptionSerDe::compareDate, newDate(1), newDate(0));
+        compareBuffer(ValueOptionSerDe::compareDate, new DateOption(), newDate(0));
+        compareBuffer(ValueOptionSerDe::compareDateTime, newDateTime(1), newDateTime(0));
+        compareBuffer(ValueOptionSerDe::compareDateTime, new DateTimeOption(), newDateTime(0));
+    }
+
+    /**
+     * Test for {@link ValueOptionSerDe#compareString(ByteBuffer, ByteBuffer)}.
+     * @throws Exception if failed
+     */
+    @Test
+    public void compare_buffer_string() throws Exception {
+        BufferComparator cmp = ValueOptionSerDe::compareString;
+
+        compareBuffer(cmp, new StringOption("a"), new StringOption("a"));
+        compareBuffer(cmp, new StringOption("b"), new StringOption("a"));
+        compareBuffer(cmp, new StringOption("A"), new StringOption("AA"));
+        compareBuffer(cmp, new StringOption("AB"), new StringOption("ABA"));
+
+        compareBuffer(cmp, new StringOption("0123456789ABCDEF"), new StringOption("0123456789ABCDEF"));
+        compareBuffer(cmp, new StringOption("0123456789ABCDEF"), new StringOption("1123456789ABCDEF"));
+        compareBuffer(cmp, new StringOption("0123456789ABCDEF"), new StringOption("0123456789ABCDEG"));
+        compareBuffer(cmp, new StringOption("0123456789ABCDEF"), new StringOption("0123456789ABCDEF0"));
+        compareBuffer(cmp, new StringOption("01234567"), new StringOption("0123456789"));
+        compareBuffer(cmp, new StringOption("0123456\u3042"), new StringOption("01234567"));
+        compareBuffer(cmp, new StringOption("0123456789\u3042"), new StringOption("0123456789A"));
+
+        compareBuffer(cmp, new StringOption(), new StringOption());
+        compareBuffer(cmp, new StringOption("0123456789"), new StringOption());
+    }
+
+    /**
+     * Test for {@link ValueOptionSerDe#compareDecimal(ByteBuffer, ByteBuffer)}.
+     * @throws Exception if failed
+     */
+    @Test
+    public void compare_buffer_decimal() throws Exception {
+        BufferComparator cmp = ValueOptionSerDe::compareDecimal;
+
+        compareBuffer(cmp, newDecimal("1"), newDecimal("1"));
+        compareBuffer(cmp, newDecimal("1.1"), newDecimal("1"));
+        compareBuffer(cmp, newDecimal("1.10"), newDecimal("1.1"));
+        compareBuffer(cmp, newDecimal("1.10"), newDecimal("2"));
+        compareBuffer(cmp, newDecimal("1"), newDecimal("-1"));
+        compareBuffer(cmp, newDecimal("-1.5"), newDecimal("-1.4"));
+        compareBuffer(cmp, newDecimal("0"), newDecimal("-0.0"));
+
+        compareBuffer(cmp, newDecimal("123456789012345678901234567890"), newDecimal("123456789012345678901234567891"));
+        compareBuffer(cmp, newDecimal("123456789012345678901234567890"), newDecimal("1.5"));
+        compareBuffer(cmp, newDecimal("-123456789012345678901234567890"), newDecimal("-1.5"));
+
+        compareBuffer(cmp, new DecimalOption(), new DecimalOption());
+        compareBuffer(cmp, newDecimal("1.1"), new DecimalOption());
+        compareBuffer(cmp, newDecimal("123456789012345678901234567890"), new DecimalOption());
+    }
+
     private <T extends ValueOption<T>> void check(T option) {
         try {
             ValueOption<?> copy = option.getClass().newInstance();
@@ -482,4 +562,49 @@ public class ValueOptionSerDeTest {
             throw new AssertionError(e);
         }
     }
+
+    private <T extends ValueOption<T>> void compareBuffer(BufferComparator cmp, T a, T b) {
+        compareBuffer0(cmp, a, b);
+        compareBuffer0(cmp, b, a);
+    }
+
+    private <T extends ValueOption<T>> void compareBuffer0(BufferComparator cmp, T a, T b) throws AssertionError {
+        try {
+            ByteBuffer aBuffer = serializeBuffer(a);
+            ByteBuffer bBuffer = serializeBuffer(b);
+            int sign = a.compareTo(b);
+            int result = cmp.compare(aBuffer, bBuffer);
+            assertThat(aBuffer.remaining(), is(1));
+            assertThat(bBuffer.remaining(), is(1));
+            if (sign == 0) {
+                assertThat(result, equalTo(0));
+            } else if (sign < 0) {
+                assertThat(result, lessThan(0));
+            } else {
+                assertThat(result, greaterThan(0));
+            }
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private ByteBuffer serializeBuffer(ValueOption<?> option) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            ValueOptionSerDe.serializeAny(option, output);
+        }
+        // puts the value between guard bytes
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.size() + 2);
+        buffer.put((byte) -1);
+        buffer.put(bytes.toByteArray());
+        buffer.put((byte) -1);
+        buffer.flip();
+        buffer.position(1);
+        return buffer;
+    }
+
+    @FunctionalInterface
+    private interface BufferComparator {
+        int compare(ByteBuffer a, ByteBuffer b);
+    }
 }
@@ -115,16 +115,47 @@ public class CoGroupInputAdapterTest {
                 ls(ls(), ls("C-1-1", "C-1-2")))));
     }
 
+    /**
+     * w/ adaptive buffers.
+     */
+    @Test
+    public void adaptive() {
+        Map<String, SortedMap<String, List<MockDataModel>>> in = new LinkedHashMap<>();
+        in.put("o0", Lang.let(new TreeMap<>(), m -> {
+            m.put("A", ls(new MockDataModel("A-0-0")));
+            m.put("B", ls(new MockDataModel("B-0-1"), new MockDataModel("B-0-2"), new MockDataModel("B-0-3")));
+            m.put("C", ls(new MockDataModel("C-0-0")));
+        }));
+        in.put("o1", Lang.let(new TreeMap<>(), m -> {
+            m.put("A", ls(new MockDataModel("A-1-0")));
+            m.put("C", ls(new MockDataModel("C-1-1"), new MockDataModel("C-1-2")));
+        }));
+
+        MockVertexProcessorContext context = new MockVertexProcessorContext()
+                .withProperty(CoGroupInputAdapter.KEY_ADAPTIVE_BUDGET, String.valueOf(1024 * 1024))
+                .withProperty(CoGroupInputAdapter.KEY_ADAPTIVE_RECORDS, "1");
+        List<List<List<String>>> results = check(context, in);
+        assertThat(results, is(ls(ls(ls("A-0-0"), ls("A-1-0")),
+                ls(ls("B-0-1", "B-0-2", "B-0-3"), ls()),
+                ls(ls("C-0-0"), ls("C-1-1", "C-1-2")))));
+    }
+
     @SafeVarargs
     private static <T> List<T> ls(T... values) {
         return Arrays.asList(values);
     }
 
     private List<List<List<String>>> check(Map<String, SortedMap<String, List<MockDataModel>>> map) {
+        return check(new MockVertexProcessorContext(), map);
+    }
+
+    private List<List<List<String>>> check(
+            MockVertexProcessorContext context,
+            Map<String, SortedMap<String, List<MockDataModel>>> map) {
         MockTaskProcessorContext tc = new MockTaskProcessorContext("t");
         map.forEach((in, v) -> tc.withInput(in, () -> new CollectionGroupReader(v)));
         List<List<List<String>>> results = new ArrayList<>();
-        try (CoGroupInputAdapter adapter = new CoGroupInputAdapter(new MockVertexProcessorContext())) {
+        try (CoGroupInputAdapter adapter = new CoGroupInputAdapter(context)) {
             map.keySet().forEach(s -> adapter.bind(s, MockDataModel.Supplier.class));
             adapter.initialize();
             InputHandler<CoGroupOperation.Input, ? super EdgeIoProcessorContext> handler = adapter.newHandler();
@@ -18,22 +18,32 @@ package com.asakusafw.dag.runtime.skeleton;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.junit.Test;
 
+import com.asakusafw.dag.api.processor.FragmentedObjectReader;
+import com.asakusafw.dag.api.processor.ObjectReader;
+import com.asakusafw.dag.api.processor.extension.BroadcastInputCache;
+import com.asakusafw.dag.api.processor.extension.VertexThreads;
 import com.asakusafw.dag.api.processor.testing.CollectionObjectReader;
 import com.asakusafw.dag.api.processor.testing.MockVertexProcessorContext;
 import com.asakusafw.dag.runtime.adapter.DataTable;
 import com.asakusafw.dag.runtime.adapter.DataTableAdapter;
 import com.asakusafw.dag.runtime.adapter.KeyBuffer;
 import com.asakusafw.dag.runtime.table.BasicDataTable.ValidationLevel;
+import com.asakusafw.dag.runtime.table.CompactDataTable;
 import com.asakusafw.dag.runtime.testing.MockDataModel;
 import com.asakusafw.lang.utils.common.Action;
 import com.asakusafw.lang.utils.common.AssertUtil;
@@ -111,6 +121,117 @@ public class EdgeDataTableAdapterTest {
         });
     }
 
+    /**
+     * w/ compact tables.
+     */
+    @Test
+    public void compact() {
+        specs.add(a -> a.bind("t", "i",
+                MockDataModel.KeyBuilder.class, MockDataModel.Copier.class,
+                MockDataModel.ValueComparator.class));
+        data("i", new Object[] {
+                new MockDataModel(0, "0"),
+                new MockDataModel(1, "1a"),
+                new MockDataModel(0, "2"),
+                new MockDataModel(1, "1b"),
+                new MockDataModel(0, "1"),
+        });
+        MockVertexProcessorContext context = new MockVertexProcessorContext()
+                .withProperty(EdgeDataTableAdapter.KEY_VIEW_COMPACT, "true");
+        check(context, a -> {
+            DataTable<MockDataModel> t = a.getDataTable(MockDataModel.class, "t");
+            assertThat(t, is(instanceOf(CompactDataTable.class)));
+            assertThat(get(t, MockDataModel::getValue, 0), contains("0", "1", "2"));
+            assertThat(get(t, MockDataModel::getValue, 1), contains("1a", "1b"));
+            assertThat(get(t, MockDataModel::getValue, 2), hasSize(0));
+        });
+    }
+
+    /**
+     * w/ parallel build.
+     * @throws Exception if failed
+     */
+    @Test
+    public void parallel() throws Exception {
+        parallel(false);
+    }
+
+    /**
+     * w/ parallel build of compact tables.
+     * @throws Exception if failed
+     */
+    @Test
+    public void parallel_compact() throws Exception {
+        parallel(true);
+    }
+
+    private void parallel(boolean compact) throws Exception {
+        for (String id : new String[] { "t0", "t1" }) {
+            specs.add(a -> a.bind(id, id,
+                    MockDataModel.KeyBuilder.class, MockDataModel.Copier.class,
+                    MockDataModel.ValueComparator.class));
+        }
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(new MockDataModel(i % 10, String.format("%04d", 999 - i)));
+        }
+        MockVertexProcessorContext context = new MockVertexProcessorContext()
+                .withProperty(EdgeDataTableAdapter.KEY_VIEW_COMPACT, String.valueOf(compact));
+        for (String id : new String[] { "t0", "t1" }) {
+            context.withInput(id, () -> new FragmentedReader(values, 64));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            context.withResource(VertexThreads.class, new VertexThreads(executor, 4));
+            check(context, a -> {
+                for (String id : new String[] { "t0", "t1" }) {
+                    DataTable<MockDataModel> t = a.getDataTable(MockDataModel.class, id);
+                    for (int k = 0; k < 10; k++) {
+                        List<String> list = get(t, MockDataModel::getValue, k);
+                        assertThat(list, hasSize(100));
+                        List<String> sorted = new ArrayList<>(list);
+                        sorted.sort(null);
+                        assertThat(list, is(sorted));
+                    }
+                }
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * w/ shared tables.
+     */
+    @Test
+    public void shared() {
+        define("t", "i", MockDataModel.class, "key");
+        data("i", new Object[] {
+                new MockDataModel(0, "Hello0"),
+                new MockDataModel(1, "Hello1"),
+        });
+        BroadcastInputCache cache = new BroadcastInputCache();
+        cache.register("v0", "i", "upstream");
+        cache.register("v1", "i", "upstream");
+        List<DataTable<?>> tables = new ArrayList<>();
+        for (String id : new String[] { "v0", "v1" }) {
+            MockVertexProcessorContext context = new MockVertexProcessorContext()
+                    .withId(id)
+                    .withResource(BroadcastInputCache.class, cache);
+            check(context, a -> {
+                DataTable<MockDataModel> t = a.getDataTable(MockDataModel.class, "t");
+                assertThat(get(t, MockDataModel::getValue, 0), containsInAnyOrder("Hello0"));
+                assertThat(get(t, MockDataModel::getValue, 1), containsInAnyOrder("Hello1"));
+                tables.add(t);
+            });
+            cache.release(id, "i");
+        }
+        assertThat(tables.get(1), is(sameInstance(tables.get(0))));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.size(), is(0));
+    }
+
     /**
      * multiple tables.
      */
@@ -213,4 +334,44 @@ public class EdgeDataTableAdapterTest {
         }
         return key;
     }
+
+    private static final class FragmentedReader implements FragmentedObjectReader {
+
+        private final Queue<List<Object>> fragments = new ConcurrentLinkedQueue<>();
+
+        private ObjectReader current;
+
+        FragmentedReader(List<Object> values, int size) {
+            for (int i = 0; i < values.size(); i += size) {
+                fragments.add(values.subList(i, Math.min(i + size, values.size())));
+            }
+        }
+
+        @Override
+        public ObjectReader nextFragment() {
+            List<Object> next = fragments.poll();
+            return next == null ? null : new CollectionObjectReader(next);
+        }
+
+        @Override
+        public boolean nextObject() throws IOException, InterruptedException {
+            while (true) {
+                if (current == null) {
+                    current = nextFragment();
+                    if (current == null) {
+                        return false;
+                    }
+                }
+                if (current.nextObject()) {
+                    return true;
+                }
+                current = null;
+            }
+        }
+
+        @Override
+        public Object getObject() throws IOException, InterruptedException {
+            return current == null ? null : current.getObject();
+        }
+    }
 }
@@ -23,6 +23,8 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.IntStream;
 
 import org.junit.Test;
@@ -99,6 +101,50 @@ public class BasicDataTableTest {
         assertThat(table.getList(key(100)), is(values(100, 101, 102, 103, 104)));
     }
 
+    /**
+     * merges other builders.
+     * @throws Exception if failed
+     */
+    @Test
+    public void merge() throws Exception {
+        BasicDataTable.Builder<IntOption> a = start();
+        a.add(key(0), new IntOption(0));
+        a.add(key(1), new IntOption(1));
+        BasicDataTable.Builder<IntOption> b = start();
+        b.add(key(1), new IntOption(2));
+        b.add(key(2), new IntOption(3));
+        b.add(key(2), new IntOption(4));
+
+        DataTable<IntOption> table = a.merge(b).build();
+        assertThat(sort(table.getList(key(0))), is(values(0)));
+        assertThat(sort(table.getList(key(1))), is(values(1, 2)));
+        assertThat(sort(table.getList(key(2))), is(values(3, 4)));
+        assertThat(sort(table.getList(key(3))), is(values()));
+    }
+
+    /**
+     * sorted elements in parallel.
+     * @throws Exception if failed
+     */
+    @Test
+    public void sorted_parallel() throws Exception {
+        BasicDataTable.Builder<IntOption> builder = start();
+        for (int i = 0; i < 1000; i++) {
+            builder.add(key(i % 10), new IntOption(999 - i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            DataTable<IntOption> table = builder.build(Comparator::naturalOrder, executor, 4);
+            for (int k = 0; k < 10; k++) {
+                List<IntOption> list = table.getList(key(k));
+                assertThat(list, hasSize(100));
+                assertThat(list, is(sort(new ArrayList<>(list))));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * reuses the same key object.
      * @throws Exception if failed
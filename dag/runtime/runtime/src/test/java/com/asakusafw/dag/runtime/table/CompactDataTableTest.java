@@ -0,0 +1,260 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.dag.runtime.table;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.asakusafw.dag.runtime.adapter.DataTable;
+import com.asakusafw.dag.runtime.adapter.KeyBuffer;
+import com.asakusafw.dag.runtime.table.BasicDataTable.KeyValidator;
+import com.asakusafw.dag.runtime.table.BasicDataTable.ValidationLevel;
+import com.asakusafw.lang.utils.common.AssertUtil;
+import com.asakusafw.runtime.value.IntOption;
+
+/**
+ * Test for {@link CompactDataTable}.
+ */
+public class CompactDataTableTest {
+
+    /**
+     * simple case.
+     * @throws Exception if failed
+     */
+    @Test
+    public void simple() throws Exception {
+        CompactDataTable.Builder<IntOption> builder = start();
+        builder.add(key(100), new IntOption(100));
+
+        DataTable<IntOption> table = builder.build();
+        assertThat(sort(table.getList(key(100))), is(values(100)));
+        assertThat(sort(table.getList(key(101))), is(values()));
+    }
+
+    /**
+     * empty elements.
+     * @throws Exception if failed
+     */
+    @Test
+    public void empty_elements() throws Exception {
+        CompactDataTable.Builder<IntOption> builder = start();
+
+        DataTable<IntOption> table = builder.build();
+        assertThat(sort(table.getList(key(100))), is(values()));
+        assertThat(table.iterator().hasNext(), is(false));
+    }
+
+    /**
+     * conflict keys.
+     * @throws Exception if failed
+     */
+    @Test
+    public void duplicate() throws Exception {
+        CompactDataTable.Builder<IntOption> builder = start();
+        builder.add(key(100), new IntOption(100));
+        builder.add(key(101), new IntOption(200));
+        builder.add(key(100), new IntOption(101));
+        builder.add(key(100), new IntOption(102));
+
+        DataTable<IntOption> table = builder.build();
+        assertThat(sort(table.getList(key(100))), is(values(100, 101, 102)));
+        assertThat(sort(table.getList(key(101))), is(values(200)));
+        assertThat(sort(table.getList(key(102))), is(values()));
+    }
+
+    /**
+     * sorted elements.
+     * @throws Exception if failed
+     */
+    @Test
+    public void sorted() throws Exception {
+        CompactDataTable.Builder<IntOption> builder = start();
+        builder.add(key(100), new IntOption(101));
+        builder.add(key(100), new IntOption(102));
+        builder.add(key(100), new IntOption(100));
+        builder.add(key(100), new IntOption(104));
+        builder.add(key(100), new IntOption(103));
+
+        DataTable<IntOption> table = builder.build(Comparator.naturalOrder());
+        assertThat(table.getList(key(100)), is(values(100, 101, 102, 103, 104)));
+    }
+
+    /**
+     * merges other builders.
+     * @throws Exception if failed
+     */
+    @Test
+    public void merge() throws Exception {
+        CompactDataTable.Builder<IntOption> a = start();
+        a.add(key(0), new IntOption(0));
+        a.add(key(1), new IntOption(1));
+        CompactDataTable.Builder<IntOption> b = start();
+        b.add(key(1), new IntOption(2));
+        b.add(key(2), new IntOption(3));
+        b.add(key(2), new IntOption(4));
+
+        DataTable<IntOption> table = a.merge(b).build();
+        assertThat(sort(table.getList(key(0))), is(values(0)));
+        assertThat(sort(table.getList(key(1))), is(values(1, 2)));
+        assertThat(sort(table.getList(key(2))), is(values(3, 4)));
+        assertThat(sort(table.getList(key(3))), is(values()));
+    }
+
+    /**
+     * sorted elements in parallel.
+     * @throws Exception if failed
+     */
+    @Test
+    public void sorted_parallel() throws Exception {
+        CompactDataTable.Builder<IntOption> builder = start();
+        for (int i = 0; i < 1000; i++) {
+            builder.add(key(i % 10), new IntOption(999 - i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            DataTable<IntOption> table = builder.build(Comparator::naturalOrder, executor, 4);
+            for (int k = 0; k < 10; k++) {
+                List<IntOption> list = table.getList(key(k));
+                assertThat(list, hasSize(100));
+                assertThat(list, is(sort(new ArrayList<>(list))));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * reuses the same key and value objects.
+     * @throws Exception if failed
+     */
+    @Test
+    public void reuse() throws Exception {
+        CompactDataTable.Builder<IntOption> builder = start();
+        KeyBuffer key = builder.newKeyBuffer();
+        IntOption value = new IntOption();
+        for (int i = 100; i < 103; i++) {
+            key.clear();
+            key.append(new IntOption(i));
+            builder.add(key, value.modify(i));
+        }
+
+        DataTable<IntOption> table = builder.build();
+        assertThat(sort(table.getList(key(100))), is(values(100)));
+        assertThat(sort(table.getList(key(101))), is(values(101)));
+        assertThat(sort(table.getList(key(102))), is(values(102)));
+    }
+
+    /**
+     * many elements.
+     * @throws Exception if failed
+     */
+    @Test
+    public void many() throws Exception {
+        CompactDataTable.Builder<IntOption> builder = start();
+        for (int i = 0; i < 300_000; i++) {
+            builder.add(key(i % 100_000), new IntOption(i));
+        }
+
+        DataTable<IntOption> table = builder.build();
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(sort(table.getList(key(i))), is(values(i, i + 100_000, i + 200_000)));
+        }
+        assertThat(table.getList(key(100_000)), hasSize(0));
+        int count = 0;
+        for (IntOption v : table) {
+            assertThat(v, is(notNullValue()));
+            count++;
+        }
+        assertThat(count, is(300_000));
+    }
+
+    /**
+     * elements are created without copying objects.
+     * @throws Exception if failed
+     */
+    @Test
+    public void create() throws Exception {
+        CompactDataTable.Builder<IntOption> builder = new CompactDataTable.Builder<>(value -> {
+            throw new AssertionError();
+        });
+        builder.add(key(1), new IntOption(100));
+        builder.add(key(1), new IntOption(101));
+        DataTable<IntOption> table = builder.build();
+
+        assertThat(sort(table.find(k(1))), is(values(100, 101)));
+    }
+
+    /**
+     * find w/ key validation.
+     * @throws Exception if failed
+     */
+    @Test
+    public void find_validate() throws Exception {
+        CompactDataTable.Builder<IntOption> builder = new CompactDataTable.Builder<>(
+                CompactDataTableTest::copy,
+                new KeyValidator(ValidationLevel.TYPE, IntOption.class, IntOption.class));
+        builder.add(key(1, 2), new IntOption(100));
+        DataTable<IntOption> table = builder.build();
+
+        assertThat(sort(table.find(k(1), k(2))), is(values(100)));
+        assertThat(table.find(k(2), k(1)), hasSize(0));
+        AssertUtil.catching(() -> table.find(k(1)));
+        AssertUtil.catching(() -> table.find(k(1), 2));
+    }
+
+    private CompactDataTable.Builder<IntOption> start() {
+        return new CompactDataTable.Builder<>(CompactDataTableTest::copy);
+    }
+
+    private static IntOption copy(IntOption value) {
+        return new IntOption(value.get());
+    }
+
+    private IntOption k(int value) {
+        return new IntOption(value);
+    }
+
+    private KeyBuffer key(int... values) {
+        HeapKeyBuffer result = new HeapKeyBuffer();
+        for (int value : values) {
+            result.append(new IntOption(value));
+        }
+        return result;
+    }
+
+    private <T extends Comparable<? super T>> List<T> sort(List<T> list) {
+        List<T> results = new ArrayList<>(list);
+        Collections.sort(results);
+        return results;
+    }
+
+    private List<IntOption> values(int...values) {
+        List<IntOption> options = new ArrayList<>();
+        for (int value : values) {
+            options.add(new IntOption(value));
+        }
+        return sort(options);
+    }
+}
@@ -35,6 +35,7 @@ import com.asakusafw.lang.utils.common.Optionals;
 /**
  * Provides descriptors of DAG API.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class VanillaDescriptorFactory implements DagDescriptorFactory {
 
@@ -75,6 +76,11 @@ public class VanillaDescriptorFactory implements DagDescriptorFactory {
 
     @Override
     public EdgeDescriptor newScatterGatherEdge(TypeDescription dataType, ClassDescription serde, Group group) {
+        return newScatterGatherEdge(dataType, serde, group, null);
+    }
+
+    private EdgeDescriptor newScatterGatherEdge(
+            TypeDescription dataType, ClassDescription serde, Group group, ClassDescription combiner) {
         Arguments.requireNonNull(dataType);
         Arguments.requireNonNull(group);
         SupplierInfo comparatorInfo = Optionals.of(group.getOrdering())
@@ -82,7 +88,10 @@ public class VanillaDescriptorFactory implements DagDescriptorFactory {
                 .map(o -> DataComparatorGenerator.get(context, dataType, o))
                 .map(VanillaDescriptorFactory::toSupplier)
                 .orElse(null);
-        return new BasicEdgeDescriptor(Movement.SCATTER_GATHER, toSupplier(serde), comparatorInfo);
+        SupplierInfo combinerInfo = Optionals.of(combiner)
+                .map(VanillaDescriptorFactory::toSupplier)
+                .orElse(null);
+        return new BasicEdgeDescriptor(Movement.SCATTER_GATHER, toSupplier(serde), comparatorInfo, combinerInfo);
     }
 
     @Override
@@ -107,6 +116,14 @@ public class VanillaDescriptorFactory implements DagDescriptorFactory {
         return newScatterGatherEdge(dataType, serde, group);
     }
 
+    @Override
+    public EdgeDescriptor newScatterGatherEdge(TypeDescription dataType, Group group, ClassDescription combiner) {
+        Arguments.requireNonNull(dataType);
+        Arguments.requireNonNull(group);
+        ClassDescription serde = KeyValueSerDeGenerator.get(context, dataType, group);
+        return newScatterGatherEdge(dataType, serde, group, combiner);
+    }
+
     private static SupplierInfo toSupplier(ClassDescription aClass) {
         return SupplierInfo.of(aClass.getBinaryName());
     }
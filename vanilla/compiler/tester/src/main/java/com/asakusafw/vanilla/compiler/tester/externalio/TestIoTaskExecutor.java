@@ -16,6 +16,7 @@
 package com.asakusafw.vanilla.compiler.tester.externalio;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -29,6 +30,8 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
 
 import com.asakusafw.lang.compiler.api.reference.CommandTaskReference;
 import com.asakusafw.lang.compiler.api.reference.JobflowReference;
@@ -53,6 +56,7 @@ import com.asakusafw.runtime.stage.temporary.TemporaryFileOutput;
 /**
  * Handles {@link TestInput} and {@link TestOutput}.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class TestIoTaskExecutor implements TaskExecutor {
 
@@ -210,6 +214,7 @@ public class TestIoTaskExecutor implements TaskExecutor {
                 "missing output: {0}",
                 name));
         List<T> results = new ArrayList<>();
+        CompressionCodecFactory codecs = new CompressionCodecFactory(configuration);
         for (Path pattern : paths) {
             FileSystem fs = pattern.getFileSystem(configuration);
             FileStatus[] stats = fs.globStatus(pattern);
@@ -217,7 +222,11 @@ public class TestIoTaskExecutor implements TaskExecutor {
                 continue;
             }
             for (FileStatus stat : stats) {
-                try (ModelInput<T> in = new TemporaryFileInput<>(fs.open(stat.getPath()), 0)) {
+                // internal outputs may be compressed
+                CompressionCodec codec = codecs.getCodec(stat.getPath());
+                try (InputStream raw = fs.open(stat.getPath());
+                        InputStream stream = codec == null ? raw : codec.createInputStream(raw);
+                        ModelInput<T> in = new TemporaryFileInput<>(stream, 0)) {
                     while (true) {
                         T instance = dataType.newInstance();
                         if (in.readTo(instance)) {
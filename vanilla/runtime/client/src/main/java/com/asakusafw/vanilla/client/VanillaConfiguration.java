@@ -81,6 +81,56 @@ public class VanillaConfiguration {
      */
     public static final String KEY_SWAP_DECORATOR = KEY_ENGINE_PREFIX + "pool.compression"; //$NON-NLS-1$
 
+    /**
+     * The configuration key of the fraction of {@link #KEY_BUFFER_POOL_SIZE} to start swapping out buffers in
+     * background, or {@code 1.0} to disable it ({@value}: {@value #DEFAULT_SWAP_HIGH_WATER_MARK}).
+     * If it is enabled, worker threads will only block while the buffer pool exceeds its limit.
+     * @since 0.5.3
+     * @see #KEY_SWAP_LOW_WATER_MARK
+     */
+    public static final String KEY_SWAP_HIGH_WATER_MARK = KEY_ENGINE_PREFIX + "pool.watermark.high"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of the fraction of {@link #KEY_BUFFER_POOL_SIZE} to stop swapping out buffers in
+     * background ({@value}: {@value #DEFAULT_SWAP_LOW_WATER_MARK}).
+     * @since 0.5.3
+     * @see #KEY_SWAP_HIGH_WATER_MARK
+     */
+    public static final String KEY_SWAP_LOW_WATER_MARK = KEY_ENGINE_PREFIX + "pool.watermark.low"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of block size in bytes to read swapped out buffers ahead in background,
+     * or {@code 0} to disable it ({@value}: {@value #DEFAULT_SWAP_READ_AHEAD}).
+     * @since 0.5.3
+     */
+    public static final String KEY_SWAP_READ_AHEAD = KEY_ENGINE_PREFIX + "pool.readahead"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of the number of threads to read swapped out buffers ahead in background
+     * ({@value}: {@value #DEFAULT_SWAP_READ_AHEAD_THREADS}).
+     * @since 0.5.3
+     * @see #KEY_SWAP_READ_AHEAD
+     */
+    public static final String KEY_SWAP_READ_AHEAD_THREADS =
+            KEY_ENGINE_PREFIX + "pool.readahead.threads"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of the minimum swapped out file size in bytes to map into memory,
+     * or {@code 0} to disable it ({@value}: {@value #DEFAULT_SWAP_MEMORY_MAP}).
+     * This is only available if {@link #KEY_SWAP_DECORATOR} does not change the file contents.
+     * @since 0.5.3
+     */
+    public static final String KEY_SWAP_MEMORY_MAP = KEY_ENGINE_PREFIX + "pool.mmap"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of the max total size in bytes of buffers to be recycled,
+     * or {@code 0} to disable it ({@value}: {@value #DEFAULT_BUFFER_ARENA_SIZE}).
+     * Note that, the recycled buffers are also counted in {@link #KEY_BUFFER_POOL_SIZE}, and they are discarded
+     * before swapping out the live buffers.
+     * @since 0.5.3
+     */
+    public static final String KEY_BUFFER_ARENA_SIZE = KEY_ENGINE_PREFIX + "pool.arena.size"; //$NON-NLS-1$
+
     /**
      * The configuration key of output buffer size in bytes ({@value}: {@value #DEFAULT_OUTPUT_BUFFER_SIZE}).
      */
@@ -116,6 +166,60 @@ public class VanillaConfiguration {
      */
     public static final String KEY_MERGE_FACTOR = KEY_ENGINE_PREFIX + "merge.factor"; //$NON-NLS-1$
 
+    /**
+     * The configuration key of the max number of running vertices at the same time
+     * ({@value}: {@value #DEFAULT_VERTEX_CONCURRENCY}).
+     * If this is greater than {@code 1}, vertices whose upstreams have been completed can run concurrently,
+     * and they share the worker threads.
+     * @since 0.5.3
+     */
+    public static final String KEY_VERTEX_CONCURRENCY = KEY_ENGINE_PREFIX + "vertex.concurrency"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of the fraction of {@link #KEY_BUFFER_POOL_SIZE}
+     * ({@value}: {@value #DEFAULT_VERTEX_ADMISSION}).
+     * Additional vertices will not start while the buffer pool is larger than this fraction of its limit.
+     * @since 0.5.3
+     * @see #KEY_VERTEX_CONCURRENCY
+     */
+    public static final String KEY_VERTEX_ADMISSION = KEY_ENGINE_PREFIX + "vertex.admission"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of the max number of unread buffers in each pipelined one-to-one input,
+     * or {@code 0} to disable pipelining ({@value}: {@value #DEFAULT_PIPELINE_CAPACITY}).
+     * If pipelining is enabled, downstream vertices of one-to-one edges can start while their upstreams are
+     * still running.
+     * @since 0.5.3
+     * @see #KEY_VERTEX_CONCURRENCY
+     */
+    public static final String KEY_PIPELINE_CAPACITY = KEY_ENGINE_PREFIX + "pipeline.capacity"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of the number of virtual buckets in each scatter-gather partition,
+     * or {@code 0} to partition keys only by their hash code ({@value}: {@value #DEFAULT_PARTITION_BUCKETS}).
+     * If this is greater than {@code 0}, the buckets are assigned to partitions by using the first output of
+     * individual scatter-gather edges, so that the partitions are balanced even if the keys are skewed.
+     * @since 0.5.3
+     * @see #KEY_PARTITION_COUNT
+     */
+    public static final String KEY_PARTITION_BUCKETS = KEY_ENGINE_PREFIX + "partitions.buckets"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of whether or not scatter-gather outputs combine records which have the same key
+     * before they are shuffled ({@value}: {@value #DEFAULT_SHUFFLE_COMBINE}).
+     * This only affects the edges whose downstream vertex provides a combiner.
+     * @since 0.5.3
+     */
+    public static final String KEY_SHUFFLE_COMBINE = KEY_ENGINE_PREFIX + "shuffle.combine"; //$NON-NLS-1$
+
+    /**
+     * The configuration key of whether or not vertices share the objects built from the same broadcast outputs
+     * ({@value}: {@value #DEFAULT_BROADCAST_SHARE}).
+     * The shared objects are retained until all consumers of the broadcast outputs have been initialized.
+     * @since 0.5.3
+     */
+    public static final String KEY_BROADCAST_SHARE = KEY_ENGINE_PREFIX + "broadcast.share"; //$NON-NLS-1$
+
     /**
      * The default value of {@link #KEY_THREAD_COUNT}.
      */
@@ -145,6 +249,42 @@ public class VanillaConfiguration {
     public static final SupplierInfo DEFAULT_SWAP_DECORATOR =
             SupplierInfo.of(BufferedByteChannelDecorator.class.getName());
 
+    /**
+     * The default value of {@link #KEY_SWAP_HIGH_WATER_MARK} (disabled).
+     * @since 0.5.3
+     */
+    public static final double DEFAULT_SWAP_HIGH_WATER_MARK = 1.0;
+
+    /**
+     * The default value of {@link #KEY_SWAP_LOW_WATER_MARK}.
+     * @since 0.5.3
+     */
+    public static final double DEFAULT_SWAP_LOW_WATER_MARK = 0.5;
+
+    /**
+     * The default value of {@link #KEY_SWAP_READ_AHEAD} (disabled).
+     * @since 0.5.3
+     */
+    public static final int DEFAULT_SWAP_READ_AHEAD = 0;
+
+    /**
+     * The default value of {@link #KEY_SWAP_READ_AHEAD_THREADS}.
+     * @since 0.5.3
+     */
+    public static final int DEFAULT_SWAP_READ_AHEAD_THREADS = 2;
+
+    /**
+     * The default value of {@link #KEY_SWAP_MEMORY_MAP} (disabled).
+     * @since 0.5.3
+     */
+    public static final long DEFAULT_SWAP_MEMORY_MAP = 0L;
+
+    /**
+     * The default value of {@link #KEY_BUFFER_ARENA_SIZE} (disabled).
+     * @since 0.5.3
+     */
+    public static final long DEFAULT_BUFFER_ARENA_SIZE = 0L;
+
     /**
      * The default value of {@link #KEY_OUTPUT_BUFFER_SIZE}.
      */
@@ -172,6 +312,42 @@ public class VanillaConfiguration {
      */
     public static final double DEFAULT_MERGE_FACTOR = 0.75;
 
+    /**
+     * The default value of {@link #KEY_VERTEX_CONCURRENCY}.
+     * @since 0.5.3
+     */
+    public static final int DEFAULT_VERTEX_CONCURRENCY = 1;
+
+    /**
+     * The default value of {@link #KEY_VERTEX_ADMISSION}.
+     * @since 0.5.3
+     */
+    public static final double DEFAULT_VERTEX_ADMISSION = 0.5;
+
+    /**
+     * The default value of {@link #KEY_PIPELINE_CAPACITY} (disabled).
+     * @since 0.5.3
+     */
+    public static final int DEFAULT_PIPELINE_CAPACITY = 0;
+
+    /**
+     * The default value of {@link #KEY_PARTITION_BUCKETS} (disabled).
+     * @since 0.5.3
+     */
+    public static final int DEFAULT_PARTITION_BUCKETS = 0;
+
+    /**
+     * The default value of {@link #KEY_SHUFFLE_COMBINE} (disabled).
+     * @since 0.5.3
+     */
+    public static final boolean DEFAULT_SHUFFLE_COMBINE = false;
+
+    /**
+     * The default value of {@link #KEY_BROADCAST_SHARE} (disabled).
+     * @since 0.5.3
+     */
+    public static final boolean DEFAULT_BROADCAST_SHARE = false;
+
     static final Logger LOG = LoggerFactory.getLogger(VanillaConfiguration.class);
 
     private OptionalInt numberOfThreads = OptionalInt.empty();
@@ -186,6 +362,18 @@ public class VanillaConfiguration {
 
     private Optional<SupplierInfo> swapDecorator = Optional.empty();
 
+    private OptionalDouble swapHighWaterMark = OptionalDouble.empty();
+
+    private OptionalDouble swapLowWaterMark = OptionalDouble.empty();
+
+    private OptionalInt swapReadAhead = OptionalInt.empty();
+
+    private OptionalInt swapReadAheadThreads = OptionalInt.empty();
+
+    private OptionalLong swapMemoryMap = OptionalLong.empty();
+
+    private OptionalLong bufferArenaSize = OptionalLong.empty();
+
     private OptionalInt outputBufferSize = OptionalInt.empty();
 
     private OptionalInt outputBufferMargin = OptionalInt.empty();
@@ -196,6 +384,18 @@ public class VanillaConfiguration {
 
     private OptionalDouble mergeFactor = OptionalDouble.empty();
 
+    private OptionalInt vertexConcurrency = OptionalInt.empty();
+
+    private OptionalDouble vertexAdmission = OptionalDouble.empty();
+
+    private OptionalInt pipelineCapacity = OptionalInt.empty();
+
+    private OptionalInt partitionBuckets = OptionalInt.empty();
+
+    private Optional<Boolean> shuffleCombine = Optional.empty();
+
+    private Optional<Boolean> broadcastShare = Optional.empty();
+
     /**
      * Returns the number of worker threads.
      * @return the number of worker threads
@@ -309,6 +509,120 @@ public class VanillaConfiguration {
         return swapDecorator.orElse(DEFAULT_SWAP_DECORATOR);
     }
 
+    /**
+     * Returns the fraction of buffer pool size to start swapping out buffers in background.
+     * @return the fraction of buffer pool size, or {@code 1.0} if background swapping is disabled
+     * @see #KEY_SWAP_HIGH_WATER_MARK
+     * @since 0.5.3
+     */
+    public double getSwapHighWaterMark() {
+        return swapHighWaterMark.orElse(DEFAULT_SWAP_HIGH_WATER_MARK);
+    }
+
+    /**
+     * Sets the fraction of buffer pool size to start swapping out buffers in background.
+     * @param newValue the new value
+     * @since 0.5.3
+     */
+    public void setSwapHighWaterMark(double newValue) {
+        this.swapHighWaterMark = OptionalDouble.of(newValue);
+    }
+
+    /**
+     * Returns the fraction of buffer pool size to stop swapping out buffers in background.
+     * @return the fraction of buffer pool size
+     * @see #KEY_SWAP_LOW_WATER_MARK
+     * @since 0.5.3
+     */
+    public double getSwapLowWaterMark() {
+        return swapLowWaterMark.orElse(DEFAULT_SWAP_LOW_WATER_MARK);
+    }
+
+    /**
+     * Sets the fraction of buffer pool size to stop swapping out buffers in background.
+     * @param newValue the new value
+     * @since 0.5.3
+     */
+    public void setSwapLowWaterMark(double newValue) {
+        this.swapLowWaterMark = OptionalDouble.of(newValue);
+    }
+
+    /**
+     * Returns the block size to read swapped out buffers ahead in background.
+     * @return the block size in bytes, or {@code 0} if it is disabled
+     * @see #KEY_SWAP_READ_AHEAD
+     * @since 0.5.3
+     */
+    public int getSwapReadAhead() {
+        return swapReadAhead.orElse(DEFAULT_SWAP_READ_AHEAD);
+    }
+
+    /**
+     * Sets the block size to read swapped out buffers ahead in background.
+     * @param newValue the new value
+     * @since 0.5.3
+     */
+    public void setSwapReadAhead(int newValue) {
+        this.swapReadAhead = OptionalInt.of(newValue);
+    }
+
+    /**
+     * Returns the number of threads to read swapped out buffers ahead in background.
+     * @return the number of threads
+     * @see #KEY_SWAP_READ_AHEAD_THREADS
+     * @since 0.5.3
+     */
+    public int getSwapReadAheadThreads() {
+        return swapReadAheadThreads.orElse(DEFAULT_SWAP_READ_AHEAD_THREADS);
+    }
+
+    /**
+     * Sets the number of threads to read swapped out buffers ahead in background.
+     * @param newValue the new value
+     * @since 0.5.3
+     */
+    public void setSwapReadAheadThreads(int newValue) {
+        this.swapReadAheadThreads = OptionalInt.of(newValue);
+    }
+
+    /**
+     * Returns the minimum swapped out file size to map into memory.
+     * @return the file size in bytes, or {@code 0} if it is disabled
+     * @see #KEY_SWAP_MEMORY_MAP
+     * @since 0.5.3
+     */
+    public long getSwapMemoryMap() {
+        return swapMemoryMap.orElse(DEFAULT_SWAP_MEMORY_MAP);
+    }
+
+    /**
+     * Sets the minimum swapped out file size to map into memory.
+     * @param newValue the new value
+     * @since 0.5.3
+     */
+    public void setSwapMemoryMap(long newValue) {
+        this.swapMemoryMap = OptionalLong.of(newValue);
+    }
+
+    /**
+     * Returns the max total size of buffers to be recycled.
+     * @return the buffer size in bytes, or {@code 0} if it is disabled
+     * @see #KEY_BUFFER_ARENA_SIZE
+     * @since 0.5.3
+     */
+    public long getBufferArenaSize() {
+        return bufferArenaSize.orElse(DEFAULT_BUFFER_ARENA_SIZE);
+    }
+
+    /**
+     * Sets the max total size of buffers to be recycled.
+     * @param newValue the new value
+     * @since 0.5.3
+     */
+    public void setBufferArenaSize(long newValue) {
+        this.bufferArenaSize = OptionalLong.of(newValue);
+    }
+
     /**
      * Returns the individual output buffer size.
      * @return the output buffer size, in bytes
@@ -409,6 +723,120 @@ public class VanillaConfiguration {
         return mergeFactor.orElse(DEFAULT_MERGE_FACTOR);
     }
 
+    /**
+     * Sets the max number of running vertices at the same time.
+     * @param newValue the new value
+     * @since 0.5.3
+     */
+    public void setVertexConcurrency(int newValue) {
+        this.vertexConcurrency = OptionalInt.of(newValue);
+    }
+
+    /**
+     * Returns the max number of running vertices at the same time.
+     * @return the max number of running vertices
+     * @see #KEY_VERTEX_CONCURRENCY
+     * @since 0.5.3
+     */
+    public int getVertexConcurrency() {
+        return vertexConcurrency.orElse(DEFAULT_VERTEX_CONCURRENCY);
+    }
+
+    /**
+     * Sets the fraction of buffer pool size to start additional vertices.
+     * @param newValue the new value
+     * @since 0.5.3
+     */
+    public void setVertexAdmission(double newValue) {
+        this.vertexAdmission = OptionalDouble.of(newValue);
+    }
+
+    /**
+     * Returns the fraction of buffer pool size to start additional vertices.
+     * @return the fraction of buffer pool size
+     * @see #KEY_VERTEX_ADMISSION
+     * @since 0.5.3
+     */
+    public double getVertexAdmission() {
+        return vertexAdmission.orElse(DEFAULT_VERTEX_ADMISSION);
+    }
+
+    /**
+     * Sets the max number of unread buffers in each pipelined one-to-one input.
+     * @param newValue the new value, or {@code 0} to disable pipelining
+     * @since 0.5.3
+     */
+    public void setPipelineCapacity(int newValue) {
+        this.pipelineCapacity = OptionalInt.of(newValue);
+    }
+
+    /**
+     * Returns the max number of unread buffers in each pipelined one-to-one input.
+     * @return the max number of unread buffers, or {@code 0} if pipelining is disabled
+     * @see #KEY_PIPELINE_CAPACITY
+     * @since 0.5.3
+     */
+    public int getPipelineCapacity() {
+        return pipelineCapacity.orElse(DEFAULT_PIPELINE_CAPACITY);
+    }
+
+    /**
+     * Returns the number of virtual buckets in each scatter-gather partition.
+     * @return the number of virtual buckets, or {@code 0} if it is disabled
+     * @see #KEY_PARTITION_BUCKETS
+     * @since 0.5.3
+     */
+    public int getPartitionBuckets() {
+        return partitionBuckets.orElse(DEFAULT_PARTITION_BUCKETS);
+    }
+
+    /**
+     * Sets the number of virtual buckets in each scatter-gather partition.
+     * @param newValue the new value, or {@code 0} to disable it
+     * @since 0.5.3
+     */
+    public void setPartitionBuckets(int newValue) {
+        this.partitionBuckets = OptionalInt.of(newValue);
+    }
+
+    /**
+     * Returns whether or not scatter-gather outputs combine records before they are shuffled.
+     * @return {@code true} if it is enabled, otherwise {@code false}
+     * @see #KEY_SHUFFLE_COMBINE
+     * @since 0.5.3
+     */
+    public boolean isShuffleCombine() {
+        return shuffleCombine.orElse(DEFAULT_SHUFFLE_COMBINE);
+    }
+
+    /**
+     * Sets whether or not scatter-gather outputs combine records before they are shuffled.
+     * @param newValue {@code true} to enable it, otherwise {@code false}
+     * @since 0.5.3
+     */
+    public void setShuffleCombine(boolean newValue) {
+        this.shuffleCombine = Optional.of(newValue);
+    }
+
+    /**
+     * Returns whether or not vertices share the objects built from the same broadcast outputs.
+     * @return {@code true} if it is enabled, otherwise {@code false}
+     * @see #KEY_BROADCAST_SHARE
+     * @since 0.5.3
+     */
+    public boolean isBroadcastShare() {
+        return broadcastShare.orElse(DEFAULT_BROADCAST_SHARE);
+    }
+
+    /**
+     * Sets whether or not vertices share the objects built from the same broadcast outputs.
+     * @param newValue {@code true} to enable it, otherwise {@code false}
+     * @since 0.5.3
+     */
+    public void setBroadcastShare(boolean newValue) {
+        this.broadcastShare = Optional.of(newValue);
+    }
+
     /**
      * Extracts configurations from the given options.
      * @param options the options
@@ -423,11 +851,23 @@ public class VanillaConfiguration {
         configureFile(conf::setSwapDirectory, options, KEY_SWAP_DIRECTORY);
         configureInt(conf::setSwapDivision, options, KEY_SWAP_DIVISION);
         configureString(conf::setSwapDecorator, options, KEY_SWAP_DECORATOR);
+        configureDouble(conf::setSwapHighWaterMark, options, KEY_SWAP_HIGH_WATER_MARK);
+        configureDouble(conf::setSwapLowWaterMark, options, KEY_SWAP_LOW_WATER_MARK);
+        configureInt(conf::setSwapReadAhead, options, KEY_SWAP_READ_AHEAD);
+        configureInt(conf::setSwapReadAheadThreads, options, KEY_SWAP_READ_AHEAD_THREADS);
+        configureLong(conf::setSwapMemoryMap, options, KEY_SWAP_MEMORY_MAP);
+        configureLong(conf::setBufferArenaSize, options, KEY_BUFFER_ARENA_SIZE);
         configureInt(conf::setOutputBufferSize, options, KEY_OUTPUT_BUFFER_SIZE);
         configureInt(conf::setOutputBufferMargin, options, KEY_OUTPUT_BUFFER_MARGIN);
         configureInt(conf::setOutputRecordSize, options, KEY_OUTPUT_RECORD_SIZE);
         configureInt(conf::setMergeThreshold, options, KEY_MERGE_THRESHOLD);
         configureDouble(conf::setMergeFactor, options, KEY_MERGE_FACTOR);
+        configureInt(conf::setVertexConcurrency, options, KEY_VERTEX_CONCURRENCY);
+        configureDouble(conf::setVertexAdmission, options, KEY_VERTEX_ADMISSION);
+        configureInt(conf::setPipelineCapacity, options, KEY_PIPELINE_CAPACITY);
+        configureInt(conf::setPartitionBuckets, options, KEY_PARTITION_BUCKETS);
+        configureBoolean(conf::setShuffleCombine, options, KEY_SHUFFLE_COMBINE);
+        configureBoolean(conf::setBroadcastShare, options, KEY_BROADCAST_SHARE);
         if (LOG.isDebugEnabled()) {
             LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
                     KEY_THREAD_COUNT, conf.getNumberOfThreads()));
@@ -449,10 +889,34 @@ public class VanillaConfiguration {
                     KEY_SWAP_DIVISION, conf.getSwapDivision()));
             LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
                     KEY_SWAP_DECORATOR, conf.getSwapDecorator()));
+            LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
+                    KEY_SWAP_HIGH_WATER_MARK, conf.getSwapHighWaterMark()));
+            LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
+                    KEY_SWAP_LOW_WATER_MARK, conf.getSwapLowWaterMark()));
+            LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
+                    KEY_SWAP_READ_AHEAD, conf.getSwapReadAhead()));
+            LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
+                    KEY_SWAP_READ_AHEAD_THREADS, conf.getSwapReadAheadThreads()));
+            LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
+                    KEY_SWAP_MEMORY_MAP, conf.getSwapMemoryMap()));
+            LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
+                    KEY_BUFFER_ARENA_SIZE, conf.getBufferArenaSize()));
             LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
                     KEY_MERGE_THRESHOLD, conf.getMergeThreshold()));
             LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
                     KEY_MERGE_FACTOR, conf.getMergeFactor()));
+            LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
+                    KEY_VERTEX_CONCURRENCY, conf.getVertexConcurrency()));
+            LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
+                    KEY_VERTEX_ADMISSION, conf.getVertexAdmission()));
+            LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
+                    KEY_PIPELINE_CAPACITY, conf.getPipelineCapacity()));
+            LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
+                    KEY_PARTITION_BUCKETS, conf.getPartitionBuckets()));
+            LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
+                    KEY_SHUFFLE_COMBINE, conf.isShuffleCombine()));
+            LOG.debug(MessageFormat.format("{0}: {1}", //$NON-NLS-1$
+                    KEY_BROADCAST_SHARE, conf.isBroadcastShare()));
         }
         return conf;
     }
@@ -487,6 +951,22 @@ public class VanillaConfiguration {
                 .ifPresent(target::accept);
     }
 
+    private static void configureBoolean(
+            Consumer<Boolean> target, Function<String, Optional<String>> opts, String key) {
+        opts.apply(key)
+                .map(String::trim)
+                .filter(it -> !it.isEmpty())
+                .map(value -> {
+                    Arguments.require(
+                            value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false"), //$NON-NLS-1$ //$NON-NLS-2$
+                            () -> MessageFormat.format(
+                                    "{0} must be a boolean: {1}",
+                                    key, value));
+                    return Boolean.parseBoolean(value);
+                })
+                .ifPresent(target::accept);
+    }
+
     private static void configureFile(Consumer<File> target, Function<String, Optional<String>> opts, String key) {
         opts.apply(key)
                 .map(String::trim)
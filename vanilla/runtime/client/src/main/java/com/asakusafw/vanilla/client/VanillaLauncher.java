@@ -44,6 +44,7 @@ import com.asakusafw.vanilla.core.engine.GraphExecutor;
 import com.asakusafw.vanilla.core.engine.VertexScheduler;
 import com.asakusafw.vanilla.core.io.BasicBufferPool;
 import com.asakusafw.vanilla.core.io.BasicBufferStore;
+import com.asakusafw.vanilla.core.io.BufferArena;
 import com.asakusafw.vanilla.core.io.ByteChannelDecorator;
 import com.asakusafw.vanilla.core.mirror.GraphMirror;
 
@@ -217,27 +218,48 @@ public class VanillaLauncher {
         BasicBufferStore.Builder storeBuilder = BasicBufferStore.builder()
                 .withDirectory(configuration.getSwapDirectory())
                 .withDivision(configuration.getSwapDivision())
-                .withDecorator(loadByteChannelDecorator(context, configuration.getSwapDecorator()));
+                .withDecorator(loadByteChannelDecorator(context, configuration.getSwapDecorator()))
+                .withReadAhead(configuration.getSwapReadAhead())
+                .withReadAheadThreads(configuration.getSwapReadAheadThreads())
+                .withMemoryMap(configuration.getSwapMemoryMap());
 
         GraphMirror mirror = GraphMirror.of(graph);
         VertexScheduler scheduler = new BasicVertexScheduler();
         try (BasicBufferStore store = storeBuilder.build();
-                BasicEdgeDriver edges = new BasicEdgeDriver(
-                        context.getClassLoader(),
-                        mirror,
-                        new BasicBufferPool(configuration.getBufferPoolSize(), store),
-                        store.getBlobStore(),
-                        configuration.getNumberOfPartitions(),
-                        configuration.getOutputBufferSize(),
-                        configuration.getOutputBufferMargin(),
-                        configuration.getNumberOfOutputRecords(),
-                        configuration.getMergeThreshold(),
-                        configuration.getMergeFactor());
-                ResourceSession session = LaunchUtil.attachSession(context, ResourceBroker.Scope.VM)) {
-            if (RuntimeContext.get().isSimulation() == false) {
-                new GraphExecutor(context, mirror,
-                        scheduler, edges,
-                        configuration.getNumberOfThreads()).run();
+                BasicBufferPool pool = new BasicBufferPool(
+                        configuration.getBufferPoolSize(),
+                        store,
+                        configuration.getSwapHighWaterMark(),
+                        Math.min(configuration.getSwapLowWaterMark(), configuration.getSwapHighWaterMark()),
+                        configuration.getBufferArenaSize() > 0
+                                ? new BufferArena(configuration.getBufferArenaSize())
+                                : null)) {
+            // the read-ahead blocks of swapped out buffers also occupy the buffer pool
+            store.setReadAheadPool(pool);
+            try (BasicEdgeDriver edges = new BasicEdgeDriver(
+                            context.getClassLoader(),
+                            mirror,
+                            pool,
+                            store.getBlobStore(),
+                            configuration.getNumberOfPartitions(),
+                            configuration.getOutputBufferSize(),
+                            configuration.getOutputBufferMargin(),
+                            configuration.getNumberOfOutputRecords(),
+                            configuration.getMergeThreshold(),
+                            configuration.getMergeFactor(),
+                            configuration.getPipelineCapacity(),
+                            configuration.getPartitionBuckets(),
+                            configuration.isShuffleCombine());
+                    ResourceSession session = LaunchUtil.attachSession(context, ResourceBroker.Scope.VM)) {
+                if (RuntimeContext.get().isSimulation() == false) {
+                    long poolThreshold = (long) (configuration.getBufferPoolSize()
+                            * configuration.getVertexAdmission());
+                    new GraphExecutor(context, mirror,
+                            scheduler, edges,
+                            configuration.getNumberOfThreads(),
+                            configuration.getVertexConcurrency(), pool, poolThreshold,
+                            configuration.isBroadcastShare()).run();
+                }
             }
         }
     }
@@ -53,6 +53,11 @@ public class VanillaConfigurationTest {
         assertThat(conf.getOutputRecordSize(), is(DEFAULT_OUTPUT_RECORD_SIZE));
         assertThat(conf.getMergeThreshold(), is(DEFAULT_MERGE_THRESHOLD));
         assertThat(conf.getMergeFactor(), is(DEFAULT_MERGE_FACTOR));
+        assertThat(conf.getVertexConcurrency(), is(DEFAULT_VERTEX_CONCURRENCY));
+        assertThat(conf.getVertexAdmission(), is(DEFAULT_VERTEX_ADMISSION));
+        assertThat(conf.getPipelineCapacity(), is(DEFAULT_PIPELINE_CAPACITY));
+        assertThat(conf.getSwapHighWaterMark(), is(DEFAULT_SWAP_HIGH_WATER_MARK));
+        assertThat(conf.getSwapLowWaterMark(), is(DEFAULT_SWAP_LOW_WATER_MARK));
     }
 
     /**
@@ -74,6 +79,18 @@ public class VanillaConfigurationTest {
         pairs.put(KEY_MERGE_THRESHOLD, 9);
         pairs.put(KEY_MERGE_FACTOR, 10);
         pairs.put(KEY_SWAP_DECORATOR, SnappyByteChannelDecorator.class.getName());
+        pairs.put(KEY_VERTEX_CONCURRENCY, 11);
+        pairs.put(KEY_VERTEX_ADMISSION, 0.25);
+        pairs.put(KEY_PIPELINE_CAPACITY, 12);
+        pairs.put(KEY_SWAP_HIGH_WATER_MARK, 0.875);
+        pairs.put(KEY_SWAP_LOW_WATER_MARK, 0.375);
+        pairs.put(KEY_SWAP_READ_AHEAD, 13);
+        pairs.put(KEY_SWAP_READ_AHEAD_THREADS, 17);
+        pairs.put(KEY_SWAP_MEMORY_MAP, 14);
+        pairs.put(KEY_BUFFER_ARENA_SIZE, 15);
+        pairs.put(KEY_PARTITION_BUCKETS, 16);
+        pairs.put(KEY_SHUFFLE_COMBINE, true);
+        pairs.put(KEY_BROADCAST_SHARE, true);
 
         VanillaConfiguration conf = VanillaConfiguration.extract(key -> Optionals.get(pairs, key)
                 .map(String::valueOf));
@@ -88,6 +105,18 @@ public class VanillaConfigurationTest {
         assertThat(conf.getSwapDirectory().getCanonicalFile(), is(f));
         assertThat(conf.getMergeThreshold(), is(9));
         assertThat(conf.getMergeFactor(), is(10d));
+        assertThat(conf.getVertexConcurrency(), is(11));
+        assertThat(conf.getVertexAdmission(), is(0.25d));
+        assertThat(conf.getPipelineCapacity(), is(12));
+        assertThat(conf.getSwapHighWaterMark(), is(0.875d));
+        assertThat(conf.getSwapLowWaterMark(), is(0.375d));
+        assertThat(conf.getSwapReadAhead(), is(13));
+        assertThat(conf.getSwapReadAheadThreads(), is(17));
+        assertThat(conf.getSwapMemoryMap(), is(14L));
+        assertThat(conf.getBufferArenaSize(), is(15L));
+        assertThat(conf.getPartitionBuckets(), is(16));
+        assertThat(conf.isShuffleCombine(), is(true));
+        assertThat(conf.isBroadcastShare(), is(true));
         assertThat(
                 conf.getSwapDecorator().newInstance(getClass().getClassLoader()).get(),
                 is(instanceOf(SnappyByteChannelDecorator.class)));
@@ -21,11 +21,14 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -40,6 +43,7 @@ import com.asakusafw.dag.api.common.KeyValueSerDe;
 import com.asakusafw.dag.api.common.Reportable;
 import com.asakusafw.dag.api.common.ValueSerDe;
 import com.asakusafw.dag.api.model.PortId;
+import com.asakusafw.dag.api.model.PortInfo;
 import com.asakusafw.dag.api.model.basic.BasicEdgeDescriptor.Movement;
 import com.asakusafw.dag.api.processor.GroupReader;
 import com.asakusafw.dag.api.processor.ObjectReader;
@@ -58,9 +62,12 @@ import com.asakusafw.vanilla.core.io.BufferPool;
 import com.asakusafw.vanilla.core.io.DataReader;
 import com.asakusafw.vanilla.core.io.DataReader.Provider;
 import com.asakusafw.vanilla.core.io.DataWriter;
+import com.asakusafw.vanilla.core.io.FragmentedStreamObjectReader;
+import com.asakusafw.vanilla.core.io.KeyValueCombiner;
 import com.asakusafw.vanilla.core.io.KeyValueCursor;
 import com.asakusafw.vanilla.core.io.KeyValueMerger;
 import com.asakusafw.vanilla.core.io.KeyValuePartitioner;
+import com.asakusafw.vanilla.core.io.PartitionMap;
 import com.asakusafw.vanilla.core.io.RecordCursor;
 import com.asakusafw.vanilla.core.io.SharedBuffer;
 import com.asakusafw.vanilla.core.io.StreamGroupWriter;
@@ -97,6 +104,10 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
 
     private final int recordCountLimit;
 
+    private final int pipelineCapacity;
+
+    private final boolean shuffleCombine;
+
     private final Map<InputPortMirror, FragmentSource> sources;
 
     private final Map<OutputPortMirror, FragmentSink> sinks;
@@ -105,6 +116,8 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
 
     private final Map<OutputPortMirror, PartitionedSink> partSinks;
 
+    private final Map<OutputPortMirror, PartitionMap> partMaps;
+
     /**
      * Creates a new instance.
      * @param classLoader the current class loader
@@ -124,12 +137,121 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
             int numberOfPartitions,
             int bufferSizeLimit, int bufferMarginSize, int recordCountLimit,
             int mergeThreshold, double mergeFactor) {
+        this(classLoader, graph, pool, blobs,
+                numberOfPartitions,
+                bufferSizeLimit, bufferMarginSize, recordCountLimit,
+                mergeThreshold, mergeFactor,
+                0);
+    }
+
+    /**
+     * Creates a new instance.
+     * If {@code pipelineCapacity} is greater than {@code 0}, each one-to-one output passes its buffers to the
+     * downstream inputs as soon as they are written while the downstream inputs have active readers, and the
+     * downstream inputs can be read before the upstream output is completed.
+     * Then, the upstream writers will be blocked while the downstream already has {@code pipelineCapacity} unread
+     * buffers. Otherwise, the written buffers are kept in the output until the downstream readers start or the
+     * output is completed, as same as the other outputs.
+     * @param classLoader the current class loader
+     * @param graph the target graph
+     * @param pool the buffer pool
+     * @param blobs the BLOB store
+     * @param numberOfPartitions the number of partitions in scatter-gather operations
+     * @param bufferSizeLimit each output buffer size threshold in bytes
+     * @param bufferMarginSize the output buffer margin size
+     * @param recordCountLimit the number of limit records in each output buffer
+     * @param mergeThreshold the maximum number of merging scatter/gather input chunks
+     * @param mergeFactor the fraction to merge scatter/gather input with {@code mergeThreshold}
+     * @param pipelineCapacity the max number of buffers in each pipelined one-to-one input,
+     *     or {@code 0} to disable pipelining
+     * @since 0.5.3
+     */
+    public BasicEdgeDriver(
+            ClassLoader classLoader,
+            GraphMirror graph, BufferPool pool, BlobStore blobs,
+            int numberOfPartitions,
+            int bufferSizeLimit, int bufferMarginSize, int recordCountLimit,
+            int mergeThreshold, double mergeFactor,
+            int pipelineCapacity) {
+        this(classLoader, graph, pool, blobs,
+                numberOfPartitions,
+                bufferSizeLimit, bufferMarginSize, recordCountLimit,
+                mergeThreshold, mergeFactor,
+                pipelineCapacity, 0);
+    }
+
+    /**
+     * Creates a new instance.
+     * If {@code numberOfBuckets} is greater than {@code 0}, each scatter-gather output partitions keys via
+     * {@code numberOfPartitions * numberOfBuckets} virtual buckets, and assigns the buckets to partitions by using
+     * the first output of the edge, so that skewed keys are balanced between partitions.
+     * @param classLoader the current class loader
+     * @param graph the target graph
+     * @param pool the buffer pool
+     * @param blobs the BLOB store
+     * @param numberOfPartitions the number of partitions in scatter-gather operations
+     * @param bufferSizeLimit each output buffer size threshold in bytes
+     * @param bufferMarginSize the output buffer margin size
+     * @param recordCountLimit the number of limit records in each output buffer
+     * @param mergeThreshold the maximum number of merging scatter/gather input chunks
+     * @param mergeFactor the fraction to merge scatter/gather input with {@code mergeThreshold}
+     * @param pipelineCapacity the max number of buffers in each pipelined one-to-one input,
+     *     or {@code 0} to disable pipelining
+     * @param numberOfBuckets the number of virtual buckets for each scatter-gather partition,
+     *     or {@code 0} to partition keys only by their hash code
+     * @since 0.5.3
+     */
+    public BasicEdgeDriver(
+            ClassLoader classLoader,
+            GraphMirror graph, BufferPool pool, BlobStore blobs,
+            int numberOfPartitions,
+            int bufferSizeLimit, int bufferMarginSize, int recordCountLimit,
+            int mergeThreshold, double mergeFactor,
+            int pipelineCapacity, int numberOfBuckets) {
+        this(classLoader, graph, pool, blobs,
+                numberOfPartitions,
+                bufferSizeLimit, bufferMarginSize, recordCountLimit,
+                mergeThreshold, mergeFactor,
+                pipelineCapacity, numberOfBuckets, false);
+    }
+
+    /**
+     * Creates a new instance.
+     * If {@code shuffleCombine} is {@code true}, each scatter-gather output combines the records which have the same
+     * key in individual sorted pages and merged fragments, only if the downstream vertex provides a combiner.
+     * @param classLoader the current class loader
+     * @param graph the target graph
+     * @param pool the buffer pool
+     * @param blobs the BLOB store
+     * @param numberOfPartitions the number of partitions in scatter-gather operations
+     * @param bufferSizeLimit each output buffer size threshold in bytes
+     * @param bufferMarginSize the output buffer margin size
+     * @param recordCountLimit the number of limit records in each output buffer
+     * @param mergeThreshold the maximum number of merging scatter/gather input chunks
+     * @param mergeFactor the fraction to merge scatter/gather input with {@code mergeThreshold}
+     * @param pipelineCapacity the max number of buffers in each pipelined one-to-one input,
+     *     or {@code 0} to disable pipelining
+     * @param numberOfBuckets the number of virtual buckets for each scatter-gather partition,
+     *     or {@code 0} to partition keys only by their hash code
+     * @param shuffleCombine {@code true} to combine scatter-gather records before they are gathered,
+     *     otherwise {@code false}
+     * @since 0.5.3
+     */
+    public BasicEdgeDriver(
+            ClassLoader classLoader,
+            GraphMirror graph, BufferPool pool, BlobStore blobs,
+            int numberOfPartitions,
+            int bufferSizeLimit, int bufferMarginSize, int recordCountLimit,
+            int mergeThreshold, double mergeFactor,
+            int pipelineCapacity, int numberOfBuckets, boolean shuffleCombine) {
         Arguments.requireNonNull(classLoader);
         Arguments.requireNonNull(graph);
         Arguments.requireNonNull(pool);
         Arguments.require(numberOfPartitions > 0);
         Arguments.require(bufferSizeLimit >= 0);
         Arguments.require(recordCountLimit > 0);
+        Arguments.require(pipelineCapacity >= 0);
+        Arguments.require(numberOfBuckets >= 0);
         this.classLoader = classLoader;
         this.graph = graph;
         this.pool = pool;
@@ -137,17 +259,27 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
         this.bufferSizeLimit = bufferSizeLimit;
         this.bufferMarginSize = bufferMarginSize;
         this.recordCountLimit = recordCountLimit;
+        this.pipelineCapacity = pipelineCapacity;
+        this.shuffleCombine = shuffleCombine;
         int mergeCount = Math.max(2, Math.min(mergeThreshold, (int) (mergeThreshold * mergeFactor)));
         Function<PortMirror, Supplier<FragmentStore>> fstore =
-                p -> () -> new FragmentStore(blobs, p.newComparator(classLoader), mergeThreshold, mergeCount);
+                p -> () -> new FragmentStore(blobs, p.newComparator(classLoader), combiners(p),
+                        mergeThreshold, mergeCount);
         this.sources = edges(graph, VertexMirror::getInputs,
-                p -> new FragmentSource());
+                p -> new FragmentSource(p.getOpposites().size(), pipelineCapacity));
         this.sinks = edges(graph, VertexMirror::getOutputs,
-                p -> new FragmentSink(pool, p.getOpposites().size()));
+                p -> isPipelined(p)
+                        ? new FragmentSink(pool, p.getOpposites().size(), p.getOpposites().stream()
+                                .map(o -> Invariants.requireNonNull(sources.get(o)))
+                                .collect(Collectors.toList()))
+                        : new FragmentSink(pool, p.getOpposites().size()));
         this.partSources = parts(graph, VertexMirror::getInputs,
                 p -> new PartitionedSource(numberOfPartitions, fstore.apply(p)));
         this.partSinks = parts(graph, VertexMirror::getOutputs,
                 p -> new PartitionedSink(pool, numberOfPartitions, p.getOpposites().size(), fstore.apply(p)));
+        this.partMaps = numberOfBuckets > 0 && numberOfPartitions > 1
+                ? maps(graph, () -> new PartitionMap(numberOfPartitions, numberOfPartitions * numberOfBuckets))
+                : Collections.emptyMap();
     }
 
     private static <K extends PortMirror, V> Map<K, V> edges(
@@ -171,11 +303,72 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
                 .collect(Collectors.toConcurrentMap(Function.identity(), factory));
     }
 
+    private static Map<OutputPortMirror, PartitionMap> maps(GraphMirror graph, Supplier<PartitionMap> factory) {
+        // all scatter-gather inputs of the same vertex, and all consumers of the same output must share their map
+        Map<VertexMirror, VertexMirror> groups = new HashMap<>();
+        List<OutputPortMirror> outputs = graph.getVertices().stream()
+                .flatMap(v -> v.getOutputs().stream())
+                .filter(p -> p.getMovement() == Movement.SCATTER_GATHER)
+                .filter(p -> p.getOpposites().isEmpty() == false)
+                .collect(Collectors.toList());
+        for (OutputPortMirror output : outputs) {
+            VertexMirror first = find(groups, output.getOpposites().get(0).getOwner());
+            for (InputPortMirror opposite : output.getOpposites()) {
+                VertexMirror other = find(groups, opposite.getOwner());
+                if (other != first) {
+                    groups.put(other, first);
+                }
+            }
+        }
+        Map<VertexMirror, PartitionMap> maps = new HashMap<>();
+        Map<OutputPortMirror, PartitionMap> results = new HashMap<>();
+        for (OutputPortMirror output : outputs) {
+            VertexMirror group = find(groups, output.getOpposites().get(0).getOwner());
+            results.put(output, maps.computeIfAbsent(group, k -> factory.get()));
+        }
+        return results;
+    }
+
+    private static VertexMirror find(Map<VertexMirror, VertexMirror> groups, VertexMirror vertex) {
+        VertexMirror current = vertex;
+        while (true) {
+            VertexMirror parent = groups.get(current);
+            if (parent == null) {
+                return current;
+            }
+            current = parent;
+        }
+    }
+
+    private Supplier<KeyValueCombiner> combiners(PortMirror port) {
+        if (shuffleCombine == false || port.hasCombiner() == false) {
+            return null;
+        }
+        // the combiner requires its own ser/de objects, because they may reuse the deserialized objects
+        return () -> new KeyValueCombiner(
+                port.newCombiner(classLoader),
+                port.newKeyValueSerDe(classLoader),
+                port.newKeyValueSerDe(classLoader));
+    }
+
     @Override
     public int getNumberOfPartitions() {
         return numberOfPartitions;
     }
 
+    @Override
+    public boolean isPipelined(PortId id) {
+        Arguments.requireNonNull(id);
+        if (id.getDirection() != PortInfo.Direction.INPUT) {
+            return false;
+        }
+        return isPipelined(graph.getInput(id));
+    }
+
+    private boolean isPipelined(PortMirror port) {
+        return pipelineCapacity > 0 && port.getMovement() == Movement.ONE_TO_ONE;
+    }
+
     @Override
     protected InputPortMirror getInput(PortId id) {
         return graph.getInput(id);
@@ -206,10 +399,10 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
 
     @Override
     protected ObjectReader acquireBroadcastInput(InputPortMirror port) throws IOException, InterruptedException {
-        ValueSerDe serde = port.newValueSerDe(classLoader);
-        return new StreamObjectReader(
+        // each fragment reader requires its own ser/de object, because it may reuse the deserialized objects
+        return new FragmentedStreamObjectReader(
                 Invariants.requireNonNull(sources.get(port)).openBroadcast(),
-                serde);
+                () -> port.newValueSerDe(classLoader));
     }
 
     @Override
@@ -237,11 +430,17 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
     protected ObjectWriter acquireScatterGatherOutput(OutputPortMirror port) throws IOException, InterruptedException {
         KeyValueSerDe serde = port.newKeyValueSerDe(classLoader);
         DataComparator comparator = port.newComparator(classLoader);
+        Supplier<KeyValueCombiner> combiners = combiners(port);
+        // the combiner requires an extra page buffer
+        long bufferSize = combiners == null ? bufferSizeLimit : bufferSizeLimit * 2L;
         return new StreamGroupWriter(
-                KeyValuePartitioner.stream(Arrays.asList(Invariants.requireNonNull(partSinks.get(port)).partitions)),
+                KeyValuePartitioner.stream(
+                        Arrays.asList(Invariants.requireNonNull(partSinks.get(port)).partitions),
+                        partMaps.get(port)),
                 serde, comparator,
                 bufferSizeLimit, bufferMarginSize, recordCountLimit,
-                pool.reserve(bufferSizeLimit));
+                combiners == null ? null : combiners.get(),
+                pool.reserve(bufferSize));
     }
 
     @Override
@@ -277,6 +476,9 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
         try (FragmentSink sink = sinks.remove(port)) {
             sink.migrateTo(destinations);
         }
+        for (FragmentSource destination : destinations) {
+            destination.seal();
+        }
     }
 
     @Override
@@ -323,24 +525,89 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
 
         private final FragmentStore store;
 
-        FragmentSource() {
-            this(new FragmentStore());
+        private final boolean blocking;
+
+        private final int capacity;
+
+        private int upstreams;
+
+        private int readers;
+
+        FragmentSource(int numberOfUpstreams, int capacity) {
+            this.store = new FragmentStore();
+            this.blocking = true;
+            this.capacity = capacity;
+            this.upstreams = numberOfUpstreams;
         }
 
         FragmentSource(FragmentStore store) {
             this.store = store;
+            this.blocking = false;
+            this.capacity = 0;
+            this.upstreams = 0;
         }
 
         public void offer(Fragment fragment) throws IOException, InterruptedException {
-            store.offer(fragment);
+            if (blocking == false) {
+                store.offer(fragment);
+                return;
+            }
+            synchronized (this) {
+                // upstreams pass fragments only while this has active readers, except when they are completed
+                while (capacity > 0 && readers > 0 && store.count.get() >= capacity) {
+                    wait();
+                }
+                store.offer(fragment);
+                notifyAll();
+            }
+        }
+
+        synchronized boolean isLive() {
+            // readers are never detached until all upstreams are sealed
+            return readers > 0;
+        }
+
+        synchronized void seal() {
+            upstreams--;
+            notifyAll();
+        }
+
+        private synchronized void attach() {
+            readers++;
+        }
+
+        private synchronized void detach() {
+            readers--;
+            notifyAll();
+        }
+
+        private synchronized Fragment take() throws InterruptedException {
+            while (true) {
+                Fragment next = store.poll();
+                if (next != null) {
+                    notifyAll();
+                    return next;
+                }
+                if (upstreams <= 0) {
+                    return null;
+                }
+                wait();
+            }
         }
 
         public RecordCursor.Stream openOneToOne() {
             // share chunks
-            FragmentStore s = store;
+            attach();
+            AtomicBoolean active = new AtomicBoolean(true);
             return () -> {
-                Fragment fragment = s.poll();
+                if (active.get() == false) {
+                    return null;
+                }
+                Fragment fragment = take();
                 if (fragment == null) {
+                    if (active.compareAndSet(true, false)) {
+                        detach();
+                    }
                     return null;
                 }
                 return new InternalRecordCursor(fragment.source);
@@ -403,6 +670,8 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
 
         private final FragmentStore store;
 
+        private final List<FragmentSource> downstreams;
+
         FragmentSink(BufferPool pool, int numberOfConsumers) {
             this(pool, numberOfConsumers, new FragmentStore());
         }
@@ -411,12 +680,21 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
             this.pool = pool;
             this.priority = numberOfConsumers;
             this.store = store;
+            this.downstreams = null;
+        }
+
+        FragmentSink(BufferPool pool, int numberOfConsumers, List<FragmentSource> downstreams) {
+            this.pool = pool;
+            this.priority = numberOfConsumers;
+            this.store = new FragmentStore();
+            this.downstreams = downstreams;
         }
 
         @Override
         public DataWriter acquire(int size) throws IOException, InterruptedException {
             Arguments.require(size >= 0);
-            return new InternalWriter(pool.reserve(size), Buffers.allocate(size));
+            BufferPool.Ticket ticket = pool.reserve(size);
+            return new InternalWriter(ticket, pool.allocate(ticket, size));
         }
 
         @Override
@@ -424,20 +702,31 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
             Arguments.requireNonNull(written);
             Arguments.require(written instanceof InternalWriter);
             InternalWriter writer = (InternalWriter) written;
-            store.offer(writer.save(pool, priority));
+            Fragment fragment = writer.save(pool, priority);
+            store.offer(fragment);
+            // pipelined: passes the fragments to the downstreams only while they have active readers,
+            // so that the writers never wait for the downstream tasks which have not started yet
+            if (downstreams != null && downstreams.stream().allMatch(FragmentSource::isLive)) {
+                migrateTo(downstreams);
+            }
         }
 
-        public void migrateTo(List<FragmentSource> downstreams) throws IOException, InterruptedException {
+        public void migrateTo(List<FragmentSource> destinations) throws IOException, InterruptedException {
             while (true) {
                 Fragment next = store.poll();
                 if (next == null) {
                     break;
                 }
-                List<DataReader.Provider> shared = SharedBuffer.wrap(next.source, downstreams.size());
-                int index = 0;
-                for (FragmentSource downstream : downstreams) {
-                    downstream.offer(new Fragment(shared.get(index++), next.size));
-                }
+                publish(next, destinations);
+            }
+        }
+
+        private static void publish(
+                Fragment fragment, List<FragmentSource> destinations) throws IOException, InterruptedException {
+            List<DataReader.Provider> shared = SharedBuffer.wrap(fragment.source, destinations.size());
+            int index = 0;
+            for (FragmentSource destination : destinations) {
+                destination.offer(new Fragment(shared.get(index++), fragment.size));
             }
         }
 
@@ -453,6 +742,8 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
 
         private final DataComparator comparator;
 
+        private final Supplier<KeyValueCombiner> combiners;
+
         private final int mergeThreshold;
 
         private final int mergeCount;
@@ -462,12 +753,15 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
         private final AtomicInteger count = new AtomicInteger();
 
         FragmentStore() {
-            this(null, null, 0, 0);
+            this(null, null, null, 0, 0);
         }
 
-        FragmentStore(BlobStore blobs, DataComparator comparator, int mergeThreshold, int mergeCount) {
+        FragmentStore(
+                BlobStore blobs, DataComparator comparator, Supplier<KeyValueCombiner> combiners,
+                int mergeThreshold, int mergeCount) {
             this.blobs = blobs;
             this.comparator = comparator;
+            this.combiners = combiners;
             this.mergeThreshold = mergeThreshold;
             this.mergeCount = mergeCount;
         }
@@ -533,7 +827,7 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
                         fragments.size(),
                         fragments.stream().mapToLong(it -> it.size).sum());
             }
-            try (KeyValueMerger merger = new KeyValueMerger(cursors, comparator);
+            try (KeyValueCursor merger = merge(cursors);
                     DataWriter writer = blobs.create()) {
                 long size = BasicKeyValueSink.copy(merger, writer);
                 if (LOG.isDebugEnabled()) {
@@ -546,6 +840,14 @@ public class BasicEdgeDriver extends EdgeDriver.Abstract {
             }
         }
 
+        private KeyValueCursor merge(List<KeyValueCursor> cursors) {
+            KeyValueCursor merger = new KeyValueMerger(cursors, comparator);
+            if (combiners == null) {
+                return merger;
+            }
+            return combiners.get().wrap(merger);
+        }
+
         @Override
         public void close() throws IOException, InterruptedException {
             try (Closer closer = new Closer()) {
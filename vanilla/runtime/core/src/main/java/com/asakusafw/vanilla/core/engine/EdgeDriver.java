@@ -38,6 +38,7 @@ import com.asakusafw.vanilla.core.mirror.OutputPortMirror;
 /**
  * An abstract super interface of edge I/O operations.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public interface EdgeDriver extends InterruptibleIo {
 
@@ -56,7 +57,8 @@ public interface EdgeDriver extends InterruptibleIo {
      * @throws IOException if I/O error was occurred while acquiring the reader
      * @throws InterruptedException if operation was interrupted while acquiring the reader
      * @throws IllegalStateException if the target port has been already {@link #complete(PortId) completed}, or
-     *    there are incomplete port in opposite of the target port
+     *    there are incomplete port in opposite of the target port and it is not {@link #isPipelined(PortId)
+     *    pipelined}
      */
     EdgeReader acquireInput(PortId id, int taskIndex, int taskCount) throws IOException, InterruptedException;
 
@@ -79,6 +81,18 @@ public interface EdgeDriver extends InterruptibleIo {
      */
     void complete(PortId id) throws IOException, InterruptedException;
 
+    /**
+     * Returns whether or not the given input port is pipelined.
+     * The pipelined input can be {@link #acquireInput(PortId, int, int) acquired} before its upstream outputs are
+     * completed, and then its readers will wait for the upstream outputs.
+     * @param id the target input port ID
+     * @return {@code true} if it is pipelined, otherwise {@code false}
+     * @since 0.5.3
+     */
+    default boolean isPipelined(PortId id) {
+        return false;
+    }
+
     /**
      * An abstract implementation of {@link EdgeDriver}.
      * @since 0.4.0
@@ -226,8 +240,10 @@ public interface EdgeDriver extends InterruptibleIo {
             Arguments.require(id.getDirection() == PortInfo.Direction.INPUT);
             Invariants.require(completed.get(id) == null);
             InputPortMirror port = getInput(id);
-            for (OutputPortMirror upstream : port.getOpposites()) {
-                Invariants.require(completed.get(upstream.getId()) == State.DONE);
+            if (isPipelined(id) == false) {
+                for (OutputPortMirror upstream : port.getOpposites()) {
+                    Invariants.require(completed.get(upstream.getId()) == State.DONE);
+                }
             }
             LOG.trace("acquiring {}", id);
             switch (port.getMovement()) {
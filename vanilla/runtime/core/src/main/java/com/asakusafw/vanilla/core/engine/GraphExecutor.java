@@ -17,32 +17,56 @@ package com.asakusafw.vanilla.core.engine;
 
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.asakusafw.dag.api.model.PortId;
+import com.asakusafw.dag.api.model.basic.BasicEdgeDescriptor.Movement;
 import com.asakusafw.dag.api.processor.ProcessorContext;
+import com.asakusafw.dag.api.processor.basic.ForwardProcessorContext;
+import com.asakusafw.dag.api.processor.extension.BroadcastInputCache;
 import com.asakusafw.lang.utils.common.Arguments;
 import com.asakusafw.lang.utils.common.InterruptibleIo;
 import com.asakusafw.lang.utils.common.Invariants;
 import com.asakusafw.lang.utils.common.Lang;
+import com.asakusafw.vanilla.core.io.BufferPool;
 import com.asakusafw.vanilla.core.mirror.GraphMirror;
+import com.asakusafw.vanilla.core.mirror.InputPortMirror;
+import com.asakusafw.vanilla.core.mirror.OutputPortMirror;
 import com.asakusafw.vanilla.core.mirror.PortMirror;
 import com.asakusafw.vanilla.core.mirror.VertexMirror;
 
 /**
  * Executes graphs.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class GraphExecutor implements InterruptibleIo.IoRunnable {
 
     static final Logger LOG = LoggerFactory.getLogger(GraphExecutor.class);
 
+    private static final Future<VertexMirror> ACTIVATED = CompletableFuture.completedFuture(null);
+
     private final ProcessorContext context;
 
     private final GraphMirror graph;
@@ -53,6 +77,14 @@ public class GraphExecutor implements InterruptibleIo.IoRunnable {
 
     private final int numberOfThreads;
 
+    private final int numberOfVertices;
+
+    private final BufferPool pool;
+
+    private final long poolThreshold;
+
+    private final boolean shareBroadcast;
+
     /**
      * Creates a new instance.
      * @param context the root context
@@ -64,16 +96,67 @@ public class GraphExecutor implements InterruptibleIo.IoRunnable {
     public GraphExecutor(
             ProcessorContext context, GraphMirror graph,
             VertexScheduler scheduler, EdgeDriver edges, int numberOfThreads) {
+        this(context, graph, scheduler, edges, numberOfThreads, 1, null, 0L);
+    }
+
+    /**
+     * Creates a new instance.
+     * If {@code numberOfVertices} is greater than {@code 1}, this executes individual vertices concurrently as soon as
+     * all of their upstream vertices have been completed.
+     * Then, the running vertices share the {@code threads}.
+     * Additionally, vertices can start while their upstream vertices are still running, only if the corresponding
+     * inputs are pipelined in the {@code edges}.
+     * @param context the root context
+     * @param graph the target graph
+     * @param scheduler the scheduler
+     * @param edges the edge driver
+     * @param numberOfThreads the number of available {@code threads}
+     * @param numberOfVertices the max number of running vertices at the same time
+     * @param pool the buffer pool to watch, or {@code null} if it is not watched
+     * @param poolThreshold the buffer pool size in bytes, which additional vertices can start only under it
+     * @since 0.5.3
+     */
+    public GraphExecutor(
+            ProcessorContext context, GraphMirror graph,
+            VertexScheduler scheduler, EdgeDriver edges, int numberOfThreads,
+            int numberOfVertices, BufferPool pool, long poolThreshold) {
+        this(context, graph, scheduler, edges, numberOfThreads, numberOfVertices, pool, poolThreshold, false);
+    }
+
+    /**
+     * Creates a new instance.
+     * If {@code shareBroadcast} is enabled, vertices which consume the same broadcast outputs can share the objects
+     * built from them via {@link BroadcastInputCache} resource.
+     * @param context the root context
+     * @param graph the target graph
+     * @param scheduler the scheduler
+     * @param edges the edge driver
+     * @param numberOfThreads the number of available {@code threads}
+     * @param numberOfVertices the max number of running vertices at the same time
+     * @param pool the buffer pool to watch, or {@code null} if it is not watched
+     * @param poolThreshold the buffer pool size in bytes, which additional vertices can start only under it
+     * @param shareBroadcast whether or not vertices share the objects built from the same broadcast outputs
+     * @since 0.5.3
+     */
+    public GraphExecutor(
+            ProcessorContext context, GraphMirror graph,
+            VertexScheduler scheduler, EdgeDriver edges, int numberOfThreads,
+            int numberOfVertices, BufferPool pool, long poolThreshold, boolean shareBroadcast) {
         Arguments.requireNonNull(context);
         Arguments.requireNonNull(graph);
         Arguments.requireNonNull(scheduler);
         Arguments.requireNonNull(edges);
         Arguments.require(numberOfThreads >= 1);
+        Arguments.require(numberOfVertices >= 1);
         this.context = context;
         this.graph = graph;
         this.scheduler = scheduler;
         this.edges = edges;
         this.numberOfThreads = numberOfThreads;
+        this.numberOfVertices = numberOfVertices;
+        this.pool = pool;
+        this.poolThreshold = poolThreshold;
+        this.shareBroadcast = shareBroadcast;
     }
 
     @Override
@@ -84,24 +167,13 @@ public class GraphExecutor implements InterruptibleIo.IoRunnable {
                 "start graph: vertices={0}",
                 numberOfVertices));
         Set<VertexMirror> finished = new HashSet<>();
+        ProcessorContext root = shareBroadcast ? new GraphContext(context, newBroadcastInputCache()) : context;
         try (VertexScheduler.Stream schedule = scheduler.schedule(graph);
                 ThreadPool threads = new ThreadPool(numberOfThreads)) {
-            while (true) {
-                VertexMirror vertex = schedule.poll();
-                if (vertex == null) {
-                    break;
-                }
-                Invariants.require(finished.contains(vertex) == false);
-                Invariants.require(vertex.getInputs().stream()
-                        .flatMap(p -> p.getOpposites().stream())
-                        .map(PortMirror::getOwner)
-                        .allMatch(finished::contains));
-                VertexExecutor child = new VertexExecutor(context, vertex, edges, threads.executor, numberOfThreads);
-                child.run();
-                finished.add(vertex);
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("completed: vertices={}/{} ({})", finished.size(), numberOfVertices, edges);
-                }
+            if (this.numberOfVertices <= 1) {
+                runSequential(root, schedule, threads, finished);
+            } else {
+                runConcurrent(root, schedule, threads, finished);
             }
         }
         Invariants.require(finished.size() == numberOfVertices);
@@ -111,16 +183,194 @@ public class GraphExecutor implements InterruptibleIo.IoRunnable {
                 System.currentTimeMillis() - start));
     }
 
+    private BroadcastInputCache newBroadcastInputCache() {
+        BroadcastInputCache cache = new BroadcastInputCache();
+        for (VertexMirror vertex : graph.getVertices()) {
+            for (InputPortMirror port : vertex.getInputs()) {
+                if (port.getMovement() != Movement.BROADCAST || port.getOpposites().isEmpty()) {
+                    continue;
+                }
+                // consumers of the same upstream outputs can share their objects
+                Set<PortId> source = port.getOpposites().stream()
+                        .map(PortMirror::getId)
+                        .collect(Collectors.toSet());
+                cache.register(vertex.getId().getName(), port.getId().getName(), source);
+            }
+        }
+        return cache;
+    }
+
+    private void runSequential(
+            ProcessorContext root, VertexScheduler.Stream schedule, ThreadPool threads,
+            Set<VertexMirror> finished) throws IOException, InterruptedException {
+        while (true) {
+            VertexMirror vertex = schedule.poll();
+            if (vertex == null) {
+                break;
+            }
+            Invariants.require(finished.contains(vertex) == false);
+            Invariants.require(isReady(vertex, finished));
+            VertexExecutor child = new VertexExecutor(root, vertex, edges, threads.executor, numberOfThreads);
+            child.run();
+            finished.add(vertex);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("completed: vertices={}/{} ({})", finished.size(), graph.getVertices().size(), edges);
+            }
+        }
+    }
+
+    private void runConcurrent(
+            ProcessorContext root, VertexScheduler.Stream schedule, ThreadPool threads,
+            Set<VertexMirror> finished) throws IOException, InterruptedException {
+        // keeps the scheduled order as the priority of individual vertices
+        List<VertexMirror> pending = new LinkedList<>();
+        while (true) {
+            VertexMirror vertex = schedule.poll();
+            if (vertex == null) {
+                break;
+            }
+            pending.add(vertex);
+        }
+        Map<VertexMirror, VertexExecutor> running = new HashMap<>();
+        try (ThreadPool drivers = new ThreadPool(numberOfVertices, "vanilla-vertex-%d")) { //$NON-NLS-1$
+            // receives vertex completions, and activations of running vertices which pipelined vertices wait for
+            BlockingQueue<Future<VertexMirror>> signals = new LinkedBlockingQueue<>();
+            CompletionService<VertexMirror> completion = new ExecutorCompletionService<>(drivers.executor, signals);
+            while (pending.isEmpty() == false || running.isEmpty() == false) {
+                for (Iterator<VertexMirror> iter = pending.iterator();
+                        iter.hasNext() && running.size() < numberOfVertices;) {
+                    VertexMirror vertex = iter.next();
+                    boolean pipelined;
+                    if (isReady(vertex, finished)) {
+                        pipelined = false;
+                    } else if (isPipelineReady(vertex, finished, running)) {
+                        pipelined = true;
+                    } else {
+                        continue;
+                    }
+                    // pipelined vertices consume the upstream buffers, so that they are always admissible
+                    if (pipelined == false && running.isEmpty() == false && isAdmissible() == false) {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("deferred: {} ({})", vertex.getId().getName(), edges);
+                        }
+                        // never admit lower priority vertices before the deferred one
+                        break;
+                    }
+                    iter.remove();
+                    VertexExecutor child = new VertexExecutor(root, vertex, edges, threads.executor, numberOfThreads);
+                    child.setActivationListener(() -> signals.add(ACTIVATED));
+                    running.put(vertex, child);
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("admitted: {} (running={}/{}, pipelined={})",
+                                vertex.getId().getName(), running.size(), numberOfVertices, pipelined);
+                    }
+                    completion.submit(() -> {
+                        child.run();
+                        return vertex;
+                    });
+                }
+                Invariants.require(running.isEmpty() == false);
+                // pipelined vertices may become ready without any completion
+                VertexMirror done = take(completion);
+                if (done == null) {
+                    continue;
+                }
+                running.remove(done);
+                finished.add(done);
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("completed: vertices={}/{} ({})", finished.size(), graph.getVertices().size(), edges);
+                }
+            }
+        }
+    }
+
+    private static boolean isReady(VertexMirror vertex, Set<VertexMirror> finished) {
+        return vertex.getInputs().stream()
+                .flatMap(p -> p.getOpposites().stream())
+                .map(PortMirror::getOwner)
+                .allMatch(finished::contains);
+    }
+
+    private boolean isPipelineReady(
+            VertexMirror vertex, Set<VertexMirror> finished, Map<VertexMirror, VertexExecutor> running) {
+        for (InputPortMirror port : vertex.getInputs()) {
+            boolean pipelined = edges.isPipelined(port.getId());
+            for (OutputPortMirror upstream : port.getOpposites()) {
+                VertexMirror owner = upstream.getOwner();
+                if (finished.contains(owner)) {
+                    continue;
+                }
+                // the upstream tasks must occupy their threads before the downstream tasks wait for them
+                VertexExecutor executor = running.get(owner);
+                if (pipelined == false || executor == null || executor.isActive() == false) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isAdmissible() {
+        return pool == null || pool.getSize() < poolThreshold;
+    }
+
+    private static VertexMirror take(
+            CompletionService<VertexMirror> completion) throws IOException, InterruptedException {
+        Future<VertexMirror> next = completion.take();
+        if (next == ACTIVATED) {
+            return null;
+        }
+        try {
+            return next.get();
+        } catch (ExecutionException e) {
+            Throwable t = e.getCause();
+            Lang.rethrow(t, Error.class);
+            Lang.rethrow(t, RuntimeException.class);
+            Lang.rethrow(t, IOException.class);
+            Lang.rethrow(t, InterruptedException.class);
+            throw new IOException(t);
+        }
+    }
+
+    private static final class GraphContext implements ForwardProcessorContext {
+
+        private final ProcessorContext forward;
+
+        private final BroadcastInputCache broadcastInputCache;
+
+        GraphContext(ProcessorContext forward, BroadcastInputCache broadcastInputCache) {
+            this.forward = forward;
+            this.broadcastInputCache = broadcastInputCache;
+        }
+
+        @Override
+        public ProcessorContext getForward() {
+            return forward;
+        }
+
+        @Override
+        public <T> Optional<T> getResource(Class<T> resourceType) {
+            if (resourceType == BroadcastInputCache.class) {
+                return Optional.of(resourceType.cast(broadcastInputCache));
+            }
+            return forward.getResource(resourceType);
+        }
+    }
+
     private static final class ThreadPool implements AutoCloseable {
 
         final ExecutorService executor;
 
         ThreadPool(int numberOfThreads) {
+            this(numberOfThreads, "vanilla-%d"); //$NON-NLS-1$
+        }
+
+        ThreadPool(int numberOfThreads, String nameFormat) {
             AtomicInteger counter = new AtomicInteger();
             this.executor = Executors.newFixedThreadPool(
                     numberOfThreads,
                     r -> Lang.let(new Thread(r), t -> {
-                        t.setName(String.format("vanilla-%d", counter.incrementAndGet())); //$NON-NLS-1$
+                        t.setName(String.format(nameFormat, counter.incrementAndGet()));
                         t.setDaemon(true);
                     }));
         }
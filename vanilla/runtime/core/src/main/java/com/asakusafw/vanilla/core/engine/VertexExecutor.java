@@ -31,6 +31,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -53,7 +54,9 @@ import com.asakusafw.dag.api.processor.VertexProcessor;
 import com.asakusafw.dag.api.processor.VertexProcessorContext;
 import com.asakusafw.dag.api.processor.basic.ForwardEdgeIoProcessorContext;
 import com.asakusafw.dag.api.processor.basic.ForwardProcessorContext;
+import com.asakusafw.dag.api.processor.extension.BroadcastInputCache;
 import com.asakusafw.dag.api.processor.extension.ProcessorContextDecorator;
+import com.asakusafw.dag.api.processor.extension.VertexThreads;
 import com.asakusafw.lang.utils.common.Arguments;
 import com.asakusafw.lang.utils.common.InterruptibleIo;
 import com.asakusafw.lang.utils.common.InterruptibleIo.Closer;
@@ -66,6 +69,7 @@ import com.asakusafw.vanilla.core.mirror.VertexMirror;
 /**
  * Executes vertices.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class VertexExecutor implements InterruptibleIo.IoRunnable {
 
@@ -81,6 +85,12 @@ public class VertexExecutor implements InterruptibleIo.IoRunnable {
 
     private final ProcessorContextDecorator decorator;
 
+    private final BroadcastInputCache broadcastInputCache;
+
+    private final AtomicInteger inactive = new AtomicInteger(-1);
+
+    private volatile Runnable activationListener;
+
     /**
      * Creates a new instance.
      * @param context the root context
@@ -106,6 +116,7 @@ public class VertexExecutor implements InterruptibleIo.IoRunnable {
         this.numberOfThreads = numberOfThreads;
         this.decorator = context.getResource(ProcessorContextDecorator.class)
                 .orElse(ProcessorContextDecorator.NULL);
+        this.broadcastInputCache = context.getResource(BroadcastInputCache.class).orElse(null);
     }
 
     @Override
@@ -135,9 +146,36 @@ public class VertexExecutor implements InterruptibleIo.IoRunnable {
         }
     }
 
+    /**
+     * Returns whether or not all task executors of this vertex have been started.
+     * @return {@code true} if they have been started, otherwise {@code false}
+     */
+    boolean isActive() {
+        return inactive.get() == 0;
+    }
+
+    /**
+     * Sets a listener which will be invoked when all task executors of this vertex have been started.
+     * This must be called before {@link #run()}.
+     * @param listener the listener
+     */
+    void setActivationListener(Runnable listener) {
+        Arguments.requireNonNull(listener);
+        this.activationListener = listener;
+    }
+
+    private void started() {
+        Runnable listener = activationListener;
+        if (inactive.decrementAndGet() == 0 && listener != null) {
+            listener.run();
+        }
+    }
+
     private List<TaskProcessorContext> doInitialize(
             VertexProcessor processor) throws IOException, InterruptedException {
-        VertexProcessorContext vContext = decorator.bless(new VertexContext(context, vertex));
+        // vertex processors can use the worker threads while initializing themselves
+        VertexThreads threads = new VertexThreads(executor, numberOfThreads);
+        VertexProcessorContext vContext = decorator.bless(new VertexContext(context, vertex, threads));
 
         if (LOG.isDebugEnabled()) {
             LOG.debug("initialize vertex: processor={}, vertex={}",
@@ -150,6 +188,9 @@ public class VertexExecutor implements InterruptibleIo.IoRunnable {
         for (PortMirror port : vertex.getInputs()) {
             if (port.getMovement() == Movement.BROADCAST) {
                 context.complete(port.getId());
+                if (broadcastInputCache != null) {
+                    broadcastInputCache.release(vertex.getId().getName(), port.getId().getName());
+                }
             }
         }
 
@@ -188,8 +229,9 @@ public class VertexExecutor implements InterruptibleIo.IoRunnable {
                     numberOfThreads);
         }
         BlockingQueue<TaskProcessorContext> queue = new LinkedBlockingQueue<>(tasks);
+        inactive.set(concurrency);
         runTasks(Lang.let(new ArrayList<>(), it -> Lang.repeat(concurrency, () -> {
-            it.add(new TaskExecutor(vertex, processor, queue));
+            it.add(new TaskExecutor(vertex, processor, queue, this::started));
         })));
     }
 
@@ -199,7 +241,16 @@ public class VertexExecutor implements InterruptibleIo.IoRunnable {
                     label,
                     vertex.getId().getName());
         }
-        runTasks(Stream.concat(vertex.getInputs().stream(), vertex.getOutputs().stream())
+        // one-to-one outputs may be pipelined to the running downstream vertices,
+        // so that we complete them without waiting for the shared threads which the downstream tasks may occupy
+        for (PortMirror port : vertex.getOutputs()) {
+            if (port.getMovement() == Movement.ONE_TO_ONE) {
+                context.complete(port.getId());
+            }
+        }
+        runTasks(Stream.concat(
+                    vertex.getInputs().stream(),
+                    vertex.getOutputs().stream().filter(it -> it.getMovement() != Movement.ONE_TO_ONE))
                 .<InterruptibleIo.IoRunnable>map(it -> () -> context.complete(it.getId()))
                 .collect(Collectors.toList()));
     }
@@ -312,9 +363,12 @@ public class VertexExecutor implements InterruptibleIo.IoRunnable {
 
         private final String id;
 
-        VertexContext(EdgeIoContext forward, VertexMirror vertex) {
+        private final VertexThreads threads;
+
+        VertexContext(EdgeIoContext forward, VertexMirror vertex, VertexThreads threads) {
             this.forward = forward;
             this.id = vertex.getId().getName();
+            this.threads = threads;
         }
 
         @Override
@@ -322,6 +376,14 @@ public class VertexExecutor implements InterruptibleIo.IoRunnable {
             return forward;
         }
 
+        @Override
+        public <T> Optional<T> getResource(Class<T> resourceType) {
+            if (resourceType == VertexThreads.class) {
+                return Optional.of(resourceType.cast(threads));
+            }
+            return forward.getResource(resourceType);
+        }
+
         @Override
         public String getVertexId() {
             return id;
@@ -385,20 +447,26 @@ public class VertexExecutor implements InterruptibleIo.IoRunnable {
 
         private final BlockingQueue<? extends TaskProcessorContext> queue;
 
+        private final Runnable started;
+
         TaskExecutor(
                 VertexMirror vertex,
                 VertexProcessor processor,
-                BlockingQueue<? extends TaskProcessorContext> queue) {
+                BlockingQueue<? extends TaskProcessorContext> queue,
+                Runnable started) {
             Arguments.requireNonNull(vertex);
             Arguments.requireNonNull(processor);
             Arguments.requireNonNull(queue);
+            Arguments.requireNonNull(started);
             this.vertex = vertex;
             this.processor = processor;
             this.queue = queue;
+            this.started = started;
         }
 
         @Override
         public void run() throws IOException, InterruptedException {
+            started.run();
             try (Closer closer = new Closer()) {
                 TaskProcessor taskProcessor = null;
                 while (true) {
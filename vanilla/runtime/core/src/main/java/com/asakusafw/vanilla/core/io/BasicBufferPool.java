@@ -23,6 +23,7 @@ import java.util.NavigableSet;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
@@ -30,6 +31,7 @@ import org.slf4j.LoggerFactory;
 
 import com.asakusafw.dag.api.common.Reportable;
 import com.asakusafw.lang.utils.common.Arguments;
+import com.asakusafw.lang.utils.common.InterruptibleIo;
 import com.asakusafw.lang.utils.common.InterruptibleIo.Closer;
 import com.asakusafw.lang.utils.common.Invariants;
 import com.asakusafw.vanilla.core.io.DataReader.Provider;
@@ -39,8 +41,9 @@ import com.asakusafw.vanilla.core.util.SystemProperty;
 /**
  * A basic implementation of {@link BufferPool}.
  * @since 0.4.0
+ * @version 0.5.3
  */
-public class BasicBufferPool implements BufferPool, Reportable {
+public class BasicBufferPool implements BufferPool, Reportable, InterruptibleIo {
 
     static final String KEY_PREFIX = "com.asakusafw.vanilla.pool."; //$NON-NLS-1$
 
@@ -62,29 +65,94 @@ public class BasicBufferPool implements BufferPool, Reportable {
 
     private final Statistics statistics;
 
+    private final long highWater;
+
+    private final long lowWater;
+
+    private final Swapper swapper;
+
+    private final BufferArena arena;
+
     /**
      * Creates a new instance.
      * @param limit the soft limit size of the buffer pool in bytes
      * @param store the buffer store to accept buffers flood from this pool
      */
     public BasicBufferPool(long limit, BufferStore store) {
+        this(limit, store, 1.0, 1.0);
+    }
+
+    /**
+     * Creates a new instance.
+     * If {@code highWaterMark} is less than {@code 1.0}, this starts a background thread, which swaps out the
+     * registered buffers after the pool size exceeds {@code limit * highWaterMark},
+     * until it becomes {@code limit * lowWaterMark} or less.
+     * Then, the clients will only block while the pool size exceeds {@code limit}.
+     * The background thread will be stopped when this pool is {@link #close() closed}.
+     * @param limit the soft limit size of the buffer pool in bytes
+     * @param store the buffer store to accept buffers flood from this pool
+     * @param highWaterMark the fraction of {@code limit} to start swapping out in background
+     * @param lowWaterMark the fraction of {@code limit} to stop swapping out in background
+     * @since 0.5.3
+     */
+    public BasicBufferPool(long limit, BufferStore store, double highWaterMark, double lowWaterMark) {
+        this(limit, store, highWaterMark, lowWaterMark, null);
+    }
+
+    /**
+     * Creates a new instance.
+     * If {@code arena} is set, buffers {@link #allocate(BufferPool.Ticket, int) allocated} from this pool are
+     * recycled via the arena after their tickets are closed.
+     * @param limit the soft limit size of the buffer pool in bytes
+     * @param store the buffer store to accept buffers flood from this pool
+     * @param highWaterMark the fraction of {@code limit} to start swapping out in background
+     * @param lowWaterMark the fraction of {@code limit} to stop swapping out in background
+     * @param arena the buffer arena (nullable)
+     * @since 0.5.3
+     * @see #BasicBufferPool(long, BufferStore, double, double)
+     */
+    public BasicBufferPool(
+            long limit, BufferStore store,
+            double highWaterMark, double lowWaterMark,
+            BufferArena arena) {
         Arguments.requireNonNull(store);
+        Arguments.require(lowWaterMark >= 0.0);
+        Arguments.require(lowWaterMark <= highWaterMark);
         this.limit = limit;
         this.store = store;
         this.statistics = new Statistics(limit);
+        this.arena = arena;
+        if (highWaterMark < 1.0) {
+            this.highWater = (long) (limit * highWaterMark);
+            this.lowWater = (long) (limit * lowWaterMark);
+            this.swapper = new Swapper();
+            this.swapper.start();
+        } else {
+            this.highWater = limit;
+            this.lowWater = limit;
+            this.swapper = null;
+        }
     }
 
+    /**
+     * Returns the estimated total buffer size in this pool.
+     * This includes the buffers which are retained in the arena for recycling.
+     * @return the pool size in bytes
+     */
     @Override
     public long getSize() {
-        return reserved.get();
+        return arena == null ? reserved.get() : reserved.get() + arena.getSize();
     }
 
     @Override
     public BufferPool.Ticket reserve(long size) throws IOException, InterruptedException {
         Arguments.require(size >= 0);
+        if (swapper != null) {
+            swapper.check();
+        }
         reserved.addAndGet(size);
         try (Closer closer = new Closer()) {
-            Ticket t = new Ticket(reserved, size);
+            Ticket t = new Ticket(reserved, size, arena);
             closer.add(t);
             escape();
             closer.keep();
@@ -95,6 +163,24 @@ public class BasicBufferPool implements BufferPool, Reportable {
         }
     }
 
+    @Override
+    public ByteBuffer allocate(BufferPool.Ticket ticket, int size) {
+        Arguments.requireNonNull(ticket);
+        Arguments.require(size >= 0);
+        if (arena == null || ticket instanceof Ticket == false) {
+            return Buffers.allocate(size);
+        }
+        ByteBuffer buffer = arena.allocate(size);
+        // charges only the requested size, and the ticket keeps the whole buffer for recycling
+        Ticket t = (Ticket) ticket;
+        t.grow(size);
+        t.attach(buffer);
+        if (swapper != null && getSize() > highWater) {
+            swapper.request();
+        }
+        return Buffers.slice(buffer);
+    }
+
     @Override
     public DataReader.Provider register(BufferPool.Ticket ticket, ByteBuffer buffer) {
         return register(ticket, buffer, DEFAULT_PRIORITY);
@@ -106,32 +192,63 @@ public class BasicBufferPool implements BufferPool, Reportable {
         Arguments.requireNonNull(buffer);
         ByteBuffer b = Buffers.shrink(buffer);
         if (ticket instanceof Ticket) {
-            ((Ticket) ticket).shrink(b.capacity());
+            Ticket t = (Ticket) ticket;
+            t.shrink(b.capacity());
+            if (b.capacity() < buffer.capacity()) {
+                // the original buffer is no longer used because its contents were copied
+                t.recycle();
+            }
         }
         Entry entry = new Entry(registered, statistics, b, ticket, priority);
         registered.add(entry);
         if (LOG.isDebugEnabled()) {
             statistics.registered(ticket.getSize());
         }
+        if (swapper != null && getSize() > highWater) {
+            swapper.request();
+        }
         return entry;
     }
 
     private void escape() throws IOException, InterruptedException {
-        while (reserved.get() > limit) {
+        swapOut(limit, false);
+        if (swapper != null && getSize() > highWater) {
+            swapper.request();
+        }
+        if (LOG.isDebugEnabled()) {
+            statistics.total(getSize());
+        }
+        if (LOG.isTraceEnabled()) {
+            LOG.trace(toString());
+        }
+    }
+
+    private void swapOut(long threshold, boolean async) throws IOException, InterruptedException {
+        // evicts the recycled buffers before swapping out the live ones
+        if (arena != null && getSize() > threshold) {
+            arena.evict(getSize() - threshold);
+        }
+        while (getSize() > threshold) {
             Entry next = registered.pollFirst();
             if (next == null) {
                 break;
             }
             long size = next.storeTo(store);
             if (LOG.isDebugEnabled()) {
-                statistics.stored(size);
+                if (async) {
+                    statistics.storedAsync(size);
+                } else {
+                    statistics.stored(size);
+                }
             }
         }
-        if (LOG.isDebugEnabled()) {
-            statistics.total(reserved.get());
-        }
-        if (LOG.isTraceEnabled()) {
-            LOG.trace(toString());
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException {
+        if (swapper != null) {
+            swapper.close();
+            swapper.check();
         }
     }
 
@@ -139,12 +256,81 @@ public class BasicBufferPool implements BufferPool, Reportable {
     public void report() {
         if (LOG.isDebugEnabled()) {
             statistics.report();
+            if (arena != null) {
+                arena.report();
+            }
         }
     }
 
     @Override
     public String toString() {
-        return String.format("BufferPool(%,d/%,dbytes)", reserved.get(), limit); //$NON-NLS-1$
+        return String.format("BufferPool(%,d/%,dbytes)", getSize(), limit); //$NON-NLS-1$
+    }
+
+    private final class Swapper implements Runnable {
+
+        private final Thread thread;
+
+        private boolean requested;
+
+        private boolean closed;
+
+        private volatile Throwable failure;
+
+        Swapper() {
+            this.thread = new Thread(this, "vanilla-swap"); //$NON-NLS-1$
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        synchronized void request() {
+            if (requested == false) {
+                requested = true;
+                notifyAll();
+            }
+        }
+
+        private synchronized boolean await() throws InterruptedException {
+            while (requested == false && closed == false) {
+                wait();
+            }
+            requested = false;
+            return closed == false;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (await()) {
+                    LOG.trace("start swapping out: {}", BasicBufferPool.this); //$NON-NLS-1$
+                    swapOut(lowWater, true);
+                    LOG.trace("finish swapping out: {}", BasicBufferPool.this); //$NON-NLS-1$
+                }
+            } catch (InterruptedException e) {
+                LOG.debug("swapper was interrupted", e); //$NON-NLS-1$
+            } catch (IOException | RuntimeException e) {
+                LOG.error("error occurred while swapping out buffers", e);
+                failure = e;
+            }
+        }
+
+        void check() throws IOException {
+            Throwable t = failure;
+            if (t != null) {
+                throw new IOException("error occurred while swapping out buffers", t);
+            }
+        }
+
+        void close() throws InterruptedException {
+            synchronized (this) {
+                closed = true;
+                notifyAll();
+            }
+            thread.join();
+        }
     }
 
     private static final class Ticket implements BufferPool.Ticket {
@@ -153,10 +339,44 @@ public class BasicBufferPool implements BufferPool, Reportable {
 
         private final AtomicLong size;
 
-        Ticket(AtomicLong total, long size) {
+        private final BufferArena arena;
+
+        private final AtomicReference<ByteBuffer> buffer;
+
+        Ticket(AtomicLong total, long size, BufferArena arena) {
+            this(total, size, arena, null);
+        }
+
+        private Ticket(AtomicLong total, long size, BufferArena arena, ByteBuffer buffer) {
             assert size >= 0;
             this.total = total;
             this.size = new AtomicLong(size);
+            this.arena = arena;
+            this.buffer = new AtomicReference<>(buffer);
+        }
+
+        void attach(ByteBuffer newBuffer) {
+            Invariants.require(buffer.compareAndSet(null, newBuffer));
+        }
+
+        void recycle() {
+            ByteBuffer b = buffer.getAndSet(null);
+            if (b != null && arena != null) {
+                arena.release(b);
+            }
+        }
+
+        void grow(int newSize) {
+            while (true) {
+                long oldSize = size.get();
+                if (newSize <= oldSize) {
+                    break;
+                }
+                if (size.compareAndSet(oldSize, newSize)) {
+                    total.addAndGet(newSize - oldSize);
+                    break;
+                }
+            }
         }
 
         void shrink(int newSize) {
@@ -179,12 +399,13 @@ public class BasicBufferPool implements BufferPool, Reportable {
 
         @Override
         public BufferPool.Ticket move() {
-            return new Ticket(total, size.getAndSet(0L));
+            return new Ticket(total, size.getAndSet(0L), arena, buffer.getAndSet(null));
         }
 
         @Override
         public void close() {
             total.addAndGet(-size.getAndSet(0L));
+            recycle();
         }
     }
 
@@ -208,6 +429,8 @@ public class BasicBufferPool implements BufferPool, Reportable {
 
         private int acquired = 0;
 
+        private boolean closed;
+
         private boolean deferStore;
 
         private DataReader.Provider stored;
@@ -245,8 +468,13 @@ public class BasicBufferPool implements BufferPool, Reportable {
             }
         }
 
-        synchronized void release() {
+        synchronized void release() throws IOException, InterruptedException {
             acquired--;
+            // the ticket may recycle the buffer, so that it must be closed after all readers were released
+            if (acquired == 0 && closed) {
+                ticket.close();
+                return;
+            }
             // re-activate storeTo()
             if (acquired == 0 && deferStore && buffer != null) {
                 deferStore = false;
@@ -309,7 +537,10 @@ public class BasicBufferPool implements BufferPool, Reportable {
                 }
                 queue.remove(this);
             } finally {
-                ticket.close();
+                closed = true;
+                if (acquired == 0) {
+                    ticket.close();
+                }
             }
         }
     }
@@ -330,6 +561,8 @@ public class BasicBufferPool implements BufferPool, Reportable {
 
         private final Item swapWrite = new Item("swap write"); //$NON-NLS-1$
 
+        private final Item swapWriteAsync = new Item("swap write (background)"); //$NON-NLS-1$
+
         Statistics(long limit) {
             this.limit = limit;
         }
@@ -356,6 +589,10 @@ public class BasicBufferPool implements BufferPool, Reportable {
             swapWrite.record(size);
         }
 
+        void storedAsync(long size) {
+            swapWriteAsync.record(size);
+        }
+
         void readBuffer(long size) {
             bufferRead.record(size);
         }
@@ -375,6 +612,7 @@ public class BasicBufferPool implements BufferPool, Reportable {
             bufferRead.show();
             swapRead.show();
             swapWrite.show();
+            swapWriteAsync.show();
         }
 
         private static final class Item {
@@ -18,8 +18,19 @@ package com.asakusafw.vanilla.core.io;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.text.MessageFormat;
 import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
@@ -27,6 +38,7 @@ import org.slf4j.LoggerFactory;
 
 import com.asakusafw.lang.utils.common.Arguments;
 import com.asakusafw.lang.utils.common.InterruptibleIo;
+import com.asakusafw.vanilla.core.util.Buffers;
 import com.asakusafw.vanilla.core.util.SystemProperty;
 
 /**
@@ -40,6 +52,8 @@ public class BasicBufferStore implements BufferStore, InterruptibleIo {
 
     static final int DEFAULT_PARTITION = 0;
 
+    static final int DEFAULT_READ_AHEAD_THREADS = 1;
+
     private final AtomicInteger counter = new AtomicInteger();
 
     private final File directory;
@@ -48,6 +62,14 @@ public class BasicBufferStore implements BufferStore, InterruptibleIo {
 
     final ByteChannelDecorator decorator;
 
+    private final int readAheadSize;
+
+    private final long memoryMapThreshold;
+
+    private final ThreadPoolExecutor readAheadExecutor;
+
+    private volatile BufferPool readAheadPool;
+
     /**
      * Creates a new instance.
      */
@@ -81,11 +103,67 @@ public class BasicBufferStore implements BufferStore, InterruptibleIo {
      * @since 0.5.3
      */
     public BasicBufferStore(File base, int division, ByteChannelDecorator decorator) {
+        this(base, division, decorator, 0);
+    }
+
+    /**
+     * Creates a new instance.
+     * If {@code readAheadSize} is greater than {@code 0}, readers of the stored contents read their next block
+     * in background.
+     * @param base the base directory
+     * @param division the maximum number of files in each sub-directory, or {@code 0} to disabled
+     * @param decorator the decorator for load/store operation
+     * @param readAheadSize the read-ahead block size in bytes, or {@code 0} to disable read-ahead
+     * @since 0.5.3
+     */
+    public BasicBufferStore(File base, int division, ByteChannelDecorator decorator, int readAheadSize) {
+        this(base, division, decorator, readAheadSize, DEFAULT_READ_AHEAD_THREADS, 0L);
+    }
+
+    /**
+     * Creates a new instance.
+     * If {@code readAheadSize} is greater than {@code 0}, readers of the stored contents read their next block
+     * in background, on at most {@code readAheadThreads} threads.
+     * If {@code memoryMapThreshold} is greater than {@code 0} and the {@code decorator} is
+     * {@link ByteChannelDecorator#isTransparent() transparent}, the stored contents which are larger than or equal
+     * to the threshold are mapped into memory, and their readers directly provide the mapped buffer.
+     * @param base the base directory
+     * @param division the maximum number of files in each sub-directory, or {@code 0} to disabled
+     * @param decorator the decorator for load/store operation
+     * @param readAheadSize the read-ahead block size in bytes, or {@code 0} to disable read-ahead
+     * @param readAheadThreads the max number of threads to read blocks ahead
+     * @param memoryMapThreshold the minimum file size in bytes to map into memory, or {@code 0} to disable it
+     * @since 0.5.3
+     */
+    public BasicBufferStore(
+            File base, int division, ByteChannelDecorator decorator,
+            int readAheadSize, int readAheadThreads, long memoryMapThreshold) {
+        Arguments.require(readAheadSize >= 0);
+        Arguments.require(readAheadThreads >= 1);
+        Arguments.require(memoryMapThreshold >= 0);
         this.directory = new File(
                 base != null ? base : SystemProperty.getTemporaryDirectory(),
                 String.format("asakusa-%s.tmp", UUID.randomUUID()));
         this.division = division;
         this.decorator = decorator;
+        this.readAheadSize = readAheadSize;
+        this.memoryMapThreshold = decorator.isTransparent() ? memoryMapThreshold : 0L;
+        if (readAheadSize > 0) {
+            AtomicInteger threads = new AtomicInteger();
+            this.readAheadExecutor = new ThreadPoolExecutor(
+                    readAheadThreads, readAheadThreads,
+                    1L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    r -> {
+                        Thread t = new Thread(r);
+                        t.setName(String.format("vanilla-read-ahead-%d", threads.incrementAndGet())); //$NON-NLS-1$
+                        t.setDaemon(true);
+                        return t;
+                    });
+            this.readAheadExecutor.allowCoreThreadTimeOut(true);
+        } else {
+            this.readAheadExecutor = null;
+        }
     }
 
     /**
@@ -114,7 +192,17 @@ public class BasicBufferStore implements BufferStore, InterruptibleIo {
         if (LOG.isTraceEnabled()) {
             LOG.trace("saving buffer: {}bytes -> {} ({}bytes)", rawSize, file, file.length());
         }
-        return new FileEntry(file, decorator);
+        return new FileEntry(file);
+    }
+
+    /**
+     * Sets the buffer pool to reserve the read-ahead blocks.
+     * If it is not set, the read-ahead blocks are allocated outside of any buffer pools.
+     * @param pool the buffer pool, or {@code null} to reset it
+     * @since 0.5.3
+     */
+    public void setReadAheadPool(BufferPool pool) {
+        this.readAheadPool = pool;
     }
 
     /**
@@ -141,8 +229,43 @@ public class BasicBufferStore implements BufferStore, InterruptibleIo {
         return new File(dir, String.format("%d.buf", id)); //$NON-NLS-1$
     }
 
+    MappedByteBuffer map(File file) throws IOException {
+        long size = file.length();
+        if (memoryMapThreshold == 0L || size < memoryMapThreshold || size > Integer.MAX_VALUE) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // the mapping is still valid after the channel was closed
+            MappedByteBuffer mapped = channel.map(MapMode.READ_ONLY, 0, size);
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("mapping buffer: {} ({}bytes)", file, size);
+            }
+            return mapped;
+        }
+    }
+
+    DataReader open(File file) throws IOException, InterruptedException {
+        if (readAheadExecutor == null) {
+            return ByteChannelReader.open(file.toPath(), decorator);
+        }
+        try (Closer closer = new Closer()) {
+            ReadableByteChannel channel = Files.newByteChannel(file.toPath(), StandardOpenOption.READ);
+            closer.add(channel::close);
+            ReadableByteChannel decorated = decorator.decorate(channel);
+            BufferPool pool = readAheadPool;
+            DataReader result = new ByteChannelReader(pool == null
+                    ? new ReadAheadByteChannel(decorated, readAheadExecutor, readAheadSize)
+                    : new ReadAheadByteChannel(decorated, readAheadExecutor, readAheadSize, pool));
+            closer.keep();
+            return result;
+        }
+    }
+
     @Override
     public void close() {
+        if (readAheadExecutor != null) {
+            readAheadExecutor.shutdownNow();
+        }
         delete(directory);
     }
 
@@ -181,6 +304,12 @@ public class BasicBufferStore implements BufferStore, InterruptibleIo {
 
         private ByteChannelDecorator decorator = NullByteChannelDecorator.INSTANCE;
 
+        private int readAheadSize = 0;
+
+        private int readAheadThreads = DEFAULT_READ_AHEAD_THREADS;
+
+        private long memoryMapThreshold = 0L;
+
         /**
          * Sets the directory.
          * @param newValue the directory
@@ -212,12 +341,47 @@ public class BasicBufferStore implements BufferStore, InterruptibleIo {
             return this;
         }
 
+        /**
+         * Sets the read-ahead block size.
+         * @param newValue the block size in bytes, or {@code 0} to disable read-ahead
+         * @return this
+         * @since 0.5.3
+         */
+        public Builder withReadAhead(int newValue) {
+            this.readAheadSize = newValue;
+            return this;
+        }
+
+        /**
+         * Sets the max number of threads to read blocks ahead.
+         * @param newValue the number of threads
+         * @return this
+         * @since 0.5.3
+         */
+        public Builder withReadAheadThreads(int newValue) {
+            this.readAheadThreads = newValue;
+            return this;
+        }
+
+        /**
+         * Sets the minimum file size to map into memory.
+         * @param newValue the file size in bytes, or {@code 0} to disable memory mapped reads
+         * @return this
+         * @since 0.5.3
+         */
+        public Builder withMemoryMap(long newValue) {
+            this.memoryMapThreshold = newValue;
+            return this;
+        }
+
         /**
          * Builds a {@link BasicBufferStore}.
          * @return the created instance
          */
         public BasicBufferStore build() {
-            return new BasicBufferStore(directory, division, decorator);
+            return new BasicBufferStore(
+                    directory, division, decorator,
+                    readAheadSize, readAheadThreads, memoryMapThreshold);
         }
     }
 
@@ -244,7 +408,7 @@ public class BasicBufferStore implements BufferStore, InterruptibleIo {
             if (LOG.isTraceEnabled()) {
                 LOG.trace("commit BLOB: {} ({}bytes)", file, file.length());
             }
-            return new FileEntry(file, decorator);
+            return new FileEntry(file);
         }
 
     }
@@ -291,24 +455,79 @@ public class BasicBufferStore implements BufferStore, InterruptibleIo {
         }
     }
 
-    private static final class FileEntry implements DataReader.Provider {
+    private final class FileEntry implements DataReader.Provider {
 
         final File file;
 
-        private final ByteChannelDecorator decorator;
+        private MappedByteBuffer mapped;
+
+        private boolean mapAttempted = false;
+
+        private int acquired = 0;
+
+        private boolean closed = false;
 
-        FileEntry(File file, ByteChannelDecorator decorator) {
+        FileEntry(File file) {
             this.file = file;
-            this.decorator = decorator;
         }
 
         @Override
         public DataReader open() throws IOException, InterruptedException {
-            return ByteChannelReader.open(file.toPath(), decorator);
+            synchronized (this) {
+                // shares the mapped buffer between individual readers, like broadcast inputs
+                if (mapAttempted == false) {
+                    mapAttempted = true;
+                    mapped = BasicBufferStore.this.map(file);
+                }
+                if (mapped != null) {
+                    AtomicBoolean released = new AtomicBoolean();
+                    acquired++;
+                    ByteBuffer buffer = Buffers.duplicate(mapped).order(ByteOrder.nativeOrder());
+                    return new ByteBufferReader(buffer, () -> {
+                        if (released.compareAndSet(false, true)) {
+                            release();
+                        }
+                    });
+                }
+            }
+            return BasicBufferStore.this.open(file);
+        }
+
+        private void release() {
+            synchronized (this) {
+                acquired--;
+                if (acquired > 0 || closed == false) {
+                    return;
+                }
+            }
+            // the mapping must be released before deleting the file on some platforms
+            dispose();
         }
 
         @Override
-        public void close() throws IOException {
+        public void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                if (acquired > 0) {
+                    // the last reader will dispose this entry
+                    return;
+                }
+            }
+            dispose();
+        }
+
+        private void dispose() {
+            MappedByteBuffer buffer;
+            synchronized (this) {
+                buffer = mapped;
+                mapped = null;
+            }
+            if (buffer != null) {
+                Buffers.unmap(buffer);
+            }
             if (file.delete() == false && file.exists()) {
                 LOG.warn(MessageFormat.format(
                         "failed to delete a temporary file: {0}",
@@ -0,0 +1,191 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.vanilla.core.io;
+
+import java.nio.ByteBuffer;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.asakusafw.dag.api.common.Reportable;
+import com.asakusafw.lang.utils.common.Arguments;
+import com.asakusafw.vanilla.core.util.Buffers;
+
+/**
+ * Recycles {@link ByteBuffer}s by their power-of-two size classes.
+ * @since 0.5.3
+ */
+public class BufferArena implements Reportable {
+
+    static final Logger LOG = LoggerFactory.getLogger(BufferArena.class);
+
+    static final int MIN_CLASS = 12;
+
+    static final int MAX_CLASS = 30;
+
+    private final long capacity;
+
+    private final AtomicLong retained = new AtomicLong();
+
+    private final List<Queue<ByteBuffer>> classes;
+
+    private final LongAdder hit = new LongAdder();
+
+    private final LongAdder miss = new LongAdder();
+
+    private final LongAdder recycled = new LongAdder();
+
+    private final LongAdder discarded = new LongAdder();
+
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * Creates a new instance.
+     * @param capacity the max total size of the retained buffers in bytes
+     */
+    public BufferArena(long capacity) {
+        Arguments.require(capacity >= 0);
+        this.capacity = capacity;
+        this.classes = new ArrayList<>(MAX_CLASS - MIN_CLASS + 1);
+        for (int i = MIN_CLASS; i <= MAX_CLASS; i++) {
+            classes.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * Returns the total size of the retained buffers.
+     * @return the retained size in bytes
+     */
+    public long getSize() {
+        return retained.get();
+    }
+
+    /**
+     * Discards the retained buffers, from the larger ones, until the given size of buffers are discarded.
+     * @param size the size to discard in bytes
+     * @return the discarded size in bytes, may be {@code 0} if this does not retain any buffers
+     */
+    public long evict(long size) {
+        long rest = size;
+        for (int i = MAX_CLASS; i >= MIN_CLASS && rest > 0; i--) {
+            while (rest > 0) {
+                ByteBuffer buffer = getQueue(i).poll();
+                if (buffer == null) {
+                    break;
+                }
+                retained.addAndGet(-buffer.capacity());
+                evicted.increment();
+                rest -= buffer.capacity();
+            }
+        }
+        return size - rest;
+    }
+
+    /**
+     * Allocates a buffer.
+     * The returned buffer may have larger capacity than the requested size, but its limit is set to the size.
+     * @param size the required buffer size in bytes
+     * @return the allocated buffer
+     */
+    public ByteBuffer allocate(int size) {
+        Arguments.require(size >= 0);
+        int index = getClassIndex(size);
+        if (index < 0) {
+            miss.increment();
+            return Buffers.allocate(size);
+        }
+        ByteBuffer buffer = getQueue(index).poll();
+        if (buffer == null) {
+            miss.increment();
+            buffer = Buffers.allocate(1 << index);
+        } else {
+            hit.increment();
+            retained.addAndGet(-buffer.capacity());
+            buffer.clear();
+        }
+        buffer.limit(size);
+        return buffer;
+    }
+
+    /**
+     * Releases a buffer which was allocated by {@link #allocate(int)}.
+     * Clients must not use the buffer and any views of it after this operation.
+     * @param buffer the target buffer
+     */
+    public void release(ByteBuffer buffer) {
+        Arguments.requireNonNull(buffer);
+        int size = buffer.capacity();
+        int index = getClassIndex(size);
+        if (index < 0 || size != 1 << index) {
+            discarded.increment();
+            return;
+        }
+        if (retained.addAndGet(size) > capacity) {
+            retained.addAndGet(-size);
+            discarded.increment();
+            return;
+        }
+        recycled.increment();
+        getQueue(index).offer(buffer);
+    }
+
+    private Queue<ByteBuffer> getQueue(int index) {
+        return classes.get(index - MIN_CLASS);
+    }
+
+    private static int getClassIndex(int size) {
+        if (size > 1 << MAX_CLASS) {
+            return -1;
+        }
+        int index = Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1);
+        return Math.max(index, MIN_CLASS);
+    }
+
+    @Override
+    public void report() {
+        if (LOG.isDebugEnabled()) {
+            long hits = hit.longValue();
+            long total = hits + miss.longValue();
+            LOG.debug("buffer arena statistics:"); //$NON-NLS-1$
+            LOG.debug(MessageFormat.format(
+                    "  allocate: {0}/{1}hits ({2,number,percent})", //$NON-NLS-1$
+                    hits,
+                    total,
+                    total == 0 ? 0.0 : (double) hits / total));
+            LOG.debug(MessageFormat.format(
+                    "  release: {0}recycled, {1}discarded, {2}evicted", //$NON-NLS-1$
+                    recycled.longValue(),
+                    discarded.longValue(),
+                    evicted.longValue()));
+            LOG.debug(MessageFormat.format(
+                    "  retained: {0}/{1}bytes", //$NON-NLS-1$
+                    retained.get(),
+                    capacity));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BufferArena(%,d/%,dbytes)", retained.get(), capacity); //$NON-NLS-1$
+    }
+}
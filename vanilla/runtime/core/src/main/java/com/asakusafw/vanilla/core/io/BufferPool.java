@@ -19,12 +19,14 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 
 import com.asakusafw.lang.utils.common.InterruptibleIo;
+import com.asakusafw.vanilla.core.util.Buffers;
 
 /**
  * Represents a buffer pool.
  * Note that, the pool only manages its pool size, and does not implement {@link AutoCloseable}.
  * Framework developers must dispose each buffer out of the pool.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public interface BufferPool {
 
@@ -43,6 +45,20 @@ public interface BufferPool {
      */
     Ticket reserve(long size) throws IOException, InterruptedException;
 
+    /**
+     * Allocates a new buffer for the given ticket.
+     * The buffer may be recycled after the ticket was closed, so that clients must not use the buffer and any
+     * views of it after that. Note that, {@link Ticket#move()} also moves the ownership of the buffer.
+     * The returned buffer has just the requested capacity, but it may share the memory of a larger buffer.
+     * @param ticket the ticket which owns the buffer
+     * @param size the buffer size in bytes
+     * @return the allocated buffer
+     * @since 0.5.3
+     */
+    default ByteBuffer allocate(Ticket ticket, int size) {
+        return Buffers.allocate(size);
+    }
+
     /**
      * Registers the given buffer into this pool.
      * Clients must not change contents of the buffer after this operation.
@@ -21,12 +21,14 @@ import java.nio.ByteBuffer;
 /**
  * Represents a buffer store.
  * @since 0.4.0
+ * @version 0.5.3
  */
 @FunctionalInterface
 public interface BufferStore {
 
     /**
      * Stores the given buffer into this store.
+     * The given buffer may be reused after this operation, so that implementations must not keep it.
      * @param buffer the target buffer
      * @return the stored entry
      * @throws IOException if I/O error was occurred while saving the buffer
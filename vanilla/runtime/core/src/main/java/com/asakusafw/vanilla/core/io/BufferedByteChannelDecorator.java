@@ -28,6 +28,11 @@ import com.asakusafw.vanilla.core.util.BufferedWritableByteChannel;
  */
 public class BufferedByteChannelDecorator implements ByteChannelDecorator {
 
+    @Override
+    public boolean isTransparent() {
+        return true;
+    }
+
     @Override
     public ReadableByteChannel decorate(ReadableByteChannel channel) throws IOException {
         return new BufferedReadbleByteChannel(channel);
@@ -38,6 +38,16 @@ public interface ByteChannelDecorator {
         return;
     }
 
+    /**
+     * Returns whether or not this decorator keeps the original contents as is.
+     * If it is {@code true}, clients can directly read the files which were written via this decorator.
+     * @return {@code true} if this keeps the original contents, otherwise {@code false}
+     * @since 0.5.3
+     */
+    default boolean isTransparent() {
+        return false;
+    }
+
     /**
      * Decorates the given channel.
      * @param channel the source channel
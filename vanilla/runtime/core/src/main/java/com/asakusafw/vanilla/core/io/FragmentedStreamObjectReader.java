@@ -0,0 +1,80 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.vanilla.core.io;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import com.asakusafw.dag.api.common.Deserializer;
+import com.asakusafw.dag.api.processor.FragmentedObjectReader;
+import com.asakusafw.dag.api.processor.ObjectReader;
+import com.asakusafw.lang.utils.common.Arguments;
+
+/**
+ * An implementation of {@link FragmentedObjectReader} using {@link RecordCursor}.
+ * Each {@link RecordCursor} in the source stream is treated as a fragment.
+ * @since 0.5.3
+ */
+public class FragmentedStreamObjectReader extends StreamObjectReader implements FragmentedObjectReader {
+
+    private final RecordCursor.Stream cursors;
+
+    private final Supplier<? extends Deserializer> deserializers;
+
+    /**
+     * Creates a new instance.
+     * @param input the cursor stream
+     * @param deserializers the object deserializer supplier, which is called once for each reader
+     */
+    public FragmentedStreamObjectReader(RecordCursor.Stream input, Supplier<? extends Deserializer> deserializers) {
+        this(new SharedStream(input), deserializers);
+    }
+
+    private FragmentedStreamObjectReader(SharedStream input, Supplier<? extends Deserializer> deserializers) {
+        super(input, deserializers.get());
+        this.cursors = input;
+        this.deserializers = deserializers;
+    }
+
+    @Override
+    public ObjectReader nextFragment() throws IOException, InterruptedException {
+        RecordCursor next = cursors.poll();
+        if (next == null) {
+            return null;
+        }
+        RecordCursor[] rest = { next };
+        return new StreamObjectReader(() -> {
+            RecordCursor result = rest[0];
+            rest[0] = null;
+            return result;
+        }, deserializers.get());
+    }
+
+    private static final class SharedStream implements RecordCursor.Stream {
+
+        private final RecordCursor.Stream source;
+
+        SharedStream(RecordCursor.Stream source) {
+            Arguments.requireNonNull(source);
+            this.source = source;
+        }
+
+        @Override
+        public synchronized RecordCursor poll() throws IOException, InterruptedException {
+            return source.poll();
+        }
+    }
+}
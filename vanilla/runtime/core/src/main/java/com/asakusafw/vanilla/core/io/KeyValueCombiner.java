@@ -0,0 +1,228 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.vanilla.core.io;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.asakusafw.dag.api.common.KeyValueSerDe;
+import com.asakusafw.dag.api.common.ValueCombiner;
+import com.asakusafw.lang.utils.buffer.nio.NioDataBuffer;
+import com.asakusafw.lang.utils.common.Arguments;
+import com.asakusafw.lang.utils.common.Invariants;
+import com.asakusafw.vanilla.core.util.Buffers;
+import com.asakusafw.vanilla.core.util.ExtensibleDataBuffer;
+
+/**
+ * Combines serialized key-value pairs which have the same key.
+ * Each combined pair keeps the original key bytes, and only its value is serialized again.
+ * @since 0.5.3
+ */
+public class KeyValueCombiner {
+
+    private final ValueCombiner<Object> combiner;
+
+    private final KeyValueSerDe accumulator;
+
+    private final KeyValueSerDe source;
+
+    private final NioDataBuffer keyInput = new NioDataBuffer();
+
+    private final NioDataBuffer valueInput = new NioDataBuffer();
+
+    private Object current;
+
+    /**
+     * Creates a new instance.
+     * The two ser/de objects must be different instances, because the deserialized object may be reused by them.
+     * @param combiner the value combiner
+     * @param accumulator the ser/de for the combined objects
+     * @param source the ser/de for the objects to be merged
+     */
+    public KeyValueCombiner(ValueCombiner<Object> combiner, KeyValueSerDe accumulator, KeyValueSerDe source) {
+        Arguments.requireNonNull(combiner);
+        Arguments.requireNonNull(accumulator);
+        Arguments.requireNonNull(source);
+        Arguments.require(accumulator != source);
+        this.combiner = combiner;
+        this.accumulator = accumulator;
+        this.source = source;
+    }
+
+    /**
+     * Starts a new group with its first key-value pair.
+     * This does not change the position of the given buffers.
+     * @param key the key
+     * @param value the value
+     * @throws IOException if I/O error was occurred while deserializing the pair
+     * @throws InterruptedException if interrupted while deserializing the pair
+     */
+    public void begin(ByteBuffer key, ByteBuffer value) throws IOException, InterruptedException {
+        current = deserialize(accumulator, key, value);
+    }
+
+    /**
+     * Merges the key-value pair into the current group.
+     * This does not change the position of the given buffers.
+     * @param key the key, which must be equivalent to the key of the current group
+     * @param value the value
+     * @throws IOException if I/O error was occurred while deserializing the pair
+     * @throws InterruptedException if interrupted while deserializing the pair
+     */
+    public void add(ByteBuffer key, ByteBuffer value) throws IOException, InterruptedException {
+        Invariants.requireNonNull(current);
+        combiner.combine(current, deserialize(source, key, value));
+    }
+
+    /**
+     * Writes the combined value of the current group, and then finishes the group.
+     * @param output the destination
+     * @throws IOException if I/O error was occurred while serializing the value
+     * @throws InterruptedException if interrupted while serializing the value
+     */
+    public void end(DataOutput output) throws IOException, InterruptedException {
+        Object object = Invariants.requireNonNull(current);
+        current = null;
+        accumulator.serializeValue(object, output);
+    }
+
+    private Object deserialize(
+            KeyValueSerDe serde, ByteBuffer key, ByteBuffer value) throws IOException, InterruptedException {
+        int keyPosition = key.position();
+        int valuePosition = value.position();
+        keyInput.contents = key;
+        valueInput.contents = value;
+        try {
+            return serde.deserializePair(keyInput, valueInput);
+        } finally {
+            keyInput.contents = NioDataBuffer.EMPTY_BUFFER;
+            valueInput.contents = NioDataBuffer.EMPTY_BUFFER;
+            key.position(keyPosition);
+            value.position(valuePosition);
+        }
+    }
+
+    /**
+     * Returns a cursor which combines the adjacent pairs of the source cursor if they have the same key.
+     * The returned cursor takes the ownership of the source cursor.
+     * @param cursor the source cursor
+     * @return the combined cursor
+     */
+    public KeyValueCursor wrap(KeyValueCursor cursor) {
+        Arguments.requireNonNull(cursor);
+        return new Cursor(cursor, this);
+    }
+
+    private static final class Cursor implements KeyValueCursor {
+
+        private static final int BUFFER_PADDING = 256;
+
+        private final KeyValueCursor source;
+
+        private final KeyValueCombiner combiner;
+
+        private final ExtensibleDataBuffer combined = new ExtensibleDataBuffer(BUFFER_PADDING, Integer.MAX_VALUE);
+
+        private ByteBuffer keyBuffer = Buffers.allocate(BUFFER_PADDING);
+
+        private ByteBuffer valueBuffer = Buffers.allocate(BUFFER_PADDING);
+
+        private ByteBuffer key;
+
+        private ByteBuffer value;
+
+        private boolean pending = false;
+
+        private boolean eof = false;
+
+        Cursor(KeyValueCursor source, KeyValueCombiner combiner) {
+            this.source = source;
+            this.combiner = combiner;
+        }
+
+        @Override
+        public boolean next() throws IOException, InterruptedException {
+            if (eof || (pending == false && source.next() == false)) {
+                eof = true;
+                key = null;
+                value = null;
+                return false;
+            }
+            // the source buffers may be invalidated after the cursor was advanced
+            keyBuffer = copy(source.getKey(), keyBuffer);
+            valueBuffer = copy(source.getValue(), valueBuffer);
+            boolean merged = false;
+            while (true) {
+                if (source.next() == false) {
+                    pending = false;
+                    eof = true;
+                    break;
+                }
+                ByteBuffer nextKey = source.getKey();
+                if (nextKey.equals(keyBuffer) == false) {
+                    pending = true;
+                    break;
+                }
+                if (merged == false) {
+                    combiner.begin(keyBuffer, valueBuffer);
+                    merged = true;
+                }
+                combiner.add(nextKey, source.getValue());
+            }
+            key = keyBuffer;
+            if (merged) {
+                combined.clear();
+                combiner.end(combined);
+                combined.flip();
+                value = combined.buffer();
+            } else {
+                value = valueBuffer;
+            }
+            return true;
+        }
+
+        private static ByteBuffer copy(ByteBuffer source, ByteBuffer destination) {
+            ByteBuffer result = destination;
+            if (result.capacity() < source.remaining()) {
+                result = Buffers.allocate(source.remaining() + BUFFER_PADDING);
+            }
+            int position = source.position();
+            result.clear();
+            result.put(source);
+            result.flip();
+            source.position(position);
+            return result;
+        }
+
+        @Override
+        public ByteBuffer getKey() throws IOException, InterruptedException {
+            return Invariants.requireNonNull(key);
+        }
+
+        @Override
+        public ByteBuffer getValue() throws IOException, InterruptedException {
+            return Invariants.requireNonNull(value);
+        }
+
+        @Override
+        public void close() throws IOException, InterruptedException {
+            key = null;
+            value = null;
+            source.close();
+        }
+    }
+}
@@ -28,11 +28,19 @@ import com.asakusafw.lang.utils.common.Lang;
 
 /**
  * Merges set of sorted {@link KeyValueCursor}.
+ * This uses a tournament tree of losers, which requires only one comparison for each level to find the next entry.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class KeyValueMerger implements KeyValueCursor {
 
-    private final HeapElement[] heap;
+    private final HeapElement[] elements;
+
+    /**
+     * {@code tree[0]} is the current winner, and {@code tree[1..]} are losers of the individual matches.
+     * The leaf of {@code elements[i]} is {@code tree[elements.length + i]} on the virtual complete binary tree.
+     */
+    private final int[] tree;
 
     private final DataComparator comparator;
 
@@ -46,87 +54,83 @@ public class KeyValueMerger implements KeyValueCursor {
     public KeyValueMerger(List<? extends KeyValueCursor> sortedCursors, DataComparator comparator) {
         Arguments.requireNonNull(sortedCursors);
         Arguments.require(sortedCursors.isEmpty() == false);
-        this.heap = sortedCursors.stream()
+        this.elements = sortedCursors.stream()
                 .map(HeapElement::new)
                 .toArray(HeapElement[]::new);
+        this.tree = new int[elements.length];
         this.comparator = comparator;
     }
 
     @Override
     public boolean next() throws IOException, InterruptedException {
-        HeapElement[] h = heap;
+        HeapElement[] es = elements;
         if (firstTime) {
             firstTime = false;
-            for (int i = 0; i < h.length; i++) {
-                h[i].fill();
-            }
-            for (int i = h.length / 2; i >= 0; i--) {
-                shiftDown(i);
+            for (int i = 0; i < es.length; i++) {
+                es[i].fill();
             }
+            tree[0] = build(1);
         } else {
-            h[0].fill();
-            shiftDown(0);
+            int winner = tree[0];
+            es[winner].fill();
+            replay(winner);
         }
-        return h[0].key != null;
+        return es[tree[0]].key != null;
     }
 
-    private void shiftDown(int i) throws IOException {
-        HeapElement[] h = heap;
-        int length = h.length;
-        int current = i;
-        while (true) {
-            int left = (current << 1) + 1;
-            int right = left + 1;
-            if (left < length && isViolate(h[current], h[left])) {
-                if (right < length && isViolate(h[left], h[right])) {
-                    swap(current, right);
-                    current = right;
-                } else {
-                    swap(current, left);
-                    current = left;
-                }
-            } else {
-                if (right < length && isViolate(h[current], h[right])) {
-                    swap(current, right);
-                    current = right;
-                } else {
-                    break;
-                }
-            }
+    private int build(int node) throws IOException {
+        int length = elements.length;
+        if (node >= length) {
+            return node - length;
+        }
+        int left = build(node << 1);
+        int right = build((node << 1) + 1);
+        if (isViolate(left, right)) {
+            tree[node] = left;
+            return right;
+        } else {
+            tree[node] = right;
+            return left;
         }
     }
 
-    private boolean isViolate(HeapElement parent, HeapElement node) throws IOException {
-        return parent.isViolate(comparator, node);
+    private void replay(int leaf) throws IOException {
+        int[] t = tree;
+        int winner = leaf;
+        for (int node = (leaf + elements.length) >> 1; node > 0; node >>= 1) {
+            int loser = t[node];
+            if (isViolate(winner, loser)) {
+                t[node] = winner;
+                winner = loser;
+            }
+        }
+        t[0] = winner;
     }
 
-    private void swap(int i, int j) {
-        HeapElement[] h = heap;
-        HeapElement t = h[i];
-        h[i] = h[j];
-        h[j] = t;
+    private boolean isViolate(int parent, int node) throws IOException {
+        return elements[parent].isViolate(comparator, elements[node]);
     }
 
     @Override
     public ByteBuffer getKey() throws IOException, InterruptedException {
-        return heap[0].key;
+        return elements[tree[0]].key;
     }
 
     @Override
     public ByteBuffer getValue() throws IOException, InterruptedException {
-        return heap[0].value;
+        return elements[tree[0]].value;
     }
 
     @Override
     public void close() throws IOException, InterruptedException {
         try (Closer closer = new Closer()) {
-            Lang.forEach(heap, closer::add);
+            Lang.forEach(elements, closer::add);
         }
     }
 
     @Override
     public String toString() {
-        return Arrays.toString(heap);
+        return Arrays.toString(elements);
     }
 
     private static final class HeapElement implements InterruptibleIo {
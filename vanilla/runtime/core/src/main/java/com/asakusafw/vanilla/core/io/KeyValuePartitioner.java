@@ -17,15 +17,17 @@ package com.asakusafw.vanilla.core.io;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
 
 import com.asakusafw.lang.utils.common.Arguments;
-import com.asakusafw.lang.utils.common.Lang;
+import com.asakusafw.lang.utils.common.Invariants;
 
 /**
  * An implementation of {@link KeyValueSink} which sort key-value pairs into individual partitions.
  * Each partition layout equals to {@link BasicKeyValueSink}.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class KeyValuePartitioner implements KeyValueSink {
 
@@ -33,6 +35,8 @@ public class KeyValuePartitioner implements KeyValueSink {
 
     private final KeyValueSink[] partitions;
 
+    private final PartitionMap map;
+
     private int lastPartition = -1;
 
     /**
@@ -45,19 +49,60 @@ public class KeyValuePartitioner implements KeyValueSink {
     public KeyValuePartitioner(
             List<? extends DataWriter.Channel> channels,
             int size) throws IOException, InterruptedException {
+        this(channels, fill(channels.size(), size));
+    }
+
+    /**
+     * Creates a new instance.
+     * @param channels the destination channels of individual partitions
+     * @param sizes the maximum data size of individual partitions, or {@code 0} if the partition is always empty
+     * @throws IOException if I/O error was occurred while initializing this object
+     * @throws InterruptedException if interrupted while initializing this object
+     * @since 0.5.3
+     */
+    public KeyValuePartitioner(
+            List<? extends DataWriter.Channel> channels,
+            int[] sizes) throws IOException, InterruptedException {
+        this(channels, sizes, null);
+    }
+
+    /**
+     * Creates a new instance.
+     * @param channels the destination channels of individual partitions
+     * @param sizes the maximum data size of individual partitions, or {@code 0} if the partition is always empty
+     * @param map the partition map, or {@code null} to partition keys by their hash code
+     * @throws IOException if I/O error was occurred while initializing this object
+     * @throws InterruptedException if interrupted while initializing this object
+     * @since 0.5.3
+     */
+    public KeyValuePartitioner(
+            List<? extends DataWriter.Channel> channels,
+            int[] sizes, PartitionMap map) throws IOException, InterruptedException {
         Arguments.require(channels.isEmpty() == false);
+        Arguments.require(channels.size() == sizes.length);
+        Arguments.require(map == null || map.getNumberOfPartitions() == channels.size());
         this.numberOfPartitions = channels.size();
+        this.map = map;
         this.partitions = new KeyValueSink[channels.size()];
         try (Closer closer = new Closer()) {
             int index = 0;
             for (DataWriter.Channel channel : channels) {
-                // TODO more buffer efficient
-                partitions[index++] = closer.add(new BasicKeyValueSink(channel, size));
+                int size = sizes[index];
+                if (size > 0) {
+                    partitions[index] = closer.add(new BasicKeyValueSink(channel, size));
+                }
+                index++;
             }
             closer.keep();
         }
     }
 
+    private static int[] fill(int count, int size) {
+        int[] results = new int[count];
+        Arrays.fill(results, size);
+        return results;
+    }
+
     /**
      * Creates a new stream of {@link KeyValuePartitioner}.
      * @param channels the destination channels of individual partitions
@@ -69,25 +114,133 @@ public class KeyValuePartitioner implements KeyValueSink {
         if (channels.size() == 1) {
             return BasicKeyValueSink.stream(channels.get(0));
         }
-        return (recordCount, keySize, valueSize) -> {
-            long total = 0;
-            total += (long) recordCount * Integer.BYTES * 3; // record_buffer.records[].{{key, values[]}.size, EOR}
-            total += keySize;
-            total += valueSize;
-            total += Integer.BYTES; // EOF
-            Arguments.require(total <= Integer.MAX_VALUE);
-            return new KeyValuePartitioner(channels, (int) total);
+        int numberOfPartitions = channels.size();
+        return new Stream() {
+            @Override
+            public KeyValueSink offer(
+                    int recordCount, int keySize, int valueSize) throws IOException, InterruptedException {
+                return new KeyValuePartitioner(channels, computeSize(recordCount, keySize, valueSize));
+            }
+
+            @Override
+            public KeyValueSink offer(
+                    int[] recordCounts, int[] keySizes, int[] valueSizes) throws IOException, InterruptedException {
+                Arguments.require(recordCounts.length == numberOfPartitions);
+                Arguments.require(keySizes.length == numberOfPartitions);
+                Arguments.require(valueSizes.length == numberOfPartitions);
+                int[] sizes = new int[numberOfPartitions];
+                for (int i = 0; i < numberOfPartitions; i++) {
+                    if (recordCounts[i] > 0) {
+                        sizes[i] = computeSize(recordCounts[i], keySizes[i], valueSizes[i]);
+                    }
+                }
+                return new KeyValuePartitioner(channels, sizes);
+            }
+
+            @Override
+            public int getNumberOfPartitions() {
+                return numberOfPartitions;
+            }
+
+            @Override
+            public int getPartition(ByteBuffer key) {
+                return computeIndex(key, numberOfPartitions);
+            }
+        };
+    }
+
+    /**
+     * Creates a new stream of {@link KeyValuePartitioner}, which partitions keys via the given map.
+     * The stream exposes virtual buckets of the map as its partitions, and the first offer with the statistics of
+     * individual buckets decides the map if it has not been fixed yet.
+     * @param channels the destination channels of individual partitions
+     * @param map the partition map, or {@code null} to partition keys by their hash code
+     * @return the created stream
+     * @since 0.5.3
+     */
+    public static Stream stream(List<? extends DataWriter.Channel> channels, PartitionMap map) {
+        Arguments.requireNonNull(channels);
+        Arguments.require(channels.isEmpty() == false);
+        if (map == null || channels.size() == 1) {
+            return stream(channels);
+        }
+        Arguments.require(map.getNumberOfPartitions() == channels.size());
+        int numberOfPartitions = channels.size();
+        int numberOfBuckets = map.getNumberOfBuckets();
+        return new Stream() {
+            @Override
+            public KeyValueSink offer(
+                    int recordCount, int keySize, int valueSize) throws IOException, InterruptedException {
+                return new KeyValuePartitioner(
+                        channels,
+                        fill(numberOfPartitions, computeSize(recordCount, keySize, valueSize)),
+                        map);
+            }
+
+            @Override
+            public KeyValueSink offer(
+                    int[] recordCounts, int[] keySizes, int[] valueSizes) throws IOException, InterruptedException {
+                Arguments.require(recordCounts.length == numberOfBuckets);
+                Arguments.require(keySizes.length == numberOfBuckets);
+                Arguments.require(valueSizes.length == numberOfBuckets);
+                int[] table = map.fix(recordCounts);
+                int[] partRecordCounts = new int[numberOfPartitions];
+                int[] partKeySizes = new int[numberOfPartitions];
+                int[] partValueSizes = new int[numberOfPartitions];
+                for (int i = 0; i < numberOfBuckets; i++) {
+                    int partition = table[i];
+                    partRecordCounts[partition] += recordCounts[i];
+                    partKeySizes[partition] += keySizes[i];
+                    partValueSizes[partition] += valueSizes[i];
+                }
+                int[] sizes = new int[numberOfPartitions];
+                for (int i = 0; i < numberOfPartitions; i++) {
+                    if (partRecordCounts[i] > 0) {
+                        sizes[i] = computeSize(partRecordCounts[i], partKeySizes[i], partValueSizes[i]);
+                    }
+                }
+                return new KeyValuePartitioner(channels, sizes, map);
+            }
+
+            @Override
+            public int getNumberOfPartitions() {
+                return numberOfBuckets;
+            }
+
+            @Override
+            public int getPartition(ByteBuffer key) {
+                return map.getBucket(key);
+            }
         };
     }
 
+    static int computeSize(int recordCount, int keySize, int valueSize) {
+        long total = 0;
+        total += (long) recordCount * Integer.BYTES * 3; // record_buffer.records[].{{key, values[]}.size, EOR}
+        total += keySize;
+        total += valueSize;
+        total += Integer.BYTES; // EOF
+        Arguments.require(total <= Integer.MAX_VALUE);
+        return (int) total;
+    }
+
     @Override
     public void accept(ByteBuffer key, ByteBuffer value) throws IOException, InterruptedException {
         int index = computeIndex(key);
         lastPartition = index;
-        partitions[index].accept(key, value);
+        KeyValueSink partition = partitions[index];
+        Invariants.requireNonNull(partition);
+        partition.accept(key, value);
     }
 
     private int computeIndex(ByteBuffer key) {
+        if (map != null) {
+            return map.getPartition(key);
+        }
+        return computeIndex(key, numberOfPartitions);
+    }
+
+    static int computeIndex(ByteBuffer key, int numberOfPartitions) {
         return (key.hashCode() & Integer.MAX_VALUE) % numberOfPartitions;
     }
 
@@ -103,7 +256,11 @@ public class KeyValuePartitioner implements KeyValueSink {
     @Override
     public void close() throws IOException, InterruptedException {
         try (Closer closer = new Closer()) {
-            Lang.forEach(partitions, closer::add);
+            for (KeyValueSink partition : partitions) {
+                if (partition != null) {
+                    closer.add(partition);
+                }
+            }
         }
     }
 }
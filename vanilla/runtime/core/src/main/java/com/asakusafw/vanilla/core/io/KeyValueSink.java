@@ -23,6 +23,7 @@ import com.asakusafw.lang.utils.common.InterruptibleIo;
 /**
  * Accepts key value pairs.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public interface KeyValueSink extends InterruptibleIo {
 
@@ -49,6 +50,7 @@ public interface KeyValueSink extends InterruptibleIo {
     /**
      * A stream of {@link KeyValueSink}.
      * @since 0.4.0
+     * @version 0.5.3
      */
     @FunctionalInterface
     interface Stream {
@@ -63,5 +65,52 @@ public interface KeyValueSink extends InterruptibleIo {
          * @throws InterruptedException if interrupted while creating a sink
          */
         KeyValueSink offer(int recordCount, int keySize, int valueSize) throws IOException, InterruptedException;
+
+        /**
+         * Returns the number of partitions of the sinks in this stream.
+         * Note that, the partitions may be finer than the actual destinations of the sinks.
+         * If this is greater than {@code 1}, clients should use {@link #offer(int[], int[], int[])} instead of
+         * {@link #offer(int, int, int)}.
+         * @return the number of partitions
+         * @since 0.5.3
+         */
+        default int getNumberOfPartitions() {
+            return 1;
+        }
+
+        /**
+         * Returns the partition index of the given key.
+         * @param key the key buffer
+         * @return the partition index (0-origin)
+         * @since 0.5.3
+         * @see #getNumberOfPartitions()
+         */
+        default int getPartition(ByteBuffer key) {
+            return 0;
+        }
+
+        /**
+         * Offers the next sink with the statistics of individual partitions.
+         * @param recordCounts the number of records in each partition
+         * @param keySizes the total key size in each partition, in bytes
+         * @param valueSizes the total value size in each partition, in bytes
+         * @return the next sink
+         * @throws IOException if I/O error was occurred while creating a sink
+         * @throws InterruptedException if interrupted while creating a sink
+         * @since 0.5.3
+         * @see #getPartition(ByteBuffer)
+         */
+        default KeyValueSink offer(
+                int[] recordCounts, int[] keySizes, int[] valueSizes) throws IOException, InterruptedException {
+            int recordCount = 0;
+            int keySize = 0;
+            int valueSize = 0;
+            for (int i = 0; i < recordCounts.length; i++) {
+                recordCount += recordCounts[i];
+                keySize += keySizes[i];
+                valueSize += valueSizes[i];
+            }
+            return offer(recordCount, keySize, valueSize);
+        }
     }
 }
@@ -30,6 +30,11 @@ public class NullByteChannelDecorator implements ByteChannelDecorator {
      */
     public static final NullByteChannelDecorator INSTANCE = new NullByteChannelDecorator();
 
+    @Override
+    public boolean isTransparent() {
+        return true;
+    }
+
     @Override
     public ReadableByteChannel decorate(ReadableByteChannel channel) throws IOException {
         return channel;
@@ -0,0 +1,164 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.vanilla.core.io;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.asakusafw.lang.utils.common.Arguments;
+
+/**
+ * Maps keys into partitions via virtual buckets.
+ * The buckets are assigned to individual partitions only once, by using the first sample of the bucket weights,
+ * so that partitions become balanced even if the keys are skewed.
+ * Note that, each key is always mapped into just one partition, and then hot keys cannot be split.
+ * @since 0.5.3
+ */
+public class PartitionMap {
+
+    static final Logger LOG = LoggerFactory.getLogger(PartitionMap.class);
+
+    private final int numberOfPartitions;
+
+    private final int numberOfBuckets;
+
+    private volatile int[] table;
+
+    /**
+     * Creates a new instance.
+     * @param numberOfPartitions the number of partitions
+     * @param numberOfBuckets the number of virtual buckets
+     */
+    public PartitionMap(int numberOfPartitions, int numberOfBuckets) {
+        Arguments.require(numberOfPartitions >= 1);
+        Arguments.require(numberOfBuckets >= numberOfPartitions);
+        this.numberOfPartitions = numberOfPartitions;
+        this.numberOfBuckets = numberOfBuckets;
+    }
+
+    /**
+     * Returns the number of partitions.
+     * @return the number of partitions
+     */
+    public int getNumberOfPartitions() {
+        return numberOfPartitions;
+    }
+
+    /**
+     * Returns the number of virtual buckets.
+     * @return the number of virtual buckets
+     */
+    public int getNumberOfBuckets() {
+        return numberOfBuckets;
+    }
+
+    /**
+     * Returns whether or not the buckets have been already assigned to partitions.
+     * @return {@code true} if they have been assigned, otherwise {@code false}
+     */
+    public boolean isFixed() {
+        return table != null;
+    }
+
+    /**
+     * Returns the bucket index of the given key.
+     * @param key the key
+     * @return the bucket index (0-origin)
+     */
+    public int getBucket(ByteBuffer key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % numberOfBuckets;
+    }
+
+    /**
+     * Returns the partition index of the given key.
+     * @param key the key
+     * @return the partition index (0-origin)
+     */
+    public int getPartition(ByteBuffer key) {
+        return getPartition(getBucket(key));
+    }
+
+    /**
+     * Returns the partition index of the given bucket.
+     * If the buckets have not been assigned yet, this assigns them without any samples.
+     * @param bucket the bucket index
+     * @return the partition index (0-origin)
+     */
+    public int getPartition(int bucket) {
+        int[] t = table;
+        if (t == null) {
+            t = fix(new int[numberOfBuckets]);
+        }
+        return t[bucket];
+    }
+
+    /**
+     * Assigns the buckets to partitions by using the given sample, only if they have not been assigned yet.
+     * @param weights the sampled weight of individual buckets
+     * @return the partition index of individual buckets
+     */
+    public synchronized int[] fix(int[] weights) {
+        Arguments.requireNonNull(weights);
+        Arguments.require(weights.length == numberOfBuckets);
+        int[] t = table;
+        if (t != null) {
+            return t;
+        }
+        t = new int[numberOfBuckets];
+        long[] loads = new long[numberOfPartitions];
+
+        // assigns heavier buckets first into the lightest partition
+        // the extra weight spreads the buckets which are not in the sample
+        PriorityQueue<Integer> lightest = new PriorityQueue<>(numberOfPartitions, (a, b) -> {
+            int diff = Long.compare(loads[a], loads[b]);
+            if (diff != 0) {
+                return diff;
+            }
+            return Integer.compare(a, b);
+        });
+        IntStream.range(0, numberOfPartitions).forEach(lightest::add);
+        int[] order = IntStream.range(0, numberOfBuckets)
+                .boxed()
+                .sorted((a, b) -> Integer.compare(weights[b], weights[a]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        for (int bucket : order) {
+            int partition = lightest.remove();
+            t[bucket] = partition;
+            loads[partition] += weights[bucket] + 1L;
+            lightest.add(partition);
+        }
+        if (LOG.isDebugEnabled()) {
+            long total = Arrays.stream(loads).sum();
+            long max = Arrays.stream(loads).max().getAsLong();
+            LOG.debug("partition map: partitions={}, buckets={}, sample={}, max-share={}",
+                    numberOfPartitions, numberOfBuckets, total - numberOfBuckets, (double) max / total);
+        }
+        table = t;
+        return t;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PartitionMap(partitions=%d, buckets=%d, fixed=%s)", //$NON-NLS-1$
+                numberOfPartitions, numberOfBuckets, isFixed());
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.vanilla.core.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import com.asakusafw.lang.utils.common.Arguments;
+import com.asakusafw.lang.utils.common.InterruptibleIo.Closer;
+import com.asakusafw.lang.utils.common.Lang;
+import com.asakusafw.vanilla.core.util.Buffers;
+
+/**
+ * A {@link ReadableByteChannel} which reads the next block of the source channel in background.
+ * @since 0.5.3
+ */
+public class ReadAheadByteChannel implements ReadableByteChannel {
+
+    private final ReadableByteChannel channel;
+
+    private final Executor executor;
+
+    private final Closer tickets = new Closer();
+
+    private ByteBuffer current;
+
+    private ByteBuffer spare;
+
+    private Future<ByteBuffer> pending;
+
+    private boolean closed = false;
+
+    /**
+     * Creates a new instance.
+     * @param channel the source channel
+     * @param executor the executor for reading blocks in background
+     * @param blockSize the block size in bytes
+     */
+    public ReadAheadByteChannel(ReadableByteChannel channel, Executor executor, int blockSize) {
+        Arguments.requireNonNull(channel);
+        Arguments.requireNonNull(executor);
+        Arguments.require(blockSize > 0);
+        this.channel = channel;
+        this.executor = executor;
+        this.current = Buffers.allocate(blockSize);
+        this.current.flip();
+        this.spare = Buffers.allocate(blockSize);
+        this.pending = submit(spare);
+    }
+
+    /**
+     * Creates a new instance.
+     * The blocks are reserved in the given buffer pool until this channel is closed.
+     * @param channel the source channel
+     * @param executor the executor for reading blocks in background
+     * @param blockSize the block size in bytes
+     * @param pool the buffer pool to reserve the blocks
+     * @throws IOException if I/O error was occurred while reserving the blocks
+     * @throws InterruptedException if interrupted while reserving the blocks
+     */
+    public ReadAheadByteChannel(
+            ReadableByteChannel channel, Executor executor, int blockSize,
+            BufferPool pool) throws IOException, InterruptedException {
+        Arguments.requireNonNull(channel);
+        Arguments.requireNonNull(executor);
+        Arguments.require(blockSize > 0);
+        Arguments.requireNonNull(pool);
+        this.channel = channel;
+        this.executor = executor;
+        try (Closer closer = new Closer()) {
+            closer.add(tickets);
+            this.current = allocate(pool, blockSize);
+            this.current.flip();
+            this.spare = allocate(pool, blockSize);
+            closer.keep();
+        }
+        this.pending = submit(spare);
+    }
+
+    private ByteBuffer allocate(BufferPool pool, int blockSize) throws IOException, InterruptedException {
+        BufferPool.Ticket ticket = tickets.add(pool.reserve(blockSize));
+        return pool.allocate(ticket, blockSize);
+    }
+
+    private Future<ByteBuffer> submit(ByteBuffer buffer) {
+        FutureTask<ByteBuffer> task = new FutureTask<>(() -> fill(buffer));
+        executor.execute(task);
+        return task;
+    }
+
+    private ByteBuffer fill(ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public int read(ByteBuffer destination) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        if (current.hasRemaining() == false && advance() == false) {
+            return -1;
+        }
+        ByteBuffer source = current;
+        int size = Math.min(source.remaining(), destination.remaining());
+        if (size == source.remaining()) {
+            destination.put(source);
+        } else {
+            int limit = source.limit();
+            source.limit(source.position() + size);
+            destination.put(source);
+            source.limit(limit);
+        }
+        return size;
+    }
+
+    private boolean advance() throws IOException {
+        Future<ByteBuffer> next = pending;
+        if (next == null) {
+            return false;
+        }
+        pending = null;
+        ByteBuffer filled = await(next);
+        spare = current;
+        current = filled;
+        // a partially filled block means that the source channel has reached EOF
+        if (filled.limit() == filled.capacity()) {
+            pending = submit(spare);
+        }
+        return filled.hasRemaining();
+    }
+
+    private static ByteBuffer await(Future<ByteBuffer> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw (IOException) new InterruptedIOException().initCause(e);
+        } catch (ExecutionException e) {
+            Throwable t = e.getCause();
+            Lang.rethrow(t, Error.class);
+            Lang.rethrow(t, RuntimeException.class);
+            Lang.rethrow(t, IOException.class);
+            throw new IOException(t);
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return closed == false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        Future<ByteBuffer> next = pending;
+        pending = null;
+        try {
+            // waits for the background read before closing the source channel
+            if (next != null) {
+                await(next);
+            }
+        } finally {
+            try {
+                channel.close();
+            } finally {
+                // the blocks may be recycled after their tickets were closed
+                current = null;
+                spare = null;
+                closeTickets();
+            }
+        }
+    }
+
+    private void closeTickets() throws IOException {
+        try {
+            tickets.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw (IOException) new InterruptedIOException().initCause(e);
+        }
+    }
+}
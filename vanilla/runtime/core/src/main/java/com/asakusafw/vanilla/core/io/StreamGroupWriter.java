@@ -17,7 +17,9 @@ package com.asakusafw.vanilla.core.io;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
+import java.util.Comparator;
 
 import com.asakusafw.dag.api.common.DataComparator;
 import com.asakusafw.dag.api.common.KeyValueSerializer;
@@ -31,11 +33,14 @@ import com.asakusafw.vanilla.core.util.ExtensibleDataBuffer;
 /**
  * An implementation of {@link ObjectWriter} using {@link KeyValueSink}.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public class StreamGroupWriter implements ObjectWriter {
 
     private static final Position[] EMPTY = new Position[0];
 
+    private static final long[] EMPTY_KEYS = new long[0];
+
     private final KeyValueSink.Stream sinks;
 
     private final KeyValueSerializer serializer;
@@ -46,10 +51,18 @@ public class StreamGroupWriter implements ObjectWriter {
 
     private final int recordCountLimit;
 
-    private final ExtensibleDataBuffer buffer;
+    private final KeyValueCombiner combiner;
+
+    private ExtensibleDataBuffer buffer;
+
+    private ExtensibleDataBuffer combineBuffer;
 
     private Position[] positions = EMPTY;
 
+    private Position[] sortBuffer = EMPTY;
+
+    private long[] sortKeys = EMPTY_KEYS;
+
     private int recordCount = 0;
 
     private final InterruptibleIo resource;
@@ -86,6 +99,32 @@ public class StreamGroupWriter implements ObjectWriter {
             KeyValueSerializer serializer, DataComparator comparator,
             int bufferSizeLimit, int bufferMarginSize, int recordCountLimit,
             InterruptibleIo resource) {
+        this(sinks, serializer, comparator,
+                bufferSizeLimit, bufferMarginSize, recordCountLimit,
+                null, resource);
+    }
+
+    /**
+     * Creates a new instance.
+     * If {@code combiner} is defined, this combines the records which have the same key in each page,
+     * before they are passed to the next sink.
+     * In this case, this requires two internal buffers of {@code bufferSizeLimit},
+     * and the {@code resource} should also cover both of them.
+     * @param sinks the next sink provider, which accepts sorted key-value pairs
+     * @param serializer the object serializer
+     * @param comparator the value comparator (nullable)
+     * @param bufferSizeLimit the internal buffer size limit in bytes
+     * @param bufferMarginSize the internal buffer margin size in bytes
+     * @param recordCountLimit the number of limit records in each page
+     * @param combiner the record combiner (nullable)
+     * @param resource the attached resource (nullable)
+     * @since 0.5.3
+     */
+    public StreamGroupWriter(
+            KeyValueSink.Stream sinks,
+            KeyValueSerializer serializer, DataComparator comparator,
+            int bufferSizeLimit, int bufferMarginSize, int recordCountLimit,
+            KeyValueCombiner combiner, InterruptibleIo resource) {
         Arguments.requireNonNull(sinks);
         Arguments.requireNonNull(serializer);
         Arguments.require(bufferSizeLimit > 0);
@@ -96,6 +135,8 @@ public class StreamGroupWriter implements ObjectWriter {
         this.bufferSizeThreshold = Util.getBufferThreshold(bufferSizeLimit, bufferMarginSize);
         this.recordCountLimit = recordCountLimit;
         this.buffer = Util.newDataBuffer(bufferSizeLimit);
+        this.combiner = combiner;
+        this.combineBuffer = combiner == null ? null : Util.newDataBuffer(bufferSizeLimit);
         this.resource = resource;
     }
 
@@ -138,13 +179,60 @@ public class StreamGroupWriter implements ObjectWriter {
         }
         buffer.flip();
         sort0();
+        if (combiner != null) {
+            combine0();
+        }
         flush0();
         buffer.clear();
         recordCount = 0;
     }
 
     private void sort0() {
+        int count = recordCount;
+        Position[] ps = positions;
         ByteBuffer buf = buffer.buffer();
+        boolean bigEndian = buf.order() == ByteOrder.BIG_ENDIAN;
+
+        // sorts (normalized key prefix, index) pairs, which are comparable as signed long values
+        long[] keys = sortKeys;
+        if (keys.length < count) {
+            keys = new long[ps.length];
+            sortKeys = keys;
+        }
+        for (int i = 0; i < count; i++) {
+            keys[i] = ((long) ps[i].getKeyPrefix(buf, bigEndian) << 32) | i;
+        }
+        Arrays.sort(keys, 0, count);
+
+        Position[] sorted = sortBuffer;
+        if (sorted.length < count) {
+            sorted = new Position[ps.length];
+            sortBuffer = sorted;
+        }
+        for (int i = 0; i < count; i++) {
+            sorted[i] = ps[(int) keys[i]];
+        }
+
+        // only compares the whole key and value if their key prefixes are same
+        Comparator<Position> whole = null;
+        int start = 0;
+        for (int i = 1; i <= count; i++) {
+            if (i == count || (keys[i] >> 32) != (keys[start] >> 32)) {
+                if (i - start >= 2) {
+                    if (whole == null) {
+                        whole = newComparator(buf);
+                    }
+                    // this keeps the original order of equivalent positions
+                    Arrays.sort(sorted, start, i, whole);
+                }
+                start = i;
+            }
+        }
+        System.arraycopy(sorted, 0, ps, 0, count);
+        Arrays.fill(sorted, 0, count, null);
+    }
+
+    private Comparator<Position> newComparator(ByteBuffer buf) {
         ByteBuffer aBuf = Buffers.duplicate(buf);
         ByteBuffer bBuf = Buffers.duplicate(buf);
         NioDataBuffer aWrapper = new NioDataBuffer();
@@ -152,7 +240,7 @@ public class StreamGroupWriter implements ObjectWriter {
         aWrapper.contents = aBuf;
         bWrapper.contents = bBuf;
         DataComparator cmp = comparator;
-        Arrays.sort(positions, 0, recordCount, (a, b) -> {
+        return (a, b) -> {
             int keyDiff = a.setKeyRange(aBuf).compareTo(b.setKeyRange(bBuf));
             if (cmp == null || keyDiff != 0) {
                 return keyDiff;
@@ -164,24 +252,68 @@ public class StreamGroupWriter implements ObjectWriter {
             } catch (IOException e) {
                 throw new IllegalStateException(e);
             }
-        });
+        };
+    }
+
+    private void combine0() throws IOException, InterruptedException {
+        int count = recordCount;
+        Position[] ps = positions;
+        ByteBuffer buf = buffer.buffer();
+        ByteBuffer keyBuf = Buffers.duplicate(buf);
+        ByteBuffer lastKeyBuf = Buffers.duplicate(buf);
+        boolean found = false;
+        for (int i = 1; i < count; i++) {
+            if (ps[i - 1].setKeyRange(lastKeyBuf).equals(ps[i].setKeyRange(keyBuf))) {
+                found = true;
+                break;
+            }
+        }
+        if (found == false) {
+            return;
+        }
+        // rebuilds the page: each run of the same key is replaced with a combined record
+        ByteBuffer valueBuf = Buffers.duplicate(buf);
+        ExtensibleDataBuffer dest = combineBuffer;
+        dest.clear();
+        int results = 0;
+        for (int start = 0; start < count;) {
+            Position first = ps[start];
+            ByteBuffer key = first.setKeyRange(lastKeyBuf);
+            int end = start + 1;
+            while (end < count && key.equals(ps[end].setKeyRange(keyBuf))) {
+                end++;
+            }
+            int recordBegin = dest.position();
+            dest.write(key);
+            int keyEnd = dest.position();
+            if (end - start == 1) {
+                dest.write(first.setValueRange(valueBuf));
+            } else {
+                combiner.begin(key, first.setValueRange(valueBuf));
+                for (int i = start + 1; i < end; i++) {
+                    Position p = ps[i];
+                    combiner.add(p.setKeyRange(keyBuf), p.setValueRange(valueBuf));
+                }
+                combiner.end(dest);
+            }
+            // the positions before the current run have been already consumed
+            ps[results++].setRange(recordBegin, keyEnd, dest.position());
+            start = end;
+        }
+        dest.flip();
+        combineBuffer = buffer;
+        buffer = dest;
+        recordCount = results;
     }
 
     private void flush0() throws IOException, InterruptedException {
         Position[] ps = positions;
         int records = recordCount;
-        int keySize = 0;
-        int valueSize = 0;
-        for (int i = 0; i < records; i++) {
-            Position p = ps[i];
-            keySize += p.getKeySize();
-            valueSize += p.getValueSize();
-        }
         ByteBuffer buf = buffer.buffer();
         ByteBuffer keyBuf = Buffers.duplicate(buf);
         ByteBuffer valueBuf = Buffers.duplicate(buf);
         ByteBuffer lastKeyBuf = Buffers.duplicate(buf);
-        try (KeyValueSink sink = sinks.offer(records, keySize, valueSize)) {
+        try (KeyValueSink sink = offer(ps, records, keyBuf)) {
             for (int i = 0; i < records; i++) {
                 Position p = ps[i];
                 if (i != 0 && lastKeyBuf.equals(p.setKeyRange(keyBuf))) {
@@ -195,11 +327,41 @@ public class StreamGroupWriter implements ObjectWriter {
         }
     }
 
+    private KeyValueSink offer(
+            Position[] ps, int records, ByteBuffer keyBuf) throws IOException, InterruptedException {
+        int partitions = sinks.getNumberOfPartitions();
+        if (partitions <= 1) {
+            int keySize = 0;
+            int valueSize = 0;
+            for (int i = 0; i < records; i++) {
+                Position p = ps[i];
+                keySize += p.getKeySize();
+                valueSize += p.getValueSize();
+            }
+            return sinks.offer(records, keySize, valueSize);
+        }
+        // computes the exact size of individual partitions
+        int[] recordCounts = new int[partitions];
+        int[] keySizes = new int[partitions];
+        int[] valueSizes = new int[partitions];
+        for (int i = 0; i < records; i++) {
+            Position p = ps[i];
+            int partition = sinks.getPartition(p.setKeyRange(keyBuf));
+            recordCounts[partition]++;
+            keySizes[partition] += p.getKeySize();
+            valueSizes[partition] += p.getValueSize();
+        }
+        return sinks.offer(recordCounts, keySizes, valueSizes);
+    }
+
     @Override
     public void close() throws IOException, InterruptedException {
         try {
             flush();
             buffer.discard();
+            if (combineBuffer != null) {
+                combineBuffer.discard();
+            }
         } finally {
             if (resource != null) {
                 resource.close();
@@ -233,6 +395,33 @@ public class StreamGroupWriter implements ObjectWriter {
             return recordEnd - keyEnd;
         }
 
+        /**
+         * Returns the normalized prefix of the key.
+         * For any keys {@code a} and {@code b}, if {@code a < b} in {@link ByteBuffer#compareTo(ByteBuffer)},
+         * then {@code a.prefix <= b.prefix} as signed integers.
+         * @param buffer the source buffer
+         * @param bigEndian whether or not the buffer is big endian
+         * @return the key prefix
+         */
+        int getKeyPrefix(ByteBuffer buffer, boolean bigEndian) {
+            int begin = recordBegin;
+            int length = keyEnd - begin;
+            if (length >= Integer.BYTES) {
+                int value = buffer.getInt(begin);
+                if (bigEndian == false) {
+                    value = Integer.reverseBytes(value);
+                }
+                // the first byte is compared as signed, and the rest bytes are compared as unsigned
+                return value ^ 0x00_80_80_80;
+            }
+            // padding with the minimum value
+            int result = 0;
+            for (int i = 0; i < length; i++) {
+                result |= ((buffer.get(begin + i) ^ 0x80) & 0xff) << ((Integer.BYTES - 1 - i) * Byte.SIZE);
+            }
+            return result ^ 0x80_00_00_00;
+        }
+
         ByteBuffer setKeyRange(ByteBuffer buffer) {
             return Buffers.range(buffer, recordBegin, keyEnd);
         }
@@ -24,6 +24,7 @@ import com.asakusafw.dag.api.common.DataComparator;
 import com.asakusafw.dag.api.common.KeyValueSerDe;
 import com.asakusafw.dag.api.common.SupplierInfo;
 import com.asakusafw.dag.api.common.TaggedSupplier;
+import com.asakusafw.dag.api.common.ValueCombiner;
 import com.asakusafw.dag.api.common.ValueSerDe;
 import com.asakusafw.dag.api.model.PortId;
 import com.asakusafw.dag.api.model.PortInfo;
@@ -35,6 +36,7 @@ import com.asakusafw.lang.utils.common.Invariants;
 /**
  * An abstract implementation of I/O port mirror of vertices.
  * @since 0.4.0
+ * @version 0.5.3
  */
 public abstract class PortMirror {
 
@@ -124,6 +126,34 @@ public abstract class PortMirror {
         }
     }
 
+    /**
+     * Returns whether or not this port provides a combiner.
+     * @return {@code true} if it provides a combiner, otherwise {@code false}
+     * @since 0.5.3
+     */
+    public boolean hasCombiner() {
+        return descriptor.getMovement().getPortType() == PortType.KEY_VALUE && descriptor.getCombiner() != null;
+    }
+
+    /**
+     * Creates a new combiner.
+     * @param loader the class loader
+     * @return the created combiner, or {@code null} if it is not defined
+     * @since 0.5.3
+     */
+    public ValueCombiner<Object> newCombiner(ClassLoader loader) {
+        Arguments.requireNonNull(loader);
+        Invariants.require(descriptor.getMovement().getPortType() == PortType.KEY_VALUE);
+        SupplierInfo supplier = descriptor.getCombiner();
+        if (supplier == null) {
+            return null;
+        } else {
+            @SuppressWarnings("unchecked")
+            ValueCombiner<Object> result = (ValueCombiner<Object>) resolveSupplierInfo(loader, supplier);
+            return result;
+        }
+    }
+
     private Object resolveSupplierInfo(ClassLoader loader, SupplierInfo supplierInfo) {
         Supplier<?> supplier = supplierInfo.newInstance(loader);
         if (supplier instanceof TaggedSupplier<?>) {
@@ -15,8 +15,11 @@
  */
 package com.asakusafw.vanilla.core.util;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -121,6 +124,8 @@ public final class Buffers {
     static final int OUTPUT_CHANNEL_BUFFER_SIZE =
             SystemProperty.get(KEY_OUTPUT_CHANNEL_BUFFER_SIZE, DEFAULT_OUTPUT_CHANNEL_BUFFER_SIZE);
 
+    private static final Unmapper UNMAPPER = findUnmapper();
+
     static {
         if (LOG.isDebugEnabled()) {
             LOG.debug("buffers:");
@@ -218,4 +223,58 @@ public final class Buffers {
         source.limit(limit);
         return dstSize;
     }
+
+    /**
+     * Releases the memory mapping of the given buffer without waiting for garbage collection.
+     * Clients must not use the buffer and any views of it after this operation.
+     * @param buffer the buffer which was created by {@link java.nio.channels.FileChannel#map}
+     * @return {@code true} if the mapping was released, or {@code false} if it is not supported
+     * @since 0.5.3
+     */
+    public static boolean unmap(MappedByteBuffer buffer) {
+        if (UNMAPPER == null) {
+            return false;
+        }
+        try {
+            UNMAPPER.unmap(buffer);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.debug("failed to unmap buffer", e); //$NON-NLS-1$
+            return false;
+        }
+    }
+
+    private static Unmapper findUnmapper() {
+        try {
+            // Java 9 or later
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe"); //$NON-NLS-1$
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class); //$NON-NLS-1$
+            Field field = unsafeClass.getDeclaredField("theUnsafe"); //$NON-NLS-1$
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            return buffer -> invokeCleaner.invoke(unsafe, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.trace("Unsafe.invokeCleaner is not available", e); //$NON-NLS-1$
+        }
+        try {
+            // Java 8
+            Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner"); //$NON-NLS-1$ //$NON-NLS-2$
+            Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean"); //$NON-NLS-1$ //$NON-NLS-2$
+            return buffer -> {
+                Object c = cleaner.invoke(buffer);
+                if (c != null) {
+                    clean.invoke(c);
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.debug("unmapping buffers is not available", e); //$NON-NLS-1$
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface Unmapper {
+
+        void unmap(ByteBuffer buffer) throws ReflectiveOperationException;
+    }
 }
@@ -257,6 +257,17 @@ public final class ExtensibleDataBuffer implements DataBuffer {
         contents.put(b, off, len);
     }
 
+    /**
+     * Writes the remaining contents of the given buffer.
+     * This does not change the position of the given buffer.
+     * @param b the source buffer
+     * @since 0.5.3
+     */
+    public void write(ByteBuffer b) {
+        ensureWrite(b.remaining());
+        contents.put(b.duplicate());
+    }
+
     @Override
     public void writeBytes(String s) {
         for (int i = 0, n = s.length(); i < n; i++) {
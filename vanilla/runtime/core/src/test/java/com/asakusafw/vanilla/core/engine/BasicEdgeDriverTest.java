@@ -21,6 +21,7 @@ import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -28,6 +29,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.junit.Rule;
@@ -37,6 +41,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.asakusafw.dag.api.common.ObjectCursor;
+import com.asakusafw.dag.api.common.ValueCombiner;
 import com.asakusafw.dag.api.model.GraphInfo;
 import com.asakusafw.dag.api.model.PortId;
 import com.asakusafw.dag.api.model.VertexInfo;
@@ -95,6 +100,12 @@ public class BasicEdgeDriverTest {
 
     private final double mergeFactor = 1.0;
 
+    private int pipelineCapacity = 0;
+
+    private int buckets = 0;
+
+    private boolean combine = false;
+
     /**
      * nothing - trivial case.
      * @throws Exception if failed
@@ -278,6 +289,106 @@ public class BasicEdgeDriverTest {
         assertThat(pool.getSize(), is(0L));
     }
 
+    /**
+     * one-to-one - pipelined.
+     * @throws Exception if failed
+     */
+    @Test
+    public void o2o_pipelined() throws Exception {
+        pipelineCapacity = 2;
+        GraphInfo info = new GraphInfo();
+        VertexInfo v0 = info.addVertex("v0", vertex(VoidVertexProcessor.class));
+        VertexInfo v1 = info.addVertex("v1", vertex(VoidVertexProcessor.class));
+        PortId upstream = v0.addOutputPort("p").getId();
+        PortId downstream = v1.addInputPort("p").getId();
+        info.addEdge(upstream, downstream, oneToOne(MockDataModelUtil.SerDe.class));
+
+        GraphMirror graph = GraphMirror.of(info);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (EdgeDriver driver = driver(graph)) {
+            assertThat(driver.isPipelined(downstream), is(true));
+            try (ObjectReader r = (ObjectReader) driver.acquireInput(downstream, 0, 1)) {
+                Future<?> producer = executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        try (ObjectWriter w = (ObjectWriter) driver.acquireOutput(upstream)) {
+                            w.putObject(object(i, 0, "Hello" + i));
+                        }
+                    }
+                    complete(driver, upstream);
+                    return null;
+                });
+                List<MockDataModel> results = new ArrayList<>();
+                assertThat(r.nextObject(), is(true));
+                results.add(new MockDataModel((MockDataModel) r.getObject()));
+
+                // the producer must wait for the consumer
+                assertThat(producer.isDone(), is(false));
+                while (r.nextObject()) {
+                    results.add(new MockDataModel((MockDataModel) r.getObject()));
+                }
+                producer.get();
+                assertThat(results, hasSize(100));
+                for (int i = 0; i < 100; i++) {
+                    assertThat(results.get(i), is(object(i, 0, "Hello" + i)));
+                }
+            }
+            complete(driver, downstream);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(pool.getSize(), is(0L));
+    }
+
+    /**
+     * one-to-one - pipelined, and the readers start after the upstream wrote buffers.
+     * @throws Exception if failed
+     */
+    @Test
+    public void o2o_pipelined_late() throws Exception {
+        pipelineCapacity = 2;
+        GraphInfo info = new GraphInfo();
+        VertexInfo v0 = info.addVertex("v0", vertex(VoidVertexProcessor.class));
+        VertexInfo v1 = info.addVertex("v1", vertex(VoidVertexProcessor.class));
+        PortId upstream = v0.addOutputPort("p").getId();
+        PortId downstream = v1.addInputPort("p").getId();
+        info.addEdge(upstream, downstream, oneToOne(MockDataModelUtil.SerDe.class));
+
+        GraphMirror graph = GraphMirror.of(info);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (EdgeDriver driver = driver(graph)) {
+            // never blocks without active readers
+            for (int i = 0; i < 10; i++) {
+                try (ObjectWriter w = (ObjectWriter) driver.acquireOutput(upstream)) {
+                    w.putObject(object(i, 0, "Hello" + i));
+                }
+            }
+            try (ObjectReader r = (ObjectReader) driver.acquireInput(downstream, 0, 1)) {
+                Future<?> producer = executor.submit(() -> {
+                    for (int i = 10; i < 20; i++) {
+                        try (ObjectWriter w = (ObjectWriter) driver.acquireOutput(upstream)) {
+                            w.putObject(object(i, 0, "Hello" + i));
+                        }
+                    }
+                    complete(driver, upstream);
+                    return null;
+                });
+                Set<MockDataModel> results = new HashSet<>();
+                while (r.nextObject()) {
+                    results.add(new MockDataModel((MockDataModel) r.getObject()));
+                }
+                producer.get();
+                assertThat(results, hasSize(20));
+                for (int i = 0; i < 20; i++) {
+                    assertThat(results, hasItem(object(i, 0, "Hello" + i)));
+                }
+            }
+            complete(driver, downstream);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(pool.getSize(), is(0L));
+    }
+
     /**
      * broadcast - simple case.
      * @throws Exception if failed
@@ -582,6 +693,65 @@ public class BasicEdgeDriverTest {
         assertThat(pool.getSize(), is(0L));
     }
 
+    /**
+     * scatter-gather - w/ combiner.
+     * @throws Exception if failed
+     */
+    @Test
+    public void scatter_combine() throws Exception {
+        GraphInfo info = new GraphInfo();
+        VertexInfo v0 = info.addVertex("v0", vertex(VoidVertexProcessor.class));
+        VertexInfo v1 = info.addVertex("v1", vertex(VoidVertexProcessor.class));
+        PortId u0 = v0.addOutputPort("p0").getId();
+        PortId u1 = v0.addOutputPort("p1").getId();
+        PortId u2 = v0.addOutputPort("p2").getId();
+        PortId d0 = v1.addInputPort("p").getId();
+        info.addEdge(u0, d0, scatterGather(KvSerDe1.class, KvSerDe1.class, SortSum.class));
+        info.addEdge(u1, d0, scatterGather(KvSerDe1.class, KvSerDe1.class, SortSum.class));
+        info.addEdge(u2, d0, scatterGather(KvSerDe1.class, KvSerDe1.class, SortSum.class));
+
+        mergeThreshold = 2;
+        combine = true;
+
+        GraphMirror graph = GraphMirror.of(info);
+        try (EdgeDriver driver = driver(graph)) {
+            try (ObjectWriter writer = (ObjectWriter) driver.acquireOutput(u0)) {
+                // reserves both the page buffer and the combine buffer
+                assertThat(pool.getSize(), is(bufferSize * 2L));
+                writer.putObject(object(0, 1, "Hello"));
+                writer.putObject(object(1, 1, "Hello"));
+                writer.putObject(object(0, 1, "Hello"));
+            }
+            complete(driver, u0);
+            try (ObjectWriter writer = (ObjectWriter) driver.acquireOutput(u1)) {
+                writer.putObject(object(1, 1, "Hello"));
+                writer.putObject(object(0, 1, "Hello"));
+                writer.putObject(object(1, 1, "Hello"));
+                writer.putObject(object(1, 1, "Hello"));
+            }
+            complete(driver, u1);
+            try (ObjectWriter writer = (ObjectWriter) driver.acquireOutput(u2)) {
+                writer.putObject(object(2, 1, "Hello"));
+                writer.putObject(object(0, 1, "Hello"));
+                writer.putObject(object(2, 1, "Hello"));
+            }
+            complete(driver, u2);
+            try (GroupReader reader = (GroupReader) driver.acquireInput(d0, 0, 1)) {
+                // the groups may still have partially combined records
+                List<MockDataModel> results = collect(reader);
+                assertThat(results.size(), lessThan(10));
+                Map<Integer, BigDecimal> sums = results.stream().collect(Collectors.groupingBy(
+                        MockDataModel::getKey,
+                        Collectors.reducing(BigDecimal.ZERO, MockDataModel::getSort, BigDecimal::add)));
+                assertThat(sums.get(0), is(BigDecimal.valueOf(4)));
+                assertThat(sums.get(1), is(BigDecimal.valueOf(4)));
+                assertThat(sums.get(2), is(BigDecimal.valueOf(2)));
+            }
+            complete(driver, d0);
+        }
+        assertThat(pool.getSize(), is(0L));
+    }
+
     /**
      * scatter-gather - w/ multiple upstreams + striping.
      * @throws Exception if failed
@@ -782,6 +952,84 @@ public class BasicEdgeDriverTest {
         assertThat(pool.getSize(), is(0L));
     }
 
+    /**
+     * scatter-gather - w/ skewed keys.
+     * @throws Exception if failed
+     */
+    @Test
+    public void scatter_skew() throws Exception {
+        GraphInfo info = new GraphInfo();
+        VertexInfo v0 = info.addVertex("v0", vertex(VoidVertexProcessor.class));
+        VertexInfo v1 = info.addVertex("v1", vertex(VoidVertexProcessor.class));
+        VertexInfo v2 = info.addVertex("v2", vertex(VoidVertexProcessor.class));
+        PortId u0 = v0.addOutputPort("p").getId();
+        PortId u1 = v1.addOutputPort("p").getId();
+        PortId d0 = v2.addInputPort("p0").getId();
+        PortId d1 = v2.addInputPort("p1").getId();
+        info.addEdge(u0, d0, scatterGather(KvSerDe1.class, KvSerDe1.class));
+        info.addEdge(u1, d1, scatterGather(KvSerDe1.class, KvSerDe1.class));
+
+        partitions = 3;
+        buckets = 16;
+        List<MockDataModel> objects0 = new ArrayList<>();
+        List<MockDataModel> objects1 = new ArrayList<>();
+        for (int i = 0; i < 30_000; i++) {
+            // the key 0 is hot only in the first input
+            objects0.add(object(i % 2 == 0 ? 0 : i % 153, 0, "Hello" + i));
+            objects1.add(object(i % 153, 1, "World" + i));
+        }
+
+        GraphMirror graph = GraphMirror.of(info);
+        try (EdgeDriver driver = driver(graph)) {
+            try (ObjectWriter w0 = (ObjectWriter) driver.acquireOutput(u0);
+                    ObjectWriter w1 = (ObjectWriter) driver.acquireOutput(u0)) {
+                ObjectWriter[] ws = { w0, w1 };
+                for (int i = 0, n = objects0.size(); i < n; i++) {
+                    ws[i % ws.length].putObject(objects0.get(i));
+                }
+            }
+            complete(driver, u0);
+            try (ObjectWriter w0 = (ObjectWriter) driver.acquireOutput(u1)) {
+                for (MockDataModel object : objects1) {
+                    w0.putObject(object);
+                }
+            }
+            complete(driver, u1);
+
+            List<List<MockDataModel>> results0 = new ArrayList<>();
+            List<List<MockDataModel>> results1 = new ArrayList<>();
+            for (int i = 0; i < partitions; i++) {
+                try (GroupReader r0 = (GroupReader) driver.acquireInput(d0, i, partitions);
+                        GroupReader r1 = (GroupReader) driver.acquireInput(d1, i, partitions)) {
+                    results0.add(collect(r0));
+                    results1.add(collect(r1));
+                }
+            }
+            complete(driver, d0);
+            complete(driver, d1);
+
+            // the both inputs must be partitioned in the same way
+            for (int i = 0; i < partitions; i++) {
+                for (int j = 0; j < partitions; j++) {
+                    if (i != j) {
+                        assertThat(disjoint(keys(results0.get(i)), keys(results0.get(j))), is(true));
+                        assertThat(disjoint(keys(results0.get(i)), keys(results1.get(j))), is(true));
+                    }
+                }
+            }
+            // the hot key occupies its partition
+            for (int i = 0; i < partitions; i++) {
+                BitSet keys = keys(results0.get(i));
+                if (keys.get(0)) {
+                    assertThat(results1.get(i).size(), lessThan(objects1.size() / partitions));
+                }
+            }
+            assertThat(sort(results0.stream().flatMap(List::stream).collect(Collectors.toList())), is(sort(objects0)));
+            assertThat(sort(results1.stream().flatMap(List::stream).collect(Collectors.toList())), is(sort(objects1)));
+        }
+        assertThat(pool.getSize(), is(0L));
+    }
+
     private static void complete(EdgeDriver edges, PortId id) throws IOException, InterruptedException {
         LOG.debug("complete {} ({})", id, edges);
         edges.complete(id);
@@ -833,7 +1081,8 @@ public class BasicEdgeDriverTest {
                 pool, store.getBlobStore(),
                 partitions,
                 bufferSize, bufferMargin, recordCount,
-                mergeThreshold, mergeFactor);
+                mergeThreshold, mergeFactor,
+                pipelineCapacity, buckets, combine);
     }
 
     private BitSet keys(List<MockDataModel> objects) {
@@ -850,4 +1099,17 @@ public class BasicEdgeDriverTest {
         }
         return true;
     }
+
+    /**
+     * Adds {@link MockDataModel#getSort()}.
+     */
+    public static class SortSum implements ValueCombiner<Object> {
+
+        @Override
+        public void combine(Object a, Object b) {
+            MockDataModel left = (MockDataModel) a;
+            MockDataModel right = (MockDataModel) b;
+            left.setSort(left.getSort().add(right.getSort()));
+        }
+    }
 }
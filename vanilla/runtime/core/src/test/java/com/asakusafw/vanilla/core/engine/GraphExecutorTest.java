@@ -26,6 +26,8 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.function.UnaryOperator;
 
 import org.junit.Test;
@@ -43,6 +45,7 @@ import com.asakusafw.dag.api.processor.VertexProcessorContext;
 import com.asakusafw.dag.api.processor.basic.BasicProcessorContext;
 import com.asakusafw.dag.api.processor.basic.BasicTaskInfo;
 import com.asakusafw.dag.api.processor.basic.BasicTaskSchedule;
+import com.asakusafw.dag.api.processor.extension.BroadcastInputCache;
 import com.asakusafw.dag.runtime.testing.MockDataModel;
 import com.asakusafw.dag.runtime.testing.MockDataModelUtil;
 import com.asakusafw.lang.utils.common.Optionals;
@@ -108,6 +111,118 @@ public class GraphExecutorTest {
         }
     }
 
+    /**
+     * run independent vertices concurrently.
+     * @throws Exception if failed
+     */
+    @Test
+    public void concurrent() throws Exception {
+        List<MockDataModel> inputs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            inputs.add(object(i, i, "hello" + i));
+        }
+        Queue<MockDataModel> outputs1 = new ConcurrentLinkedQueue<>();
+        Queue<MockDataModel> outputs2 = new ConcurrentLinkedQueue<>();
+        CountDownLatch latch = new CountDownLatch(2);
+
+        GraphInfo graph = new GraphInfo();
+        VertexInfo v0 = graph.addVertex("v0", vertex(() -> new VertexProcessor() {
+            @Override
+            public Optional<? extends TaskSchedule> initialize(VertexProcessorContext context) {
+                return Optionals.of(new BasicTaskSchedule(new BasicTaskInfo()));
+            }
+            @Override
+            public TaskProcessor createTaskProcessor() throws IOException, InterruptedException {
+                return c -> {
+                    try (ObjectWriter writer = (ObjectWriter) c.getOutput("port")) {
+                        for (MockDataModel o : inputs) {
+                            writer.putObject(o);
+                        }
+                    }
+                };
+            }
+        }));
+        VertexInfo v1 = graph.addVertex("v1", vertex(() -> new RendezvousProcessor(latch, outputs1)));
+        VertexInfo v2 = graph.addVertex("v2", vertex(() -> new RendezvousProcessor(latch, outputs2)));
+
+        PortInfo v0out = v0.addOutputPort("port");
+        PortInfo v1in = v1.addInputPort("port");
+        PortInfo v2in = v2.addInputPort("port");
+        graph.addEdge(v0out.getId(), v1in.getId(), oneToOne(MockDataModelUtil.SerDe.class));
+        graph.addEdge(v0out.getId(), v2in.getId(), oneToOne(MockDataModelUtil.SerDe.class));
+
+        GraphMirror mirror = GraphMirror.of(graph);
+        try (MockEdgeDriver edges = new MockEdgeDriver()) {
+            edges.output(v0out.getId(), (UnaryOperator<MockDataModel>) MockDataModel::new);
+            edges.input(v1in.getId(), inputs);
+            edges.input(v2in.getId(), inputs);
+            ProcessorContext context = new BasicProcessorContext(getClass().getClassLoader());
+            GraphExecutor executor = new GraphExecutor(
+                    context, mirror, new BasicVertexScheduler(), edges, 2,
+                    2, null, 0L);
+            executor.run();
+            assertThat(edges.isCompleted(), is(true));
+            assertThat(sort(outputs1), is(inputs));
+            assertThat(sort(outputs2), is(inputs));
+        }
+    }
+
+    /**
+     * share objects built from the same broadcast outputs.
+     * @throws Exception if failed
+     */
+    @Test
+    public void broadcast_share() throws Exception {
+        List<MockDataModel> inputs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            inputs.add(object(i, i, "hello" + i));
+        }
+        Queue<Object> results = new ConcurrentLinkedQueue<>();
+
+        GraphInfo graph = new GraphInfo();
+        VertexInfo v0 = graph.addVertex("v0", vertex(() -> new VertexProcessor() {
+            @Override
+            public Optional<? extends TaskSchedule> initialize(VertexProcessorContext context) {
+                return Optionals.of(new BasicTaskSchedule(new BasicTaskInfo()));
+            }
+            @Override
+            public TaskProcessor createTaskProcessor() throws IOException, InterruptedException {
+                return c -> {
+                    try (ObjectWriter writer = (ObjectWriter) c.getOutput("port")) {
+                        for (MockDataModel o : inputs) {
+                            writer.putObject(o);
+                        }
+                    }
+                };
+            }
+        }));
+        VertexInfo v1 = graph.addVertex("v1", vertex(() -> new SharingProcessor(results)));
+        VertexInfo v2 = graph.addVertex("v2", vertex(() -> new SharingProcessor(results)));
+
+        PortInfo v0out = v0.addOutputPort("port");
+        PortInfo v1in = v1.addInputPort("port");
+        PortInfo v2in = v2.addInputPort("port");
+        graph.addEdge(v0out.getId(), v1in.getId(), broadcast(MockDataModelUtil.SerDe.class));
+        graph.addEdge(v0out.getId(), v2in.getId(), broadcast(MockDataModelUtil.SerDe.class));
+
+        GraphMirror mirror = GraphMirror.of(graph);
+        try (MockEdgeDriver edges = new MockEdgeDriver()) {
+            edges.output(v0out.getId(), (UnaryOperator<MockDataModel>) MockDataModel::new);
+            edges.broadcast(v1in.getId(), inputs);
+            edges.broadcast(v2in.getId(), inputs);
+            ProcessorContext context = new BasicProcessorContext(getClass().getClassLoader());
+            GraphExecutor executor = new GraphExecutor(
+                    context, mirror, new BasicVertexScheduler(), edges, 1,
+                    1, null, 0L, true);
+            executor.run();
+            assertThat(edges.isCompleted(), is(true));
+        }
+        assertThat(results, hasSize(2));
+        Object first = results.poll();
+        assertThat(first, is(inputs));
+        assertThat(results.poll(), is(sameInstance(first)));
+    }
+
     private void run(GraphMirror mirror, MockEdgeDriver edges) throws IOException, InterruptedException {
         ProcessorContext context = new BasicProcessorContext(getClass().getClassLoader());
         VertexScheduler sched = new BasicVertexScheduler();
@@ -116,4 +231,64 @@ public class GraphExecutorTest {
         executor.run();
         assertThat(edges.isCompleted(), is(true));
     }
+
+    private static final class SharingProcessor implements VertexProcessor {
+
+        private final Queue<Object> results;
+
+        SharingProcessor(Queue<Object> results) {
+            this.results = results;
+        }
+
+        @Override
+        public Optional<? extends TaskSchedule> initialize(
+                VertexProcessorContext context) throws IOException, InterruptedException {
+            BroadcastInputCache cache = context.getResource(BroadcastInputCache.class).get();
+            results.offer(cache.get(context.getVertexId(), "port", "testing", () -> {
+                List<MockDataModel> list = new ArrayList<>();
+                try (ObjectReader reader = (ObjectReader) context.getInput("port")) {
+                    reader.forEach(MockDataModel.class, list::add);
+                }
+                return sort(list);
+            }));
+            return Optionals.of(new BasicTaskSchedule(new BasicTaskInfo()));
+        }
+
+        @Override
+        public TaskProcessor createTaskProcessor() throws IOException, InterruptedException {
+            return c -> {
+                return;
+            };
+        }
+    }
+
+    private static final class RendezvousProcessor implements VertexProcessor {
+
+        private final CountDownLatch latch;
+
+        private final Queue<MockDataModel> outputs;
+
+        RendezvousProcessor(CountDownLatch latch, Queue<MockDataModel> outputs) {
+            this.latch = latch;
+            this.outputs = outputs;
+        }
+
+        @Override
+        public Optional<? extends TaskSchedule> initialize(
+                VertexProcessorContext context) throws IOException, InterruptedException {
+            // never reached here if the vertices are executed one by one
+            latch.countDown();
+            assertThat(latch.await(10, TimeUnit.SECONDS), is(true));
+            return Optional.empty();
+        }
+
+        @Override
+        public TaskProcessor createTaskProcessor() throws IOException, InterruptedException {
+            return c -> {
+                try (ObjectReader reader = (ObjectReader) c.getInput("port")) {
+                    reader.forEach(MockDataModel.class, outputs::offer);
+                }
+            };
+        }
+    }
 }
@@ -223,6 +223,107 @@ public class BasicBufferPoolTest {
         assertThat(pool.getSize(), is(0L));
     }
 
+    /**
+     * register - swap out in background.
+     * @throws Exception if failed
+     */
+    @Test
+    public void register_swapout_async() throws Exception {
+        ByteBuffer buffer = buffer("Hello, world!");
+        try (BasicBufferPool pool = new BasicBufferPool(buffer.capacity() * 2, VoidStore.INSTANCE, 0.25, 0.0)) {
+            try (DataReader.Provider e0 = pool.register(pool.reserve(buffer.capacity()), buffer)) {
+                long timeout = System.currentTimeMillis() + 10_000;
+                while (pool.getSize() > 0 && System.currentTimeMillis() < timeout) {
+                    Thread.sleep(10);
+                }
+                assertThat(pool.getSize(), is(0L));
+                assertThat(VoidStore.isAlive(e0), is(false));
+                assertThat(read(e0), is("Hello, world!"));
+            }
+            assertThat(pool.getSize(), is(0L));
+        }
+    }
+
+    /**
+     * allocate - w/ arena.
+     * @throws Exception if failed
+     */
+    @Test
+    public void allocate_arena() throws Exception {
+        BufferArena arena = new BufferArena(1_000_000);
+        BasicBufferPool pool = new BasicBufferPool(1_000_000, VoidStore.INSTANCE, 1.0, 1.0, arena);
+        try (Ticket ticket = pool.reserve(5000)) {
+            ByteBuffer buffer = pool.allocate(ticket, 5000);
+            assertThat(buffer.limit(), is(5000));
+            buffer.putInt(100);
+            buffer.flip();
+            try (DataReader.Provider e0 = pool.register(ticket.move(), buffer);
+                    DataReader r0 = e0.open()) {
+                e0.close();
+                // still acquired by the reader
+                assertThat(arena.getSize(), is(0L));
+                assertThat(r0.readInt(), is(100));
+            }
+        }
+        // retained buffers are still counted in the pool
+        long recycled = arena.getSize();
+        assertThat(recycled, is(greaterThanOrEqualTo(5000L)));
+        assertThat(pool.getSize(), is(recycled));
+        try (Ticket ticket = pool.reserve(6000)) {
+            ByteBuffer buffer = pool.allocate(ticket, 6000);
+            assertThat(buffer.position(), is(0));
+            assertThat(buffer.limit(), is(6000));
+            assertThat(arena.getSize(), is(0L));
+        }
+        assertThat(arena.getSize(), is(recycled));
+    }
+
+    /**
+     * allocate buffers - reserves only the requested size.
+     * @throws Exception if failed
+     */
+    @Test
+    public void allocate_arena_size() throws Exception {
+        BufferArena arena = new BufferArena(1_000_000);
+        BasicBufferPool pool = new BasicBufferPool(1_000_000, VoidStore.INSTANCE, 1.0, 1.0, arena);
+        try (Ticket ticket = pool.reserve(5000)) {
+            ByteBuffer buffer = pool.allocate(ticket, 5000);
+            assertThat(buffer.capacity(), is(5000));
+            assertThat(ticket.getSize(), is(5000L));
+            assertThat(pool.getSize(), is(5000L));
+            buffer.put(new byte[5000]);
+            buffer.flip();
+            try (DataReader.Provider e0 = pool.register(ticket.move(), buffer)) {
+                assertThat(pool.getSize(), is(5000L));
+            }
+        }
+        assertThat(pool.getSize(), is(arena.getSize()));
+        assertThat(arena.getSize(), is(greaterThan(5000L)));
+    }
+
+    /**
+     * allocate buffers - evicts retained buffers before swapping out.
+     * @throws Exception if failed
+     */
+    @Test
+    public void allocate_arena_evict() throws Exception {
+        BufferArena arena = new BufferArena(1_000_000);
+        BasicBufferPool pool = new BasicBufferPool(10_000, VoidStore.INSTANCE, 1.0, 1.0, arena);
+        try (Ticket ticket = pool.reserve(5000)) {
+            pool.allocate(ticket, 5000);
+        }
+        assertThat(arena.getSize(), is(greaterThan(0L)));
+        try (Ticket t0 = pool.reserve(5000)) {
+            ByteBuffer b0 = Buffers.allocate(5000);
+            try (DataReader.Provider e0 = pool.register(t0.move(), b0)) {
+                try (Ticket t1 = pool.reserve(5000)) {
+                    assertThat(arena.getSize(), is(0L));
+                    assertThat(VoidStore.isAlive(e0), is(true));
+                }
+            }
+        }
+    }
+
     private static class VoidStore implements BufferStore {
         static final VoidStore INSTANCE = new VoidStore();
 
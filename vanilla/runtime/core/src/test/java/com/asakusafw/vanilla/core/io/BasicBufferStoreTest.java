@@ -119,6 +119,119 @@ public class BasicBufferStoreTest {
         assertThat(directory.exists(), is(false));
     }
 
+    /**
+     * w/ read-ahead.
+     * @throws Exception if failed
+     */
+    @Test
+    public void read_ahead() throws Exception {
+        File directory;
+        try (BasicBufferStore store = BasicBufferStore.builder()
+                .withDecorator(new MockByteChannelDecorator())
+                .withReadAhead(4)
+                .build()) {
+            directory = store.getDirectory();
+            try (DataReader.Provider c0 = store.store(buffer("Hello, world!"));
+                    DataReader.Provider c1 = store.store(buffer("Hell"));
+                    DataReader.Provider c2 = store.store(buffer(""))) {
+                assertThat(read(c0), is("Hello, world!"));
+                assertThat(read(c1), is("Hell"));
+                assertThat(read(c2), is(""));
+                assertThat(read(c0), is("Hello, world!"));
+            }
+        }
+        assertThat(directory.exists(), is(false));
+    }
+
+    /**
+     * w/ read-ahead blocks in the buffer pool.
+     * @throws Exception if failed
+     */
+    @Test
+    public void read_ahead_pool() throws Exception {
+        try (BasicBufferStore store = BasicBufferStore.builder()
+                .withReadAhead(4)
+                .withReadAheadThreads(1)
+                .build();
+                BasicBufferPool pool = new BasicBufferPool(1_000_000, store)) {
+            store.setReadAheadPool(pool);
+            try (DataReader.Provider c0 = store.store(buffer("Hello, world!"))) {
+                try (DataReader r0 = c0.open()) {
+                    // current and spare blocks
+                    assertThat(pool.getSize(), is(8L));
+                    assertThat(r0.readInt(), is(13));
+                }
+                assertThat(pool.getSize(), is(0L));
+                assertThat(read(c0), is("Hello, world!"));
+            }
+        }
+    }
+
+    /**
+     * w/ memory mapped reads.
+     * @throws Exception if failed
+     */
+    @Test
+    public void memory_map() throws Exception {
+        File directory;
+        try (BasicBufferStore store = BasicBufferStore.builder()
+                .withMemoryMap(1)
+                .build()) {
+            directory = store.getDirectory();
+            try (DataReader.Provider entry = store.store(buffer("Hello, world!"))) {
+                try (DataReader reader = entry.open()) {
+                    assertThat(reader.getBuffer(), is(notNullValue()));
+                    assertThat(read(reader), is("Hello, world!"));
+                }
+                assertThat(read(entry), is("Hello, world!"));
+            }
+        }
+        assertThat(directory.exists(), is(false));
+    }
+
+    /**
+     * w/ memory mapped reads, and the entry is closed before its readers.
+     * @throws Exception if failed
+     */
+    @Test
+    public void memory_map_close() throws Exception {
+        try (BasicBufferStore store = BasicBufferStore.builder()
+                .withMemoryMap(1)
+                .build()) {
+            File directory = store.getDirectory();
+            DataReader.Provider entry = store.store(buffer("Hello, world!"));
+            try (DataReader reader = entry.open()) {
+                entry.close();
+                // the mapped file is deleted after the last reader was closed
+                assertThat(directory.list().length, is(1));
+                assertThat(read(reader), is("Hello, world!"));
+            }
+            assertThat(directory.list().length, is(0));
+        }
+    }
+
+    /**
+     * w/ memory mapped reads, but the decorator is not transparent.
+     * @throws Exception if failed
+     */
+    @Test
+    public void memory_map_decorator() throws Exception {
+        File directory;
+        try (BasicBufferStore store = BasicBufferStore.builder()
+                .withDecorator(new MockByteChannelDecorator())
+                .withMemoryMap(1)
+                .build()) {
+            directory = store.getDirectory();
+            try (DataReader.Provider entry = store.store(buffer("Hello, world!"))) {
+                try (DataReader reader = entry.open()) {
+                    assertThat(reader.getBuffer(), is(nullValue()));
+                    assertThat(read(reader), is("Hello, world!"));
+                }
+            }
+        }
+        assertThat(directory.exists(), is(false));
+    }
+
     /**
      * using BlobStore.
      * @throws Exception if failed
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.vanilla.core.io;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link BufferArena}.
+ */
+public class BufferArenaTest {
+
+    /**
+     * simple case.
+     */
+    @Test
+    public void simple() {
+        BufferArena arena = new BufferArena(1_000_000);
+        ByteBuffer b0 = arena.allocate(100);
+        assertThat(b0.capacity(), is(1 << BufferArena.MIN_CLASS));
+        assertThat(b0.limit(), is(100));
+        arena.release(b0);
+        assertThat(arena.getSize(), is((long) b0.capacity()));
+
+        ByteBuffer b1 = arena.allocate(200);
+        assertThat(b1, is(sameInstance(b0)));
+        assertThat(b1.position(), is(0));
+        assertThat(b1.limit(), is(200));
+        assertThat(arena.getSize(), is(0L));
+    }
+
+    /**
+     * buffers are recycled only in the same size class.
+     */
+    @Test
+    public void size_class() {
+        BufferArena arena = new BufferArena(1_000_000);
+        ByteBuffer b0 = arena.allocate(10_000);
+        assertThat(b0.capacity(), is(16 * 1024));
+        arena.release(b0);
+
+        ByteBuffer b1 = arena.allocate(20_000);
+        assertThat(b1.capacity(), is(32 * 1024));
+        assertThat(b1, is(not(sameInstance(b0))));
+
+        ByteBuffer b2 = arena.allocate(16 * 1024);
+        assertThat(b2, is(sameInstance(b0)));
+    }
+
+    /**
+     * buffers over the capacity are discarded.
+     */
+    @Test
+    public void capacity() {
+        BufferArena arena = new BufferArena(16 * 1024);
+        ByteBuffer b0 = arena.allocate(10_000);
+        ByteBuffer b1 = arena.allocate(10_000);
+        arena.release(b0);
+        arena.release(b1);
+        assertThat(arena.getSize(), is(16L * 1024));
+
+        assertThat(arena.allocate(10_000), is(sameInstance(b0)));
+        assertThat(arena.allocate(10_000), is(not(sameInstance(b1))));
+    }
+
+    /**
+     * evicts retained buffers.
+     */
+    @Test
+    public void evict() {
+        BufferArena arena = new BufferArena(1_000_000);
+        ByteBuffer b0 = arena.allocate(10_000);
+        ByteBuffer b1 = arena.allocate(100_000);
+        arena.release(b0);
+        arena.release(b1);
+        assertThat(arena.getSize(), is(16L * 1024 + 128L * 1024));
+
+        // larger buffers are evicted first
+        assertThat(arena.evict(1), is(128L * 1024));
+        assertThat(arena.getSize(), is(16L * 1024));
+        assertThat(arena.allocate(10_000), is(sameInstance(b0)));
+        assertThat(arena.evict(1), is(0L));
+    }
+
+    /**
+     * buffers which are not allocated by arenas are discarded.
+     */
+    @Test
+    public void foreign() {
+        BufferArena arena = new BufferArena(1_000_000);
+        arena.release(ByteBuffer.allocate(10_000));
+        assertThat(arena.getSize(), is(0L));
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.vanilla.core.io;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.asakusafw.vanilla.core.testing.ShortPairSerDe;
+import com.asakusafw.vanilla.core.testing.ShortSumSerDe;
+import com.asakusafw.vanilla.core.util.Buffers;
+import com.asakusafw.vanilla.core.util.ExtensibleDataBuffer;
+
+/**
+ * Test for {@link KeyValueCombiner}.
+ */
+public class KeyValueCombinerTest {
+
+    /**
+     * simple case.
+     * @throws Exception if failed
+     */
+    @Test
+    public void simple() throws Exception {
+        KeyValueCombiner combiner = combiner();
+        ByteBuffer key = buffer(1);
+        combiner.begin(key, buffer(100));
+        combiner.add(key, buffer(20));
+        combiner.add(key, buffer(3));
+        assertThat(key.remaining(), is(Short.BYTES));
+
+        ExtensibleDataBuffer output = new ExtensibleDataBuffer(16, 1024);
+        combiner.end(output);
+        output.flip();
+        assertThat(output.buffer().remaining(), is(Short.BYTES));
+        assertThat(output.buffer().getShort(), is((short) 123));
+    }
+
+    /**
+     * wraps cursor.
+     * @throws Exception if failed
+     */
+    @Test
+    public void wrap() throws Exception {
+        int[] values = {
+                0x0001_0001,
+                0x0001_0002,
+                0x0002_0003,
+                0x0003_0004,
+                0x0003_0005,
+                0x0003_0006,
+        };
+        List<Integer> results = new ArrayList<>();
+        try (KeyValueCursor cursor = combiner().wrap(ShortPairSerDe.cursor(values, 0, values.length))) {
+            while (cursor.next()) {
+                results.add((cursor.getKey().getShort() << Short.SIZE) | (cursor.getValue().getShort() & 0xffff));
+            }
+        }
+        assertThat(results, is(Arrays.asList(0x0001_0003, 0x0002_0003, 0x0003_000f)));
+    }
+
+    /**
+     * wraps empty cursor.
+     * @throws Exception if failed
+     */
+    @Test
+    public void wrap_empty() throws Exception {
+        try (KeyValueCursor cursor = combiner().wrap(ShortPairSerDe.cursor(new int[0], 0, 0))) {
+            assertThat(cursor.next(), is(false));
+            assertThat(cursor.next(), is(false));
+        }
+    }
+
+    private static KeyValueCombiner combiner() {
+        return new KeyValueCombiner(ShortSumSerDe.combiner(), new ShortSumSerDe(), new ShortSumSerDe());
+    }
+
+    private static ByteBuffer buffer(int value) {
+        ByteBuffer result = Buffers.allocate(Short.BYTES);
+        result.putShort((short) value);
+        result.flip();
+        return result;
+    }
+}
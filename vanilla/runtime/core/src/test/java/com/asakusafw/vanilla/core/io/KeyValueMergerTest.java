@@ -77,6 +77,25 @@ public class KeyValueMergerTest {
                 random(6502 + 4, base * 4));
     }
 
+    /**
+     * w/ many cursors, including empty ones.
+     * @throws Exception if failed
+     */
+    @Test
+    public void many_cursors() throws Exception {
+        int base = 1_000;
+        checkMerge(base * 28,
+                random(6502 + 1, base * 1),
+                cursor(),
+                random(6502 + 2, base * 2),
+                random(6502 + 3, base * 3),
+                cursor(),
+                random(6502 + 4, base * 4),
+                random(6502 + 5, base * 5),
+                random(6502 + 6, base * 6),
+                random(6502 + 7, base * 7));
+    }
+
     private static void checkMerge(int records, KeyValueCursor... cursors) throws IOException, InterruptedException {
         try (KeyValueMerger merger = merger(cursors)) {
             check(merger, records);
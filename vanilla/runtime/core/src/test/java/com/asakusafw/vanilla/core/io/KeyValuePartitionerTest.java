@@ -137,6 +137,83 @@ public class KeyValuePartitionerTest {
         assertThat(committed(), is(inputs));
     }
 
+    /**
+     * w/ exact partition sizes.
+     * @throws Exception if failed
+     */
+    @Test
+    public void partitioned() throws Exception {
+        KeyValueSink.Stream stream = stream(10);
+        assertThat(stream.getNumberOfPartitions(), is(10));
+        int records = 1_000;
+        int[] recordCounts = new int[10];
+        int[] keySizes = new int[10];
+        int[] valueSizes = new int[10];
+        List<Tuple<Integer, String>> inputs = new ArrayList<>();
+        for (int i = 0; i < records; i++) {
+            ByteBuffer key = Buffers.allocate(Integer.BYTES);
+            key.putInt(i).flip();
+            int partition = stream.getPartition(key);
+            recordCounts[partition]++;
+            keySizes[partition] += Integer.BYTES;
+            valueSizes[partition] += bytes("Hello" + i).length;
+            inputs.add(new Tuple<>(i, "Hello" + i));
+        }
+        try (KeyValueSink sink = stream.offer(recordCounts, keySizes, valueSizes)) {
+            for (Tuple<Integer, String> t : inputs) {
+                put(sink, t.left(), t.right());
+            }
+        }
+        for (MockDataChannel channel : channels) {
+            for (ByteBuffer buffer : channel.getCommitted()) {
+                // exact size
+                assertThat(buffer.remaining(), is(buffer.capacity()));
+            }
+        }
+        assertThat(committed(), is(inputs));
+    }
+
+    /**
+     * w/ partition map.
+     * @throws Exception if failed
+     */
+    @Test
+    public void partition_map() throws Exception {
+        PartitionMap map = new PartitionMap(4, 32);
+        KeyValueSink.Stream stream = KeyValuePartitioner.stream(channels.subList(0, 4), map);
+        assertThat(stream.getNumberOfPartitions(), is(32));
+        int records = 1_000;
+        int[] recordCounts = new int[32];
+        int[] keySizes = new int[32];
+        int[] valueSizes = new int[32];
+        List<Tuple<Integer, String>> inputs = new ArrayList<>();
+        for (int i = 0; i < records; i++) {
+            // skewed
+            int k = i % 2 == 0 ? 0 : i;
+            ByteBuffer key = Buffers.allocate(Integer.BYTES);
+            key.putInt(k).flip();
+            int bucket = stream.getPartition(key);
+            recordCounts[bucket]++;
+            keySizes[bucket] += Integer.BYTES;
+            valueSizes[bucket] += bytes("Hello" + i).length;
+            inputs.add(new Tuple<>(k, "Hello" + i));
+        }
+        assertThat(map.isFixed(), is(false));
+        try (KeyValueSink sink = stream.offer(recordCounts, keySizes, valueSizes)) {
+            for (Tuple<Integer, String> t : inputs) {
+                put(sink, t.left(), t.right());
+            }
+        }
+        assertThat(map.isFixed(), is(true));
+        for (MockDataChannel channel : channels) {
+            for (ByteBuffer buffer : channel.getCommitted()) {
+                // exact size
+                assertThat(buffer.remaining(), is(buffer.capacity()));
+            }
+        }
+        assertThat(committed(), containsInAnyOrder(inputs.toArray()));
+    }
+
     private static void put(KeyValueSink sink, int key, String value) throws IOException, InterruptedException {
         byte[] bytes = bytes(value);
         ByteBuffer kBuf = Buffers.allocate(Integer.BYTES);
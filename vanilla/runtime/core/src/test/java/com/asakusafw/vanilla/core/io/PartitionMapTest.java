@@ -0,0 +1,76 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.vanilla.core.io;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link PartitionMap}.
+ */
+public class PartitionMapTest {
+
+    /**
+     * simple case.
+     */
+    @Test
+    public void simple() {
+        PartitionMap map = new PartitionMap(4, 16);
+        assertThat(map.isFixed(), is(false));
+        int[] counts = new int[4];
+        for (int i = 0; i < 16; i++) {
+            counts[map.getPartition(i)]++;
+        }
+        assertThat(map.isFixed(), is(true));
+        assertThat(counts, is(new int[] { 4, 4, 4, 4 }));
+    }
+
+    /**
+     * w/ skewed buckets.
+     */
+    @Test
+    public void skew() {
+        PartitionMap map = new PartitionMap(4, 16);
+        int[] weights = new int[16];
+        Arrays.fill(weights, 10);
+        weights[3] = 1000;
+        int[] table = map.fix(weights);
+        int hot = table[3];
+        for (int i = 0; i < table.length; i++) {
+            if (i != 3) {
+                assertThat(table[i], is(not(hot)));
+            }
+        }
+    }
+
+    /**
+     * buckets are assigned only once.
+     */
+    @Test
+    public void fixed() {
+        PartitionMap map = new PartitionMap(2, 4);
+        int[] first = map.fix(new int[] { 100, 1, 1, 1 }).clone();
+        int[] second = map.fix(new int[] { 1, 1, 1, 100 });
+        assertThat(second, is(first));
+        for (int i = 0; i < 4; i++) {
+            assertThat(map.getPartition(i), is(first[i]));
+        }
+    }
+}
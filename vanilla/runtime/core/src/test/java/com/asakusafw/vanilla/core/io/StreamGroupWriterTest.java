@@ -18,6 +18,7 @@ package com.asakusafw.vanilla.core.io;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
+import java.io.DataOutput;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -27,8 +28,10 @@ import java.util.function.IntConsumer;
 
 import org.junit.Test;
 
+import com.asakusafw.dag.api.common.KeyValueSerializer;
 import com.asakusafw.lang.utils.common.Lang;
 import com.asakusafw.vanilla.core.testing.ShortPairSerDe;
+import com.asakusafw.vanilla.core.testing.ShortSumSerDe;
 
 /**
  * Test for {@link StreamGroupWriter}.
@@ -173,6 +176,97 @@ public class StreamGroupWriterTest {
         }
     }
 
+    /**
+     * records should be sorted even if their keys have different length.
+     * @throws Exception if failed
+     */
+    @Test
+    public void sorted_key_prefix() throws Exception {
+        Random rnd = new Random(6502);
+        List<byte[]> inputs = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            byte[] key = new byte[rnd.nextInt(8)];
+            for (int j = 0; j < key.length; j++) {
+                // narrow range to make equivalent prefixes
+                key[j] = (byte) (rnd.nextInt(5) - 2 + (rnd.nextBoolean() ? Byte.MIN_VALUE : 0));
+            }
+            inputs.add(key);
+        }
+        List<Integer> results = new ArrayList<>();
+        KeyValueSerializer serializer = new KeyValueSerializer() {
+            @Override
+            public void serializeKey(Object object, DataOutput output) throws IOException {
+                output.write(inputs.get((Integer) object));
+            }
+            @Override
+            public void serializeValue(Object object, DataOutput output) throws IOException {
+                output.writeInt((Integer) object);
+            }
+        };
+        KeyValueSink.Stream stream = (recordCount, keySize, valueSize) -> new KeyValueSink() {
+            @Override
+            public void accept(ByteBuffer key, ByteBuffer value) {
+                results.add(value.getInt());
+            }
+            @Override
+            public boolean accept(ByteBuffer value) {
+                results.add(value.getInt());
+                return true;
+            }
+            @Override
+            public void close() {
+                return;
+            }
+        };
+        try (StreamGroupWriter writer = new StreamGroupWriter(stream, serializer, null, 1_000_000, 100_000)) {
+            for (int i = 0; i < inputs.size(); i++) {
+                writer.putObject(i);
+            }
+        }
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            expected.add(i);
+        }
+        // stable sort
+        expected.sort((a, b) -> ByteBuffer.wrap(inputs.get(a)).compareTo(ByteBuffer.wrap(inputs.get(b))));
+        assertThat(results, is(expected));
+    }
+
+    /**
+     * records with the same key should be combined.
+     * @throws Exception if failed
+     */
+    @Test
+    public void combine() throws Exception {
+        Random rnd = new Random(6502);
+        List<Integer> inputs = new ArrayList<>();
+        int[] sums = new int[10];
+        for (int i = 0; i < 1_000; i++) {
+            int key = rnd.nextInt(sums.length);
+            int value = rnd.nextInt(10);
+            inputs.add((key << Short.SIZE) | value);
+            sums[key] += value;
+        }
+        List<Integer> results = new ArrayList<>();
+        try (StreamGroupWriter writer = new StreamGroupWriter(
+                new MockStream(results::add),
+                new ShortPairSerDe(), ShortPairSerDe.dataComparator(),
+                1_000_000, Util.DEFAULT_BUFFER_MARGIN_SIZE, 300,
+                new KeyValueCombiner(ShortSumSerDe.combiner(), new ShortSumSerDe(), new ShortSumSerDe()),
+                null)) {
+            for (Integer o : inputs) {
+                writer.putObject(o);
+            }
+        }
+        // each page has at most one record for each key
+        assertThat(results.size(), lessThanOrEqualTo(sums.length * 4));
+        int[] actual = new int[sums.length];
+        for (int record : results) {
+            actual[record >> Short.SIZE] += record & 0xffff;
+        }
+        assertThat(actual, is(sums));
+    }
+
     private static List<Integer> sort(List<Integer> values) {
         values.sort(ShortPairSerDe.comparator());
         return values;
@@ -23,6 +23,7 @@ import java.nio.ByteBuffer;
 
 import org.junit.Test;
 
+import com.asakusafw.dag.api.processor.ObjectReader;
 import com.asakusafw.dag.runtime.testing.IntSerDe;
 import com.asakusafw.lang.utils.common.Invariants;
 import com.asakusafw.vanilla.core.util.Buffers;
@@ -126,6 +127,41 @@ public class StreamObjectReaderTest {
         }
     }
 
+    /**
+     * w/ detached fragments.
+     * @throws Exception if failed
+     */
+    @Test
+    public void fragments() throws Exception {
+        int[][] inputs = {
+                { 100, 101 },
+                { 200 },
+                { 300 },
+        };
+        try (FragmentedStreamObjectReader r = new FragmentedStreamObjectReader(stream(inputs), IntSerDe::new)) {
+            try (ObjectReader f = r.nextFragment()) {
+                assertThat(f.nextObject(), is(true));
+                assertThat(f.getObject(), is(100));
+
+                assertThat(f.nextObject(), is(true));
+                assertThat(f.getObject(), is(101));
+
+                assertThat(f.nextObject(), is(false));
+            }
+            assertThat(r.nextObject(), is(true));
+            assertThat(r.getObject(), is(200));
+
+            try (ObjectReader f = r.nextFragment()) {
+                assertThat(f.nextObject(), is(true));
+                assertThat(f.getObject(), is(300));
+
+                assertThat(f.nextObject(), is(false));
+            }
+            assertThat(r.nextObject(), is(false));
+            assertThat(r.nextFragment(), is(nullValue()));
+        }
+    }
+
     private static RecordCursor.Stream stream(int[][] records){
         return new RecordCursor.Stream() {
             private int chunkIndex = 0;
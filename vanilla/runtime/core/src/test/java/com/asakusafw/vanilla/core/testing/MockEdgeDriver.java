@@ -17,13 +17,12 @@ package com.asakusafw.vanilla.core.testing;
 
 import java.io.IOException;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Consumer;
@@ -55,11 +54,11 @@ import com.asakusafw.vanilla.core.engine.VertexExecutor;
  */
 public class MockEdgeDriver implements EdgeDriver {
 
-    private final Map<PortId, Supplier<? extends EdgeReader>> inputs = new LinkedHashMap<>();
+    private final Map<PortId, Supplier<? extends EdgeReader>> inputs = new ConcurrentHashMap<>();
 
-    private final Map<PortId, Supplier<? extends EdgeWriter>> outputs = new LinkedHashMap<>();
+    private final Map<PortId, Supplier<? extends EdgeWriter>> outputs = new ConcurrentHashMap<>();
 
-    private final Map<PortId, Queue<?>> sinks = new HashMap<>();
+    private final Map<PortId, Queue<?>> sinks = new ConcurrentHashMap<>();
 
     /**
      * Adds a non-broadcast input.
@@ -104,7 +104,20 @@ public final class ModelMirrors {
      * @return the created instance
      */
     public static BasicEdgeDescriptor scatterGather(Class<?> serde, Class<?> comparator) {
+        return scatterGather(serde, comparator, null);
+    }
+
+    /**
+     * Creates a new scatter-gather edge descriptor.
+     * @param serde information of supplier which provides {@link KeyValueSerDe}
+     * @param comparator the value comparator (nullable)
+     * @param combiner the value combiner (nullable)
+     * @return the created instance
+     */
+    public static BasicEdgeDescriptor scatterGather(Class<?> serde, Class<?> comparator, Class<?> combiner) {
         return new BasicEdgeDescriptor(Movement.SCATTER_GATHER, supplier(serde), Optionals.of(comparator)
+                .map(ModelMirrors::supplier)
+                .orElse(null), Optionals.of(combiner)
                 .map(ModelMirrors::supplier)
                 .orElse(null));
     }
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2011-2019 Asakusa Framework Team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.asakusafw.vanilla.core.testing;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import com.asakusafw.dag.api.common.KeyValueSerDe;
+import com.asakusafw.dag.api.common.ValueCombiner;
+
+/**
+ * Ser/De {@code int[1]} as short*short pair, which reuses the deserialized objects.
+ */
+public class ShortSumSerDe implements KeyValueSerDe {
+
+    private final int[] buffer = new int[1];
+
+    @Override
+    public void serializeKey(Object object, DataOutput output) throws IOException, InterruptedException {
+        int pair = ((int[]) object)[0];
+        output.writeShort((short) (pair >> Short.SIZE));
+    }
+
+    @Override
+    public void serializeValue(Object object, DataOutput output) throws IOException, InterruptedException {
+        int pair = ((int[]) object)[0];
+        output.writeShort((short) pair);
+    }
+
+    @Override
+    public Object deserializePair(DataInput keyInput, DataInput valueInput) throws IOException, InterruptedException {
+        buffer[0] = (keyInput.readShort() << Short.SIZE) | (valueInput.readShort() & 0xffff);
+        return buffer;
+    }
+
+    /**
+     * Returns a combiner which adds the values.
+     * @return the combiner
+     */
+    public static ValueCombiner<Object> combiner() {
+        return (a, b) -> {
+            int[] left = (int[]) a;
+            int[] right = (int[]) b;
+            left[0] = (left[0] & 0xffff_0000) | ((left[0] + right[0]) & 0xffff);
+        };
+    }
+}